@@ -1,9 +1,27 @@
 package chess;
 
 import chess.controller.ChessGameController;
+import chess.model.journal.GameJournal;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.Logger;
 
 public class Main {
     public static void main(String[] srgs){
-        ChessGameController chessGameController = new ChessGameController();
+        GameJournal gameJournal = null;
+        try {
+            gameJournal = new GameJournal(Paths.get(System.getProperty("chess.journal", "chess.journal")));
+            final GameJournal openedGameJournal = gameJournal;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    openedGameJournal.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        } catch (IOException e) {
+            Logger.getLogger(Main.class.getName()).warning("Playing without a journal: " + e.getMessage());
+        }
+        ChessGameController chessGameController = new ChessGameController(gameJournal);
     }
 }
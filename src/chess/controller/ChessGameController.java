@@ -2,9 +2,12 @@ package chess.controller;
 
 import chess.model.chessBoard.ChessBoard;
 import chess.model.chessPiece.ChessPiece;
+import chess.model.journal.GameJournal;
 import chess.view.ChessGameGUI;
 
 import java.awt.*;
+import java.io.IOException;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -22,13 +25,27 @@ public class ChessGameController {
     private boolean newGameRequested = false;
     private int topPlayerPoints = 0;
     private int bottomPlayerPoints = 0;
+    private GameJournal gameJournal;
+    private int gameId;
 
     /**
      * Constructor for the ChessGameController
      */
     public ChessGameController() {
-        chessBoard = new ChessBoard(0);
+        this(null);
+    }
+
+    /**
+     * Constructor for the ChessGameController that journals the game, so it can be resumed after the process died.
+     * The last game in progress in the GameJournal and the points of the players are recovered from it.
+     * @param gameJournal GameJournal to recover from and append to, null to play without one
+     */
+    public ChessGameController(GameJournal gameJournal) {
+        this.gameJournal = gameJournal;
+        chessBoard = recoverChessBoard();
         chessGameGUI = new ChessGameGUI(chessBoard, this);
+        chessGameGUI.setTopPlayerPoints(topPlayerPoints);
+        chessGameGUI.setBottomPlayerPoints(bottomPlayerPoints);
         chessGameGUI.setTurnLabelText(chessBoard.getCurrentTurnsColor() + "'s turn.");
         chessGameGUI.setNextMoveInfoLabelText("Select a chess piece to move.");
 
@@ -51,6 +68,8 @@ public class ChessGameController {
             setSelectedChessCellRank(rank);
             setSelectedChessCellFile(file);
             if (moveSuccessful) {
+                journal(() -> gameJournal.appendMovement(gameId, previouslySelectedChessCellRank,
+                        previouslySelectedChessCellFile, rank, file));
                 chessGameGUI.setPreviousMoveInfoLabelText("Successfully moved to rank " + rank + " file " + file + ".");
                 chessGameGUI.setChessCellBorder(rank, file, Color.GREEN);
                 chessGameGUI.updateChessPieces();
@@ -96,7 +115,9 @@ public class ChessGameController {
     public void undoButtonClicked(){
         chessGameGUI.setChessCellBorder(selectedChessCellRank, selectedChessCellFile, Color.GRAY);
         chessGameGUI.setChessCellBorder(previouslySelectedChessCellRank, previouslySelectedChessCellFile, Color.GRAY);
-        chessBoard.undoMovement();
+        if (chessBoard.undoMovement()) {
+            journal(() -> gameJournal.appendUndo(gameId));
+        }
         chessGameGUI.updateChessPieces();
         chessGameGUI.setPreviousMoveInfoLabelText("Undid previous move.");
         chessGameGUI.setTurnLabelText(chessBoard.getCurrentTurnsColor() + "'s turn.");
@@ -107,7 +128,9 @@ public class ChessGameController {
      * Tries to redo a move after the undoButton is clicked.
      */
     public void redoButtonClicked(){
-        chessBoard.redoMovement();
+        if (chessBoard.redoMovement()) {
+            journal(() -> gameJournal.appendRedo(gameId));
+        }
         chessGameGUI.updateChessPieces();
         chessGameGUI.setPreviousMoveInfoLabelText("Redid previous move.");
         chessGameGUI.setTurnLabelText(chessBoard.getCurrentTurnsColor() + "'s turn.");
@@ -130,6 +153,7 @@ public class ChessGameController {
             addBottomPlayerPoints(1);
             chessGameGUI.setTopPlayerPoints(topPlayerPoints);
             chessGameGUI.setBottomPlayerPoints(bottomPlayerPoints);
+            journalNewGame(mode);
         } else {
             chessGameGUI.setStartGameButtonText("Confirm Tie");
         }
@@ -149,26 +173,98 @@ public class ChessGameController {
         chessGameGUI.setTopPlayerPoints(topPlayerPoints);
         chessGameGUI.setBottomPlayerPoints(bottomPlayerPoints);
         chessBoard = new ChessBoard(mode);
+        journalNewGame(mode);
         chessGameGUI.setPreviousMoveInfoLabelText(chessBoard.getCurrentTurnsColor() + " resigned");
         chessGameGUI.setChessBoard(chessBoard);
         chessGameGUI.setTurnLabelText(chessBoard.getCurrentTurnsColor() + "'s turn.");
         chessGameGUI.setNextMoveInfoLabelText("Select a chess piece to move.");
     }
 
+    /**
+     * Recovers the last game in progress and the points of the players from the GameJournal.
+     * Older games still in progress are ended, since only one game is played at a time.
+     * @return ChessBoard of the recovered game, or of a new game if there is none
+     */
+    private ChessBoard recoverChessBoard() {
+        if (gameJournal != null) {
+            try {
+                Map<Integer, ChessBoard> chessBoards = gameJournal.recoverGames();
+                topPlayerPoints = gameJournal.getTopPlayerPoints();
+                bottomPlayerPoints = gameJournal.getBottomPlayerPoints();
+                ChessBoard recoveredChessBoard = null;
+                for (Map.Entry<Integer, ChessBoard> entry : chessBoards.entrySet()) {
+                    if (recoveredChessBoard != null) {
+                        gameJournal.endGame(gameId);
+                    }
+                    gameId = entry.getKey();
+                    recoveredChessBoard = entry.getValue();
+                }
+                if (recoveredChessBoard != null) {
+                    logger.info("Recovered game " + gameId + " after " + recoveredChessBoard.getPly() + " movements");
+                    return recoveredChessBoard;
+                }
+            } catch (IOException e) {
+                logger.warning("Could not recover the journaled games: " + e.getMessage());
+            }
+        }
+        journal(() -> gameId = gameJournal.startGame(0));
+        return new ChessBoard(0);
+    }
+
+    /**
+     * Ends the current game in the GameJournal and starts a new one with the points of the players.
+     * @param mode of the new game
+     */
+    private void journalNewGame(int mode) {
+        journal(() -> {
+            gameJournal.endGame(gameId);
+            gameJournal.appendPoints(topPlayerPoints, bottomPlayerPoints);
+            gameId = gameJournal.startGame(mode);
+        });
+    }
+
+    /**
+     * Appends to the GameJournal if there is one. The game goes on without it if it cannot be appended to.
+     * @param journalEntry JournalEntry that appends the records
+     */
+    private void journal(JournalEntry journalEntry) {
+        if (gameJournal == null) {
+            return;
+        }
+        try {
+            journalEntry.append();
+        } catch (IOException e) {
+            logger.warning("Stopped journaling the game: " + e.getMessage());
+            gameJournal = null;
+        }
+    }
+
+    /**
+     * Appends records to the GameJournal.
+     */
+    private interface JournalEntry {
+        /**
+         * Appends the records.
+         * @throws IOException if they cannot be appended
+         */
+        void append() throws IOException;
+    }
+
     /**
      * Check if current game has ended i.e. no more valid moves to make.
      * @return true if it is the end of the game.
      */
     public boolean isEndGame(){
-        if(chessBoard.isStalemate()){
+        ChessBoard.GameStatus gameStatus = chessBoard.getGameStatus();
+        if(gameStatus == ChessBoard.GameStatus.STALEMATE){
             chessGameGUI.clearNextMoveInfoLabelText();
             chessGameGUI.setTurnLabelText("Stalemate!");
             return true;
-        } else if(chessBoard.isCheckmate()){
+        } else if(gameStatus == ChessBoard.GameStatus.CHECKMATE){
             chessGameGUI.clearNextMoveInfoLabelText();
             chessGameGUI.setTurnLabelText("Checkmate! " + chessBoard.getCurrentTurnsColor().changeColor() + " won!");
             return true;
-        } else if(chessBoard.isCheck()){
+        } else if(gameStatus == ChessBoard.GameStatus.CHECK){
             chessGameGUI.setPreviousMoveInfoLabelText("Check!");
         }
         return false;
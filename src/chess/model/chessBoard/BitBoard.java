@@ -0,0 +1,156 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A BitBoard class that mirrors the ChessPieces of a ChessBoard with at most 64 ChessCells as one long per
+ * ChessPieceType and ChessPieceColor, plus occupancy masks.
+ * Bit (rank * fileSize + file) is set when the corresponding ChessCell holds a matching ChessPiece.
+ */
+class BitBoard {
+    static final int MAX_SQUARES = 64;
+    private static final Map<Integer, long[][]> BETWEEN_MASKS = new ConcurrentHashMap<>();
+
+    private final int rankSize;
+    private final int fileSize;
+    private final long[][] between;
+    private final long[][] pieceBitboards;
+    private final long[] colorBitboards;
+    private long occupied;
+
+    /**
+     * A BitBoard constructor for an empty ChessBoard of the given size.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     */
+    BitBoard(int rankSize, int fileSize) {
+        this.rankSize = rankSize;
+        this.fileSize = fileSize;
+        between = BETWEEN_MASKS.computeIfAbsent((rankSize << 8) | fileSize,
+                key -> createBetweenMasks(rankSize, fileSize));
+        pieceBitboards = new long[ChessPiece.ChessPieceColor.values().length][ChessPiece.ChessPieceType.values().length];
+        colorBitboards = new long[ChessPiece.ChessPieceColor.values().length];
+        occupied = 0L;
+    }
+
+    /**
+     * Checks if a ChessBoard of the given size fits in a BitBoard.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @return true if every ChessCell has its own bit
+     */
+    static boolean supports(int rankSize, int fileSize) {
+        return rankSize > 0 && fileSize > 0 && rankSize * fileSize <= MAX_SQUARES;
+    }
+
+    /**
+     * Converts a rank and a file to the index of its bit.
+     * @param rank int rank position
+     * @param file int file position
+     * @return int index of the bit
+     */
+    int square(int rank, int file) {
+        return rank * fileSize + file;
+    }
+
+    /**
+     * Replaces the ChessPiece recorded on a ChessCell.
+     * @param square int index of the ChessCell
+     * @param oldChessPiece ChessPiece that was on the ChessCell, null if it was empty
+     * @param newChessPiece ChessPiece that will be on the ChessCell, null if it will be empty
+     */
+    void setChessPiece(int square, ChessPiece oldChessPiece, ChessPiece newChessPiece) {
+        long bit = 1L << square;
+        if (oldChessPiece != null) {
+            int color = oldChessPiece.getChessPieceColor().ordinal();
+            pieceBitboards[color][oldChessPiece.getChessPieceType().ordinal()] &= ~bit;
+            colorBitboards[color] &= ~bit;
+            occupied &= ~bit;
+        }
+        if (newChessPiece != null) {
+            int color = newChessPiece.getChessPieceColor().ordinal();
+            pieceBitboards[color][newChessPiece.getChessPieceType().ordinal()] |= bit;
+            colorBitboards[color] |= bit;
+            occupied |= bit;
+        }
+    }
+
+    /**
+     * Getter for the ChessCells occupied by a kind of ChessPiece of one color.
+     * @param chessPieceColor ChessPieceColor of the ChessPieces
+     * @param chessPieceType ChessPieceType of the ChessPieces
+     * @return long mask of the occupied ChessCells
+     */
+    long getPieces(ChessPiece.ChessPieceColor chessPieceColor, ChessPiece.ChessPieceType chessPieceType) {
+        return pieceBitboards[chessPieceColor.ordinal()][chessPieceType.ordinal()];
+    }
+
+    /**
+     * Getter for the ChessCells occupied by one color.
+     * @param chessPieceColor ChessPieceColor of the ChessPieces
+     * @return long mask of the occupied ChessCells
+     */
+    long getPieces(ChessPiece.ChessPieceColor chessPieceColor) {
+        return colorBitboards[chessPieceColor.ordinal()];
+    }
+
+    /**
+     * Getter for the ChessCells occupied by any ChessPiece.
+     * @return long mask of the occupied ChessCells
+     */
+    long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Checks if there are any other ChessPieces strictly between two ChessCells on the same line.
+     * @param from int index of the first ChessCell
+     * @param to int index of the second ChessCell
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return true if there is an obstacle in between
+     */
+    boolean obstacleExists(int from, int to, int emptiedSquare) {
+        long obstacles = between[from][to] & occupied;
+        if (emptiedSquare >= 0) {
+            obstacles &= ~(1L << emptiedSquare);
+        }
+        return obstacles != 0;
+    }
+
+    /**
+     * Creates the masks of the ChessCells strictly between every pair of ChessCells on a rank, a file or a diagonal.
+     * Pairs that are not on a common line get an empty mask.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @return long[from][to] masks
+     */
+    private static long[][] createBetweenMasks(int rankSize, int fileSize) {
+        int squares = rankSize * fileSize;
+        long[][] masks = new long[squares][squares];
+        for (int from = 0; from < squares; from++) {
+            for (int to = 0; to < squares; to++) {
+                int rankDifference = to / fileSize - from / fileSize;
+                int fileDifference = to % fileSize - from % fileSize;
+                if (from == to || (rankDifference != 0 && fileDifference != 0
+                        && Math.abs(rankDifference) != Math.abs(fileDifference))) {
+                    continue;
+                }
+                int rankStep = Integer.signum(rankDifference);
+                int fileStep = Integer.signum(fileDifference);
+                int rank = from / fileSize + rankStep;
+                int file = from % fileSize + fileStep;
+                long mask = 0L;
+                while (rank * fileSize + file != to) {
+                    mask |= 1L << (rank * fileSize + file);
+                    rank += rankStep;
+                    file += fileStep;
+                }
+                masks[from][to] = mask;
+            }
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,55 @@
+package chess.model.chessBoard;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A BoundedCache class that keeps the values built for String keys by every ChessBoard, up to a maximum number of
+ * them, so a cache shared by all ChessBoards does not grow with every MoveVector set and ChessBoard size ever seen.
+ * The value used least recently is dropped first and built again the next time it is needed, so a value has to be
+ * equal to the one built before it for the same key, but not the same object.
+ * @param <V> type of the values
+ */
+class BoundedCache<V> {
+    private final int maxSize;
+    // Keys in the order their values were last used, the least recently used one first.
+    private final Map<String, V> values = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * A BoundedCache constructor.
+     * @param maxSize int maximum number of values kept, at least 1
+     */
+    BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the value of a key, building it if it is not kept, and drops the least recently used value when there
+     * are more than maxSize of them.
+     * @param key String key of the value
+     * @param builder Function building the value of the key
+     * @return V value of the key
+     */
+    synchronized V get(String key, Function<String, V> builder) {
+        final V value = values.computeIfAbsent(key, builder);
+        if (values.size() > maxSize) {
+            final Iterator<String> keys = values.keySet().iterator();
+            keys.next();
+            keys.remove();
+        }
+        return value;
+    }
+
+    /**
+     * Getter for the number of values kept.
+     * @return int number of values
+     */
+    synchronized int size() {
+        return values.size();
+    }
+}
@@ -1,13 +1,28 @@
 package chess.model.chessBoard;
 
 import chess.model.chessBoard.utils.ChessMovement;
+import chess.model.chessBoard.utils.MovementTimeline;
+import chess.model.chessBoard.utils.PositionCheckpoint;
 import chess.model.chessPiece.*;
 import chess.model.chessPiece.ChessPiece;
 
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 import java.util.logging.Logger;
 
 /**
@@ -17,14 +32,47 @@ public class ChessBoard {
     private Logger logger = Logger.getLogger(this.getClass().getName());
     private int DEFAULT_RANK_SIZE = 8;
     private int DEFAULT_FILE_SIZE = 8;
+    private static final long SPARSE_SQUARE_COUNT = 64 * 64;
+    private static final int DEFAULT_PARALLEL_CHESS_PIECE_COUNT = 256;
+    private static final int PARALLEL_BATCH_SIZE = 16;
+    private static final int PARALLEL_PERFT_DEPTH = 3;
+    private static final int CHECKPOINT_INTERVAL = 16;
     private final int rankSize;
     private final int fileSize;
+    private final boolean isSparse;
     private ChessCell[][] chessCells;
-    private Deque<ChessMovement> chessMovements;
-    private Deque<ChessMovement> chessUndoneMovements;
+    private SquareMap<ChessCell> sparseChessCells;
+    private SquareMap<ChessPiece> sparseChessPieces;
+    private LineIndex lineIndex;
+    private Mailbox mailbox;
+    private BitBoard bitBoard;
+    private SlidingAttacks slidingAttacks;
+    private MovableCellsTracker movableCellsTracker;
+    private Map<ChessPiece.ChessPieceColor, SquareList> chessPieceSquares;
+    private Map<ChessPiece.ChessPieceColor, SquareList> kingSquares;
+    private Map<ChessPiece.ChessPieceColor, SuperPiece> superPieces;
+    private int[][] movableSquares;
+    private SquareMap<int[]> sparseMovableSquares;
+    private boolean tracksMovableCellsDependencies = true;
+    private int parallelChessPieceCount = DEFAULT_PARALLEL_CHESS_PIECE_COUNT;
+    private MovementTimeline movementTimeline;
+
+    private final Map<ChessPiece, ChessPieceMoves> chessPieceMovesCache = new IdentityHashMap<>();
+    // Filled again for every position, so updating the movableCells allocates no collections of boxed indices.
+    private final CheckMasks checkMasks = new CheckMasks();
+    private int[] attackingSquares = new int[8];
+    private SquareList filteredSquareList;
+    // ChessPieces copyInto took off this ChessBoard, kept to be reused by later copies.
+    private final List<ChessPiece> spareChessPieces = new ArrayList<>();
 
     private ChessPiece.ChessPieceColor currentTurnsColor;
     private boolean isCheck;
+    private GameStatus gameStatus;
+    private long zobristKey;
+    private long[] zobristContributions;
+    private SquareMap<Long> sparseZobristContributions;
+    private boolean verifiesZobristKey;
+    private volatile ChessBoardSnapshot snapshot;
 
     /**
      * A ChessBoard constructor that creates a default ChessBoard or a custom ChessBoard for the user to edit.
@@ -34,8 +82,8 @@ public class ChessBoard {
         isCheck = false;
         rankSize = DEFAULT_RANK_SIZE;
         fileSize = DEFAULT_FILE_SIZE;
-        chessMovements = new LinkedList<>();
-        chessUndoneMovements = new LinkedList<>();
+        isSparse = false;
+        movementTimeline = new MovementTimeline(CHECKPOINT_INTERVAL);
         setUpCells(rankSize, fileSize);
         setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
 
@@ -55,18 +103,36 @@ public class ChessBoard {
                 setUpCustomChessBoard();
                 break;
         }
+        publishSnapshot();
     }
 
     /**
      * A ChessBoard constructor that uses rankSize and fileSize that the user specifies.
+     * ChessBoards of more than 64x64 ChessCells are sparse.
      * @param rankSize int the rankSize user specifies
      * @param fileSize int the fileSize user specifies
      */
     public ChessBoard (int rankSize, int fileSize) {
+        this(rankSize, fileSize, (long) rankSize * fileSize > SPARSE_SQUARE_COUNT);
+    }
+
+    /**
+     * A ChessBoard constructor that uses rankSize and fileSize that the user specifies and chooses the storage.
+     * A sparse ChessBoard only stores the occupied ChessCells and the ChessCells handed out, so memory and move
+     * generation follow the number of ChessPieces instead of the number of ChessCells. It does not track the
+     * ChessCells each ChessPiece depends on.
+     * @param rankSize int the rankSize user specifies
+     * @param fileSize int the fileSize user specifies
+     * @param isSparse true for a sparse ChessBoard
+     */
+    public ChessBoard (int rankSize, int fileSize, boolean isSparse) {
         isCheck = false;
         this.rankSize = rankSize;
         this.fileSize = fileSize;
+        this.isSparse = isSparse;
+        movementTimeline = new MovementTimeline(CHECKPOINT_INTERVAL);
         setUpCells(rankSize, fileSize);
+        publishSnapshot();
     }
 
     /**
@@ -81,11 +147,12 @@ public class ChessBoard {
         if(isEndGame()){
             return false;
         }
+        final boolean wasCheck = isCheck;
         isCheck = false;
+        invalidateGameStatus();
 
         ChessCell chessCell = getChessCell(currentRank, currentFile);
         ChessPiece chessPiece = chessCell.getChessPiece();
-        ChessPiece destinationChessPiece;
 
         if (chessPiece == null){
             logger.info("No ChessPiece on this cell.");
@@ -98,47 +165,13 @@ public class ChessBoard {
         }
 
         if(isValidMove(chessCell, newRank, newFile)){
-            if(chessUndoneMovements.size() != 0){
-                chessUndoneMovements = new LinkedList<>();
-            }
-
-            if(chessPiece.hasInitialMove()){
-                Pawn pawn = (Pawn)chessPiece;
-                pawn.incrementMoveCount();
-            }
-            if(chessPiece.isInitialMove()){
-                chessPiece.setInitialMove(false);
-            }
-            destinationChessPiece = getChessPiece(newRank, newFile);
-            if(destinationChessPiece != null && chessPiece instanceof MovementChanging){
-                ((MovementChanging) chessPiece).updateMoveVectorSet(destinationChessPiece.getMoveVectorSet());
-            }
-
-            setCurrentTurnsColor(currentTurnsColor.changeColor());
-
-            //Decrement hit point if Tank can still endure an enemies attack.
-            if(destinationChessPiece instanceof Tank && ((Tank) destinationChessPiece).getHitPoint() > 1){
-                logger.info("You hit a tank!");
-                ((Tank) destinationChessPiece).hit();
-                //Attacking ChessPiece will move to a cell next to the tank unless it's a canJumpOver ChessPiece in which case the ChessPiece will just move back to its original cell.
-                if (!(chessPiece instanceof Knight)) {
-                    unsetChessPiece(currentRank, currentFile);
-                    int rankDifference = newRank - currentRank;
-                    int fileDifference = newFile - currentFile;
-                    int oneRankBeforeNew, oneFileBeforeNew;
-                    if (rankDifference != 0) oneRankBeforeNew = newRank - (rankDifference/Math.abs(rankDifference));
-                    else oneRankBeforeNew = newRank;
-                    if (fileDifference != 0) oneFileBeforeNew = newFile - (fileDifference/Math.abs(fileDifference));
-                    else oneFileBeforeNew = newFile;
-                    setChessPiece(chessPiece, oneRankBeforeNew, oneFileBeforeNew);
-                }
-                return true;
-            }
-
-            logger.info("Moving a ChessPiece from rank " + currentRank + " file " + currentFile + " to rank " + newRank + " file " + newFile);
-            unsetChessPiece(currentRank, currentFile);
-            setChessPiece(chessPiece, newRank, newFile);
-            chessMovements.addFirst(new ChessMovement(currentRank, currentFile, newRank, newFile, destinationChessPiece));
+            addCheckpoint();
+            ChessMovement chessMovement = new ChessMovement(currentRank, currentFile, newRank, newFile,
+                    chessPiece, getChessPiece(newRank, newFile), wasCheck);
+            makeMovement(chessMovement);
+            movementTimeline.add(chessMovement);
+            addCheckpoint();
+            publishSnapshot();
             return true;
         }
         else {
@@ -146,232 +179,1892 @@ public class ChessBoard {
         }
     }
 
+    /**
+     * Makes a movement that was checked to be valid. Redoing makes it the same way from the state it was recorded
+     * in, so it ends in the same position.
+     * @param chessMovement ChessMovement recorded before the movement
+     */
+    private void makeMovement(ChessMovement chessMovement){
+        playMovement(chessMovement);
+        updateMovableCells();
+    }
+
+    /**
+     * Makes a movement without updating the movableCells, so several movements can be made with one update after
+     * the last one.
+     * @param chessMovement ChessMovement recorded before the movement
+     */
+    private void playMovement(ChessMovement chessMovement){
+        final int currentRank = chessMovement.getOldRank();
+        final int currentFile = chessMovement.getOldFile();
+        final int newRank = chessMovement.getNewRank();
+        final int newFile = chessMovement.getNewFile();
+        final ChessPiece chessPiece = chessMovement.getMovedChessPiece();
+        final ChessPiece destinationChessPiece = chessMovement.getCapturedChessPiece();
+        isCheck = false;
+        invalidateGameStatus();
+
+        if(chessPiece.hasInitialMove()){
+            Pawn pawn = (Pawn)chessPiece;
+            pawn.incrementMoveCount();
+        }
+        if(chessPiece.isInitialMove()){
+            chessPiece.setInitialMove(false);
+        }
+        if(destinationChessPiece != null && chessPiece instanceof MovementChanging){
+            ((MovementChanging) chessPiece).updateMoveVectorSet(destinationChessPiece.getMoveVectorSet());
+        }
+
+        // The moving ChessPiece may have lost its initial move, and a Kirby changes its own MoveVectors and the
+        // flags of the ones it absorbs, before either ChessCell is set again.
+        refreshZobristContribution(currentRank * fileSize + currentFile);
+        refreshZobristContribution(newRank * fileSize + newFile);
+        changeCurrentTurnsColor(currentTurnsColor.changeColor());
+
+        //Decrement hit point if Tank can still endure an enemies attack.
+        if(chessMovement.isTankHit()){
+            logger.fine("You hit a tank!");
+            ((Tank) destinationChessPiece).hit();
+            refreshZobristContribution(newRank * fileSize + newFile);
+            verifyZobristKey();
+        } else {
+            logger.fine(() -> "Moving a ChessPiece from rank " + currentRank + " file " + currentFile + " to rank " + newRank + " file " + newFile);
+        }
+        //Attacking ChessPiece will move to a cell next to the tank unless it's a canJumpOver ChessPiece in which case the ChessPiece will just move back to its original cell.
+        unsetChessPiece(currentRank, currentFile);
+        putChessPiece(chessPiece, chessMovement.getLandingRank(), chessMovement.getLandingFile());
+    }
+
+    /**
+     * Takes back a movement: the ChessPieces get the state the ChessMovement recorded before it, are put back on
+     * their ChessCells without updating the movableCells in between, and the movableCells are updated once.
+     * @param chessMovement ChessMovement of the most recent movement
+     */
+    private void unmakeMovement(ChessMovement chessMovement){
+        takeBackMovement(chessMovement);
+        updateMovableCells();
+        isCheck = chessMovement.isCheck();
+        invalidateGameStatus();
+    }
+
+    /**
+     * Takes back a movement without updating the movableCells, so several movements can be taken back with one
+     * update after the last one.
+     * @param chessMovement ChessMovement of the most recent movement
+     */
+    private void takeBackMovement(ChessMovement chessMovement){
+        chessMovement.restoreChessPieces();
+        // The restored ChessPieces still stand where the movement left them until they are set again.
+        refreshZobristContribution(chessMovement.getLandingRank() * fileSize + chessMovement.getLandingFile());
+        refreshZobristContribution(chessMovement.getNewRank() * fileSize + chessMovement.getNewFile());
+        unsetChessPiece(chessMovement.getLandingRank(), chessMovement.getLandingFile());
+        putChessPiece(chessMovement.getCapturedChessPiece(), chessMovement.getNewRank(), chessMovement.getNewFile());
+        putChessPiece(chessMovement.getMovedChessPiece(), chessMovement.getOldRank(), chessMovement.getOldFile());
+        changeCurrentTurnsColor(currentTurnsColor.changeColor());
+    }
+
+    /**
+     * Attempts a movement packed by generateMoves.
+     * @param move int packed movement
+     * @return true if successful movement of the ChessPiece, false otherwise.
+     */
+    public boolean moveChessPiece(int move){
+        final int from = MoveBuffer.getFrom(move);
+        final int to = MoveBuffer.getTo(move);
+        return moveChessPiece(from / fileSize, from % fileSize, to / fileSize, to % fileSize);
+    }
+
+    /**
+     * Writes the movements of the current turn into a MoveBuffer, which is cleared first.
+     * The movements are the movableCells of the ChessPieces of the current turn, read from the ChessCell indices kept
+     * next to them, so a reused MoveBuffer generates them without allocating.
+     * @param moveBuffer MoveBuffer the packed movements are written to
+     * @return int number of movements
+     */
+    public int generateMoves(MoveBuffer moveBuffer){
+        moveBuffer.clear();
+        if (currentTurnsColor == null){
+            return 0;
+        }
+        if (rankSize * fileSize > MoveBuffer.MAX_SQUARE_COUNT){
+            logger.info("ChessBoard is too large for packed movements");
+            return 0;
+        }
+        final SquareList squares = chessPieceSquares.get(currentTurnsColor);
+        for (int index = 0; index < squares.size(); index++){
+            final int from = squares.get(index);
+            final int flags = getChessPieceOn(from).isInitialMove() ? MoveBuffer.INITIAL_MOVE : 0;
+            for (int to : getMovableSquares(from)){
+                final ChessPiece destinationChessPiece = getChessPieceOn(to);
+                int moveFlags = flags;
+                if (destinationChessPiece != null){
+                    moveFlags |= MoveBuffer.CAPTURE;
+                    if (destinationChessPiece instanceof Tank && ((Tank) destinationChessPiece).getHitPoint() > 1){
+                        moveFlags |= MoveBuffer.TANK_HIT;
+                    }
+                }
+                moveBuffer.add(MoveBuffer.encode(from, to, moveFlags));
+            }
+        }
+        return moveBuffer.size();
+    }
+
     /**
      * Undoes a previous movement.
      * @return true if there was a previous movement
      */
     public boolean undoMovement(){
-        if (chessMovements.size() == 0){
+        ChessMovement mostRecentMovement = movementTimeline.undo();
+        if (mostRecentMovement == null){
+            return false;
+        }
+
+        unmakeMovement(mostRecentMovement);
+        publishSnapshot();
+
+        return true;
+    }
+
+    /**
+     * Redoes a previously undone movement.
+     * @return true if there was an undone movement
+     */
+    public boolean redoMovement(){
+        ChessMovement mostRecentMovement = movementTimeline.redo();
+        if (mostRecentMovement == null){
+            return false;
+        }
+
+        makeMovement(mostRecentMovement);
+        addCheckpoint();
+        publishSnapshot();
+
+        return true;
+    }
+
+    /**
+     * Goes to the position after a number of movements of the game, undoing or redoing movements.
+     * A position far from the current one is reached from the nearest PositionCheckpoint before it, one is kept every
+     * CHECKPOINT_INTERVAL movements, and the movableCells are updated once at the end instead of after every movement.
+     * After a ChessPiece was set by hand, positions before it are reached by undoing movements one by one.
+     * @param ply int number of movements from the start of the game, not above getMovementCount
+     * @return true if the ply is part of the game
+     */
+    public boolean seek(int ply){
+        if (ply == movementTimeline.getPly()){
+            return true;
+        }
+        if (!replaySeek(ply)){
+            return false;
+        }
+        finishReplay();
+        return true;
+    }
+
+    /**
+     * Makes a movement again while a game is replayed, such as one read back from a GameJournal, without updating
+     * the movableCells. The movement is checked on its own with isReachable and the CheckMasks, so replaying a game
+     * costs one movableCells update at the end instead of one per movement. finishReplay has to be called after the
+     * last replayed movement, before the ChessBoard is used otherwise.
+     * @param currentRank int rank of the ChessPiece to move
+     * @param currentFile int file of the ChessPiece to move
+     * @param newRank int rank to move the ChessPiece to
+     * @param newFile int file to move the ChessPiece to
+     * @return true if the movement was made
+     */
+    public boolean replayMovement(int currentRank, int currentFile, int newRank, int newFile){
+        if (currentTurnsColor == null || currentRank < 0 || currentRank >= rankSize || currentFile < 0
+                || currentFile >= fileSize || newRank < 0 || newRank >= rankSize || newFile < 0 || newFile >= fileSize){
             return false;
         }
+        final int from = currentRank * fileSize + currentFile;
+        final int to = newRank * fileSize + newFile;
+        final ChessPiece chessPiece = getChessPieceOn(from);
+        if (chessPiece == null || chessPiece.getChessPieceColor() != currentTurnsColor){
+            return false;
+        }
+        final CheckMasks checkMasks = getCheckMasks();
+        if (!isReachable(chessPiece, from, to) || !isLegalMovement(checkMasks, from, to, chessPiece instanceof King)){
+            return false;
+        }
+        addCheckpoint();
+        // After legal movements, the ChessBoard is in check exactly when a King of the current turn is.
+        final ChessMovement chessMovement = new ChessMovement(currentRank, currentFile, newRank, newFile,
+                chessPiece, getChessPieceOn(to), checkMasks.checkCount > 0);
+        playMovement(chessMovement);
+        movementTimeline.add(chessMovement);
+        addCheckpoint();
+        return true;
+    }
+
+    /**
+     * Goes to another ply of the game while it is replayed, like seek but without updating the movableCells.
+     * Undoing and redoing a movement are a replaySeek to the ply before and after the current one.
+     * @param ply int number of movements from the start of the game, not above getMovementCount
+     * @return true if the ply is part of the game
+     */
+    public boolean replaySeek(int ply){
+        if (ply < 0 || ply > movementTimeline.size()){
+            return false;
+        }
+        final int currentPly = movementTimeline.getPly();
+        final PositionCheckpoint checkpoint = movementTimeline.getCheckpoint(ply);
+        if (checkpoint != null && ply - checkpoint.getPly() < Math.abs(ply - currentPly)){
+            restoreCheckpoint(checkpoint);
+            movementTimeline.setPly(checkpoint.getPly());
+        }
+        while (movementTimeline.getPly() > ply){
+            takeBackMovement(movementTimeline.undo());
+        }
+        while (movementTimeline.getPly() < ply){
+            playMovement(movementTimeline.redo());
+        }
+        return true;
+    }
+
+    /**
+     * Updates the movableCells once after movements were made by replayMovement and replaySeek or by seek, and
+     * publishes the position they reached.
+     */
+    public void finishReplay(){
+        isCheck = false;
+        updateMovableCells();
+        invalidateGameStatus();
+        verifyZobristKey();
+        addCheckpoint();
+        publishSnapshot();
+    }
+
+    /**
+     * Getter for the number of movements made from the start of the game to the current position.
+     * @return int ply of the current position
+     */
+    public int getPly(){
+        return movementTimeline.getPly();
+    }
+
+    /**
+     * Getter for the number of movements of the game, including the ones that were undone and can be redone.
+     * @return int number of movements
+     */
+    public int getMovementCount(){
+        return movementTimeline.size();
+    }
+
+    /**
+     * Takes a PositionCheckpoint of the current position if the MovementTimeline needs one at its ply.
+     */
+    private void addCheckpoint(){
+        if (!movementTimeline.needsCheckpoint()){
+            return;
+        }
+        final int[] squares = new int[getChessPieceCount()];
+        int count = 0;
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                squares[count++] = square;
+            }
+        }
+        Arrays.sort(squares);
+        final ChessPiece[] chessPieces = new ChessPiece[squares.length];
+        for (int index = 0; index < squares.length; index++){
+            chessPieces[index] = getChessPieceOn(squares[index]);
+        }
+        final List<ChessPiece> capturedChessPieces = new ArrayList<>();
+        for (int index = 0; index < movementTimeline.getPly(); index++){
+            final ChessMovement chessMovement = movementTimeline.get(index);
+            if (chessMovement.getCapturedChessPiece() != null && !chessMovement.isTankHit()){
+                capturedChessPieces.add(chessMovement.getCapturedChessPiece());
+            }
+        }
+        movementTimeline.addCheckpoint(new PositionCheckpoint(movementTimeline.getPly(), currentTurnsColor, squares,
+                chessPieces, capturedChessPieces));
+    }
+
+    /**
+     * Puts back the position of a PositionCheckpoint without updating the movableCells. Only the ChessCells whose
+     * ChessPiece or its state differ are set again, so the movableCells update only processes what changed.
+     * @param checkpoint PositionCheckpoint of the position
+     */
+    private void restoreCheckpoint(PositionCheckpoint checkpoint){
+        // The state of the ChessPieces on the ChessBoard before it is restored, to tell which ones it changes.
+        final int[] squares = new int[getChessPieceCount()];
+        int count = 0;
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                squares[count++] = square;
+            }
+        }
+        final boolean[] isInitialMoves = new boolean[squares.length];
+        final int[] counts = new int[squares.length];
+        final MoveProgram[] movePrograms = new MoveProgram[squares.length];
+        for (int index = 0; index < squares.length; index++){
+            final ChessPiece chessPiece = getChessPieceOn(squares[index]);
+            isInitialMoves[index] = chessPiece.isInitialMove();
+            counts[index] = getCount(chessPiece);
+            movePrograms[index] = getCachedMoveProgram(chessPiece);
+        }
+
+        checkpoint.restoreChessPieces();
+        for (int index = 0; index < squares.length; index++){
+            final int square = squares[index];
+            final ChessPiece chessPiece = getChessPieceOn(square);
+            if (checkpoint.getChessPieceOn(square) == null){
+                restoreChessPiece(null, square);
+            } else if (checkpoint.getChessPieceOn(square) == chessPiece
+                    && (isInitialMoves[index] != chessPiece.isInitialMove() || counts[index] != getCount(chessPiece)
+                    || movePrograms[index] != getChessPieceMoves(chessPiece).moveProgram)){
+                // The ChessPiece stays, but the ChessCell is set again for its restored state.
+                setRestoredChessPiece(chessPiece, square);
+            }
+        }
+        for (int index = 0; index < checkpoint.getChessPieceCount(); index++){
+            restoreChessPiece(checkpoint.getChessPiece(index), checkpoint.getSquare(index));
+        }
+        changeCurrentTurnsColor(checkpoint.getCurrentTurnsColor());
+    }
+
+    /**
+     * Puts a ChessPiece of a PositionCheckpoint on its ChessCell unless it is already there.
+     * @param chessPiece ChessPiece of the PositionCheckpoint, null to empty the ChessCell
+     * @param square int index of the ChessCell
+     */
+    private void restoreChessPiece(ChessPiece chessPiece, int square){
+        if (getChessPieceOn(square) != chessPiece){
+            setRestoredChessPiece(chessPiece, square);
+        }
+    }
 
-        ChessMovement mostRecentMovement = chessMovements.removeFirst();
-        chessUndoneMovements.addFirst(mostRecentMovement);
-        int newRank = mostRecentMovement.getNewRank();
-        int newFile = mostRecentMovement.getNewFile();
-        int oldRank = mostRecentMovement.getOldRank();
-        int oldFile = mostRecentMovement.getOldFile();
+    /**
+     * Sets a ChessCell while a PositionCheckpoint is restored, recording it for the next movableCells update.
+     * The Zobrist key is only verified once every ChessCell is restored, since ChessPieces whose state was restored
+     * may still stand on other ChessCells until then.
+     * @param chessPiece ChessPiece of the PositionCheckpoint, null to empty the ChessCell
+     * @param square int index of the ChessCell
+     */
+    private void setRestoredChessPiece(ChessPiece chessPiece, int square){
+        if (tracksMovableCellsDependencies){
+            movableCellsTracker.setChessPiece(square);
+        }
+        placeChessPiece(chessPiece, square / fileSize, square % fileSize);
+        refreshZobristContribution(square);
+    }
 
-        ChessPiece movedChessPiece = getChessPiece(newRank, newFile);
-        ChessPiece capturedChessPiece = mostRecentMovement.getCapturedChessPiece();
+    /**
+     * Getter for the part of the state of a ChessPiece that is a number.
+     * @param chessPiece ChessPiece whose state is needed
+     * @return int move count of a Pawn or hit points of a Tank, 0 for the other ChessPieces
+     */
+    private static int getCount(ChessPiece chessPiece){
+        if (chessPiece instanceof Pawn){
+            return ((Pawn) chessPiece).getMoveCount();
+        }
+        return chessPiece instanceof Tank ? ((Tank) chessPiece).getHitPoint() : 0;
+    }
 
-        if(capturedChessPiece != null){
-            setChessPiece(capturedChessPiece, newRank, newFile);
+    /**
+     * Counts the positions reached by every sequence of movements of a given length, to check move generation
+     * against known counts. The ChessBoard is left as it was.
+     * From PARALLEL_PERFT_DEPTH on, the first movements are split across the cores of the common ForkJoinPool,
+     * each on its own copy of the ChessBoard. The last movements are counted without being made.
+     * @param depth int number of movements, not negative
+     * @return long number of positions
+     */
+    public long perft(int depth){
+        final long startTime = System.nanoTime();
+        long nodes = 0;
+        if (depth < PARALLEL_PERFT_DEPTH){
+            nodes = perft(depth, createMoveBuffers(depth));
         } else {
-            unsetChessPiece(newRank, newFile);
+            for (long movementNodes : divideInParallel(depth).values()){
+                nodes += movementNodes;
+            }
         }
-        setCurrentTurnsColor(getCurrentTurnsColor().changeColor());
+        logPerftSpeed("Perft", depth, nodes, System.nanoTime() - startTime);
+        return nodes;
+    }
 
-        if(movedChessPiece instanceof Pawn){
-            Pawn pawn = (Pawn) movedChessPiece;
-            pawn.decrementMoveCount();
-            if(pawn.getMoveCount() == 0){
-                movedChessPiece.setInitialMove(true);
+    /**
+     * Counts the positions of perft separately for every movement of the current turn. The ChessBoard is left as it
+     * was.
+     * @param depth int number of movements, at least 1
+     * @return Map of the number of positions by packed movement, in the order generateMoves writes them
+     */
+    public Map<Integer, Long> divide(int depth){
+        final long startTime = System.nanoTime();
+        final Map<Integer, Long> divided;
+        if (depth < PARALLEL_PERFT_DEPTH){
+            divided = new LinkedHashMap<>();
+            final MoveBuffer[] moveBuffers = createMoveBuffers(depth);
+            final MoveBuffer moveBuffer = new MoveBuffer();
+            final int moveCount = generateMoves(moveBuffer);
+            for (int index = 0; index < moveCount; index++){
+                final ChessMovement chessMovement = makePerftMovement(moveBuffer.get(index));
+                divided.put(moveBuffer.get(index), perft(depth - 1, moveBuffers));
+                unmakeMovement(chessMovement);
             }
+        } else {
+            divided = divideInParallel(depth);
         }
-        setChessPiece(movedChessPiece, oldRank, oldFile);
+        long nodes = 0;
+        for (long movementNodes : divided.values()){
+            nodes += movementNodes;
+        }
+        logPerftSpeed("Divide", depth, nodes, System.nanoTime() - startTime);
+        return divided;
+    }
 
-        return true;
+    /**
+     * divide with every movement of the current turn counted by a PerftTask on its own copy of the ChessBoard.
+     * Each PerftTask copies the ChessBoard on the worker thread that runs it, into a ChessBoard it borrows from a
+     * queue shared by the PerftTasks of this call only, so the ChessBoard is only read until every PerftTask is done
+     * and the copies are dropped once it returns.
+     * @param depth int number of movements, at least 1
+     * @return Map of the number of positions by packed movement, in the order generateMoves writes them
+     */
+    private Map<Integer, Long> divideInParallel(int depth){
+        final MoveBuffer moveBuffer = new MoveBuffer();
+        final int moveCount = generateMoves(moveBuffer);
+        final Queue<ChessBoard> chessBoards = new ConcurrentLinkedQueue<>();
+        final List<PerftTask> perftTasks = new ArrayList<>();
+        for (int index = 0; index < moveCount; index++){
+            perftTasks.add(new PerftTask(this, chessBoards, moveBuffer.get(index), depth));
+        }
+        for (PerftTask perftTask : perftTasks){
+            ForkJoinPool.commonPool().execute(perftTask);
+        }
+        final Map<Integer, Long> divided = new LinkedHashMap<>();
+        for (PerftTask perftTask : perftTasks){
+            divided.put(perftTask.move, perftTask.join());
+        }
+        return divided;
     }
 
     /**
-     * Redoes a previously undone movement.
-     * @return true if there was an undone movement
+     * Counts the positions of perft by making and unmaking the movements. At the last movement only the number of
+     * movements is taken from generateMoves.
+     * @param depth int number of movements
+     * @param moveBuffers MoveBuffer[] one MoveBuffer for each remaining depth
+     * @return long number of positions
+     */
+    private long perft(int depth, MoveBuffer[] moveBuffers){
+        if (depth == 0){
+            return 1;
+        }
+        final MoveBuffer moveBuffer = moveBuffers[depth - 1];
+        final int moveCount = generateMoves(moveBuffer);
+        if (depth == 1){
+            return moveCount;
+        }
+        long nodes = 0;
+        for (int index = 0; index < moveCount; index++){
+            final ChessMovement chessMovement = makePerftMovement(moveBuffer.get(index));
+            nodes += perft(depth - 1, moveBuffers);
+            unmakeMovement(chessMovement);
+        }
+        return nodes;
+    }
+
+    /**
+     * Creates the MoveBuffers perft reuses at each depth.
+     * @param depth int number of movements
+     * @return MoveBuffer[] one MoveBuffer for each depth
+     */
+    private static MoveBuffer[] createMoveBuffers(int depth){
+        final MoveBuffer[] moveBuffers = new MoveBuffer[Math.max(depth, 0)];
+        for (int index = 0; index < moveBuffers.length; index++){
+            moveBuffers[index] = new MoveBuffer();
+        }
+        return moveBuffers;
+    }
+
+    /**
+     * Logs how many positions perft counted per second.
+     * @param name String name of the count
+     * @param depth int number of movements
+     * @param nodes long number of positions
+     * @param nanoseconds long time the count took
+     */
+    private void logPerftSpeed(String name, int depth, long nodes, long nanoseconds){
+        logger.info(name + " " + depth + ": " + nodes + " nodes in " + nanoseconds / 1_000_000 + " ms, "
+                + (long) (nodes * 1e9 / Math.max(nanoseconds, 1)) + " nodes per second");
+    }
+
+    /**
+     * Makes a packed movement without recording it in the movements to undo and redo.
+     * The movement comes from generateMoves, so the end of the game is not checked for again.
+     * @param move int packed movement from generateMoves
+     * @return ChessMovement to unmake the movement with
+     * @throws IllegalStateException if the movement is not valid
+     */
+    private ChessMovement makePerftMovement(int move){
+        final int from = MoveBuffer.getFrom(move);
+        final int to = MoveBuffer.getTo(move);
+        final ChessCell chessCell = getChessCellOn(from);
+        final ChessPiece chessPiece = chessCell.getChessPiece();
+        if (chessPiece == null || chessPiece.getChessPieceColor() != currentTurnsColor
+                || !isValidMove(chessCell, to / fileSize, to % fileSize)){
+            throw new IllegalStateException("Generated movement from " + from + " to " + to + " could not be made");
+        }
+        final ChessMovement chessMovement = new ChessMovement(from / fileSize, from % fileSize, to / fileSize,
+                to % fileSize, chessPiece, getChessPieceOn(to), isCheck);
+        makeMovement(chessMovement);
+        return chessMovement;
+    }
+
+    /**
+     * Copies the position of this ChessBoard into another ChessBoard of the same size and storage, so a thread can
+     * keep a ChessBoard of its own and search one position after another on it without building a ChessBoard each
+     * time. No ChessPiece of this ChessBoard is shared: the other ChessBoard keeps a ChessPiece of the same kind and
+     * color on the same ChessCell, or reuses one it set aside, and only gives it the state of the ChessPiece here, so
+     * only the ChessCells whose ChessPieces differ are set again. The Zobrist numbers, the movable ChessCell indices
+     * and the dependencies of the ChessCells are copied as arrays, sharing the index arrays, which are never changed.
+     * The movements to undo and redo of the other ChessBoard are dropped. This ChessBoard is only read.
+     * @param chessBoard ChessBoard to copy into
+     * @throws IllegalArgumentException if the ChessBoard is this one or differs in size or storage
+     */
+    public void copyInto(ChessBoard chessBoard){
+        if (chessBoard == this || chessBoard.rankSize != rankSize || chessBoard.fileSize != fileSize
+                || chessBoard.isSparse != isSparse){
+            throw new IllegalArgumentException("Cannot copy a " + rankSize + "x" + fileSize
+                    + (isSparse ? " sparse" : "") + " ChessBoard into another ChessBoard");
+        }
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : chessBoard.getChessPieceSquares(chessPieceColor)){
+                if (getChessPieceOn(square) == null){
+                    chessBoard.spareChessPieces.add(chessBoard.getChessPieceOn(square));
+                    chessBoard.placeChessPiece(null, square / fileSize, square % fileSize);
+                    if (isSparse){
+                        copyChessCellInto(chessBoard, square);
+                    }
+                }
+            }
+        }
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                final ChessPiece chessPiece = getChessPieceOn(square);
+                ChessPiece copiedChessPiece = chessBoard.getChessPieceOn(square);
+                final boolean isReplaced = copiedChessPiece == null
+                        || copiedChessPiece.getChessPieceType() != chessPiece.getChessPieceType()
+                        || copiedChessPiece.getChessPieceColor() != chessPieceColor;
+                if (isReplaced){
+                    if (copiedChessPiece != null){
+                        chessBoard.spareChessPieces.add(copiedChessPiece);
+                    }
+                    copiedChessPiece = chessBoard.takeSpareChessPiece(chessPiece.getChessPieceType(), chessPieceColor);
+                }
+                copiedChessPiece.copyStateFrom(chessPiece);
+                // Equal MoveVectors share one MoveProgram, so they are only copied when a Kirby absorbed or turned on
+                // other ones, when either ChessBoard has not compiled them yet, or when their MoveProgram was dropped
+                // from the shared ones and compiled again in between.
+                final MoveProgram moveProgram = getCachedMoveProgram(chessPiece);
+                if (moveProgram == null || moveProgram != chessBoard.getCachedMoveProgram(copiedChessPiece)){
+                    copiedChessPiece.copyMoveVectorsFrom(chessPiece);
+                }
+                if (isReplaced){
+                    chessBoard.placeChessPiece(copiedChessPiece, square / fileSize, square % fileSize);
+                } else {
+                    // Makes sure the SuperPiece of its color knows the MoveVectors it may have been given.
+                    chessBoard.getChessPieceMoves(copiedChessPiece);
+                }
+                if (isSparse){
+                    copyChessCellInto(chessBoard, square);
+                }
+            }
+        }
+        if (!isSparse){
+            System.arraycopy(zobristContributions, 0, chessBoard.zobristContributions, 0, zobristContributions.length);
+            System.arraycopy(movableSquares, 0, chessBoard.movableSquares, 0, movableSquares.length);
+            for (int square = 0; square < movableSquares.length; square++){
+                copyChessCellInto(chessBoard, square);
+            }
+        }
+        chessBoard.tracksMovableCellsDependencies = tracksMovableCellsDependencies;
+        if (tracksMovableCellsDependencies){
+            movableCellsTracker.copyInto(chessBoard.movableCellsTracker, chessBoard::rebindMovableCells);
+        }
+
+        chessBoard.parallelChessPieceCount = parallelChessPieceCount;
+        chessBoard.currentTurnsColor = currentTurnsColor;
+        chessBoard.isCheck = isCheck;
+        chessBoard.gameStatus = gameStatus;
+        chessBoard.zobristKey = zobristKey;
+        chessBoard.movementTimeline.clear();
+        chessBoard.verifyZobristKey();
+        chessBoard.publishSnapshot();
+    }
+
+    /**
+     * Copies the movableCells of a ChessCell into another ChessBoard, and on a sparse ChessBoard its Zobrist number
+     * and movable ChessCell indices, which dense ChessBoards copy as whole arrays.
+     * @param chessBoard ChessBoard to copy into
+     * @param square int index of the ChessCell
+     */
+    private void copyChessCellInto(ChessBoard chessBoard, int square){
+        if (isSparse){
+            chessBoard.sparseZobristContributions.put(square, sparseZobristContributions.get(square));
+            chessBoard.sparseMovableSquares.put(square, sparseMovableSquares.get(square));
+        }
+        // A sparse ChessCell is not created here, so this ChessBoard stays untouched.
+        final ChessCell chessCell = isSparse ? sparseChessCells.get(square) : getChessCellOn(square);
+        final ChessCell copiedChessCell = chessBoard.getChessCellOn(square);
+        copiedChessCell.setMovableCells(chessBoard.rebindMovableCells(
+                chessCell == null ? Collections.emptySet() : chessCell.getMovableCells(),
+                copiedChessCell.getMovableCells()));
+    }
+
+    /**
+     * Turns the movableCells of another ChessBoard of the same size into movableCells of this ChessBoard.
+     * @param movableCells Set of ChessCells of the other ChessBoard
+     * @param currentMovableCells Set of ChessCells this ChessBoard has now, kept if it holds the same indices
+     * @return Set of ChessCells of this ChessBoard
+     */
+    private Set<ChessCell> rebindMovableCells(Set<ChessCell> movableCells, Set<ChessCell> currentMovableCells){
+        if (movableCells instanceof MovableCellSet){
+            return ((MovableCellSet) movableCells).rebind(this::getChessCellOn, currentMovableCells);
+        }
+        // Only the empty Set a ChessCell starts with is not a MovableCellSet.
+        return movableCells;
+    }
+
+    /**
+     * Takes a ChessPiece of a kind and color copyInto set aside, or creates one if there is none.
+     * @param chessPieceType ChessPieceType of the ChessPiece
+     * @param chessPieceColor ChessPieceColor of the ChessPiece
+     * @return ChessPiece that is not on this ChessBoard
+     */
+    private ChessPiece takeSpareChessPiece(ChessPiece.ChessPieceType chessPieceType,
+                                           ChessPiece.ChessPieceColor chessPieceColor){
+        for (int index = spareChessPieces.size() - 1; index >= 0; index--){
+            final ChessPiece chessPiece = spareChessPieces.get(index);
+            if (chessPiece.getChessPieceType() == chessPieceType && chessPiece.getChessPieceColor() == chessPieceColor){
+                spareChessPieces.set(index, spareChessPieces.get(spareChessPieces.size() - 1));
+                spareChessPieces.remove(spareChessPieces.size() - 1);
+                return chessPiece;
+            }
+        }
+        return ChessPiece.createChessPiece(chessPieceType, chessPieceColor);
+    }
+
+    /**
+     * Writes the position: the size and storage of the ChessBoard, the current turn, whether it is in check and every
+     * ChessPiece with its state, so another process can search the same position.
+     * The movements to undo and redo are not written.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    public void writePosition(DataOutput out) throws IOException {
+        out.writeInt(rankSize);
+        out.writeInt(fileSize);
+        out.writeBoolean(isSparse);
+        out.writeByte(currentTurnsColor == null ? -1 : currentTurnsColor.ordinal());
+        out.writeBoolean(isCheck);
+        out.writeInt(getChessPieceCount());
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                out.writeInt(square);
+                getChessPieceOn(square).write(out);
+            }
+        }
+    }
+
+    /**
+     * Reads a position written by writePosition into a new ChessBoard.
+     * @param in DataInput to read from
+     * @return ChessBoard of the position
+     * @throws IOException if reading fails or the position does not fit its ChessBoard
+     */
+    public static ChessBoard readPosition(DataInput in) throws IOException {
+        return readPosition(in, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads a position written by writePosition into a new ChessBoard, refusing ChessBoards larger than a limit before
+     * they are created.
+     * @param in DataInput to read from
+     * @param maxSquareCount long largest number of ChessCells the ChessBoard may have
+     * @return ChessBoard of the position
+     * @throws IOException if reading fails, the ChessBoard is too large or the position does not fit its ChessBoard
+     */
+    public static ChessBoard readPosition(DataInput in, long maxSquareCount) throws IOException {
+        final int rankSize = in.readInt();
+        final int fileSize = in.readInt();
+        final boolean isSparse = in.readBoolean();
+        if (rankSize <= 0 || fileSize <= 0 || (long) rankSize * fileSize > maxSquareCount){
+            throw new IOException("Invalid ChessBoard size " + rankSize + "x" + fileSize);
+        }
+        final ChessBoard chessBoard = new ChessBoard(rankSize, fileSize, isSparse);
+        final int color = in.readByte();
+        if (color >= ChessPiece.ChessPieceColor.values().length){
+            throw new IOException("Invalid ChessPieceColor " + color);
+        }
+        chessBoard.setCurrentTurnsColor(color < 0 ? null : ChessPiece.ChessPieceColor.values()[color]);
+        final boolean isCheck = in.readBoolean();
+        final int chessPieceCount = in.readInt();
+        for (int index = 0; index < chessPieceCount; index++){
+            final int square = in.readInt();
+            if (square < 0 || (long) square >= (long) rankSize * fileSize){
+                throw new IOException("ChessCell " + square + " is not on a " + rankSize + "x" + fileSize + " ChessBoard");
+            }
+            chessBoard.setChessPiece(ChessPiece.read(in), square / fileSize, square % fileSize, false);
+        }
+        chessBoard.updateMovableCells();
+        chessBoard.isCheck = isCheck;
+        chessBoard.invalidateGameStatus();
+        chessBoard.publishSnapshot();
+        return chessBoard;
+    }
+
+    /**
+     * Replaces the position with one an ExtendedFen parsed: every ChessPiece is taken off and the parsed ChessPieces
+     * are put on without updating the movableCells, which are updated once after the last one.
+     * The movements to undo and redo are dropped.
+     * @param extendedFen ExtendedFen holding the parsed position
+     * @throws IllegalArgumentException if the position differs in size
+     */
+    void loadPosition(ExtendedFen extendedFen){
+        if (extendedFen.getRankSize() != rankSize || extendedFen.getFileSize() != fileSize){
+            throw new IllegalArgumentException("Cannot put a " + extendedFen.getRankSize() + "x"
+                    + extendedFen.getFileSize() + " position on a " + rankSize + "x" + fileSize + " ChessBoard");
+        }
+        movementTimeline.clear();
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                putChessPiece(null, square / fileSize, square % fileSize);
+            }
+        }
+        for (int index = 0; index < extendedFen.getChessPieceCount(); index++){
+            final int square = extendedFen.getSquare(index);
+            putChessPiece(extendedFen.createChessPiece(index), square / fileSize, square % fileSize);
+        }
+        changeCurrentTurnsColor(extendedFen.getCurrentTurnsColor());
+        isCheck = false;
+        updateMovableCells();
+        invalidateGameStatus();
+        publishSnapshot();
+    }
+
+    /**
+     * Lists the ChessCells holding a ChessPiece of either color in ascending order.
+     * @return int[] of ChessCell indices
+     */
+    int[] getOccupiedSquares(){
+        final int[] blackSquares = getChessPieceSquares(ChessPiece.ChessPieceColor.BLACK);
+        final int[] whiteSquares = getChessPieceSquares(ChessPiece.ChessPieceColor.WHITE);
+        final int[] squares = Arrays.copyOf(blackSquares, blackSquares.length + whiteSquares.length);
+        System.arraycopy(whiteSquares, 0, squares, blackSquares.length, whiteSquares.length);
+        Arrays.sort(squares);
+        return squares;
+    }
+
+    /**
+     * Checks if there are no more valid moves for the current player in turn, thus the end of the game.
+     * @return true if no more moves.
+     */
+    private boolean isEndGame(){
+        final GameStatus gameStatus = getGameStatus();
+        return gameStatus == GameStatus.CHECKMATE || gameStatus == GameStatus.STALEMATE;
+    }
+
+    /**
+     * Check if current user is checkmated.
+     * @return true if checkmated.
+     */
+    public boolean isCheckmate(){
+        return getGameStatus() == GameStatus.CHECKMATE;
+    }
+
+    /**
+     * Check if the game is stalemated.
+     * @return true if stalemate.
+     */
+    public boolean isStalemate(){
+        return getGameStatus() == GameStatus.STALEMATE;
+    }
+
+    /**
+     * Getter for the GameStatus of the current position. It is worked out once and kept until the ChessPieces,
+     * the movableCells, the current turn or the check change.
+     * @return GameStatus of the current position
+     */
+    public GameStatus getGameStatus(){
+        if (gameStatus == null){
+            final boolean hasMovableCells = hasMovableCells();
+            if (hasMovableCells){
+                gameStatus = isCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+            } else {
+                gameStatus = isCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+            }
+        }
+        return gameStatus;
+    }
+
+    /**
+     * Forgets the GameStatus after a change of the position.
+     */
+    private void invalidateGameStatus(){
+        gameStatus = null;
+    }
+
+    /**
+     * Checks if any ChessPiece of the current turn has movableCells, looking at the Kings first since they are the
+     * ChessPieces most likely to have some left in a check.
+     * @return true if the current turn has a movableCell
+     */
+    private boolean hasMovableCells(){
+        if (currentTurnsColor == null){
+            return false;
+        }
+        for (int square : getKingSquares(currentTurnsColor)){
+            if (!getChessCellOn(square).getMovableCells().isEmpty()){
+                return true;
+            }
+        }
+        final SquareList squares = chessPieceSquares.get(currentTurnsColor);
+        for (int index = 0; index < squares.size(); index++){
+            if (!getChessCellOn(squares.get(index)).getMovableCells().isEmpty()){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the current turn has any legal movement without using the movableCells, so it also holds for
+     * positions set up without updating them. The search stops at the first legal movement, trying the Kings first
+     * and captures before quiet movements, and filters checks with CheckMasks instead of trying out movements.
+     * @return true if the current turn has a legal movement
+     */
+    public boolean hasAnyLegalMove(){
+        if (currentTurnsColor == null){
+            return false;
+        }
+        final CheckMasks checkMasks = getCheckMasks();
+        final MovableCellsTracker searchTracker = new MovableCellsTracker(0);
+        for (int square : getKingSquares(currentTurnsColor)){
+            if (hasLegalMovement(square, checkMasks, searchTracker)){
+                return true;
+            }
+        }
+        for (int square : getChessPieceSquares(currentTurnsColor)){
+            if (!(getChessPieceOn(square) instanceof King) && hasLegalMovement(square, checkMasks, searchTracker)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the ChessPiece on a ChessCell has a legal movement, trying captures first.
+     * @param square int index of the ChessCell of the ChessPiece
+     * @param checkMasks CheckMasks of the current turn
+     * @param searchTracker MovableCellsTracker the search is recorded in
+     * @return true if the ChessPiece has a legal movement
+     */
+    private boolean hasLegalMovement(int square, CheckMasks checkMasks, MovableCellsTracker searchTracker){
+        final boolean isKing = getChessPieceOn(square) instanceof King;
+        addMovableCells(square / fileSize, square % fileSize, searchTracker);
+        final int[] destinations = searchTracker.getFoundMovableSquares();
+        for (boolean triesCaptures : new boolean[]{true, false}){
+            for (int destination : destinations){
+                if ((getChessPieceOn(destination) != null) == triesCaptures
+                        && isLegalMovement(checkMasks, square, destination, isKing)){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a ChessPiece on a specified ChessCell has any valid move and is on current turn.
+     * @param chessCell to check if there are valid moves.
+     * @return true if there is any valid move.
+     */
+    public boolean canMove(ChessCell chessCell){
+        if(hasValidMoves(chessCell) && currentTurnsColor == chessCell.getChessPiece().getChessPieceColor()){
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a ChessPiece on a specified ChessCell has any valid move.
+     * @param chessCell to check if there are valid moves.
+     * @return true if there is any valid move.
+     */
+    private boolean hasValidMoves(ChessCell chessCell){
+        if (chessCell.getMovableCells().isEmpty()){
+            return false;
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Helper function for moveChessPiece() to determine if
+     * @param chessCell
+     * @param newRank
+     * @param newFile
+     * @return
+     */
+    private boolean isValidMove(ChessCell chessCell, int newRank, int newFile){
+        if(!hasValidMoves(chessCell)){
+            return false;
+        }
+
+        Set<ChessCell> movableCells = chessCell.getMovableCells();
+
+        ChessCell destinationChessCell = getChessCell(newRank, newFile);
+        if (movableCells.contains(destinationChessCell)){
+            logger.fine(() -> "Rank " + newRank + " file " + newFile + " is a valid destination.");
+            return true;
+        } else {
+            logger.fine(() -> "Rank " + newRank + " file " + newFile + " is not a valid destination.");
+            return false;
+        }
+    }
+
+    /**
+     * Sets up cell objects for the ChessBoard.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     */
+    private void setUpCells(int rankSize, int fileSize){
+        chessPieceSquares = new EnumMap<>(ChessPiece.ChessPieceColor.class);
+        kingSquares = new EnumMap<>(ChessPiece.ChessPieceColor.class);
+        superPieces = new EnumMap<>(ChessPiece.ChessPieceColor.class);
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            chessPieceSquares.put(chessPieceColor, isSparse ? new SquareList() : new SquareList(rankSize * fileSize));
+            kingSquares.put(chessPieceColor, isSparse ? new SquareList() : new SquareList(rankSize * fileSize));
+            superPieces.put(chessPieceColor, new SuperPiece());
+        }
+        filteredSquareList = isSparse ? new SquareList() : new SquareList(rankSize * fileSize);
+        if (isSparse){
+            sparseZobristContributions = new SquareMap<>();
+            sparseChessCells = new SquareMap<>();
+            sparseChessPieces = new SquareMap<>();
+            sparseMovableSquares = new SquareMap<>();
+            lineIndex = new LineIndex(rankSize, fileSize, false);
+            // Only the buffers of the search are used, since dependencies are not tracked.
+            movableCellsTracker = new MovableCellsTracker(0);
+            tracksMovableCellsDependencies = false;
+            return;
+        }
+        chessCells = new ChessCell[rankSize][fileSize];
+        zobristContributions = new long[rankSize * fileSize];
+        mailbox = new Mailbox(rankSize, fileSize);
+        bitBoard = BitBoard.supports(rankSize, fileSize) ? new BitBoard(rankSize, fileSize) : null;
+        // Larger dense ChessBoards find blockers with a bitset per rank, file and diagonal.
+        lineIndex = bitBoard == null ? new LineIndex(rankSize, fileSize, true) : null;
+        slidingAttacks = SlidingAttacks.get(rankSize, fileSize);
+        movableCellsTracker = new MovableCellsTracker(rankSize * fileSize);
+        movableSquares = new int[rankSize * fileSize][];
+        Arrays.fill(movableSquares, new int[0]);
+        for (int rank = 0; rank < rankSize; rank++){
+            for (int file = 0; file < fileSize; file++){
+                setChessCell(new ChessCell(null, rank * fileSize + file), rank, file);
+            }
+        }
+    }
+
+    /**
+     * Processes all the possible moves of a ChessPiece and filters out invalid moves.
+     * Valid moves will be stored in a HashSet member of a ChessCell.
+     */
+    private void setAllMovableCells(){
+        final CheckMasks checkMasks = getCheckMasks();
+        if (getChessPieceCount() >= parallelChessPieceCount){
+            setAllMovableCellsInParallel(checkMasks);
+        } else {
+            for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+                for (int square : getChessPieceSquares(chessPieceColor)){
+                    setMovableCells(square, checkMasks);
+                }
+            }
+        }
+        if (kingCanBeCaptured(checkMasks)){
+            logger.fine("Check!");
+            isCheck = true;
+            invalidateGameStatus();
+        }
+    }
+
+    /**
+     * setAllMovableCells with the ChessPieces split across the cores of the common ForkJoinPool.
+     * The workers leave the ChessBoard untouched: each one searches with its own MovableCellsTracker and filters
+     * checks with the CheckMasks computed once beforehand. The movableCells are then set on the ChessCells by the
+     * calling thread, since a sparse ChessBoard creates its ChessCells when they are first needed.
+     * @param checkMasks CheckMasks of the current turn
+     */
+    private void setAllMovableCellsInParallel(CheckMasks checkMasks){
+        final int[] blackSquares = getChessPieceSquares(ChessPiece.ChessPieceColor.BLACK);
+        final int[] whiteSquares = getChessPieceSquares(ChessPiece.ChessPieceColor.WHITE);
+        final int[] squares = Arrays.copyOf(blackSquares, blackSquares.length + whiteSquares.length);
+        System.arraycopy(whiteSquares, 0, squares, blackSquares.length, whiteSquares.length);
+
+        // The cache of ChessPieceMoves is filled beforehand so the workers only read it.
+        for (int square : squares){
+            getChessPieceMoves(getChessPieceOn(square));
+        }
+        final int[][] destinations = new int[squares.length][];
+        ForkJoinPool.commonPool().invoke(new MovableCellsTask(squares, 0, squares.length, checkMasks, destinations));
+
+        for (int index = 0; index < squares.length; index++){
+            assignMovableCells(squares[index], destinations[index]);
+        }
+    }
+
+    /**
+     * Finds the ChessCells some ChessPieces can move to without changing the ChessBoard, for one worker of
+     * setAllMovableCellsInParallel.
+     * @param squares int[] indices of the ChessCells of the ChessPieces
+     * @param from int first index into squares
+     * @param to int index into squares after the last one
+     * @param checkMasks CheckMasks of the current turn
+     * @param destinations int[][] the indices of the movable ChessCells are stored in, by index into squares
+     */
+    private void findMovableSquares(int[] squares, int from, int to, CheckMasks checkMasks, int[][] destinations){
+        final MovableCellsTracker searchTracker = new MovableCellsTracker(0);
+        for (int index = from; index < to; index++){
+            destinations[index] = findLegalSquares(squares[index], checkMasks, searchTracker);
+        }
+    }
+
+    /**
+     * Finds the ChessCells the ChessPiece on a ChessCell can move to, leaving out the movements of the current turn
+     * the CheckMasks rule out instead of trying them out, so the ChessBoard is only read.
+     * @param square int index of the ChessCell of the ChessPiece
+     * @param checkMasks CheckMasks of the current turn
+     * @param searchTracker MovableCellsTracker recording the search
+     * @return int[] indices of the movable ChessCells
+     */
+    private int[] findLegalSquares(int square, CheckMasks checkMasks, MovableCellsTracker searchTracker){
+        final ChessPiece chessPiece = getChessPieceOn(square);
+        addMovableCells(square / fileSize, square % fileSize, searchTracker);
+        final int[] foundSquares = searchTracker.getFoundMovableSquares();
+        if (chessPiece.getChessPieceColor() != currentTurnsColor){
+            return foundSquares;
+        }
+        int legalCount = 0;
+        for (int destination : foundSquares){
+            if (isLegalMovement(checkMasks, square, destination, chessPiece instanceof King)){
+                foundSquares[legalCount++] = destination;
+            }
+        }
+        return legalCount == foundSquares.length ? foundSquares : Arrays.copyOf(foundSquares, legalCount);
+    }
+
+    /**
+     * Sets how many ChessPieces a ChessBoard needs before setting all the movableCells is split across cores.
+     * Only ChessBoards without dependency tracking set all the movableCells on every movement.
+     * @param parallelChessPieceCount int number of ChessPieces, Integer.MAX_VALUE to never split
+     */
+    public void setParallelChessPieceCount(int parallelChessPieceCount){
+        this.parallelChessPieceCount = parallelChessPieceCount;
+    }
+
+    /**
+     * Getter for the number of ChessPieces on the ChessBoard.
+     * @return int number of ChessPieces of both colors
+     */
+    private int getChessPieceCount(){
+        int chessPieceCount = 0;
+        for (SquareList squares : chessPieceSquares.values()){
+            chessPieceCount += squares.size();
+        }
+        return chessPieceCount;
+    }
+
+    /**
+     * Updates the movableCells after ChessPieces were set, either for all ChessCells or, when dependencies are
+     * tracked, only for the ChessPieces the changes can affect.
+     */
+    private void updateMovableCells(){
+        if (!tracksMovableCellsDependencies){
+            setAllMovableCells();
+            return;
+        }
+
+        // ChessPieces on or looking at a changed ChessCell get their movableCells without the check filter again.
+        final int[] affectedSquares = movableCellsTracker.takeAffectedSquares();
+        for (int square : affectedSquares){
+            final ChessPiece chessPiece = getChessPiece(square / fileSize, square % fileSize);
+            if (chessPiece == null){
+                continue;
+            }
+            addMovableCells(square / fileSize, square % fileSize, movableCellsTracker);
+            movableCellsTracker.putEntry(square, createMovableCells(movableCellsTracker.getFoundMovableSquares()));
+        }
+
+        // Only ChessPieces that could uncover or be a King of the current turn need the check filter.
+        final CheckMasks checkMasks = getCheckMasks();
+        final int[] filteredSquares = getSquaresToFilter(checkMasks);
+        for (int square : filteredSquares){
+            final boolean isKing = getChessPiece(square / fileSize, square % fileSize) instanceof King;
+            final int[] destinations = movableCellsTracker.getMovableSquares(square);
+            int[] legalDestinations = new int[destinations.length];
+            int legalCount = 0;
+            for (int destination : destinations){
+                if (isLegalMovement(checkMasks, square, destination, isKing)){
+                    legalDestinations[legalCount++] = destination;
+                } else {
+                    logger.fine("Invalid Movement: leads to a checked position.");
+                }
+            }
+            assignMovableCells(square, Arrays.copyOf(legalDestinations, legalCount));
+        }
+        for (int square : affectedSquares){
+            if (movableCellsTracker.hasEntry(square) && !filteredSquareList.contains(square)){
+                assignMovableCells(square, movableCellsTracker.getMovableCells(square),
+                        movableCellsTracker.getMovableSquares(square));
+            }
+        }
+        for (int square : movableCellsTracker.getFilteredSquares()){
+            if (movableCellsTracker.hasEntry(square) && !filteredSquareList.contains(square)){
+                assignMovableCells(square, movableCellsTracker.getMovableCells(square),
+                        movableCellsTracker.getMovableSquares(square));
+            }
+        }
+        movableCellsTracker.setFilteredSquares(filteredSquares);
+
+        if (kingCanBeCaptured(checkMasks)){
+            logger.fine("Check!");
+            isCheck = true;
+            invalidateGameStatus();
+        }
+    }
+
+    /**
+     * Checks if the movableCells of any ChessPiece hold a King, looking outward from every King instead of going
+     * through all movableCells.
+     * A ChessPiece of the current turn only counts if the CheckMasks let it capture the King.
+     * @param checkMasks CheckMasks of the current turn
+     * @return true if a King can be captured
+     */
+    private boolean kingCanBeCaptured(CheckMasks checkMasks){
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            final ChessPiece.ChessPieceColor attackingColor = chessPieceColor.changeColor();
+            final SquareList kings = kingSquares.get(chessPieceColor);
+            for (int king = 0; king < kings.size(); king++){
+                final int kingSquare = kings.get(king);
+                final int attackingCount = getAttackingSquares(kingSquare, attackingColor, -1, true);
+                for (int index = 0; index < attackingCount; index++){
+                    final int attackingSquare = attackingSquares[index];
+                    if (attackingColor != currentTurnsColor || isLegalMovement(checkMasks, attackingSquare, kingSquare,
+                            getChessPieceOn(attackingSquare) instanceof King)){
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the ChessPieces of the current turn whose movableCells may differ from the ones without the check filter.
+     * Without a check, moving a ChessPiece can only expose a King along a line the ChessPiece leaves, so only the
+     * Kings and the pinned ChessPieces are returned. They are also left in the filteredSquareList.
+     * @param checkMasks CheckMasks of the current turn
+     * @return int[] indices of the ChessCells of those ChessPieces
+     */
+    private int[] getSquaresToFilter(CheckMasks checkMasks){
+        filteredSquareList.clear();
+        if (currentTurnsColor == null){
+            return new int[0];
+        }
+        final SquareList squares = checkMasks.checkCount > 0 ? chessPieceSquares.get(currentTurnsColor)
+                : kingSquares.get(currentTurnsColor);
+        for (int index = 0; index < squares.size(); index++){
+            filteredSquareList.add(squares.get(index));
+        }
+        for (int pin = 0; pin < checkMasks.pinCount; pin++){
+            filteredSquareList.add(checkMasks.pinnedSquares[pin]);
+        }
+        return filteredSquareList.toArray();
+    }
+
+    /**
+     * Computes the check evasion squares and pin rays of the Kings of the current turn once for the position,
+     * so the movableCells of ChessPieces of the current turn can be filtered without trying out every movement.
+     * The same CheckMasks are filled again on every call.
+     * @return CheckMasks of the current turn, empty if there is no current turn
+     */
+    private CheckMasks getCheckMasks(){
+        checkMasks.clear();
+        if (currentTurnsColor == null){
+            return checkMasks;
+        }
+        final ChessPiece.ChessPieceColor opponentColor = currentTurnsColor.changeColor();
+
+        final SquareList kings = kingSquares.get(currentTurnsColor);
+        for (int king = 0; king < kings.size(); king++){
+            final int kingSquare = kings.get(king);
+            // A checking ChessPiece has to be captured, or blocked if every way it reaches the King can be blocked.
+            final int attackingCount = getAttackingSquares(kingSquare, opponentColor, -1, true);
+            for (int index = 0; index < attackingCount; index++){
+                final int opponentSquare = attackingSquares[index];
+                final ChessPiece opponentChessPiece = getChessPiece(opponentSquare / fileSize, opponentSquare % fileSize);
+                checkMasks.addCheck(opponentSquare, kingSquare,
+                        !canCapture(opponentChessPiece, opponentSquare, kingSquare, -1, false));
+            }
+
+            // A ChessPiece is pinned if it is the first ChessPiece on a line from the King and the next one could
+            // capture the King once it leaves.
+            for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+                for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                    if (rankDirection == 0 && fileDirection == 0){
+                        continue;
+                    }
+                    int pinnedSquare = getFirstOccupiedSquare(kingSquare, rankDirection, fileDirection, -1);
+                    if (pinnedSquare < 0 || getChessPiece(pinnedSquare / fileSize, pinnedSquare % fileSize)
+                            .getChessPieceColor() != currentTurnsColor){
+                        continue;
+                    }
+                    int pinningSquare = getFirstOccupiedSquare(pinnedSquare, rankDirection, fileDirection, -1);
+                    if (pinningSquare < 0){
+                        continue;
+                    }
+                    ChessPiece pinningChessPiece = getChessPiece(pinningSquare / fileSize, pinningSquare % fileSize);
+                    if (pinningChessPiece.getChessPieceColor() == opponentColor
+                            && canCapture(pinningChessPiece, pinningSquare, kingSquare, pinnedSquare, true)){
+                        checkMasks.addPin(pinnedSquare, pinningSquare, kingSquare);
+                    }
+                }
+            }
+        }
+        return checkMasks;
+    }
+
+    /**
+     * Checks if a movement of a ChessPiece of the current turn keeps all its Kings out of check.
+     * @param checkMasks CheckMasks of the current turn
+     * @param from int index of the ChessCell of the ChessPiece
+     * @param to int index of the destination ChessCell
+     * @param isKing true if the moving ChessPiece is a King
+     * @return true if no King of the current turn can be captured after the movement
+     */
+    private boolean isLegalMovement(CheckMasks checkMasks, int from, int to, boolean isKing){
+        // Every other ChessPiece has to capture each ChessPiece checking a King, or block it if it can be blocked.
+        for (int check = 0; check < checkMasks.checkCount; check++){
+            final int checkingSquare = checkMasks.checkingSquares[check];
+            final int kingSquare = checkMasks.checkedKingSquares[check];
+            if (kingSquare != from && to != checkingSquare
+                    && !(checkMasks.blockableChecks[check] && isBetween(checkingSquare, kingSquare, to))){
+                return false;
+            }
+        }
+        // A pinned ChessPiece has to stay between the King and the ChessPiece pinning it, or capture that one.
+        for (int pin = 0; pin < checkMasks.pinCount; pin++){
+            if (checkMasks.pinnedSquares[pin] == from && to != checkMasks.pinningSquares[pin]
+                    && !isBetween(checkMasks.pinningSquares[pin], checkMasks.pinnedKingSquares[pin], to)){
+                return false;
+            }
+        }
+        return !(isKing && isSquareAttacked(to, currentTurnsColor.changeColor(), from));
+    }
+
+    /**
+     * Checks if any ChessPiece of a color could capture on a ChessCell, whatever stands on it.
+     * @param rank int rank position of the ChessCell
+     * @param file int file position of the ChessCell
+     * @param chessPieceColor ChessPieceColor of the attacking ChessPieces
+     * @return true if the ChessCell is attacked
+     */
+    public boolean isSquareAttacked(int rank, int file, ChessPiece.ChessPieceColor chessPieceColor){
+        if (rank >= rankSize || rank < 0 || file >= fileSize || file < 0){
+            logger.info("Checking attacks on a cell out of bounds");
+            return false;
+        }
+        return isSquareAttacked(rank * fileSize + file, chessPieceColor, -1);
+    }
+
+    /**
+     * Checks if any ChessPiece of a color other than the one on the ChessCell could capture on a ChessCell.
+     * @param square int index of the ChessCell
+     * @param chessPieceColor ChessPieceColor of the attacking ChessPieces
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return true if the ChessCell is attacked
+     */
+    private boolean isSquareAttacked(int square, ChessPiece.ChessPieceColor chessPieceColor, int emptiedSquare){
+        return getAttackingSquares(square, chessPieceColor, emptiedSquare, false) > 0;
+    }
+
+    /**
+     * Looks outward from a ChessCell for the ChessPieces of a color that could capture on it.
+     * Blockable ways pass every ChessCell in between, so only the first ChessPiece on each rank, file and diagonal
+     * line can use them; the other ways are searched along the directions collected in the SuperPiece of the color.
+     * @param square int index of the ChessCell
+     * @param chessPieceColor ChessPieceColor of the attacking ChessPieces
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * Only a search for all of them stores their ChessCell indices, in attackingSquares, so stopping at the first one
+     * writes nothing and can run on the workers of setAllMovableCellsInParallel.
+     * @param square int index of the ChessCell
+     * @param chessPieceColor ChessPieceColor of the attacking ChessPieces
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @param findsAll false to stop at the first attacking ChessPiece
+     * @return int number of attacking ChessPieces found
+     */
+    private int getAttackingSquares(int square, ChessPiece.ChessPieceColor chessPieceColor,
+                                    int emptiedSquare, boolean findsAll){
+        int attackingCount = 0;
+        for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+            for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                if (rankDirection == 0 && fileDirection == 0){
+                    continue;
+                }
+                int attackingSquare = getFirstOccupiedSquare(square, rankDirection, fileDirection, emptiedSquare);
+                if (attackingSquare >= 0 && isAttacking(attackingSquare, square, chessPieceColor, emptiedSquare)){
+                    if (!findsAll){
+                        return 1;
+                    }
+                    attackingCount = addAttackingSquare(attackingCount, attackingSquare);
+                }
+            }
+        }
+
+        final SuperPiece superPiece = superPieces.get(chessPieceColor);
+        for (int jump = 0; jump < superPiece.getJumpCount(); jump++){
+            final int rankDirection = -superPiece.getRankDirection(jump);
+            final int fileDirection = -superPiece.getFileDirection(jump);
+            final boolean fitsPadding = mailbox != null && Mailbox.fitsPadding(rankDirection, fileDirection);
+            final int step = fitsPadding ? mailbox.getStep(rankDirection, fileDirection) : 0;
+            int mailboxIndex = fitsPadding ? mailbox.getMailboxIndex(square) : 0;
+            int rank = square / fileSize;
+            int file = square % fileSize;
+            for (int distance = 1; distance <= superPiece.getDistance(jump); distance++){
+                int attackingSquare;
+                if (fitsPadding){
+                    // The border of sentinels stops the walk without bounds checks.
+                    mailboxIndex += step;
+                    attackingSquare = mailbox.getSquare(mailboxIndex);
+                    if (attackingSquare == Mailbox.OFF_BOARD){
+                        break;
+                    }
+                    if (mailbox.getChessPiece(mailboxIndex) == null){
+                        continue;
+                    }
+                } else {
+                    rank += rankDirection;
+                    file += fileDirection;
+                    if (rank < 0 || rank >= rankSize || file < 0 || file >= fileSize){
+                        break;
+                    }
+                    attackingSquare = rank * fileSize + file;
+                    if (getChessPieceOn(attackingSquare) == null){
+                        continue;
+                    }
+                }
+                if (attackingSquare != emptiedSquare && !isAttackingSquare(attackingCount, attackingSquare)
+                        && isAttacking(attackingSquare, square, chessPieceColor, emptiedSquare)){
+                    if (!findsAll){
+                        return 1;
+                    }
+                    attackingCount = addAttackingSquare(attackingCount, attackingSquare);
+                }
+            }
+        }
+        return attackingCount;
+    }
+
+    /**
+     * Stores the ChessCell index of an attacking ChessPiece after the ones found so far, growing attackingSquares
+     * when it is full.
+     * @param attackingCount int number of attacking ChessPieces found so far
+     * @param attackingSquare int index of the ChessCell of the attacking ChessPiece
+     * @return int number of attacking ChessPieces found
+     */
+    private int addAttackingSquare(int attackingCount, int attackingSquare){
+        if (attackingCount == attackingSquares.length){
+            attackingSquares = Arrays.copyOf(attackingSquares, attackingCount * 2);
+        }
+        attackingSquares[attackingCount] = attackingSquare;
+        return attackingCount + 1;
+    }
+
+    /**
+     * Checks if a ChessCell index is among the attacking ChessPieces found so far.
+     * @param attackingCount int number of attacking ChessPieces found so far
+     * @param square int index of the ChessCell
+     * @return true if the ChessCell index was already found
+     */
+    private boolean isAttackingSquare(int attackingCount, int square){
+        for (int index = 0; index < attackingCount; index++){
+            if (attackingSquares[index] == square){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the ChessPiece on a ChessCell has a given color and could capture on another ChessCell.
+     * @param from int index of the ChessCell of the attacking ChessPiece
+     * @param to int index of the target ChessCell
+     * @param chessPieceColor ChessPieceColor the attacking ChessPiece must have
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return true if the ChessPiece attacks the target
+     */
+    private boolean isAttacking(int from, int to, ChessPiece.ChessPieceColor chessPieceColor, int emptiedSquare){
+        final ChessPiece chessPiece = getChessPieceOn(from);
+        return chessPiece.getChessPieceColor() == chessPieceColor && canCapture(chessPiece, from, to, emptiedSquare, true);
+    }
+
+    /**
+     * Checks if a ChessPiece can move to a ChessCell by one of its MoveVectors, the way addMovableCells would find it,
+     * without looking at the other ChessCells the ChessPiece can move to.
+     * @param chessPiece ChessPiece that moves
+     * @param from int index of the ChessCell of the ChessPiece
+     * @param to int index of the destination ChessCell
+     * @return true if the destination is one of the movableCells before checks are filtered out
+     */
+    private boolean isReachable(ChessPiece chessPiece, int from, int to){
+        final int[] program = getChessPieceMoves(chessPiece).moveProgram.getProgram();
+        final int skippedFlags = chessPiece.isInitialMove() ? 0 : MoveProgram.INITIAL_MOVE;
+        final int rankDifference = to / fileSize - from / fileSize;
+        final int fileDifference = to % fileSize - from % fileSize;
+        final ChessPiece destinationChessPiece = getChessPieceOn(to);
+        for (int index = 0; index < program.length; index += MoveProgram.STRIDE){
+            final int flags = program[index + MoveProgram.FLAGS];
+            if ((flags & skippedFlags) != 0){
+                continue;
+            }
+            final int steps = MoveTable.getSteps(rankDifference, fileDifference,
+                    program[index + MoveProgram.RANK_DIRECTION], program[index + MoveProgram.FILE_DIRECTION]);
+            if (steps < 1 || steps > program[index + MoveProgram.DISTANCE]
+                    || (flags & MoveProgram.BLOCKABLE) != 0 && obstacleExists(from, to, -1)){
+                continue;
+            }
+            if (canMoveTo(flags, chessPiece, to / fileSize, to % fileSize, destinationChessPiece)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a ChessPiece could capture whatever stands on a target ChessCell by one of its MoveVectors.
+     * @param chessPiece ChessPiece that attacks
+     * @param from int index of the ChessCell of the attacking ChessPiece
+     * @param to int index of the target ChessCell
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @param countsBlockableWays false to only count the ways no ChessPiece in between could block
+     * @return true if the ChessPiece can capture on the target
+     */
+    private boolean canCapture(ChessPiece chessPiece, int from, int to, int emptiedSquare, boolean countsBlockableWays){
+        final int[] program = getChessPieceMoves(chessPiece).moveProgram.getProgram();
+        final int skippedFlags = chessPiece.isInitialMove() ? 0 : MoveProgram.INITIAL_MOVE;
+        final int rankDifference = to / fileSize - from / fileSize;
+        final int fileDifference = to % fileSize - from % fileSize;
+        final boolean isAdjacent = Math.max(Math.abs(rankDifference), Math.abs(fileDifference)) == 1;
+        for (int index = 0; index < program.length; index += MoveProgram.STRIDE){
+            final int flags = program[index + MoveProgram.FLAGS];
+            if ((flags & MoveProgram.CAN_CAPTURE) == 0 || (flags & skippedFlags) != 0){
+                continue;
+            }
+            final int steps = MoveTable.getSteps(rankDifference, fileDifference,
+                    program[index + MoveProgram.RANK_DIRECTION], program[index + MoveProgram.FILE_DIRECTION]);
+            if (steps < 1 || steps > program[index + MoveProgram.DISTANCE]){
+                continue;
+            }
+            if ((flags & MoveProgram.BLOCKABLE) == 0 || isAdjacent){
+                return true;
+            }
+            if (countsBlockableWays && !obstacleExists(from, to, emptiedSquare)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if there are any ChessPieces strictly between two ChessCells on the same line.
+     * @param from int index of the first ChessCell
+     * @param to int index of the second ChessCell
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return true if there is an obstacle in between
+     */
+    private boolean obstacleExists(int from, int to, int emptiedSquare){
+        if (bitBoard != null){
+            return bitBoard.obstacleExists(from, to, emptiedSquare);
+        }
+        if (lineIndex != null){
+            final int rankDifference = to / fileSize - from / fileSize;
+            final int fileDifference = to % fileSize - from % fileSize;
+            if (!MoveTable.isOnALine(rankDifference, fileDifference)){
+                return false;
+            }
+            final int obstacle = lineIndex.getFirstOccupiedSquare(from, Integer.signum(rankDifference),
+                    Integer.signum(fileDifference), emptiedSquare);
+            return obstacle >= 0 && Math.max(Math.abs(obstacle / fileSize - from / fileSize),
+                    Math.abs(obstacle % fileSize - from % fileSize))
+                    < Math.max(Math.abs(rankDifference), Math.abs(fileDifference));
+        }
+        final int rankDifference = to / fileSize - from / fileSize;
+        final int fileDifference = to % fileSize - from % fileSize;
+        if (!MoveTable.isOnALine(rankDifference, fileDifference)){
+            return false;
+        }
+        final int step = Integer.signum(rankDifference) * fileSize + Integer.signum(fileDifference);
+        for (int square = from + step; square != to; square += step){
+            if (square != emptiedSquare && getChessPieceOn(square) != null){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a ChessCell lies strictly between two ChessCells on a rank, a file or a diagonal.
+     * @param from int index of the first ChessCell
+     * @param to int index of the second ChessCell
+     * @param square int index of the ChessCell to look for
+     * @return true if the ChessCell is in between, false as well if the two ChessCells are not on a common line
+     */
+    private boolean isBetween(int from, int to, int square){
+        final int rankDifference = to / fileSize - from / fileSize;
+        final int fileDifference = to % fileSize - from % fileSize;
+        if (!MoveTable.isOnALine(rankDifference, fileDifference)){
+            return false;
+        }
+        final int rankSteps = square / fileSize - from / fileSize;
+        final int fileSteps = square % fileSize - from % fileSize;
+        final int steps = Math.max(Math.abs(rankSteps), Math.abs(fileSteps));
+        return steps > 0 && steps < Math.max(Math.abs(rankDifference), Math.abs(fileDifference))
+                && rankSteps == steps * Integer.signum(rankDifference)
+                && fileSteps == steps * Integer.signum(fileDifference);
+    }
+
+    /**
+     * Walks from a ChessCell in one direction to the first ChessCell holding a ChessPiece.
+     * @param square int index of the ChessCell to start from
+     * @param rankDirection int rank direction, -1, 0 or 1
+     * @param fileDirection int file direction, -1, 0 or 1
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return int index of the first occupied ChessCell, -1 if the edge of the ChessBoard comes first
+     */
+    private int getFirstOccupiedSquare(int square, int rankDirection, int fileDirection, int emptiedSquare){
+        if (lineIndex != null){
+            return lineIndex.getFirstOccupiedSquare(square, rankDirection, fileDirection, emptiedSquare);
+        }
+        return mailbox.getFirstOccupiedSquare(square, rankDirection, fileDirection, emptiedSquare);
+    }
+
+    /**
+     * Lists the ChessCells holding a ChessPiece of one color.
+     * @param chessPieceColor ChessPieceColor of the ChessPieces
+     * @return int[] of ChessCell indices
+     */
+    private int[] getChessPieceSquares(ChessPiece.ChessPieceColor chessPieceColor){
+        return chessPieceSquares.get(chessPieceColor).toArray();
+    }
+
+    /**
+     * Turns the tracking of the ChessCells each ChessPiece depends on on or off.
+     * With tracking off every ChessPiece is processed again whenever movableCells are updated.
+     * @param tracksMovableCellsDependencies true to only process the ChessPieces a change can affect
+     */
+    public void setTracksMovableCellsDependencies(boolean tracksMovableCellsDependencies){
+        if (tracksMovableCellsDependencies && isSparse){
+            logger.info("Sparse ChessBoards do not track dependencies");
+            return;
+        }
+        if (tracksMovableCellsDependencies && !this.tracksMovableCellsDependencies){
+            movableCellsTracker.clear();
+            for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+                for (int square : getChessPieceSquares(chessPieceColor)){
+                    movableCellsTracker.setChessPiece(square);
+                }
+            }
+        }
+        this.tracksMovableCellsDependencies = tracksMovableCellsDependencies;
+    }
+
+    /**
+     * Getter for tracksMovableCellsDependencies
+     * @return true if only the ChessPieces a change can affect are processed
+     */
+    public boolean tracksMovableCellsDependencies(){
+        return tracksMovableCellsDependencies;
+    }
+
+    /**
+     * Lists the ChessCells holding a King of one color.
+     * @param chessPieceColor ChessPieceColor of the Kings
+     * @return int[] of ChessCell indices
+     */
+    private int[] getKingSquares(ChessPiece.ChessPieceColor chessPieceColor){
+        return kingSquares.get(chessPieceColor).toArray();
+    }
+
+    /**
+     * Creates a ChessCell object for each ChessCells of the array in the ChessBoard.
+     * @param chessCell new ChessCell object to be assigned to the array/
+     * @param rank int rank position of the ChessCell to be set
+     * @param file int position of the ChessCell to be set
+     */
+    private void setChessCell(ChessCell chessCell, int rank, int file){
+        chessCells[rank][file] = chessCell;
+    }
+
+    /**
+     * Returns the ChessCell of a ChessCell index, creating it on a sparse ChessBoard when it is first needed.
+     * @param square int index of the ChessCell
+     * @return ChessCell of the index
+     */
+    private ChessCell getChessCellOn(int square){
+        if (!isSparse){
+            return chessCells[square / fileSize][square % fileSize];
+        }
+        ChessCell chessCell = sparseChessCells.get(square);
+        if (chessCell == null){
+            chessCell = new ChessCell(null, square);
+            sparseChessCells.put(square, chessCell);
+        }
+        return chessCell;
+    }
+
+    /**
+     * Returns the ChessPiece of a ChessCell index without creating a ChessCell.
+     * @param square int index of the ChessCell
+     * @return ChessPiece of the index, null if the ChessCell is empty
+     */
+    private ChessPiece getChessPieceOn(int square){
+        if (!isSparse){
+            return chessCells[square / fileSize][square % fileSize].getChessPiece();
+        }
+        return sparseChessPieces.get(square);
+    }
+
+    /**
+     * Getter for the indices of the movableCells of a ChessCell.
+     * @param square int index of the ChessCell
+     * @return int[] of ChessCell indices
+     */
+    private int[] getMovableSquares(int square){
+        if (!isSparse){
+            return movableSquares[square];
+        }
+        final int[] destinations = sparseMovableSquares.get(square);
+        return destinations == null ? new int[0] : destinations;
+    }
+
+    /**
+     * Sets a ChessPiece to a corresponding ChessCell with the option to update the movableCells for all ChessCells.
+     * The PositionCheckpoints of the game are dropped, since the movements no longer lead from them to this position.
+     * @param chessPiece ChessPiece to be set on the ChessCell
+     * @param rank int rank position of the ChessCell
+     * @param file int file position of the ChessCell
+     * @param hasToUpdateMovableCells true if movableCells need to be updated
      */
-    public boolean redoMovement(){
-        if (chessUndoneMovements.size() == 0){
-            return false;
-        }
-
-        ChessMovement mostRecentMovement = chessUndoneMovements.removeFirst();
-        chessMovements.addFirst(mostRecentMovement);
-        int newRank = mostRecentMovement.getNewRank();
-        int newFile = mostRecentMovement.getNewFile();
-        int oldRank = mostRecentMovement.getOldRank();
-        int oldFile = mostRecentMovement.getOldFile();
-        ChessPiece movedChessPiece = getChessPiece(oldRank, oldFile);
-
-        unsetChessPiece(oldRank, oldFile);
-        setChessPiece(movedChessPiece, newRank, newFile);
-        setCurrentTurnsColor(getCurrentTurnsColor().changeColor());
+    public void setChessPiece(ChessPiece chessPiece, int rank, int file, boolean hasToUpdateMovableCells) {
+        movementTimeline.clearCheckpoints();
+        putChessPiece(chessPiece, rank, file);
 
-        return true;
+        if (hasToUpdateMovableCells){
+            updateMovableCells();
+            publishSnapshot();
+        }
     }
 
     /**
-     * Checks if there are no more valid moves for the current player in turn, thus the end of the game.
-     * @return true if no more moves.
+     * Puts a ChessPiece on a ChessCell and records the change for the next movableCells update.
+     * @param chessPiece ChessPiece to be set on the ChessCell, null to empty it
+     * @param rank int rank position of the ChessCell
+     * @param file int file position of the ChessCell
      */
-    private boolean isEndGame(){
-        for (int rank = 0; rank < rankSize; rank++){
-            for (int file = 0; file < fileSize; file++){
-                final ChessCell chessCell = getChessCell(rank, file);
-                final ChessPiece chessPiece = getChessPiece(rank, file);
-                if (chessPiece == null){
-                    continue;
-                }
-                else if (chessPiece.getChessPieceColor() == currentTurnsColor) {
-                    if (!chessCell.getMovableCells().isEmpty()){
-                        return false;
-                    }
-                }
-            }
+    private void putChessPiece(ChessPiece chessPiece, int rank, int file) {
+        if (tracksMovableCellsDependencies){
+            movableCellsTracker.setChessPiece(rank * fileSize + file);
         }
-        return true;
+        placeChessPiece(chessPiece, rank, file);
+        refreshZobristContribution(rank * fileSize + file);
+        verifyZobristKey();
     }
 
     /**
-     * Check if current user is checkmated.
-     * @return true if checkmated.
+     * Getter for the Zobrist key of the position. It covers the ChessPieces, the hit points of Tanks, the MoveVectors
+     * a Kirby absorbed, whether each ChessPiece still has its initial move and the color of the current turn, and is
+     * kept up to date as ChessPieces are set instead of being computed on every call.
+     * @return long 64-bit key of the position
      */
-    public boolean isCheckmate(){
-        return (isEndGame() && isCheck);
+    public long getZobristKey(){
+        return zobristKey;
     }
 
     /**
-     * Check if the game is stalemated.
-     * @return true if stalemate.
+     * Getter for the position as it was after the last change made through the public methods: a movement, an undo
+     * or redo, setting a ChessPiece with the movableCells updated or setting the current turn.
+     * Any thread can call it and read the ChessBoardSnapshot without locks while this ChessBoard keeps changing;
+     * positions tried out by perft or the check filter in between are never seen.
+     * @return ChessBoardSnapshot of the position
      */
-    public boolean isStalemate(){
-        return (isEndGame() && !isCheck);
+    public ChessBoardSnapshot snapshot(){
+        return snapshot;
     }
 
     /**
-     * Checks if a ChessPiece on a specified ChessCell has any valid move and is on current turn.
-     * @param chessCell to check if there are valid moves.
-     * @return true if there is any valid move.
+     * Publishes a ChessBoardSnapshot of the current position, sharing the ChessPieceSnapshots of the ChessPieces
+     * whose state and movable ChessCells did not change with the previous one.
      */
-    public boolean canMove(ChessCell chessCell){
-        if(hasValidMoves(chessCell) && currentTurnsColor == chessCell.getChessPiece().getChessPieceColor()){
-            return true;
+    private void publishSnapshot(){
+        final ChessBoardSnapshot previousSnapshot = snapshot;
+        SquareTrie<ChessPieceSnapshot> chessPieces;
+        if (previousSnapshot == null){
+            chessPieces = SquareTrie.empty((long) rankSize * fileSize);
         } else {
-            return false;
+            chessPieces = previousSnapshot.getChessPieces();
+            for (int square : previousSnapshot.getChessPieceSquaresArray()){
+                if (getChessPieceOn(square) == null){
+                    chessPieces = chessPieces.with(square, null);
+                }
+            }
+        }
+        final int[] squares = new int[getChessPieceCount()];
+        int count = 0;
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                squares[count++] = square;
+                final ChessPiece chessPiece = getChessPieceOn(square);
+                final MoveProgram moveProgram = getChessPieceMoves(chessPiece).moveProgram;
+                final int[] destinations = getMovableSquares(square);
+                final ChessPieceSnapshot chessPieceSnapshot = chessPieces.get(square);
+                if (chessPieceSnapshot == null || !chessPieceSnapshot.matches(chessPiece, destinations, moveProgram)){
+                    chessPieces = chessPieces.with(square, new ChessPieceSnapshot(chessPiece, destinations, moveProgram));
+                }
+            }
         }
+        Arrays.sort(squares);
+        snapshot = new ChessBoardSnapshot(rankSize, fileSize, currentTurnsColor, isCheck, zobristKey,
+                movementTimeline.getPly(), squares, chessPieces);
     }
 
     /**
-     * Checks if a ChessPiece on a specified ChessCell has any valid move.
-     * @param chessCell to check if there are valid moves.
-     * @return true if there is any valid move.
+     * Turns on or off checking the Zobrist key against a full computation after every change, for debugging.
+     * @param verifiesZobristKey true to check the Zobrist key
      */
-    private boolean hasValidMoves(ChessCell chessCell){
-        if (chessCell.getMovableCells().isEmpty()){
-            return false;
-        } else {
-            return true;
-        }
+    public void setVerifiesZobristKey(boolean verifiesZobristKey){
+        this.verifiesZobristKey = verifiesZobristKey;
+        verifyZobristKey();
     }
 
     /**
-     * Helper function for moveChessPiece() to determine if
-     * @param chessCell
-     * @param newRank
-     * @param newFile
-     * @return
+     * Computes the Zobrist key of the position from scratch.
+     * @return long 64-bit key of the position
      */
-    private boolean isValidMove(ChessCell chessCell, int newRank, int newFile){
-        if(!hasValidMoves(chessCell)){
-            return false;
-        }
-
-        Set<ChessCell> movableCells = chessCell.getMovableCells();
-
-        ChessCell destinationChessCell = getChessCell(newRank, newFile);
-        if (movableCells.contains(destinationChessCell)){
-            logger.info("Rank " + newRank + " file " + newFile + " is a valid destination.");
-            return true;
-        } else {
-            logger.info("Rank " + newRank + " file " + newFile + " is not a valid destination.");
-            return false;
+    private long computeZobristKey(){
+        long key = ZobristKeys.getSideKey(currentTurnsColor);
+        for (ChessPiece.ChessPieceColor chessPieceColor : ChessPiece.ChessPieceColor.values()){
+            for (int square : getChessPieceSquares(chessPieceColor)){
+                key ^= getZobristContribution(square, getChessPieceOn(square));
+            }
         }
+        return key;
     }
 
     /**
-     * Sets up cell objects for the ChessBoard.
-     * @param rankSize int number of ranks
-     * @param fileSize int number of files
+     * Checks the Zobrist key against a full computation when verifiesZobristKey is on.
+     * @throws IllegalStateException if the kept Zobrist key went wrong
      */
-    private void setUpCells(int rankSize, int fileSize){
-        chessCells = new ChessCell[rankSize][fileSize];
-        for (int rank = 0; rank < rankSize; rank++){
-            for (int file = 0; file < fileSize; file++){
-                setChessCell(new ChessCell(null), rank, file);
-            }
+    private void verifyZobristKey(){
+        if (verifiesZobristKey && zobristKey != computeZobristKey()){
+            throw new IllegalStateException("Zobrist key " + Long.toHexString(zobristKey)
+                    + " does not match the position, which has " + Long.toHexString(computeZobristKey()));
         }
     }
 
     /**
-     * Processes all the possible moves of a ChessPiece and filters out invalid moves.
-     * Valid moves will be stored in a HashSet member of a ChessCell.
+     * Replaces the part of the Zobrist key that comes from a ChessCell with the one of its current ChessPiece.
+     * @param square int index of the ChessCell
      */
-    private void setAllMovableCells(){
-        for (int rank = 0; rank < rankSize; rank++){
-            for (int file = 0; file < fileSize; file++){
-                final ChessPiece chessPiece = getChessPiece(rank, file);
-                if (chessPiece == null){
-                    continue;
-                }
-                setMovableCells(rank, file);
-            }
+    private void refreshZobristContribution(int square){
+        final long contribution = getZobristContribution(square, getChessPieceOn(square));
+        if (isSparse){
+            final Long oldContribution = sparseZobristContributions.get(square);
+            zobristKey ^= (oldContribution == null ? 0 : oldContribution) ^ contribution;
+            sparseZobristContributions.put(square, contribution == 0 ? null : contribution);
+        } else {
+            zobristKey ^= zobristContributions[square] ^ contribution;
+            zobristContributions[square] = contribution;
         }
     }
 
     /**
-     * Determines whether a ChessPiece is checked by an opponent ChessPiece.
-     * @param chessPieceColor color of the player to be checked
-     * @return true if the player is checked.
+     * Getter for the part of the Zobrist key a ChessCell makes up now.
+     * @param square int index of the ChessCell
+     * @return long Zobrist number, 0 for an empty ChessCell
      */
-    private boolean isChecked(ChessPiece.ChessPieceColor chessPieceColor){
-        for (int rank = 0; rank < rankSize; rank++){
-            for (int file = 0; file < fileSize; file++){
-                final ChessPiece chessPiece = getChessPiece(rank, file);
-                if (chessPiece == null){
-                    continue;
-                }
-                else if (chessPiece.getChessPieceColor() == chessPieceColor) {
-                    if (kingCanBeCapturedFromThisCell(rank, file)){
-                        logger.info("King can be captured from this cell :(");
-                        return true;
-                    }
-                }
-            }
+    private long getZobristContribution(int square){
+        if (isSparse){
+            final Long contribution = sparseZobristContributions.get(square);
+            return contribution == null ? 0 : contribution;
         }
-        return false;
+        return zobristContributions[square];
     }
 
     /**
-     * Creates a ChessCell object for each ChessCells of the array in the ChessBoard.
-     * @param chessCell new ChessCell object to be assigned to the array/
-     * @param rank int rank position of the ChessCell to be set
-     * @param file int position of the ChessCell to be set
+     * Computes the part of the Zobrist key a ChessPiece on a ChessCell makes up.
+     * @param square int index of the ChessCell
+     * @param chessPiece ChessPiece on the ChessCell, null if it is empty
+     * @return long Zobrist number, 0 for an empty ChessCell
      */
-    private void setChessCell(ChessCell chessCell, int rank, int file){
-        chessCells[rank][file] = chessCell;
+    private long getZobristContribution(int square, ChessPiece chessPiece){
+        if (chessPiece == null){
+            return 0;
+        }
+        long chessPieceState = chessPiece.getChessPieceType().ordinal();
+        chessPieceState = chessPieceState * 2 + chessPiece.getChessPieceColor().ordinal();
+        chessPieceState = chessPieceState * 2 + (chessPiece.isInitialMove() ? 1 : 0);
+        if (chessPiece instanceof Tank){
+            chessPieceState = chessPieceState * 31 + ((Tank) chessPiece).getHitPoint();
+        }
+        // The MoveProgram changes with the MoveVectors a Kirby absorbed and with the flags a Kirby turned on.
+        chessPieceState = ZobristKeys.mix(chessPieceState) ^ getChessPieceMoves(chessPiece).moveProgram.getKey();
+        return ZobristKeys.getChessPieceKey(square, chessPieceState);
     }
 
     /**
-     * Sets a ChessPiece to a corresponding ChessCell with the option to update the movableCells for all ChessCells.
-     * @param chessPiece ChessPiece to be set on the ChessCell
+     * Puts a ChessPiece on a ChessCell without recording the change for movableCells updates,
+     * for positions that are only tried out and restored right away.
+     * @param chessPiece ChessPiece to be set on the ChessCell, null to empty it
      * @param rank int rank position of the ChessCell
      * @param file int file position of the ChessCell
-     * @param hasToUpdateMovableCells true if movableCells need to be updated
      */
-    public void setChessPiece(ChessPiece chessPiece, int rank, int file, boolean hasToUpdateMovableCells) {
-        getChessCell(rank, file).setChessPiece(chessPiece);
-
-        if (hasToUpdateMovableCells){
-            setAllMovableCells();
+    private void placeChessPiece(ChessPiece chessPiece, int rank, int file) {
+        ChessCell chessCell = getChessCell(rank, file);
+        if (bitBoard != null){
+            bitBoard.setChessPiece(bitBoard.square(rank, file), chessCell.getChessPiece(), chessPiece);
+        }
+        final ChessPiece oldChessPiece = chessCell.getChessPiece();
+        invalidateGameStatus();
+        if (isSparse){
+            sparseChessPieces.put(rank * fileSize + file, chessPiece);
+        } else {
+            mailbox.setChessPiece(rank * fileSize + file, chessPiece);
+        }
+        if (lineIndex != null){
+            if (oldChessPiece == null && chessPiece != null){
+                lineIndex.add(rank * fileSize + file);
+            } else if (oldChessPiece != null && chessPiece == null){
+                lineIndex.remove(rank * fileSize + file);
+            }
+        }
+        if (oldChessPiece != null){
+            chessPieceSquares.get(oldChessPiece.getChessPieceColor()).remove(rank * fileSize + file);
+            if (oldChessPiece instanceof King){
+                kingSquares.get(oldChessPiece.getChessPieceColor()).remove(rank * fileSize + file);
+            }
+        }
+        if (chessPiece != null){
+            chessPieceSquares.get(chessPiece.getChessPieceColor()).add(rank * fileSize + file);
+            if (chessPiece instanceof King){
+                kingSquares.get(chessPiece.getChessPieceColor()).add(rank * fileSize + file);
+            }
+            // Makes sure the SuperPiece of its color knows the ways this ChessPiece captures.
+            getChessPieceMoves(chessPiece);
         }
+        chessCell.setChessPiece(chessPiece);
     }
 
     /**
@@ -386,292 +2079,293 @@ public class ChessBoard {
 
     /**
      * Sets all the movableCells of a ChessPiece on a given position.
-     * @param rank int rank position of the ChessPiece whose movableCells will be set.
-     * @param file int file position of the ChessPiece whose movableCells will be set.
+     * @param square int index of the ChessCell of the ChessPiece whose movableCells will be set.
+     * @param checkMasks CheckMasks of the current turn
      */
-    private void setMovableCells(int rank, int file){
-        ChessCell chessCell = getChessCell(rank, file);
-        final ChessPiece chessPiece = getChessPiece(rank, file);
-
-        logger.info("Setting movableCells of rank " + rank + " and file " + file + ".");
+    private void setMovableCells(int square, CheckMasks checkMasks){
+        logger.fine(() -> "Setting movableCells of rank " + square / fileSize + " and file " + square % fileSize + ".");
 
-        final Set<MoveVector> moveVectorSet = chessPiece.getMoveVectorSet();
-        Set<ChessCell> movableCells = new HashSet<>();
+        assignMovableCells(square, findLegalSquares(square, checkMasks, movableCellsTracker));
+    }
 
-        for (MoveVector moveVector: moveVectorSet){
-            if (moveVector.isInitialMove() && !chessPiece.isInitialMove()){
-                continue;
-            }
-            movableCells.addAll(processMoveVector(moveVector, rank, file));
-        }
-        chessCell.setMovableCells(movableCells);
+    /**
+     * Sets the movableCells of a ChessCell from the indices of the ChessCells its ChessPiece can move to.
+     * @param square int index of the ChessCell
+     * @param destinations int[] indices of the movable ChessCells
+     */
+    private void assignMovableCells(int square, int[] destinations){
+        assignMovableCells(square, createMovableCells(destinations), destinations);
     }
 
     /**
-     * Checks if the opponent King can be captured by the ChessPiece on a given ChessCell.
-     * @param rank int rank position of the ChessPiece to be checked
-     * @param file int file position of the ChessPiece to be checked
-     * @return true if the opponent King can be captured
+     * Sets the movableCells of a ChessCell together with the indices of the same ChessCells for generateMoves.
+     * @param square int index of the ChessCell
+     * @param movableCells Set of ChessCells the ChessPiece can move to
+     * @param destinations int[] indices of the same ChessCells
      */
-    private boolean kingCanBeCapturedFromThisCell(int rank, int file){
-        final ChessPiece chessPiece = getChessPiece(rank, file);
-        final Set<MoveVector> moveVectorSet = chessPiece.getMoveVectorSet();
+    private void assignMovableCells(int square, Set<ChessCell> movableCells, int[] destinations){
+        invalidateGameStatus();
+        getChessCellOn(square).setMovableCells(movableCells);
+        setMovableSquares(square, destinations);
+    }
 
-        for (MoveVector moveVector: moveVectorSet){
-            if (moveVector.isInitialMove() && !chessPiece.isInitialMove()){
-                continue;
-            }
-            if (moveVectorLeadsToCheck(moveVector, rank, file)){
-                return true;
-            }
+    /**
+     * Creates the Set view of movableCells over the indices of the movable ChessCells.
+     * @param destinations int[] indices of the movable ChessCells
+     * @return Set of ChessCells
+     */
+    private Set<ChessCell> createMovableCells(int[] destinations){
+        if (isSparse){
+            return MovableCellSet.ofSortedSquares(destinations, this::getChessCellOn);
         }
-        return false;
+        return MovableCellSet.ofBitSet(destinations, rankSize * fileSize, this::getChessCellOn);
     }
 
     /**
-     * Processes a MoveVector of a given ChessPiece and makes several calls to processMoveVectorPerDirection to check
-     * all the possible ChessCells the ChessPiece can move to.
-     * @param moveVector one of the MoveVectors to be checked
-     * @param currentRank int rank position of the ChessPiece whose MoveVector will be checked
-     * @param currentFile int file position of the ChessPiece whose MoveVector will be checked
-     * @return all the ChessCells the ChessPiece can move to generated by the MoveVector given.
+     * Setter for the indices of the movableCells of a ChessCell.
+     * @param square int index of the ChessCell
+     * @param destinations int[] of ChessCell indices
      */
-    private Set<ChessCell> processMoveVector(final MoveVector moveVector, final int currentRank, final int currentFile){
-        Set<ChessCell> movableCells = new HashSet<>();
-        int rankDirection = moveVector.getRankDirection();
-        int fileDirection = moveVector.getFileDirection();
-
-        switch (moveVector.getDirectionType()){
-            case 1:
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection));
-                break;
-            case -1:
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, fileDirection));
-                break;
-            case 2: // MoveVectors with one direction set to 0 such as Rook.
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, -fileDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, fileDirection, rankDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, -fileDirection, -rankDirection));
-                break;
-            case 4: // MoveVectors with both directions set to non-zero.
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, -fileDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, fileDirection));
-                movableCells.addAll(processMoveVectorPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, -fileDirection));
-                break;
+    private void setMovableSquares(int square, int[] destinations){
+        if (isSparse){
+            sparseMovableSquares.put(square, destinations);
+        } else {
+            movableSquares[square] = destinations;
         }
-
-        return movableCells;
     }
 
     /**
-     * Processes one direction for a MoveVector of a given ChessPiece to check
-     * all the possible ChessCells the ChessPiece can move to in that direction.
-     * @param moveVector one of the MoveVector to be checked
-     * @param currentRank int rank position of the ChessPiece whose MoveVector will be checked
-     * @param rankDirection int file direction of the MoveVector being processed
-     * @param fileDirection int rank direction of the MoveVector being processed
-     * @param currentFile int file position of the ChessPiece whose MoveVector will be checked
-     * @return all the ChessCells the ChessPiece can move to generated by the MoveVector given.
+     * Finds all the ChessCells a ChessPiece on a given position can move to.
+     * The ChessCells looked at on the way and the ChessCells found are recorded in the given MovableCellsTracker.
+     * @param rank int rank position of the ChessPiece
+     * @param file int file position of the ChessPiece
+     * @param searchTracker MovableCellsTracker recording the search, the movableCellsTracker unless in parallel
      */
-    private Set<ChessCell> processMoveVectorPerDirection(final MoveVector moveVector, final int currentRank, final int currentFile,
-                                             final int rankDirection, final int fileDirection){
-        Set<ChessCell> movableCells = new HashSet<>();
-
-        ChessPiece movingChessPiece = getChessPiece(currentRank, currentFile);
-        for (int distance = 1; distance <= moveVector.getDistance(); distance++){
-            int destinationRank = currentRank + rankDirection * distance;
-            int destinationFile = currentFile + fileDirection * distance;
-            logger.info("Checking if movable to rank " + destinationRank + " file " + destinationFile + ".");
-            if (destinationRank >= getRankSize() || destinationFile >= getFileSize()
-                    || destinationRank < 0 || destinationFile < 0) break;
-
-            ChessPiece destinationChessPiece = getChessPiece(destinationRank, destinationFile);
-            if (!moveVector.canBeEmpty() && destinationChessPiece == null){
-                logger.info("Destination cannot be empty but it is empty.");
-                continue;
-            }
-            if (!moveVector.canCapture() && destinationChessPiece != null){
-                logger.info("Destination cannot be occupied but it is occupied.");
-                continue;
+    private void addMovableCells(int rank, int file, MovableCellsTracker searchTracker){
+        final ChessPiece chessPiece = getChessPiece(rank, file);
+        final ChessPieceMoves chessPieceMoves = getChessPieceMoves(chessPiece);
+        final int[] program = chessPieceMoves.moveProgram.getProgram();
+        final int skippedFlags = chessPiece.isInitialMove() ? 0 : MoveProgram.INITIAL_MOVE;
+        searchTracker.startSearch(chessPieceMoves.moveProgram.hasOverlappingDirections());
+        if (isSparse){
+            addSparseMovableCells(chessPiece, rank, file, program, skippedFlags, searchTracker);
+            return;
+        }
+        final int[] cells = chessPieceMoves.moveTable.getCells(rank * fileSize + file);
+
+        int index = 0;
+        for (int instruction = 0; instruction < program.length; instruction += MoveProgram.STRIDE){
+            final int count = cells[index++];
+            final int flags = program[instruction + MoveProgram.FLAGS];
+            if ((flags & skippedFlags) == 0){
+                final int rankDirection = program[instruction + MoveProgram.RANK_DIRECTION];
+                final int fileDirection = program[instruction + MoveProgram.FILE_DIRECTION];
+                if (usesSlidingAttacks(flags, program[instruction + MoveProgram.DISTANCE], rankDirection, fileDirection)){
+                    processSlidingDirection(flags, rank, file, rankDirection, fileDirection, searchTracker);
+                } else {
+                    processMoveTableDirection(flags, rank, file, cells, index, count, searchTracker);
+                }
             }
-            if (destinationChessPiece != null
-                    && movingChessPiece.getChessPieceColor() == destinationChessPiece.getChessPieceColor()
-                    && !(moveVector.canCaptureOwnPiece() && !(destinationChessPiece instanceof King))){
-                logger.info("Destination has an ally piece which cannot be captured.");
+            index += count;
+        }
+    }
+
+    /**
+     * addMovableCells for a sparse ChessBoard, stepping through each direction of the MoveProgram.
+     * A blockable direction is cut at the nearest ChessPiece on its line, found in the LineIndex, so the empty
+     * ChessCells are only visited when they are movableCells.
+     * @param chessPiece ChessPiece that is moving
+     * @param rank int rank position of the ChessPiece
+     * @param file int file position of the ChessPiece
+     * @param program int[] MoveProgram of the ChessPiece
+     * @param skippedFlags int MoveProgram flags of the directions the ChessPiece cannot use
+     * @param searchTracker MovableCellsTracker recording the search
+     */
+    private void addSparseMovableCells(final ChessPiece chessPiece, final int rank, final int file, final int[] program,
+                                       final int skippedFlags, final MovableCellsTracker searchTracker){
+        for (int instruction = 0; instruction < program.length; instruction += MoveProgram.STRIDE){
+            final int flags = program[instruction + MoveProgram.FLAGS];
+            if ((flags & skippedFlags) != 0){
                 continue;
             }
-            if (!moveVector.canJumpOver() &&
-                    obstacleExists(currentRank, currentFile, destinationRank, destinationFile)){
-                logger.info("Cannot jump over other ChessPieces but there's an obstacle.");
-                break;
-            }
-            if (movingChessPiece.getChessPieceColor() == currentTurnsColor &&
-                    movementLeadsToACheckedPosition(currentRank, currentFile, destinationRank, destinationFile)){
-                logger.info("Invalid Movement: leads to a checked position.");
-                continue;
+            final int rankDirection = program[instruction + MoveProgram.RANK_DIRECTION];
+            final int fileDirection = program[instruction + MoveProgram.FILE_DIRECTION];
+            int distance = program[instruction + MoveProgram.DISTANCE];
+            if ((flags & MoveProgram.BLOCKABLE) != 0){
+                final int obstacle = lineIndex.getFirstOccupiedSquare(rank * fileSize + file,
+                        Integer.signum(rankDirection), Integer.signum(fileDirection), -1);
+                if (obstacle >= 0){
+                    // Steps past the obstacle, or onto a ChessCell the step passes over, are blocked.
+                    final int obstacleSteps = Math.max(Math.abs(obstacle / fileSize - rank),
+                            Math.abs(obstacle % fileSize - file));
+                    distance = Math.min(distance,
+                            obstacleSteps / Math.max(Math.abs(rankDirection), Math.abs(fileDirection)));
+                }
             }
-            logger.info("Movable to rank " + destinationRank + " file " + destinationFile + ".");
-
-            if (destinationChessPiece instanceof King) {
-                logger.info("Check!");
-                isCheck = true;
+            int destinationRank = rank;
+            int destinationFile = file;
+            for (int steps = 1; steps <= distance; steps++){
+                destinationRank += rankDirection;
+                destinationFile += fileDirection;
+                if (destinationRank < 0 || destinationRank >= rankSize || destinationFile < 0 || destinationFile >= fileSize){
+                    break;
+                }
+                final int destination = destinationRank * fileSize + destinationFile;
+                if (canMoveTo(flags, chessPiece, destinationRank, destinationFile, getChessPieceOn(destination))){
+                    searchTracker.addMovableSquare(destination);
+                }
             }
-            movableCells.add(getChessCell(destinationRank, destinationFile));
         }
-
-        return movableCells;
     }
 
     /**
-     * Checks if a MoveVector of a given ChessPiece can lead to a check by making several calls to
-     * moveVectorLeadsToCheckPerDirection.
-     * @param moveVector one of the MoveVectors of the ChessPiece
-     * @param currentRank int rank position of the ChessPiece whose MoveVector will be checked
-     * @param currentFile int file position of the ChessPiece whose MoveVector will be checked
-     * @return true if the MoveVector can generate a check
+     * Returns the MoveVectors of a ChessPiece in MoveTable order together with their MoveTable,
+     * rebuilding them only when the ChessPiece got a new MoveVector set.
+     * @param chessPiece ChessPiece whose MoveVectors are needed
+     * @return ChessPieceMoves of the ChessPiece
      */
-    private boolean moveVectorLeadsToCheck(final MoveVector moveVector, final int currentRank, final int currentFile){
-        int rankDirection = moveVector.getRankDirection();
-        int fileDirection = moveVector.getFileDirection();
-
-        switch (moveVector.getDirectionType()){
-            case 1:
-                return (moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection));
-            case -1:
-                return (moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, fileDirection));
-            case 2:
-                return (moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, -rankDirection, -fileDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, fileDirection, rankDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, -fileDirection, -rankDirection));
-            case 4:
-                return (moveVectorLeadsToCheckPerDirection(
-                        moveVector, currentRank, currentFile, rankDirection, fileDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                                moveVector, currentRank, currentFile, rankDirection, -fileDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                                moveVector, currentRank, currentFile, -rankDirection, fileDirection) ||
-                        moveVectorLeadsToCheckPerDirection(
-                                moveVector, currentRank, currentFile, -rankDirection, -fileDirection));
+    private ChessPieceMoves getChessPieceMoves(ChessPiece chessPiece){
+        ChessPieceMoves chessPieceMoves = chessPieceMovesCache.get(chessPiece);
+        if (chessPieceMoves == null || chessPieceMoves.version != chessPiece.getMoveVectorSetVersion()
+                || !chessPieceMoves.moveProgram.matches(chessPieceMoves.moveVectors)){
+            MoveVector[] moveVectors = chessPiece.getMoveVectorSet().toArray(new MoveVector[0]);
+            Arrays.sort(moveVectors, MoveTable.MOVE_VECTOR_ORDER);
+            // Sparse ChessBoards step through the MoveProgram instead of a MoveTable over every ChessCell.
+            chessPieceMoves = new ChessPieceMoves(chessPiece.getMoveVectorSetVersion(), moveVectors,
+                    MoveProgram.get(moveVectors), isSparse ? null : MoveTable.get(moveVectors, rankSize, fileSize));
+            chessPieceMovesCache.put(chessPiece, chessPieceMoves);
+            superPieces.get(chessPiece.getChessPieceColor()).add(chessPieceMoves.moveProgram);
         }
+        return chessPieceMoves;
+    }
 
-        return false;
+    /**
+     * Getter for the MoveProgram getChessPieceMoves compiled for a ChessPiece, without compiling a new one, so it
+     * can be called on a ChessBoard other threads are reading.
+     * @param chessPiece ChessPiece whose MoveProgram is needed
+     * @return MoveProgram of the MoveVectors of the ChessPiece, or null if they changed since the last compile
+     */
+    private MoveProgram getCachedMoveProgram(ChessPiece chessPiece){
+        ChessPieceMoves chessPieceMoves = chessPieceMovesCache.get(chessPiece);
+        if (chessPieceMoves == null || chessPieceMoves.version != chessPiece.getMoveVectorSetVersion()
+                || !chessPieceMoves.moveProgram.matches(chessPieceMoves.moveVectors)){
+            return null;
+        }
+        return chessPieceMoves.moveProgram;
     }
 
     /**
-     * Checks if one of the directions obtained by a MoveVector of a given ChessPiece can lead to a check.
-     * @param moveVector one of the MoveVectors of the ChessPiece
+     * Processes one direction of a MoveTable to check all the possible ChessCells the ChessPiece can move to
+     * in that direction.
+     * @param flags int MoveProgram flags of the direction
      * @param currentRank int rank position of the ChessPiece whose MoveVector will be checked
      * @param currentFile int file position of the ChessPiece whose MoveVector will be checked
-     * @param rankDirection int rank direction of the MoveVector being processed
-     * @param fileDirection int file direction of the MoveVector being processed
-     * @return true if the MoveVector can generate a check-
+     * @param cells int[] entries of the MoveTable for the ChessCell of the ChessPiece
+     * @param from int index of the first entry of the direction
+     * @param count int number of entries of the direction
+     * @param searchTracker MovableCellsTracker recording the search
      */
-    private boolean moveVectorLeadsToCheckPerDirection(final MoveVector moveVector, final int currentRank, final int currentFile,
-                                                       final int rankDirection, final int fileDirection){
+    private void processMoveTableDirection(final int flags, final int currentRank, final int currentFile,
+                                           final int[] cells, final int from, final int count,
+                                           final MovableCellsTracker searchTracker){
         ChessPiece movingChessPiece = getChessPiece(currentRank, currentFile);
-        for (int distance = 1; distance <= moveVector.getDistance(); distance++){
-            int destinationRank = currentRank + rankDirection * distance;
-            int destinationFile = currentFile + fileDirection * distance;
-            if (destinationRank >= getRankSize() || destinationFile >= getFileSize()
-                    || destinationRank < 0 || destinationFile < 0) break;
-
-            ChessPiece destinationChessPiece = getChessPiece(destinationRank, destinationFile);
-            if (!moveVector.canBeEmpty() && destinationChessPiece == null){
-                continue;
-            }
-            if (!moveVector.canCapture() && destinationChessPiece != null){
+        final boolean isBlockable = (flags & MoveProgram.BLOCKABLE) != 0;
+        for (int index = from; index < from + count; index++){
+            final int entry = cells[index];
+            if (entry < 0){
+                searchTracker.watch(~entry);
+                if (getChessPieceOn(~entry) != null){
+                    logger.fine("Cannot jump over other ChessPieces but there's an obstacle.");
+                    break;
+                }
                 continue;
             }
-            if (destinationChessPiece != null
-                    && movingChessPiece.getChessPieceColor() == destinationChessPiece.getChessPieceColor()
-                    && !moveVector.canCaptureOwnPiece()){
-                continue;
+            searchTracker.watch(entry);
+            final int destinationRank = entry / fileSize;
+            final int destinationFile = entry % fileSize;
+            final ChessPiece destinationChessPiece = getChessPieceOn(entry);
+            if (canMoveTo(flags, movingChessPiece, destinationRank, destinationFile, destinationChessPiece)){
+                searchTracker.addMovableSquare(destinationRank * fileSize + destinationFile);
             }
-            if (!moveVector.canJumpOver() &&
-                    obstacleExists(currentRank, currentFile, destinationRank, destinationFile)){
+            if (isBlockable && destinationChessPiece != null){
                 break;
             }
-            if (destinationChessPiece instanceof King && destinationChessPiece.getChessPieceColor() == currentTurnsColor) {
-                return true;
-            }
         }
-
-        return false;
     }
 
     /**
-     * Helper function for moveVectorLeadsToCheck to see if moving to a specific cell will produce a check.
-     * @param currentRank int rank position of a ChessPiece prior to movement.
-     * @param currentFile int file position of a ChessPiece prior to movement.
-     * @param destinationRank int rank position where the ChessPiece will be moved to see the check condition
-     * @param destinationFile int file position where the ChessPiece will be moved to see the check condition
-     * @return trie of moving to the given ChessCell will lead to a check.
+     * processMoveTableDirection for an unlimited sliding direction on a bitboard ChessBoard.
+     * All the ChessCells up to and including the first obstacle come from one attack table lookup,
+     * so no obstacle has to be searched for on the way.
+     * @param flags int MoveProgram flags of the direction
+     * @param currentRank int rank position of the ChessPiece whose MoveVector will be checked
+     * @param currentFile int file position of the ChessPiece whose MoveVector will be checked
+     * @param rankDirection int rank direction of the MoveVector being processed, -1, 0 or 1
+     * @param fileDirection int file direction of the MoveVector being processed, -1, 0 or 1
+     * @param searchTracker MovableCellsTracker recording the search
      */
-    private boolean movementLeadsToACheckedPosition(final int currentRank, final int currentFile,
-                                         final int destinationRank, final int destinationFile){
-        ChessPiece currentChessPiece = getChessPiece(currentRank, currentFile);
-        ChessPiece destinationChessPiece = getChessPiece(destinationRank, destinationFile);
-        unsetChessPiece(currentRank, currentFile);
-        setChessPiece(currentChessPiece, destinationRank, destinationFile, false);
-
-        boolean leadsToCheck = isChecked(currentTurnsColor.changeColor());
-        if (leadsToCheck) {
-            logger.info("Moving from rank " + currentRank + " file " + currentFile + " to rank " + destinationRank + " file " +
-                    destinationFile + " leads to a checked position");
+    private void processSlidingDirection(final int flags, final int currentRank, final int currentFile,
+                                         final int rankDirection, final int fileDirection,
+                                         final MovableCellsTracker searchTracker){
+        ChessPiece movingChessPiece = getChessPiece(currentRank, currentFile);
+        long reachableCells = slidingAttacks.attacks(bitBoard.square(currentRank, currentFile),
+                rankDirection, fileDirection, bitBoard.getOccupied());
+        while (reachableCells != 0){
+            int destination = Long.numberOfTrailingZeros(reachableCells);
+            reachableCells &= reachableCells - 1;
+            searchTracker.watch(destination);
+            int destinationRank = destination / fileSize;
+            int destinationFile = destination % fileSize;
+            ChessPiece destinationChessPiece = getChessPiece(destinationRank, destinationFile);
+            if (canMoveTo(flags, movingChessPiece, destinationRank, destinationFile, destinationChessPiece)){
+                searchTracker.addMovableSquare(destinationRank * fileSize + destinationFile);
+            }
         }
+    }
 
-        setChessPiece(currentChessPiece, currentRank, currentFile, false);
-        setChessPiece(destinationChessPiece, destinationRank, destinationFile, false);
-
-        return leadsToCheck;
+    /**
+     * Checks if a direction of a MoveProgram can use the sliding attack tables.
+     * @param flags int MoveProgram flags of the direction
+     * @param distance int distance of the direction
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @return true if the direction slides over the whole ChessBoard on a bitboard ChessBoard
+     */
+    private boolean usesSlidingAttacks(final int flags, final int distance,
+                                       final int rankDirection, final int fileDirection){
+        return slidingAttacks != null && (flags & MoveProgram.CAN_JUMP_OVER) == 0
+                && distance >= slidingAttacks.getLongestRay()
+                && SlidingAttacks.isSlidingDirection(rankDirection, fileDirection);
     }
 
     /**
-     * Checks if there are any other ChessPieces between two given ChessCells.
-     * @param currentRank int rank position of the first ChessCell
-     * @param currentFile int file position of the first ChessCell
-     * @param destinationRank int rank position of the second ChessCell
-     * @param destinationFile int file position of the second ChessCell
-     * @return true if there are other ChessPieces in between the given ChessCells
+     * Checks if a ChessPiece may move to a reachable destination ChessCell, leaving checks to the CheckMasks.
+     * @param flags int MoveProgram flags of the direction that reaches the destination
+     * @param movingChessPiece ChessPiece that is moving
+     * @param destinationRank int rank position of the destination
+     * @param destinationFile int file position of the destination
+     * @param destinationChessPiece ChessPiece on the destination, null if it is empty
+     * @return true if the destination is one of the movableCells
      */
-    private boolean obstacleExists(final int currentRank, final int currentFile,
-                                   final int destinationRank, final int destinationFile){
-        int rankToCheck = currentRank;
-        int fileToCheck = currentFile;
-        while (rankToCheck != destinationRank || fileToCheck != destinationFile){
-            logger.info("Checking if there is an obstacle on rank " + rankToCheck + " file " + fileToCheck);
-            int rankDifference = destinationRank - currentRank;
-            int fileDifference = destinationFile - currentFile;
-            if (rankDifference == 0) fileToCheck += (fileDifference / Math.abs(fileDifference));
-            else if (currentFile == destinationFile) rankToCheck += (rankDifference / Math.abs(rankDifference));
-            else {
-                fileToCheck += (fileDifference / Math.abs(fileDifference));
-                rankToCheck += (rankDifference / Math.abs(rankDifference));
-            }
-            if (rankToCheck == destinationRank && fileToCheck == destinationFile) return false;
-            ChessPiece intermediateChessPiece = getChessPiece(rankToCheck, fileToCheck);
-            if (intermediateChessPiece != null) return true;
+    private boolean canMoveTo(final int flags, final ChessPiece movingChessPiece,
+                              final int destinationRank, final int destinationFile,
+                              final ChessPiece destinationChessPiece){
+        if ((flags & MoveProgram.CAN_BE_EMPTY) == 0 && destinationChessPiece == null){
+            logger.fine("Destination cannot be empty but it is empty.");
+            return false;
         }
-        return false;
+        if ((flags & MoveProgram.CAN_CAPTURE) == 0 && destinationChessPiece != null){
+            logger.fine("Destination cannot be occupied but it is occupied.");
+            return false;
+        }
+        if (destinationChessPiece != null
+                && movingChessPiece.getChessPieceColor() == destinationChessPiece.getChessPieceColor()
+                && !((flags & MoveProgram.CAN_CAPTURE_OWN_PIECE) != 0 && !(destinationChessPiece instanceof King))){
+            logger.fine("Destination has an ally piece which cannot be captured.");
+            return false;
+        }
+        logger.fine(() -> "Movable to rank " + destinationRank + " file " + destinationFile + ".");
+        return true;
     }
 
     /**
@@ -680,7 +2374,7 @@ public class ChessBoard {
      * @param file int file position of the ChessCell whose ChessPiece will be removed
      */
     private void unsetChessPiece(int rank, int file) {
-        setChessPiece(null, rank, file, false);
+        putChessPiece(null, rank, file);
     }
 
     /**
@@ -694,7 +2388,7 @@ public class ChessBoard {
             logger.info("Getting chess from out of bounds");
             return null;
         }
-        return chessCells[rank][file];
+        return getChessCellOn(rank * fileSize + file);
     }
 
     /**
@@ -708,6 +2402,10 @@ public class ChessBoard {
             System.out.println("Out of bounds");
             return null;
         }
+        else if (isSparse && rank >= 0 && file >= 0){
+            // Reading an empty ChessCell does not create it.
+            return getChessPieceOn(rank * fileSize + file);
+        }
         else {
             return getChessCell(rank, file).getChessPiece();
         }
@@ -746,10 +2444,23 @@ public class ChessBoard {
     }
 
     /**
-     * Set the color of the current turn
+     * Set the color of the current turn, dropping the PositionCheckpoints of the game like setChessPiece.
      */
     public void setCurrentTurnsColor(ChessPiece.ChessPieceColor currentTurnsColor) {
+        movementTimeline.clearCheckpoints();
+        changeCurrentTurnsColor(currentTurnsColor);
+        publishSnapshot();
+    }
+
+    /**
+     * Changes the color of the current turn without publishing a ChessBoardSnapshot, for the middle of a movement.
+     * @param currentTurnsColor ChessPieceColor of the new turn
+     */
+    private void changeCurrentTurnsColor(ChessPiece.ChessPieceColor currentTurnsColor) {
+        zobristKey ^= ZobristKeys.getSideKey(this.currentTurnsColor) ^ ZobristKeys.getSideKey(currentTurnsColor);
         this.currentTurnsColor = currentTurnsColor;
+        invalidateGameStatus();
+        verifyZobristKey();
     }
 
     /**
@@ -845,4 +2556,183 @@ public class ChessBoard {
         setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 4, false);
         setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), rankSize-1, 4);
     }
+
+    /**
+     * enum to tell how the game stands for the player in turn.
+     */
+    public enum GameStatus {
+        ONGOING, CHECK, CHECKMATE, STALEMATE
+    }
+
+    /**
+     * The MoveVectors of one ChessPiece in MoveTable order and the MoveTable built from them.
+     */
+    private static class ChessPieceMoves {
+        private final int version;
+        private final MoveVector[] moveVectors;
+        private final MoveProgram moveProgram;
+        private final MoveTable moveTable;
+
+        /**
+         * Constructor for ChessPieceMoves
+         * @param version int MoveVector set version the MoveVectors were taken from
+         * @param moveVectors MoveVector[] sorted by MoveTable.MOVE_VECTOR_ORDER
+         * @param moveProgram MoveProgram compiled from the MoveVectors
+         * @param moveTable MoveTable built from the same MoveVectors
+         */
+        private ChessPieceMoves(int version, MoveVector[] moveVectors, MoveProgram moveProgram, MoveTable moveTable){
+            this.version = version;
+            this.moveVectors = moveVectors;
+            this.moveProgram = moveProgram;
+            this.moveTable = moveTable;
+        }
+    }
+
+    /**
+     * A part of the ChessPieces of setAllMovableCellsInParallel, split in halves until it is small enough for one
+     * worker.
+     */
+    private class MovableCellsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] squares;
+        private final int from;
+        private final int to;
+        private final CheckMasks checkMasks;
+        private final int[][] destinations;
+
+        /**
+         * Constructor for MovableCellsTask
+         * @param squares int[] indices of the ChessCells of all the ChessPieces
+         * @param from int first index into squares of the part
+         * @param to int index into squares after the last one of the part
+         * @param checkMasks CheckMasks of the current turn
+         * @param destinations int[][] the indices of the movable ChessCells are stored in, by index into squares
+         */
+        private MovableCellsTask(int[] squares, int from, int to, CheckMasks checkMasks, int[][] destinations){
+            this.squares = squares;
+            this.from = from;
+            this.to = to;
+            this.checkMasks = checkMasks;
+            this.destinations = destinations;
+        }
+
+        /**
+         * Finds the movable ChessCells of the part or splits it in halves.
+         */
+        @Override
+        protected void compute(){
+            if (to - from <= PARALLEL_BATCH_SIZE){
+                findMovableSquares(squares, from, to, checkMasks, destinations);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new MovableCellsTask(squares, from, middle, checkMasks, destinations),
+                    new MovableCellsTask(squares, middle, to, checkMasks, destinations));
+        }
+    }
+
+    /**
+     * The positions of perft after one movement of the current turn, counted on a copy of the ChessBoard.
+     */
+    private static class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private final ChessBoard chessBoard;
+        // ChessBoards the position is copied into, shared by the PerftTasks of one divide and returned after each.
+        private final Queue<ChessBoard> chessBoards;
+        private final int move;
+        private final int depth;
+
+        /**
+         * Constructor for PerftTask
+         * @param chessBoard ChessBoard of the position, only read until every PerftTask is done
+         * @param chessBoards Queue of the ChessBoards free to copy the position into
+         * @param move int packed movement to make first
+         * @param depth int number of movements including the first one
+         */
+        private PerftTask(ChessBoard chessBoard, Queue<ChessBoard> chessBoards, int move, int depth){
+            this.chessBoard = chessBoard;
+            this.chessBoards = chessBoards;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        /**
+         * Copies the position into a free ChessBoard, makes the movement and counts the positions after it.
+         * @return Long number of positions
+         */
+        @Override
+        protected Long compute(){
+            ChessBoard copiedChessBoard = chessBoards.poll();
+            if (copiedChessBoard == null){
+                copiedChessBoard = new ChessBoard(chessBoard.rankSize, chessBoard.fileSize, chessBoard.isSparse);
+            }
+            try {
+                chessBoard.copyInto(copiedChessBoard);
+                copiedChessBoard.makePerftMovement(move);
+                return copiedChessBoard.perft(depth - 1, createMoveBuffers(depth - 1));
+            } finally {
+                chessBoards.offer(copiedChessBoard);
+            }
+        }
+    }
+
+    /**
+     * The restrictions checks and pins put on the movements of the ChessPieces of the current turn.
+     * Each check and pin is kept as the ChessCells at the ends of its line, since the ChessCells it allows are the
+     * ones in between and the checking or pinning ChessPiece itself.
+     */
+    private static class CheckMasks {
+        // ChessCell of each ChessPiece checking a King, of the King it checks, and whether it can be blocked.
+        private int[] checkingSquares = new int[2];
+        private int[] checkedKingSquares = new int[2];
+        private boolean[] blockableChecks = new boolean[2];
+        private int checkCount;
+        // ChessCell of each pinned ChessPiece, of the ChessPiece pinning it, and of the King it is pinned to.
+        private int[] pinnedSquares = new int[8];
+        private int[] pinningSquares = new int[8];
+        private int[] pinnedKingSquares = new int[8];
+        private int pinCount;
+
+        /**
+         * Forgets every check and pin, so the CheckMasks can be filled for another position.
+         */
+        private void clear(){
+            checkCount = 0;
+            pinCount = 0;
+        }
+
+        /**
+         * Adds a ChessPiece checking a King.
+         * @param checkingSquare int index of the ChessCell of the checking ChessPiece
+         * @param kingSquare int index of the ChessCell of the King
+         * @param isBlockable true if every way the ChessPiece reaches the King can be blocked
+         */
+        private void addCheck(int checkingSquare, int kingSquare, boolean isBlockable){
+            if (checkCount == checkingSquares.length){
+                checkingSquares = Arrays.copyOf(checkingSquares, checkCount * 2);
+                checkedKingSquares = Arrays.copyOf(checkedKingSquares, checkCount * 2);
+                blockableChecks = Arrays.copyOf(blockableChecks, checkCount * 2);
+            }
+            checkingSquares[checkCount] = checkingSquare;
+            checkedKingSquares[checkCount] = kingSquare;
+            blockableChecks[checkCount++] = isBlockable;
+        }
+
+        /**
+         * Adds a ChessPiece pinned to a King.
+         * @param pinnedSquare int index of the ChessCell of the pinned ChessPiece
+         * @param pinningSquare int index of the ChessCell of the pinning ChessPiece
+         * @param kingSquare int index of the ChessCell of the King
+         */
+        private void addPin(int pinnedSquare, int pinningSquare, int kingSquare){
+            if (pinCount == pinnedSquares.length){
+                pinnedSquares = Arrays.copyOf(pinnedSquares, pinCount * 2);
+                pinningSquares = Arrays.copyOf(pinningSquares, pinCount * 2);
+                pinnedKingSquares = Arrays.copyOf(pinnedKingSquares, pinCount * 2);
+            }
+            pinnedSquares[pinCount] = pinnedSquare;
+            pinningSquares[pinCount] = pinningSquare;
+            pinnedKingSquares[pinCount++] = kingSquare;
+        }
+    }
 }
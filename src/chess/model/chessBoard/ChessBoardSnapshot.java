@@ -0,0 +1,137 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+
+/**
+ * A ChessBoardSnapshot class that holds a position of a ChessBoard as it was after a change: every ChessPiece with
+ * its state and movable ChessCells, the current turn, whether it was in check and its Zobrist key.
+ * It never changes, so any number of threads can read it without locks while the game goes on. A ChessBoardSnapshot
+ * shares the ChessPieceSnapshots and trie nodes of the ChessCells that did not change with the one before it.
+ */
+public final class ChessBoardSnapshot {
+    private final int rankSize;
+    private final int fileSize;
+    private final ChessPiece.ChessPieceColor currentTurnsColor;
+    private final boolean isCheck;
+    private final long zobristKey;
+    private final int movementCount;
+    private final int[] chessPieceSquares;
+    private final SquareTrie<ChessPieceSnapshot> chessPieces;
+
+    /**
+     * A ChessBoardSnapshot constructor.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @param currentTurnsColor ChessPieceColor of the current turn
+     * @param isCheck true if the ChessBoard was in check
+     * @param zobristKey long Zobrist key of the position
+     * @param movementCount int number of movements that can be undone
+     * @param chessPieceSquares int[] sorted indices of the ChessCells with a ChessPiece, not changed afterwards
+     * @param chessPieces SquareTrie of the ChessPieceSnapshots by ChessCell index
+     */
+    ChessBoardSnapshot(int rankSize, int fileSize, ChessPiece.ChessPieceColor currentTurnsColor, boolean isCheck,
+                       long zobristKey, int movementCount, int[] chessPieceSquares,
+                       SquareTrie<ChessPieceSnapshot> chessPieces) {
+        this.rankSize = rankSize;
+        this.fileSize = fileSize;
+        this.currentTurnsColor = currentTurnsColor;
+        this.isCheck = isCheck;
+        this.zobristKey = zobristKey;
+        this.movementCount = movementCount;
+        this.chessPieceSquares = chessPieceSquares;
+        this.chessPieces = chessPieces;
+    }
+
+    /**
+     * Getter for the number of ranks.
+     * @return int rankSize
+     */
+    public int getRankSize() {
+        return rankSize;
+    }
+
+    /**
+     * Getter for the number of files.
+     * @return int fileSize
+     */
+    public int getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Getter for the color of the current turn.
+     * @return ChessPieceColor of the current turn, null if it was not set
+     */
+    public ChessPiece.ChessPieceColor getCurrentTurnsColor() {
+        return currentTurnsColor;
+    }
+
+    /**
+     * Getter for whether the ChessBoard was in check.
+     * @return boolean isCheck
+     */
+    public boolean isCheck() {
+        return isCheck;
+    }
+
+    /**
+     * Getter for the Zobrist key of the position.
+     * @return long 64-bit key of the position
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Getter for the number of movements that could be undone, which tells snapshots of one game apart.
+     * @return int number of movements
+     */
+    public int getMovementCount() {
+        return movementCount;
+    }
+
+    /**
+     * Getter for the number of ChessPieces on the ChessBoard.
+     * @return int number of ChessPieces of both colors
+     */
+    public int getChessPieceCount() {
+        return chessPieceSquares.length;
+    }
+
+    /**
+     * Getter for the ChessCells with a ChessPiece.
+     * @return int[] copy of the sorted ChessCell indices, rank * fileSize + file
+     */
+    public int[] getChessPieceSquares() {
+        return chessPieceSquares.clone();
+    }
+
+    /**
+     * Returns the ChessPiece on a ChessCell.
+     * @param rank int rank position of the ChessCell
+     * @param file int file position of the ChessCell
+     * @return ChessPieceSnapshot of the ChessPiece, null if the ChessCell was empty
+     */
+    public ChessPieceSnapshot getChessPiece(int rank, int file) {
+        if (rank < 0 || rank >= rankSize || file < 0 || file >= fileSize) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " file " + file + " is not on the ChessBoard");
+        }
+        return chessPieces.get(rank * fileSize + file);
+    }
+
+    /**
+     * Getter for the ChessPieceSnapshots by ChessCell index, to build the next ChessBoardSnapshot on.
+     * @return SquareTrie of the ChessPieceSnapshots
+     */
+    SquareTrie<ChessPieceSnapshot> getChessPieces() {
+        return chessPieces;
+    }
+
+    /**
+     * Getter for the ChessCells with a ChessPiece without copying them, to build the next ChessBoardSnapshot on.
+     * @return int[] sorted ChessCell indices, not to be modified
+     */
+    int[] getChessPieceSquaresArray() {
+        return chessPieceSquares;
+    }
+}
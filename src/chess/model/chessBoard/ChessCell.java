@@ -2,13 +2,14 @@ package chess.model.chessBoard;
 
 import chess.model.chessPiece.ChessPiece;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 
 /**
  * A ChessCell class that holds ChessPieces and their movableCells.
  */
 public class ChessCell {
+    private final int square;
     private ChessPiece chessPiece;
     private Set<ChessCell> movableCells;
 
@@ -17,8 +18,26 @@ public class ChessCell {
      * @param chessPiece ChessPiece to be set on the ChessCell
      */
     public ChessCell(ChessPiece chessPiece){
+        this(chessPiece, -1);
+    }
+
+    /**
+     * A ChessCell constructor for a ChessCell of a ChessBoard, which knows its index on the ChessBoard.
+     * @param chessPiece ChessPiece to be set on the ChessCell
+     * @param square int index of the ChessCell (rank * fileSize + file)
+     */
+    ChessCell(ChessPiece chessPiece, int square){
+        this.square = square;
         setChessPiece(chessPiece);
-        setMovableCells(new HashSet<>());
+        setMovableCells(Collections.emptySet());
+    }
+
+    /**
+     * Getter for the index of the ChessCell on its ChessBoard.
+     * @return int index, -1 for a ChessCell that is not on a ChessBoard
+     */
+    int getSquare() {
+        return square;
     }
 
     /**
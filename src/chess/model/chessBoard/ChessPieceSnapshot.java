@@ -0,0 +1,115 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.Tank;
+
+import java.util.Arrays;
+
+/**
+ * A ChessPieceSnapshot class that holds what a ChessPiece was like in a ChessBoardSnapshot: its kind, color and state
+ * and the ChessCells it could move to. It never changes, so any thread can read it.
+ */
+public final class ChessPieceSnapshot {
+    private final ChessPiece.ChessPieceType chessPieceType;
+    private final ChessPiece.ChessPieceColor chessPieceColor;
+    private final boolean isInitialMove;
+    private final int hitPoint;
+    private final int moveVectorCount;
+    private final int[] movableSquares;
+    // Shared MoveProgram of the MoveVectors. The same object means the same MoveVectors and flags, while a different
+    // one may also be a MoveProgram that was dropped and compiled again, which only costs a new ChessPieceSnapshot.
+    private final MoveProgram moveProgram;
+
+    /**
+     * A ChessPieceSnapshot constructor.
+     * @param chessPiece ChessPiece to take the snapshot of
+     * @param movableSquares int[] indices of the ChessCells the ChessPiece can move to, copied
+     * @param moveProgram MoveProgram of the MoveVectors of the ChessPiece
+     */
+    ChessPieceSnapshot(ChessPiece chessPiece, int[] movableSquares, MoveProgram moveProgram) {
+        this.chessPieceType = chessPiece.getChessPieceType();
+        this.chessPieceColor = chessPiece.getChessPieceColor();
+        this.isInitialMove = chessPiece.isInitialMove();
+        this.hitPoint = chessPiece instanceof Tank ? ((Tank) chessPiece).getHitPoint() : 0;
+        this.moveVectorCount = chessPiece.getMoveVectorSet().size();
+        this.movableSquares = movableSquares.clone();
+        this.moveProgram = moveProgram;
+    }
+
+    /**
+     * Checks if this ChessPieceSnapshot still describes a ChessPiece, so a new ChessBoardSnapshot can share it.
+     * The state is compared field by field, so two different ChessPieces are never taken for the same one.
+     * @param chessPiece ChessPiece on the ChessCell
+     * @param movableSquares int[] indices of the ChessCells the ChessPiece can move to
+     * @param moveProgram MoveProgram of the MoveVectors of the ChessPiece
+     * @return true if nothing changed
+     */
+    boolean matches(ChessPiece chessPiece, int[] movableSquares, MoveProgram moveProgram) {
+        return this.moveProgram == moveProgram && chessPieceType == chessPiece.getChessPieceType()
+                && chessPieceColor == chessPiece.getChessPieceColor() && isInitialMove == chessPiece.isInitialMove()
+                && hitPoint == (chessPiece instanceof Tank ? ((Tank) chessPiece).getHitPoint() : 0)
+                && Arrays.equals(this.movableSquares, movableSquares);
+    }
+
+    /**
+     * Getter for the kind of the ChessPiece.
+     * @return ChessPieceType of the ChessPiece
+     */
+    public ChessPiece.ChessPieceType getChessPieceType() {
+        return chessPieceType;
+    }
+
+    /**
+     * Getter for the color of the ChessPiece.
+     * @return ChessPieceColor of the ChessPiece
+     */
+    public ChessPiece.ChessPieceColor getChessPieceColor() {
+        return chessPieceColor;
+    }
+
+    /**
+     * Getter for whether the ChessPiece still had its initial move.
+     * @return boolean isInitialMove
+     */
+    public boolean isInitialMove() {
+        return isInitialMove;
+    }
+
+    /**
+     * Getter for the hit points of a Tank.
+     * @return int hit points, 0 if the ChessPiece is not a Tank
+     */
+    public int getHitPoint() {
+        return hitPoint;
+    }
+
+    /**
+     * Getter for the number of MoveVectors of the ChessPiece, which grows as a Kirby absorbs MoveVectors.
+     * @return int number of MoveVectors
+     */
+    public int getMoveVectorCount() {
+        return moveVectorCount;
+    }
+
+    /**
+     * Getter for the ChessCells the ChessPiece could move to.
+     * @return int[] copy of the ChessCell indices, rank * fileSize + file
+     */
+    public int[] getMovableSquares() {
+        return movableSquares.clone();
+    }
+
+    /**
+     * Checks if the ChessPiece could move to a ChessCell.
+     * @param square int index of the ChessCell, rank * fileSize + file
+     * @return true if the ChessCell is one of its movable ChessCells
+     */
+    public boolean canMoveTo(int square) {
+        for (int movableSquare : movableSquares) {
+            if (movableSquare == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
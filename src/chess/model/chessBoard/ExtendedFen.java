@@ -0,0 +1,608 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.MoveVector;
+import chess.model.chessPiece.Pawn;
+import chess.model.chessPiece.Tank;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An ExtendedFen class that reads and writes positions in a FEN dialect covering the ChessPieces and sizes of this
+ * game. A position is its ChessPiece placement followed by the color of the current turn:
+ * <ul>
+ *     <li>The placement lists the ranks from the highest down to rank 0, separated by '/', each from file 0 up.
+ *     A number, which may have several digits, stands for that many empty ChessCells. The number of ranks and the
+ *     ChessCells in the first rank give the size of the ChessBoard, so it need not be 8x8.</li>
+ *     <li>ChessPieces are written P, R, N, B, Q, K, Y for a Kirby and T for a Tank, in upper case for white and lower
+ *     case for black.</li>
+ *     <li>A Pawn has its initial move only on the rank it starts on, rank 1 for white and the second highest rank
+ *     for black, unless it is followed by '+' to keep it or '-' to take it away.</li>
+ *     <li>A Tank is followed by its hit points in brackets, as in T[1], unless it has all 3.</li>
+ *     <li>A ChessPiece whose MoveVectors differ from the ones it starts with, a Kirby that absorbed MoveVectors or a
+ *     ChessPiece whose MoveVectors a Kirby absorbed and let capture their own ChessPieces, is followed by all its
+ *     MoveVectors in braces. Each is written rankDirection, fileDirection, distance, directionType and flags packed
+ *     as MoveVector.getFlags packs them, separated by ',' and the MoveVectors by ';', as in
+ *     Y{0,1,1,2,19;1,0,2147483647,2,19;1,1,1,4,19} for a Kirby that captured a Rook.</li>
+ *     <li>The color of the current turn is 'w', 'b' or '-' for none, and white when it is left out. The fields of
+ *     standard FEN after it, castling, en passant and the move counters, are skipped, since this game has none of
+ *     them, so standard 8x8 positions can be read as well.</li>
+ * </ul>
+ * An ExtendedFen keeps the last position it parsed in arrays that grow as needed, so parsing one position after
+ * another with the same ExtendedFen does not allocate, and the ChessPieces are only created when the position is put
+ * on a ChessBoard, with one movableCells update after the last one.
+ */
+public final class ExtendedFen {
+    private static final String CHESS_PIECE_LETTERS = "PRNBQKYT";
+    private static final int DEFAULT_HIT_POINT = new Tank(ChessPiece.ChessPieceColor.WHITE).getHitPoint();
+    private static final int MOVE_VECTOR_STRIDE = 5;
+    private static final int INITIAL_MOVE_INFERRED = -1;
+    private static final int INITIAL_MOVE_VECTORS = -1;
+    // values() copies the array on every call.
+    private static final ChessPiece.ChessPieceType[] CHESS_PIECE_TYPES = ChessPiece.ChessPieceType.values();
+    private static final ChessPiece.ChessPieceColor[] CHESS_PIECE_COLORS = ChessPiece.ChessPieceColor.values();
+    // The MoveVectors each kind and color of ChessPiece starts with, which are not written.
+    private static final int[][][] INITIAL_ENCODED_MOVE_VECTORS = new int[CHESS_PIECE_TYPES.length * 2][][];
+
+    static {
+        for (ChessPiece.ChessPieceType chessPieceType : CHESS_PIECE_TYPES) {
+            for (ChessPiece.ChessPieceColor chessPieceColor : CHESS_PIECE_COLORS) {
+                INITIAL_ENCODED_MOVE_VECTORS[chessPieceType.ordinal() * 2 + chessPieceColor.ordinal()] =
+                        encodeMoveVectors(ChessPiece.createChessPiece(chessPieceType, chessPieceColor).getMoveVectorSet());
+            }
+        }
+    }
+
+    private int rankSize;
+    private int fileSize;
+    private ChessPiece.ChessPieceColor currentTurnsColor;
+    private int chessPieceCount;
+    // Squares hold the rank counted from the top until the number of ranks is known.
+    private int[] squares = new int[32];
+    private int[] files = new int[32];
+    private int[] chessPieces = new int[32];
+    // Whether a Pawn has its initial move or the hit points of a Tank.
+    private int[] states = new int[32];
+    private int[] moveVectorOffsets = new int[32];
+    private int[] moveVectorCounts = new int[32];
+    private int[] moveVectors = new int[4 * MOVE_VECTOR_STRIDE];
+    private int moveVectorsSize;
+
+    /**
+     * Parses a position, replacing the one parsed before.
+     * @param fen CharSequence of the position
+     * @throws IllegalArgumentException if the position is not valid, with the index it fails at
+     */
+    public void parse(CharSequence fen) {
+        chessPieceCount = 0;
+        moveVectorsSize = 0;
+        final int length = fen.length();
+        int index = 0;
+        while (index < length && fen.charAt(index) == ' ') {
+            index++;
+        }
+        int rank = 0;
+        int file = 0;
+        int firstRankFileSize = -1;
+        while (index < length && fen.charAt(index) != ' ') {
+            final char c = fen.charAt(index);
+            if (c == '/') {
+                if (firstRankFileSize < 0) {
+                    firstRankFileSize = file;
+                } else if (file != firstRankFileSize) {
+                    throw invalid(fen, index, "rank has " + file + " ChessCells instead of " + firstRankFileSize);
+                }
+                rank++;
+                file = 0;
+                index++;
+            } else if (c >= '0' && c <= '9') {
+                long emptyCount = 0;
+                while (index < length && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+                    emptyCount = emptyCount * 10 + (fen.charAt(index++) - '0');
+                    if (file + emptyCount > Integer.MAX_VALUE) {
+                        throw invalid(fen, index, "rank is too long");
+                    }
+                }
+                if (emptyCount == 0) {
+                    throw invalid(fen, index, "no empty ChessCells");
+                }
+                file += (int) emptyCount;
+            } else {
+                index = parseChessPiece(fen, index, rank, file);
+                file++;
+            }
+        }
+        if (firstRankFileSize >= 0 && file != firstRankFileSize) {
+            throw invalid(fen, index, "rank has " + file + " ChessCells instead of " + firstRankFileSize);
+        }
+        rankSize = rank + 1;
+        fileSize = file;
+        if (fileSize == 0) {
+            throw invalid(fen, index, "no ChessCells");
+        }
+        if ((long) rankSize * fileSize > Integer.MAX_VALUE) {
+            throw invalid(fen, index, "ChessBoard is too large");
+        }
+
+        while (index < length && fen.charAt(index) == ' ') {
+            index++;
+        }
+        currentTurnsColor = ChessPiece.ChessPieceColor.WHITE;
+        if (index < length) {
+            final char c = fen.charAt(index);
+            if (c == 'b') {
+                currentTurnsColor = ChessPiece.ChessPieceColor.BLACK;
+            } else if (c == '-') {
+                currentTurnsColor = null;
+            } else if (c != 'w') {
+                throw invalid(fen, index, "unknown color '" + c + "'");
+            }
+            if (index + 1 < length && fen.charAt(index + 1) != ' ') {
+                throw invalid(fen, index + 1, "unknown color");
+            }
+        }
+
+        for (int chessPieceIndex = 0; chessPieceIndex < chessPieceCount; chessPieceIndex++) {
+            final int square = (rankSize - 1 - squares[chessPieceIndex]) * fileSize + files[chessPieceIndex];
+            squares[chessPieceIndex] = square;
+            if (states[chessPieceIndex] == INITIAL_MOVE_INFERRED
+                    && getChessPieceType(chessPieceIndex) == ChessPiece.ChessPieceType.PAWN) {
+                states[chessPieceIndex] = isOnStartingRank(getChessPieceColor(chessPieceIndex), square / fileSize,
+                        rankSize) ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Parses one ChessPiece with the state that follows it.
+     * @param fen CharSequence of the position
+     * @param index int index of the letter of the ChessPiece
+     * @param rank int rank counted from the top
+     * @param file int file
+     * @return int index after the ChessPiece
+     */
+    private int parseChessPiece(CharSequence fen, int index, int rank, int file) {
+        final char c = fen.charAt(index);
+        final int type = CHESS_PIECE_LETTERS.indexOf(Character.toUpperCase(c));
+        if (type < 0) {
+            throw invalid(fen, index, "unknown ChessPiece '" + c + "'");
+        }
+        final ChessPiece.ChessPieceColor chessPieceColor = Character.isUpperCase(c)
+                ? ChessPiece.ChessPieceColor.WHITE : ChessPiece.ChessPieceColor.BLACK;
+        ensureChessPieceCapacity();
+        squares[chessPieceCount] = rank;
+        files[chessPieceCount] = file;
+        chessPieces[chessPieceCount] = type * 2 + chessPieceColor.ordinal();
+        states[chessPieceCount] = 0;
+        moveVectorCounts[chessPieceCount] = INITIAL_MOVE_VECTORS;
+        index++;
+        final int length = fen.length();
+        switch (CHESS_PIECE_TYPES[type]) {
+            case PAWN:
+                states[chessPieceCount] = INITIAL_MOVE_INFERRED;
+                if (index < length && (fen.charAt(index) == '+' || fen.charAt(index) == '-')) {
+                    states[chessPieceCount] = fen.charAt(index++) == '+' ? 1 : 0;
+                }
+                break;
+            case TANK:
+                states[chessPieceCount] = DEFAULT_HIT_POINT;
+                if (index < length && fen.charAt(index) == '[') {
+                    final int end = indexOf(fen, ']', index);
+                    states[chessPieceCount] = parseInt(fen, index + 1, end);
+                    if (states[chessPieceCount] <= 0) {
+                        throw invalid(fen, index + 1, "Tank has no hit points");
+                    }
+                    if (states[chessPieceCount] > DEFAULT_HIT_POINT) {
+                        throw invalid(fen, index + 1, "Tank has more than " + DEFAULT_HIT_POINT + " hit points");
+                    }
+                    index = end + 1;
+                }
+                break;
+            default:
+                break;
+        }
+        if (index < length && fen.charAt(index) == '{') {
+            index = parseMoveVectors(fen, index);
+        }
+        chessPieceCount++;
+        return index;
+    }
+
+    /**
+     * Parses the MoveVectors of the ChessPiece being parsed.
+     * @param fen CharSequence of the position
+     * @param index int index of the opening brace
+     * @return int index after the closing brace
+     */
+    private int parseMoveVectors(CharSequence fen, int index) {
+        final int end = indexOf(fen, '}', index);
+        moveVectorOffsets[chessPieceCount] = moveVectorsSize;
+        moveVectorCounts[chessPieceCount] = 0;
+        int start = index + 1;
+        while (start < end) {
+            if (moveVectorsSize + MOVE_VECTOR_STRIDE > moveVectors.length) {
+                moveVectors = Arrays.copyOf(moveVectors, moveVectors.length * 2);
+            }
+            final int moveVectorStart = start;
+            for (int field = 0; field < MOVE_VECTOR_STRIDE; field++) {
+                int fieldEnd = start;
+                while (fieldEnd < end && fen.charAt(fieldEnd) != ',' && fen.charAt(fieldEnd) != ';') {
+                    fieldEnd++;
+                }
+                moveVectors[moveVectorsSize + field] = parseInt(fen, start, fieldEnd);
+                final boolean isLastField = field == MOVE_VECTOR_STRIDE - 1;
+                if (fieldEnd == end ? !isLastField : fen.charAt(fieldEnd) != (isLastField ? ';' : ',')) {
+                    throw invalid(fen, fieldEnd, "MoveVector needs " + MOVE_VECTOR_STRIDE + " numbers");
+                }
+                start = fieldEnd + 1;
+            }
+            try {
+                MoveVector.checkValues(moveVectors[moveVectorsSize], moveVectors[moveVectorsSize + 1],
+                        moveVectors[moveVectorsSize + 2], moveVectors[moveVectorsSize + 3],
+                        moveVectors[moveVectorsSize + 4]);
+            } catch (IllegalArgumentException e) {
+                throw invalid(fen, moveVectorStart, "MoveVector " + e.getMessage());
+            }
+            moveVectorsSize += MOVE_VECTOR_STRIDE;
+            moveVectorCounts[chessPieceCount]++;
+        }
+        return end + 1;
+    }
+
+    /**
+     * Grows the arrays of the ChessPieces when they are full.
+     */
+    private void ensureChessPieceCapacity() {
+        if (chessPieceCount == squares.length) {
+            squares = Arrays.copyOf(squares, chessPieceCount * 2);
+            files = Arrays.copyOf(files, chessPieceCount * 2);
+            chessPieces = Arrays.copyOf(chessPieces, chessPieceCount * 2);
+            states = Arrays.copyOf(states, chessPieceCount * 2);
+            moveVectorOffsets = Arrays.copyOf(moveVectorOffsets, chessPieceCount * 2);
+            moveVectorCounts = Arrays.copyOf(moveVectorCounts, chessPieceCount * 2);
+        }
+    }
+
+    /**
+     * Finds the character closing a ChessPiece's state.
+     * @param fen CharSequence of the position
+     * @param c char to find
+     * @param from int index to search from
+     * @return int index of the character
+     */
+    private static int indexOf(CharSequence fen, char c, int from) {
+        for (int index = from; index < fen.length() && fen.charAt(index) != ' '; index++) {
+            if (fen.charAt(index) == c) {
+                return index;
+            }
+        }
+        throw invalid(fen, from, "'" + c + "' missing");
+    }
+
+    /**
+     * Parses a decimal int, which may be negative, without creating a String.
+     * @param fen CharSequence of the position
+     * @param from int index of the first character
+     * @param to int index after the last character
+     * @return int parsed
+     */
+    private static int parseInt(CharSequence fen, int from, int to) {
+        final boolean isNegative = from < to && fen.charAt(from) == '-';
+        int index = isNegative ? from + 1 : from;
+        if (index == to) {
+            throw invalid(fen, from, "number missing");
+        }
+        long value = 0;
+        for (; index < to; index++) {
+            final char c = fen.charAt(index);
+            if (c < '0' || c > '9') {
+                throw invalid(fen, index, "'" + c + "' is not a digit");
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw invalid(fen, from, "number is too large");
+            }
+        }
+        return (int) (isNegative ? -value : value);
+    }
+
+    /**
+     * Creates the exception for a position that is not valid.
+     * @param fen CharSequence of the position
+     * @param index int index the position fails at
+     * @param reason String of what is wrong
+     * @return IllegalArgumentException to throw
+     */
+    private static IllegalArgumentException invalid(CharSequence fen, int index, String reason) {
+        return new IllegalArgumentException("Invalid extended FEN at index " + index + ", " + reason + ": " + fen);
+    }
+
+    /**
+     * Checks if a rank is the one a Pawn of a color starts on.
+     * @param chessPieceColor ChessPieceColor of the Pawn
+     * @param rank int rank of the Pawn
+     * @param rankSize int number of ranks of the ChessBoard
+     * @return true if a Pawn on it has its initial move
+     */
+    private static boolean isOnStartingRank(ChessPiece.ChessPieceColor chessPieceColor, int rank, int rankSize) {
+        return rank == (chessPieceColor == ChessPiece.ChessPieceColor.WHITE ? 1 : rankSize - 2);
+    }
+
+    /**
+     * Getter for the number of ranks of the parsed position.
+     * @return int rankSize
+     */
+    public int getRankSize() {
+        return rankSize;
+    }
+
+    /**
+     * Getter for the number of files of the parsed position.
+     * @return int fileSize
+     */
+    public int getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Getter for the color of the current turn of the parsed position.
+     * @return ChessPieceColor of the current turn, null if there is none
+     */
+    public ChessPiece.ChessPieceColor getCurrentTurnsColor() {
+        return currentTurnsColor;
+    }
+
+    /**
+     * Getter for the number of ChessPieces of the parsed position.
+     * @return int number of ChessPieces
+     */
+    public int getChessPieceCount() {
+        return chessPieceCount;
+    }
+
+    /**
+     * Getter for the ChessCell of a ChessPiece of the parsed position, ChessPieces being in the order they were written.
+     * @param index int index of the ChessPiece
+     * @return int index of its ChessCell
+     */
+    public int getSquare(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Getter for the kind of a ChessPiece of the parsed position.
+     * @param index int index of the ChessPiece
+     * @return ChessPieceType of the ChessPiece
+     */
+    public ChessPiece.ChessPieceType getChessPieceType(int index) {
+        return CHESS_PIECE_TYPES[chessPieces[index] / 2];
+    }
+
+    /**
+     * Getter for the color of a ChessPiece of the parsed position.
+     * @param index int index of the ChessPiece
+     * @return ChessPieceColor of the ChessPiece
+     */
+    public ChessPiece.ChessPieceColor getChessPieceColor(int index) {
+        return CHESS_PIECE_COLORS[chessPieces[index] % 2];
+    }
+
+    /**
+     * Creates a ChessPiece of the parsed position in the state it was written in.
+     * @param index int index of the ChessPiece
+     * @return ChessPiece that is not on a ChessBoard yet
+     */
+    public ChessPiece createChessPiece(int index) {
+        final ChessPiece chessPiece = ChessPiece.createChessPiece(getChessPieceType(index), getChessPieceColor(index));
+        switch (chessPiece.getChessPieceType()) {
+            case PAWN:
+                chessPiece.setInitialMove(states[index] == 1);
+                ((Pawn) chessPiece).setMoveCount(states[index] == 1 ? 0 : 1);
+                break;
+            case TANK:
+                ((Tank) chessPiece).setHitPoint(states[index]);
+                break;
+            default:
+                break;
+        }
+        if (moveVectorCounts[index] != INITIAL_MOVE_VECTORS) {
+            final Set<MoveVector> moveVectorSet = new HashSet<>();
+            final int end = moveVectorOffsets[index] + moveVectorCounts[index] * MOVE_VECTOR_STRIDE;
+            for (int offset = moveVectorOffsets[index]; offset < end; offset += MOVE_VECTOR_STRIDE) {
+                moveVectorSet.add(MoveVector.create(moveVectors[offset], moveVectors[offset + 1],
+                        moveVectors[offset + 2], moveVectors[offset + 3], moveVectors[offset + 4]));
+            }
+            chessPiece.setMoveVectorSet(moveVectorSet);
+        }
+        return chessPiece;
+    }
+
+    /**
+     * Creates a ChessBoard of the parsed position. ChessBoards of more than 64x64 ChessCells are sparse.
+     * @return ChessBoard of the position
+     */
+    public ChessBoard createChessBoard() {
+        final ChessBoard chessBoard = new ChessBoard(rankSize, fileSize);
+        chessBoard.loadPosition(this);
+        return chessBoard;
+    }
+
+    /**
+     * Replaces the position of a ChessBoard of the same size with the parsed one, so a ChessBoard can be reused for
+     * one position after another. The movements to undo and redo of the ChessBoard are dropped.
+     * @param chessBoard ChessBoard to put the position on
+     * @throws IllegalArgumentException if the ChessBoard differs in size
+     */
+    public void loadInto(ChessBoard chessBoard) {
+        chessBoard.loadPosition(this);
+    }
+
+    /**
+     * Parses a position into a new ChessBoard.
+     * @param fen CharSequence of the position
+     * @return ChessBoard of the position
+     * @throws IllegalArgumentException if the position is not valid
+     */
+    public static ChessBoard read(CharSequence fen) {
+        final ExtendedFen extendedFen = new ExtendedFen();
+        extendedFen.parse(fen);
+        return extendedFen.createChessBoard();
+    }
+
+    /**
+     * Writes the position of a ChessBoard.
+     * @param chessBoard ChessBoard to write
+     * @return String of the position
+     */
+    public static String write(ChessBoard chessBoard) {
+        final StringBuilder fen = new StringBuilder();
+        write(chessBoard, fen);
+        return fen.toString();
+    }
+
+    /**
+     * Writes the position of a ChessBoard to the end of a StringBuilder, so one StringBuilder can be reused.
+     * MoveVectors are written in a fixed order, so a position is always written the same way.
+     * @param chessBoard ChessBoard to write
+     * @param fen StringBuilder to append to
+     */
+    public static void write(ChessBoard chessBoard, StringBuilder fen) {
+        final int rankSize = chessBoard.getRankSize();
+        final int fileSize = chessBoard.getFileSize();
+        final int[] occupiedSquares = chessBoard.getOccupiedSquares();
+        for (int rank = rankSize - 1; rank >= 0; rank--) {
+            int index = Arrays.binarySearch(occupiedSquares, rank * fileSize);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            int file = 0;
+            for (; index < occupiedSquares.length && occupiedSquares[index] < (rank + 1) * fileSize; index++) {
+                final int square = occupiedSquares[index];
+                if (square % fileSize > file) {
+                    fen.append(square % fileSize - file);
+                }
+                writeChessPiece(chessBoard.getChessPiece(rank, square % fileSize), rank, rankSize, fen);
+                file = square % fileSize + 1;
+            }
+            if (file < fileSize) {
+                fen.append(fileSize - file);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+        final ChessPiece.ChessPieceColor currentTurnsColor = chessBoard.getCurrentTurnsColor();
+        fen.append(' ').append(currentTurnsColor == null ? '-'
+                : currentTurnsColor == ChessPiece.ChessPieceColor.WHITE ? 'w' : 'b');
+    }
+
+    /**
+     * Writes one ChessPiece with the state that differs from what its letter and rank imply.
+     * @param chessPiece ChessPiece to write
+     * @param rank int rank of the ChessPiece
+     * @param rankSize int number of ranks of the ChessBoard
+     * @param fen StringBuilder to append to
+     */
+    private static void writeChessPiece(ChessPiece chessPiece, int rank, int rankSize, StringBuilder fen) {
+        final char letter = CHESS_PIECE_LETTERS.charAt(chessPiece.getChessPieceType().ordinal());
+        fen.append(chessPiece.getChessPieceColor() == ChessPiece.ChessPieceColor.WHITE ? letter
+                : Character.toLowerCase(letter));
+        switch (chessPiece.getChessPieceType()) {
+            case PAWN:
+                if (chessPiece.isInitialMove() != isOnStartingRank(chessPiece.getChessPieceColor(), rank, rankSize)) {
+                    fen.append(chessPiece.isInitialMove() ? '+' : '-');
+                }
+                break;
+            case TANK:
+                if (((Tank) chessPiece).getHitPoint() != DEFAULT_HIT_POINT) {
+                    fen.append('[').append(((Tank) chessPiece).getHitPoint()).append(']');
+                }
+                break;
+            default:
+                break;
+        }
+        writeMoveVectors(chessPiece, fen);
+    }
+
+    /**
+     * Writes the MoveVectors of a ChessPiece if they differ from the ones it starts with.
+     * @param chessPiece ChessPiece to write the MoveVectors of
+     * @param fen StringBuilder to append to
+     */
+    private static void writeMoveVectors(ChessPiece chessPiece, StringBuilder fen) {
+        final int[][] initialEncodedMoveVectors = INITIAL_ENCODED_MOVE_VECTORS[
+                chessPiece.getChessPieceType().ordinal() * 2 + chessPiece.getChessPieceColor().ordinal()];
+        final Set<MoveVector> moveVectorSet = chessPiece.getMoveVectorSet();
+        // Only a Kirby gets MoveVectors alike, by absorbing them, and then it has more than it starts with.
+        if (moveVectorSet.size() == initialEncodedMoveVectors.length) {
+            boolean isInitial = true;
+            for (MoveVector moveVector : moveVectorSet) {
+                if (!contains(initialEncodedMoveVectors, moveVector)) {
+                    isInitial = false;
+                    break;
+                }
+            }
+            if (isInitial) {
+                return;
+            }
+        }
+        final int[][] encodedMoveVectors = encodeMoveVectors(moveVectorSet);
+        fen.append('{');
+        for (int index = 0; index < encodedMoveVectors.length; index++) {
+            if (index > 0) {
+                fen.append(';');
+            }
+            for (int field = 0; field < MOVE_VECTOR_STRIDE; field++) {
+                if (field > 0) {
+                    fen.append(',');
+                }
+                fen.append(encodedMoveVectors[index][field]);
+            }
+        }
+        fen.append('}');
+    }
+
+    /**
+     * Checks if encoded MoveVectors hold one with the same directions, distance and flags as a MoveVector.
+     * @param encodedMoveVectors int[][] of encoded MoveVectors
+     * @param moveVector MoveVector to look for
+     * @return true if one of them is the same
+     */
+    private static boolean contains(int[][] encodedMoveVectors, MoveVector moveVector) {
+        for (int[] encodedMoveVector : encodedMoveVectors) {
+            if (encodedMoveVector[0] == moveVector.getRankDirection()
+                    && encodedMoveVector[1] == moveVector.getFileDirection()
+                    && encodedMoveVector[2] == moveVector.getDistance()
+                    && encodedMoveVector[3] == moveVector.getDirectionType()
+                    && encodedMoveVector[4] == moveVector.getFlags()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns MoveVectors into their directions, distance and flags, sorted so they are written in a fixed order.
+     * @param moveVectorSet Set of MoveVectors
+     * @return int[][] of rankDirection, fileDirection, distance, directionType and flags of each MoveVector
+     */
+    private static int[][] encodeMoveVectors(Set<MoveVector> moveVectorSet) {
+        final int[][] encodedMoveVectors = new int[moveVectorSet.size()][];
+        int index = 0;
+        for (MoveVector moveVector : moveVectorSet) {
+            encodedMoveVectors[index++] = new int[]{moveVector.getRankDirection(), moveVector.getFileDirection(),
+                    moveVector.getDistance(), moveVector.getDirectionType(), moveVector.getFlags()};
+        }
+        Arrays.sort(encodedMoveVectors, (first, second) -> {
+            for (int field = 0; field < MOVE_VECTOR_STRIDE; field++) {
+                if (first[field] != second[field]) {
+                    return Integer.compare(first[field], second[field]);
+                }
+            }
+            return 0;
+        });
+        return encodedMoveVectors;
+    }
+}
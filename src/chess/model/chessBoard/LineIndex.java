@@ -0,0 +1,257 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+
+/**
+ * A LineIndex class that keeps the occupied ChessCells of every rank, file, diagonal and anti-diagonal, so the nearest
+ * ChessPiece in a direction is found without a walk over the empty ChessCells in between.
+ * <p>
+ * Sparse ChessBoards keep sorted positions per line and find the nearest ChessPiece by a binary search, so memory
+ * follows the number of ChessPieces and lines, not the number of ChessCells. Dense ChessBoards keep a long[] bitset
+ * per line and find it by scanning 64 positions per word with numberOfTrailingZeros and numberOfLeadingZeros.
+ * <p>
+ * The position on a rank is the file and the position on the other lines is the rank.
+ */
+class LineIndex {
+    private static final int RANK = 0;
+    private static final int FILE = 1;
+    private static final int DIAGONAL = 2;
+    private static final int ANTI_DIAGONAL = 3;
+
+    private final int fileSize;
+    private final int[] lineOffsets;
+    private final int[][] positions;
+    private final int[] counts;
+    private final long[][] bitSets;
+
+    /**
+     * A LineIndex constructor for an empty ChessBoard.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @param usesBitSets true to keep a bitset per line, false to keep sorted positions
+     */
+    LineIndex(int rankSize, int fileSize, boolean usesBitSets) {
+        this.fileSize = fileSize;
+        int diagonalCount = rankSize + fileSize - 1;
+        lineOffsets = new int[]{0, rankSize, rankSize + fileSize, rankSize + fileSize + diagonalCount};
+        int lineCount = rankSize + fileSize + 2 * diagonalCount;
+        if (usesBitSets) {
+            positions = null;
+            counts = null;
+            bitSets = new long[lineCount][];
+            for (int line = 0; line < lineCount; line++) {
+                int length = line < lineOffsets[FILE] ? fileSize : rankSize;
+                bitSets[line] = new long[(length + 63) >>> 6];
+            }
+        } else {
+            positions = new int[lineCount][];
+            counts = new int[lineCount];
+            bitSets = null;
+        }
+    }
+
+    /**
+     * Records that a ChessCell got a ChessPiece.
+     * @param square int index of the ChessCell
+     */
+    void add(int square) {
+        if (bitSets != null) {
+            for (int family = RANK; family <= ANTI_DIAGONAL; family++) {
+                int position = getPosition(family, square);
+                bitSets[getLine(family, square)][position >>> 6] |= 1L << position;
+            }
+            return;
+        }
+        for (int family = RANK; family <= ANTI_DIAGONAL; family++) {
+            int line = getLine(family, square);
+            int position = getPosition(family, square);
+            if (positions[line] == null) {
+                positions[line] = new int[4];
+            }
+            int index = Arrays.binarySearch(positions[line], 0, counts[line], position);
+            if (index >= 0) {
+                continue;
+            }
+            index = -index - 1;
+            if (counts[line] == positions[line].length) {
+                positions[line] = Arrays.copyOf(positions[line], counts[line] * 2);
+            }
+            System.arraycopy(positions[line], index, positions[line], index + 1, counts[line] - index);
+            positions[line][index] = position;
+            counts[line]++;
+        }
+    }
+
+    /**
+     * Records that a ChessCell lost its ChessPiece.
+     * @param square int index of the ChessCell
+     */
+    void remove(int square) {
+        if (bitSets != null) {
+            for (int family = RANK; family <= ANTI_DIAGONAL; family++) {
+                int position = getPosition(family, square);
+                bitSets[getLine(family, square)][position >>> 6] &= ~(1L << position);
+            }
+            return;
+        }
+        for (int family = RANK; family <= ANTI_DIAGONAL; family++) {
+            int line = getLine(family, square);
+            if (positions[line] == null) {
+                continue;
+            }
+            int index = Arrays.binarySearch(positions[line], 0, counts[line], getPosition(family, square));
+            if (index < 0) {
+                continue;
+            }
+            System.arraycopy(positions[line], index + 1, positions[line], index, counts[line] - index - 1);
+            counts[line]--;
+        }
+    }
+
+    /**
+     * Finds the first ChessCell holding a ChessPiece from a ChessCell in one direction.
+     * @param square int index of the ChessCell to start from
+     * @param rankDirection int rank direction, -1, 0 or 1
+     * @param fileDirection int file direction, -1, 0 or 1
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return int index of the first occupied ChessCell, -1 if the edge of the ChessBoard comes first
+     */
+    int getFirstOccupiedSquare(int square, int rankDirection, int fileDirection, int emptiedSquare) {
+        final int family;
+        final boolean isForward;
+        if (rankDirection == 0) {
+            family = RANK;
+            isForward = fileDirection > 0;
+        } else {
+            family = fileDirection == 0 ? FILE : fileDirection == rankDirection ? DIAGONAL : ANTI_DIAGONAL;
+            isForward = rankDirection > 0;
+        }
+        final int line = getLine(family, square);
+        final int position = getPosition(family, square);
+        if (bitSets != null) {
+            int occupiedPosition = isForward ? getNextPosition(bitSets[line], position + 1)
+                    : getPreviousPosition(bitSets[line], position - 1);
+            while (occupiedPosition >= 0) {
+                int occupiedSquare = getSquare(family, square, occupiedPosition);
+                if (occupiedSquare != emptiedSquare) {
+                    return occupiedSquare;
+                }
+                occupiedPosition = isForward ? getNextPosition(bitSets[line], occupiedPosition + 1)
+                        : getPreviousPosition(bitSets[line], occupiedPosition - 1);
+            }
+            return -1;
+        }
+        if (positions[line] == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(positions[line], 0, counts[line], position);
+        if (isForward) {
+            index = index >= 0 ? index + 1 : -index - 1;
+        } else {
+            index = index >= 0 ? index - 1 : -index - 2;
+        }
+        while (index >= 0 && index < counts[line]) {
+            int occupiedSquare = getSquare(family, square, positions[line][index]);
+            if (occupiedSquare != emptiedSquare) {
+                return occupiedSquare;
+            }
+            index += isForward ? 1 : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first set position of a bitset at or after a position.
+     * @param bitSet long[] bitset of a line
+     * @param from int position to start from
+     * @return int first set position, -1 if there is none
+     */
+    private static int getNextPosition(long[] bitSet, int from) {
+        int wordIndex = from >>> 6;
+        if (wordIndex >= bitSet.length) {
+            return -1;
+        }
+        long word = bitSet[wordIndex] & (-1L << from);
+        while (word == 0) {
+            if (++wordIndex == bitSet.length) {
+                return -1;
+            }
+            word = bitSet[wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Finds the last set position of a bitset at or before a position.
+     * @param bitSet long[] bitset of a line
+     * @param from int position to start from
+     * @return int last set position, -1 if there is none
+     */
+    private static int getPreviousPosition(long[] bitSet, int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int wordIndex = from >>> 6;
+        long word = bitSet[wordIndex] & (-1L >>> (63 - (from & 63)));
+        while (word == 0) {
+            if (--wordIndex < 0) {
+                return -1;
+            }
+            word = bitSet[wordIndex];
+        }
+        return (wordIndex << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Getter for the line of a ChessCell in one family of lines.
+     * @param family int RANK, FILE, DIAGONAL or ANTI_DIAGONAL
+     * @param square int index of the ChessCell
+     * @return int index of the line
+     */
+    private int getLine(int family, int square) {
+        int rank = square / fileSize;
+        int file = square % fileSize;
+        switch (family) {
+            case RANK:
+                return lineOffsets[RANK] + rank;
+            case FILE:
+                return lineOffsets[FILE] + file;
+            case DIAGONAL:
+                return lineOffsets[DIAGONAL] + rank - file + fileSize - 1;
+            default:
+                return lineOffsets[ANTI_DIAGONAL] + rank + file;
+        }
+    }
+
+    /**
+     * Getter for the position of a ChessCell on its line.
+     * @param family int RANK, FILE, DIAGONAL or ANTI_DIAGONAL
+     * @param square int index of the ChessCell
+     * @return int file on a rank, rank otherwise
+     */
+    private int getPosition(int family, int square) {
+        return family == RANK ? square % fileSize : square / fileSize;
+    }
+
+    /**
+     * Getter for the ChessCell at a position on the line of another ChessCell.
+     * @param family int RANK, FILE, DIAGONAL or ANTI_DIAGONAL
+     * @param square int index of a ChessCell on the line
+     * @param position int position on the line
+     * @return int index of the ChessCell
+     */
+    private int getSquare(int family, int square, int position) {
+        int rank = square / fileSize;
+        int file = square % fileSize;
+        switch (family) {
+            case RANK:
+                return rank * fileSize + position;
+            case FILE:
+                return position * fileSize + file;
+            case DIAGONAL:
+                return position * fileSize + position - rank + file;
+            default:
+                return position * fileSize + rank + file - position;
+        }
+    }
+}
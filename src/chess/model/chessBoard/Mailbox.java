@@ -0,0 +1,120 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+
+import java.util.Arrays;
+
+/**
+ * A Mailbox class that mirrors the ChessPieces of a ChessBoard of any size in a one-dimensional array with a border
+ * of PADDING sentinel ChessCells on every side, in the spirit of the 10x12 board.
+ * Walking off the ChessBoard by steps of at most PADDING ranks and files always lands on a sentinel first, so a walk
+ * only needs one array read per step to know it left the ChessBoard.
+ * <p>
+ * Mailbox indices are (rank + PADDING) * width + file + PADDING. Sentinels map to OFF_BOARD, the other indices map to
+ * the usual ChessCell index (rank * fileSize + file).
+ */
+class Mailbox {
+    static final int PADDING = 2;
+    static final int OFF_BOARD = -1;
+
+    private final int width;
+    private final int[] squares;
+    private final int[] mailboxIndices;
+    private final ChessPiece[] chessPieces;
+
+    /**
+     * A Mailbox constructor for an empty ChessBoard.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     */
+    Mailbox(int rankSize, int fileSize) {
+        width = fileSize + 2 * PADDING;
+        squares = new int[(rankSize + 2 * PADDING) * width];
+        Arrays.fill(squares, OFF_BOARD);
+        mailboxIndices = new int[rankSize * fileSize];
+        chessPieces = new ChessPiece[squares.length];
+        for (int rank = 0; rank < rankSize; rank++) {
+            for (int file = 0; file < fileSize; file++) {
+                int mailboxIndex = (rank + PADDING) * width + file + PADDING;
+                squares[mailboxIndex] = rank * fileSize + file;
+                mailboxIndices[rank * fileSize + file] = mailboxIndex;
+            }
+        }
+    }
+
+    /**
+     * Mirrors the ChessPiece set on a ChessCell.
+     * @param square int index of the ChessCell
+     * @param chessPiece ChessPiece on the ChessCell, null if it is empty
+     */
+    void setChessPiece(int square, ChessPiece chessPiece) {
+        chessPieces[mailboxIndices[square]] = chessPiece;
+    }
+
+    /**
+     * Checks if a direction can be walked with sentinel checks only.
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @return true if one step never jumps over the border
+     */
+    static boolean fitsPadding(int rankDirection, int fileDirection) {
+        return Math.abs(rankDirection) <= PADDING && Math.abs(fileDirection) <= PADDING;
+    }
+
+    /**
+     * Walks from a ChessCell in one direction to the first ChessCell holding a ChessPiece.
+     * @param square int index of the ChessCell to start from
+     * @param rankDirection int rank direction, fitting the padding
+     * @param fileDirection int file direction, fitting the padding
+     * @param emptiedSquare int index of a ChessCell that counts as empty, -1 for none
+     * @return int index of the first occupied ChessCell, -1 if the edge of the ChessBoard comes first
+     */
+    int getFirstOccupiedSquare(int square, int rankDirection, int fileDirection, int emptiedSquare) {
+        final int step = rankDirection * width + fileDirection;
+        int mailboxIndex = mailboxIndices[square] + step;
+        while (squares[mailboxIndex] != OFF_BOARD) {
+            if (chessPieces[mailboxIndex] != null && squares[mailboxIndex] != emptiedSquare) {
+                return squares[mailboxIndex];
+            }
+            mailboxIndex += step;
+        }
+        return -1;
+    }
+
+    /**
+     * Getter for the mailbox index of a ChessCell.
+     * @param square int index of the ChessCell
+     * @return int mailbox index
+     */
+    int getMailboxIndex(int square) {
+        return mailboxIndices[square];
+    }
+
+    /**
+     * Getter for the difference of mailbox indices one step in a direction makes.
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @return int mailbox index step
+     */
+    int getStep(int rankDirection, int fileDirection) {
+        return rankDirection * width + fileDirection;
+    }
+
+    /**
+     * Getter for the ChessCell index of a mailbox index.
+     * @param mailboxIndex int mailbox index
+     * @return int index of the ChessCell, OFF_BOARD for a sentinel
+     */
+    int getSquare(int mailboxIndex) {
+        return squares[mailboxIndex];
+    }
+
+    /**
+     * Getter for the ChessPiece on a mailbox index.
+     * @param mailboxIndex int mailbox index
+     * @return ChessPiece, null if the ChessCell is empty or a sentinel
+     */
+    ChessPiece getChessPiece(int mailboxIndex) {
+        return chessPieces[mailboxIndex];
+    }
+}
@@ -0,0 +1,154 @@
+package chess.model.chessBoard;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * A MovableCellSet class that is a read-only Set view of the movableCells of a ChessCell, kept as ChessCell indices
+ * instead of a HashSet of ChessCells.
+ * Dense ChessBoards keep a bitset of the indices, one long on an 8x8 ChessBoard, so contains is a bit test.
+ * Sparse ChessBoards keep the indices sorted and use a binary search, since a bitset would follow the number of
+ * ChessCells. The ChessCells themselves are only looked up when the Set is iterated.
+ */
+class MovableCellSet extends AbstractSet<ChessCell> {
+    private final int[] squares;
+    private final long[] bitSet;
+    private final IntFunction<ChessCell> chessCells;
+
+    /**
+     * A MovableCellSet constructor.
+     * @param squares int[] indices of the movable ChessCells without duplicates, sorted if there is no bitset
+     * @param bitSet long[] bitset of the same indices, null to search squares instead
+     * @param chessCells IntFunction returning the ChessCell of an index
+     */
+    private MovableCellSet(int[] squares, long[] bitSet, IntFunction<ChessCell> chessCells) {
+        this.squares = squares;
+        this.bitSet = bitSet;
+        this.chessCells = chessCells;
+    }
+
+    /**
+     * Creates the movableCells of a ChessCell on a dense ChessBoard.
+     * @param squares int[] indices of the movable ChessCells
+     * @param squareCount int number of ChessCells on the ChessBoard
+     * @param chessCells IntFunction returning the ChessCell of an index
+     * @return MovableCellSet backed by a bitset
+     */
+    static MovableCellSet ofBitSet(int[] squares, int squareCount, IntFunction<ChessCell> chessCells) {
+        long[] bitSet = new long[(squareCount + 63) >>> 6];
+        int uniqueCount = 0;
+        for (int square : squares) {
+            if ((bitSet[square >>> 6] & (1L << square)) == 0) {
+                bitSet[square >>> 6] |= 1L << square;
+                uniqueCount++;
+            }
+        }
+        return new MovableCellSet(uniqueCount == squares.length ? squares : sortUniqueSquares(squares), bitSet,
+                chessCells);
+    }
+
+    /**
+     * Creates the movableCells of a ChessCell on a sparse ChessBoard.
+     * @param squares int[] indices of the movable ChessCells
+     * @param chessCells IntFunction returning the ChessCell of an index
+     * @return MovableCellSet backed by sorted indices
+     */
+    static MovableCellSet ofSortedSquares(int[] squares, IntFunction<ChessCell> chessCells) {
+        return new MovableCellSet(sortUniqueSquares(squares), null, chessCells);
+    }
+
+    /**
+     * Sorts a copy of ChessCell indices and keeps each index once, so the size and the iteration of the Set count
+     * every ChessCell once even if the search found it twice.
+     * @param squares int[] indices of the movable ChessCells
+     * @return int[] sorted indices without duplicates
+     */
+    private static int[] sortUniqueSquares(int[] squares) {
+        int[] sortedSquares = squares.clone();
+        Arrays.sort(sortedSquares);
+        int uniqueCount = 0;
+        for (int index = 0; index < sortedSquares.length; index++) {
+            if (index == 0 || sortedSquares[index] != sortedSquares[index - 1]) {
+                sortedSquares[uniqueCount++] = sortedSquares[index];
+            }
+        }
+        return uniqueCount == sortedSquares.length ? sortedSquares : Arrays.copyOf(sortedSquares, uniqueCount);
+    }
+
+    /**
+     * Creates the same movableCells for the ChessCells of another ChessBoard of the same size, sharing the indices and
+     * the bitset, which are never changed.
+     * @param chessCells IntFunction returning the ChessCell of an index on the other ChessBoard
+     * @param movableCells Set of ChessCells the other ChessBoard has now, returned if it holds the same indices
+     * @return MovableCellSet over the ChessCells of the other ChessBoard
+     */
+    MovableCellSet rebind(IntFunction<ChessCell> chessCells, Set<ChessCell> movableCells) {
+        if (movableCells instanceof MovableCellSet && ((MovableCellSet) movableCells).squares == squares) {
+            return (MovableCellSet) movableCells;
+        }
+        return new MovableCellSet(squares, bitSet, chessCells);
+    }
+
+    /**
+     * Checks if a ChessCell index is one of the movableCells.
+     * @param square int index of the ChessCell
+     * @return true if the ChessCell is movable
+     */
+    boolean containsSquare(int square) {
+        if (bitSet == null) {
+            return Arrays.binarySearch(squares, square) >= 0;
+        }
+        return square >= 0 && (square >>> 6) < bitSet.length && (bitSet[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Checks if a ChessCell of the same ChessBoard is one of the movableCells.
+     * @param object ChessCell to look for
+     * @return true if the ChessCell is movable
+     */
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof ChessCell)) {
+            return false;
+        }
+        int square = ((ChessCell) object).getSquare();
+        return square >= 0 && containsSquare(square) && chessCells.apply(square) == object;
+    }
+
+    /**
+     * Getter for the number of movableCells.
+     * @return int size
+     */
+    @Override
+    public int size() {
+        return squares.length;
+    }
+
+    /**
+     * Iterates the movableCells, looking up each ChessCell by its index.
+     * @return Iterator of ChessCells
+     */
+    @Override
+    public Iterator<ChessCell> iterator() {
+        return new Iterator<ChessCell>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < squares.length;
+            }
+
+            @Override
+            public ChessCell next() {
+                if (index == squares.length) {
+                    throw new NoSuchElementException();
+                }
+                return chessCells.apply(squares[index++]);
+            }
+        };
+    }
+}
@@ -0,0 +1,338 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * A MovableCellsTracker class that remembers, for every occupied ChessCell, the movableCells its ChessPiece has
+ * without the check filter and the ChessCells that were looked at to find them.
+ * When ChessPieces are set, only the ChessPieces that stand on or looked at a changed ChessCell have to be processed
+ * again, so the cost of an update follows the ChessCells a move touches instead of the number of ChessPieces.
+ * <p>
+ * ChessCells are identified by their index (rank * fileSize + file).
+ * Watchers are removed lazily: every entry gets a stamp and a watcher whose stamp does not match the current entry of
+ * its ChessCell is skipped and dropped.
+ */
+class MovableCellsTracker {
+    private final Entry[] entries;
+    private final int[][] watcherSquares;
+    private final int[][] watcherStamps;
+    private final int[] watcherCounts;
+    private final boolean[] isChanged;
+    private final int[] changedSquares;
+    private int changedCount;
+    private final boolean[] isAffected;
+    private int[] watchedSquares;
+    private int watchedCount;
+    private int[] movableSquares;
+    private int movableCount;
+    private boolean mayFindTwice;
+    private int[] filteredSquares;
+    private int nextStamp;
+
+    /**
+     * A MovableCellsTracker constructor for an empty ChessBoard of the given number of ChessCells.
+     * @param squareCount int number of ChessCells on the ChessBoard
+     */
+    MovableCellsTracker(int squareCount) {
+        entries = new Entry[squareCount];
+        watcherSquares = new int[squareCount][];
+        watcherStamps = new int[squareCount][];
+        watcherCounts = new int[squareCount];
+        isChanged = new boolean[squareCount];
+        changedSquares = new int[squareCount];
+        isAffected = new boolean[squareCount];
+        watchedSquares = new int[16];
+        movableSquares = new int[16];
+        filteredSquares = new int[0];
+        nextStamp = 1;
+    }
+
+    /**
+     * Records that the ChessPiece on a ChessCell was replaced, dropping the entry of the ChessCell.
+     * @param square int index of the ChessCell
+     */
+    void setChessPiece(int square) {
+        removeEntry(square);
+        if (!isChanged[square]) {
+            isChanged[square] = true;
+            changedSquares[changedCount++] = square;
+        }
+    }
+
+    /**
+     * Returns the ChessCells whose movableCells have to be processed again since the last call: the changed ChessCells
+     * and the ChessCells of every ChessPiece that looked at one of them.
+     * The entries of the returned ChessCells are dropped.
+     * @return int[] indices of the affected ChessCells, some of which may be empty
+     */
+    int[] takeAffectedSquares() {
+        int[] affectedSquares = new int[changedCount];
+        int affectedCount = 0;
+        for (int i = 0; i < changedCount; i++) {
+            int square = changedSquares[i];
+            isChanged[square] = false;
+            if (!isAffected[square]) {
+                isAffected[square] = true;
+                if (affectedCount == affectedSquares.length) {
+                    affectedSquares = Arrays.copyOf(affectedSquares, affectedCount * 2 + 1);
+                }
+                affectedSquares[affectedCount++] = square;
+            }
+            for (int j = 0; j < watcherCounts[square]; j++) {
+                int watcher = watcherSquares[square][j];
+                if (!isLive(watcher, watcherStamps[square][j]) || isAffected[watcher]) {
+                    continue;
+                }
+                removeEntry(watcher);
+                isAffected[watcher] = true;
+                if (affectedCount == affectedSquares.length) {
+                    affectedSquares = Arrays.copyOf(affectedSquares, affectedCount * 2 + 1);
+                }
+                affectedSquares[affectedCount++] = watcher;
+            }
+            watcherCounts[square] = 0;
+        }
+        changedCount = 0;
+        for (int i = 0; i < affectedCount; i++) {
+            isAffected[affectedSquares[i]] = false;
+        }
+        return Arrays.copyOf(affectedSquares, affectedCount);
+    }
+
+    /**
+     * Forgets the ChessCells looked at and found so far, before the movableCells of a ChessPiece are searched.
+     * @param mayFindTwice true if two directions of the ChessPiece can reach the same ChessCell
+     */
+    void startSearch(boolean mayFindTwice) {
+        watchedCount = 0;
+        movableCount = 0;
+        this.mayFindTwice = mayFindTwice;
+    }
+
+    /**
+     * Records that the movableCells being searched depend on the ChessPiece of a ChessCell.
+     * @param square int index of the ChessCell that was looked at
+     */
+    void watch(int square) {
+        if (watchedCount == watchedSquares.length) {
+            watchedSquares = Arrays.copyOf(watchedSquares, watchedCount * 2);
+        }
+        watchedSquares[watchedCount++] = square;
+    }
+
+    /**
+     * Records a ChessCell the ChessPiece being searched can move to.
+     * @param square int index of the movable ChessCell
+     */
+    void addMovableSquare(int square) {
+        if (movableCount == movableSquares.length) {
+            movableSquares = Arrays.copyOf(movableSquares, movableCount * 2);
+        }
+        movableSquares[movableCount++] = square;
+    }
+
+    /**
+     * Copies the movable ChessCells recorded since startSearch.
+     * @return int[] of ChessCell indices
+     */
+    int[] getFoundMovableSquares() {
+        int[] foundSquares = Arrays.copyOf(movableSquares, movableCount);
+        if (!mayFindTwice) {
+            return foundSquares;
+        }
+        // Each movable ChessCell is kept once, or it would be generated as a movement twice.
+        Arrays.sort(foundSquares);
+        int uniqueCount = 0;
+        for (int index = 0; index < foundSquares.length; index++) {
+            if (index == 0 || foundSquares[index] != foundSquares[index - 1]) {
+                foundSquares[uniqueCount++] = foundSquares[index];
+            }
+        }
+        return Arrays.copyOf(foundSquares, uniqueCount);
+    }
+
+    /**
+     * Stores the movableCells found for the ChessPiece on a ChessCell, together with the movable ChessCells and
+     * watching the ChessCells recorded since startSearch.
+     * @param square int index of the ChessCell of the ChessPiece
+     * @param movableCells Set of ChessCells the ChessPiece can move to, not filtered for checks
+     */
+    void putEntry(int square, Set<ChessCell> movableCells) {
+        Entry entry = new Entry(nextStamp++, movableCells, getFoundMovableSquares());
+        entries[square] = entry;
+        for (int i = 0; i < watchedCount; i++) {
+            addWatcher(watchedSquares[i], square, entry.stamp);
+        }
+    }
+
+    /**
+     * Checks if a ChessCell has an entry.
+     * @param square int index of the ChessCell
+     * @return true if the movableCells of the ChessCell are known
+     */
+    boolean hasEntry(int square) {
+        return entries[square] != null;
+    }
+
+    /**
+     * Getter for the movableCells of a ChessCell that are not filtered for checks.
+     * @param square int index of the ChessCell
+     * @return Set of ChessCells
+     */
+    Set<ChessCell> getMovableCells(int square) {
+        return entries[square].movableCells;
+    }
+
+    /**
+     * Getter for the indices of the movableCells of a ChessCell that are not filtered for checks.
+     * @param square int index of the ChessCell
+     * @return int[] of ChessCell indices
+     */
+    int[] getMovableSquares(int square) {
+        return entries[square].movableSquares;
+    }
+
+    /**
+     * Getter for the ChessCells whose movableCells were filtered for checks during the last update.
+     * @return int[] of ChessCell indices
+     */
+    int[] getFilteredSquares() {
+        return filteredSquares;
+    }
+
+    /**
+     * Setter for the ChessCells whose movableCells were filtered for checks during the last update.
+     * @param filteredSquares int[] of ChessCell indices
+     */
+    void setFilteredSquares(int[] filteredSquares) {
+        this.filteredSquares = filteredSquares;
+    }
+
+    /**
+     * Forgets every entry, so the tracker can be filled again from scratch.
+     */
+    void clear() {
+        for (int square = 0; square < entries.length; square++) {
+            removeEntry(square);
+            watcherCounts[square] = 0;
+            isChanged[square] = false;
+        }
+        changedCount = 0;
+        filteredSquares = new int[0];
+    }
+
+    /**
+     * Copies every entry and watcher into the MovableCellsTracker of another ChessBoard of the same size.
+     * The movable ChessCell indices of the entries are shared, since they are never changed; entries the other
+     * MovableCellsTracker already has with the same stamp and indices are kept, and watcher lists are copied into the
+     * arrays it already has when they fit.
+     * @param movableCellsTracker MovableCellsTracker to copy into
+     * @param rebinding BinaryOperator turning the movableCells of an entry and the ones the other entry has now into
+     *                  movableCells of the other ChessBoard
+     */
+    void copyInto(MovableCellsTracker movableCellsTracker, BinaryOperator<Set<ChessCell>> rebinding) {
+        for (int square = 0; square < entries.length; square++) {
+            final Entry entry = entries[square];
+            final Entry oldEntry = movableCellsTracker.entries[square];
+            if (entry == null) {
+                movableCellsTracker.entries[square] = null;
+            } else if (oldEntry == null || oldEntry.stamp != entry.stamp
+                    || oldEntry.movableSquares != entry.movableSquares) {
+                movableCellsTracker.entries[square] = new Entry(entry.stamp,
+                        rebinding.apply(entry.movableCells, oldEntry == null ? null : oldEntry.movableCells),
+                        entry.movableSquares);
+            }
+
+            final int count = watcherCounts[square];
+            movableCellsTracker.watcherCounts[square] = count;
+            if (count == 0) {
+                continue;
+            }
+            if (movableCellsTracker.watcherSquares[square] == null
+                    || movableCellsTracker.watcherSquares[square].length < count) {
+                movableCellsTracker.watcherSquares[square] = new int[watcherSquares[square].length];
+                movableCellsTracker.watcherStamps[square] = new int[watcherStamps[square].length];
+            }
+            System.arraycopy(watcherSquares[square], 0, movableCellsTracker.watcherSquares[square], 0, count);
+            System.arraycopy(watcherStamps[square], 0, movableCellsTracker.watcherStamps[square], 0, count);
+        }
+        System.arraycopy(isChanged, 0, movableCellsTracker.isChanged, 0, isChanged.length);
+        System.arraycopy(changedSquares, 0, movableCellsTracker.changedSquares, 0, changedCount);
+        movableCellsTracker.changedCount = changedCount;
+        movableCellsTracker.filteredSquares = filteredSquares;
+        movableCellsTracker.nextStamp = nextStamp;
+    }
+
+    /**
+     * Drops the entry of a ChessCell. Its watchers are left to be skipped later.
+     * @param square int index of the ChessCell
+     */
+    private void removeEntry(int square) {
+        entries[square] = null;
+    }
+
+    /**
+     * Checks if a watcher still belongs to the current entry of its ChessCell.
+     * @param square int index of the ChessCell of the watcher
+     * @param stamp int stamp of the entry that registered the watcher
+     * @return true if the watcher is live
+     */
+    private boolean isLive(int square, int stamp) {
+        return entries[square] != null && entries[square].stamp == stamp;
+    }
+
+    /**
+     * Registers a watcher on a ChessCell, dropping the watchers that are no longer live before growing the list.
+     * @param square int index of the watched ChessCell
+     * @param watcher int index of the ChessCell of the watching ChessPiece
+     * @param stamp int stamp of the entry of the watching ChessPiece
+     */
+    private void addWatcher(int square, int watcher, int stamp) {
+        if (watcherSquares[square] == null) {
+            watcherSquares[square] = new int[4];
+            watcherStamps[square] = new int[4];
+        }
+        int count = watcherCounts[square];
+        if (count == watcherSquares[square].length) {
+            int liveCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (isLive(watcherSquares[square][i], watcherStamps[square][i])) {
+                    watcherSquares[square][liveCount] = watcherSquares[square][i];
+                    watcherStamps[square][liveCount] = watcherStamps[square][i];
+                    liveCount++;
+                }
+            }
+            count = liveCount;
+            if (count * 2 > watcherSquares[square].length) {
+                watcherSquares[square] = Arrays.copyOf(watcherSquares[square], watcherSquares[square].length * 2);
+                watcherStamps[square] = Arrays.copyOf(watcherStamps[square], watcherStamps[square].length * 2);
+            }
+        }
+        watcherSquares[square][count] = watcher;
+        watcherStamps[square][count] = stamp;
+        watcherCounts[square] = count + 1;
+    }
+
+    /**
+     * The movableCells of one ChessPiece that are not filtered for checks.
+     */
+    private static class Entry {
+        private final int stamp;
+        private final Set<ChessCell> movableCells;
+        private final int[] movableSquares;
+
+        /**
+         * Constructor for Entry
+         * @param stamp int number that tells this entry apart from earlier entries of the same ChessCell
+         * @param movableCells Set of ChessCells the ChessPiece can move to
+         * @param movableSquares int[] indices of the same ChessCells
+         */
+        private Entry(int stamp, Set<ChessCell> movableCells, int[] movableSquares) {
+            this.stamp = stamp;
+            this.movableCells = movableCells;
+            this.movableSquares = movableSquares;
+        }
+    }
+}
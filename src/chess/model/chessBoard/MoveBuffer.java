@@ -0,0 +1,131 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+
+/**
+ * A MoveBuffer class that holds the movements generated by a ChessBoard as packed ints, so a caller can keep one
+ * buffer per ply and generate movements again and again without allocating.
+ * <p>
+ * A movement packs the index (rank * fileSize + file) of its origin ChessCell in the lowest SQUARE_BITS bits, the index
+ * of its destination ChessCell in the next SQUARE_BITS bits and the CAPTURE, INITIAL_MOVE and TANK_HIT flags above.
+ */
+public class MoveBuffer {
+    static final int SQUARE_BITS = 14;
+    static final int MAX_SQUARE_COUNT = 1 << SQUARE_BITS;
+    private static final int SQUARE_MASK = MAX_SQUARE_COUNT - 1;
+    /** The destination holds a ChessPiece. */
+    public static final int CAPTURE = 1 << 28;
+    /** The moving ChessPiece has not moved yet. */
+    public static final int INITIAL_MOVE = 1 << 29;
+    /** The destination holds a Tank that survives the hit, so the moving ChessPiece bounces. */
+    public static final int TANK_HIT = 1 << 30;
+
+    private int[] moves;
+    private int size;
+
+    /**
+     * A MoveBuffer constructor with room for the movements of a usual position.
+     */
+    public MoveBuffer() {
+        this(256);
+    }
+
+    /**
+     * A MoveBuffer constructor with an initial capacity. The buffer grows when it is full.
+     * @param capacity int number of movements the buffer holds before growing
+     */
+    public MoveBuffer(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Forgets the movements in the buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a packed movement.
+     * @param move int packed movement
+     */
+    void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Getter for the number of movements in the buffer.
+     * @return int number of movements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for a packed movement.
+     * @param index int position between 0 and size - 1
+     * @return int packed movement
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Packs a movement.
+     * @param from int index of the origin ChessCell
+     * @param to int index of the destination ChessCell
+     * @param flags int of CAPTURE, INITIAL_MOVE and TANK_HIT bits
+     * @return int packed movement
+     */
+    static int encode(int from, int to, int flags) {
+        return from | (to << SQUARE_BITS) | flags;
+    }
+
+    /**
+     * Getter for the origin of a packed movement.
+     * @param move int packed movement
+     * @return int index of the origin ChessCell
+     */
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Getter for the destination of a packed movement.
+     * @param move int packed movement
+     * @return int index of the destination ChessCell
+     */
+    public static int getTo(int move) {
+        return (move >>> SQUARE_BITS) & SQUARE_MASK;
+    }
+
+    /**
+     * Checks if a packed movement captures or hits a ChessPiece.
+     * @param move int packed movement
+     * @return true if the destination holds a ChessPiece
+     */
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * Checks if a packed movement is the first movement of its ChessPiece.
+     * @param move int packed movement
+     * @return true if the moving ChessPiece has not moved yet
+     */
+    public static boolean isInitialMove(int move) {
+        return (move & INITIAL_MOVE) != 0;
+    }
+
+    /**
+     * Checks if a packed movement hits a Tank that survives.
+     * @param move int packed movement
+     * @return true if the moving ChessPiece bounces off a Tank
+     */
+    public static boolean isTankHit(int move) {
+        return (move & TANK_HIT) != 0;
+    }
+}
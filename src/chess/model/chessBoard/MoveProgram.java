@@ -0,0 +1,187 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.MoveVector;
+
+/**
+ * A MoveProgram class that compiles a MoveVector set into one flat int array, so move generation reads primitives
+ * instead of going through the Set and a getter per flag.
+ * <p>
+ * Every expanded direction takes STRIDE ints: the packed flags, the rank direction, the file direction and the
+ * distance. Directions come in the same order as the directions of a MoveTable built from the same sorted
+ * MoveVectors, so a direction index is valid for both.
+ * Programs only depend on the MoveVectors, so every ChessPiece of the same kind and color shares one, as long as it
+ * is one of the MAX_MOVE_PROGRAMS used most recently. Equal MoveVectors get the same MoveProgram object unless it
+ * was dropped in between, so a different object does not mean different MoveVectors.
+ * A Kirby turns on canCaptureOwnPiece of the MoveVectors it absorbs, which still belong to the absorbed ChessPiece,
+ * so flags can change without a new MoveVector set version and have to be compared with matches.
+ */
+class MoveProgram {
+    static final int CAN_CAPTURE = 1;
+    static final int CAN_BE_EMPTY = 1 << 1;
+    static final int CAN_JUMP_OVER = 1 << 2;
+    static final int INITIAL_MOVE = 1 << 3;
+    static final int CAN_CAPTURE_OWN_PIECE = 1 << 4;
+    static final int BLOCKABLE = 1 << 5;
+    static final int STRIDE = 4;
+    static final int FLAGS = 0;
+    static final int RANK_DIRECTION = 1;
+    static final int FILE_DIRECTION = 2;
+    static final int DISTANCE = 3;
+    private static final int MAX_MOVE_PROGRAMS = 1024;
+    private static final BoundedCache<MoveProgram> MOVE_PROGRAMS = new BoundedCache<>(MAX_MOVE_PROGRAMS);
+
+    private final int[] program;
+    private final int[] vectorFlags;
+    private final long key;
+    private final boolean hasOverlappingDirections;
+
+    /**
+     * Returns the shared MoveProgram for MoveVectors sorted by MoveTable.MOVE_VECTOR_ORDER, compiling it on first use.
+     * @param moveVectors MoveVector[] sorted by MoveTable.MOVE_VECTOR_ORDER
+     * @return MoveProgram of the MoveVectors
+     */
+    static MoveProgram get(MoveVector[] moveVectors) {
+        StringBuilder key = new StringBuilder();
+        for (MoveVector moveVector : moveVectors) {
+            key.append('|').append(moveVector.getRankDirection()).append(',').append(moveVector.getFileDirection())
+                    .append(',').append(moveVector.getDistance()).append(',').append(moveVector.getDirectionType())
+                    .append(',').append(getFlags(moveVector));
+        }
+        return MOVE_PROGRAMS.get(key.toString(), k -> new MoveProgram(moveVectors));
+    }
+
+    /**
+     * Expands the directions of every MoveVector and packs them with their flags.
+     * @param moveVectors MoveVector[] sorted by MoveTable.MOVE_VECTOR_ORDER
+     */
+    private MoveProgram(MoveVector[] moveVectors) {
+        vectorFlags = new int[moveVectors.length];
+        for (int vectorIndex = 0; vectorIndex < moveVectors.length; vectorIndex++) {
+            vectorFlags[vectorIndex] = getFlags(moveVectors[vectorIndex]);
+        }
+        int directionCount = 0;
+        for (MoveVector moveVector : moveVectors) {
+            directionCount += MoveTable.expandDirections(moveVector).length;
+        }
+        program = new int[directionCount * STRIDE];
+        int index = 0;
+        for (MoveVector moveVector : moveVectors) {
+            int flags = getFlags(moveVector);
+            for (int[] direction : MoveTable.expandDirections(moveVector)) {
+                program[index + FLAGS] = flags
+                        | (!moveVector.canJumpOver() && MoveTable.isOnALine(direction[0], direction[1]) ? BLOCKABLE : 0);
+                program[index + RANK_DIRECTION] = direction[0];
+                program[index + FILE_DIRECTION] = direction[1];
+                program[index + DISTANCE] = moveVector.getDistance();
+                index += STRIDE;
+            }
+        }
+        long key = program.length;
+        for (int value : program) {
+            key = ZobristKeys.mix(key ^ value);
+        }
+        this.key = key;
+        hasOverlappingDirections = findOverlappingDirections();
+    }
+
+    /**
+     * Checks if two directions can reach the same ChessCell, which happens when a Kirby absorbed MoveVectors along
+     * directions it already had. Direction a * u reaches it at step b / gcd(a, b) and direction b * u at step
+     * a / gcd(a, b), for the smallest step u along their line.
+     * @return true if some ChessCell can be found twice
+     */
+    private boolean findOverlappingDirections() {
+        for (int first = 0; first < program.length; first += STRIDE) {
+            for (int second = first + STRIDE; second < program.length; second += STRIDE) {
+                int firstGcd = gcd(program[first + RANK_DIRECTION], program[first + FILE_DIRECTION]);
+                int secondGcd = gcd(program[second + RANK_DIRECTION], program[second + FILE_DIRECTION]);
+                if (program[first + RANK_DIRECTION] / firstGcd != program[second + RANK_DIRECTION] / secondGcd
+                        || program[first + FILE_DIRECTION] / firstGcd != program[second + FILE_DIRECTION] / secondGcd) {
+                    continue;
+                }
+                int commonGcd = gcd(firstGcd, secondGcd);
+                if (secondGcd / commonGcd <= program[first + DISTANCE]
+                        && firstGcd / commonGcd <= program[second + DISTANCE]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Greatest common divisor of the absolute values of two ints, not both 0.
+     * @param a int
+     * @param b int
+     * @return int greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Packs the flags of a MoveVector.
+     * @param moveVector MoveVector whose flags are packed
+     * @return int of CAN_CAPTURE, CAN_BE_EMPTY, CAN_JUMP_OVER, INITIAL_MOVE and CAN_CAPTURE_OWN_PIECE bits
+     */
+    private static int getFlags(MoveVector moveVector) {
+        return (moveVector.canCapture() ? CAN_CAPTURE : 0)
+                | (moveVector.canBeEmpty() ? CAN_BE_EMPTY : 0)
+                | (moveVector.canJumpOver() ? CAN_JUMP_OVER : 0)
+                | (moveVector.isInitialMove() ? INITIAL_MOVE : 0)
+                | (moveVector.canCaptureOwnPiece() ? CAN_CAPTURE_OWN_PIECE : 0);
+    }
+
+    /**
+     * Checks if the flags of MoveVectors are still the ones this MoveProgram was compiled with.
+     * @param moveVectors MoveVector[] the MoveProgram was compiled from
+     * @return true if no flag changed
+     */
+    boolean matches(MoveVector[] moveVectors) {
+        for (int vectorIndex = 0; vectorIndex < moveVectors.length; vectorIndex++) {
+            if (getFlags(moveVectors[vectorIndex]) != vectorFlags[vectorIndex]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the number of expanded directions.
+     * @return int number of directions
+     */
+    int getDirectionCount() {
+        return program.length / STRIDE;
+    }
+
+    /**
+     * Getter for the compiled program. Direction d starts at d * STRIDE.
+     * @return int[] program, not to be modified
+     */
+    int[] getProgram() {
+        return program;
+    }
+
+    /**
+     * Getter for whether two directions can reach the same ChessCell, so the ChessCells found have to be deduplicated.
+     * @return true if some ChessCell can be found twice
+     */
+    boolean hasOverlappingDirections() {
+        return hasOverlappingDirections;
+    }
+
+    /**
+     * Getter for a 64-bit number that tells MovePrograms with different directions or flags apart.
+     * @return long key of the program
+     */
+    long getKey() {
+        return key;
+    }
+}
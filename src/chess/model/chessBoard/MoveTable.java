@@ -0,0 +1,238 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.MoveVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A MoveTable class that precomputes, for one MoveVector set and one ChessBoard size, the ordered ChessCells every
+ * direction reaches from every origin ChessCell.
+ * The directionTypes of the MoveVectors are expanded and the ChessCells off the ChessBoard are left out once here,
+ * so move generation only iterates a flat int array.
+ * <p>
+ * For each origin the array holds, per direction, the number of entries followed by the entries.
+ * An entry is the index (rank * fileSize + file) of a ChessCell the ChessPiece may move to, or ~index of a ChessCell
+ * it only passes over, such as the middle ChessCell of a Pawn's initial move.
+ * MoveVectors whose direction is not on a rank, a file or a diagonal can only be used as jumps, so they have no
+ * passed-over entries.
+ */
+class MoveTable {
+    static final Comparator<MoveVector> MOVE_VECTOR_ORDER = Comparator
+            .comparingInt(MoveVector::getRankDirection)
+            .thenComparingInt(MoveVector::getFileDirection)
+            .thenComparingInt(MoveVector::getDistance)
+            .thenComparingInt(MoveVector::getDirectionType)
+            .thenComparing(MoveVector::canJumpOver);
+    private static final int MAX_MOVE_TABLES = 256;
+    private static final BoundedCache<MoveTable> MOVE_TABLES = new BoundedCache<>(MAX_MOVE_TABLES);
+
+    private final int[] vectorIndices;
+    private final int[] rankDirections;
+    private final int[] fileDirections;
+    private final boolean[] blockables;
+    private final int[][] cells;
+
+    /**
+     * Returns the shared MoveTable for MoveVectors sorted by MOVE_VECTOR_ORDER, building it on first use.
+     * Only the geometry of the MoveVectors is part of the table, so ChessPieces of the same kind share one.
+     * Up to MAX_MOVE_TABLES of them are kept, so one that was not used for a while may be built again.
+     * @param moveVectors MoveVector[] sorted by MOVE_VECTOR_ORDER
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @return MoveTable of the MoveVectors on a ChessBoard of the given size
+     */
+    static MoveTable get(MoveVector[] moveVectors, int rankSize, int fileSize) {
+        StringBuilder key = new StringBuilder().append(rankSize).append('x').append(fileSize);
+        for (MoveVector moveVector : moveVectors) {
+            key.append('|').append(moveVector.getRankDirection()).append(',').append(moveVector.getFileDirection())
+                    .append(',').append(moveVector.getDistance()).append(',').append(moveVector.getDirectionType())
+                    .append(',').append(moveVector.canJumpOver());
+        }
+        return MOVE_TABLES.get(key.toString(), k -> new MoveTable(moveVectors, rankSize, fileSize));
+    }
+
+    /**
+     * Builds the entries of every direction for every origin ChessCell.
+     * @param moveVectors MoveVector[] sorted by MOVE_VECTOR_ORDER
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     */
+    private MoveTable(MoveVector[] moveVectors, int rankSize, int fileSize) {
+        List<int[]> directions = new ArrayList<>();
+        for (int vectorIndex = 0; vectorIndex < moveVectors.length; vectorIndex++) {
+            MoveVector moveVector = moveVectors[vectorIndex];
+            for (int[] direction : expandDirections(moveVector)) {
+                directions.add(new int[]{vectorIndex, direction[0], direction[1]});
+            }
+        }
+        vectorIndices = new int[directions.size()];
+        rankDirections = new int[directions.size()];
+        fileDirections = new int[directions.size()];
+        blockables = new boolean[directions.size()];
+        for (int direction = 0; direction < directions.size(); direction++) {
+            vectorIndices[direction] = directions.get(direction)[0];
+            rankDirections[direction] = directions.get(direction)[1];
+            fileDirections[direction] = directions.get(direction)[2];
+            blockables[direction] = !moveVectors[vectorIndices[direction]].canJumpOver()
+                    && isOnALine(rankDirections[direction], fileDirections[direction]);
+        }
+
+        cells = new int[rankSize * fileSize][];
+        int[] buffer = new int[16];
+        for (int origin = 0; origin < cells.length; origin++) {
+            int size = 0;
+            for (int direction = 0; direction < vectorIndices.length; direction++) {
+                MoveVector moveVector = moveVectors[vectorIndices[direction]];
+                int rankDirection = rankDirections[direction];
+                int fileDirection = fileDirections[direction];
+                if (buffer.length == size) buffer = Arrays.copyOf(buffer, size * 2);
+                int countIndex = size++;
+                for (int distance = 1; distance <= moveVector.getDistance(); distance++) {
+                    int rank = origin / fileSize + rankDirection * distance;
+                    int file = origin % fileSize + fileDirection * distance;
+                    if (rank < 0 || rank >= rankSize || file < 0 || file >= fileSize) break;
+                    int steps = Math.max(Math.abs(rankDirection), Math.abs(fileDirection));
+                    if (buffer.length < size + steps + 1) buffer = Arrays.copyOf(buffer, (size + steps + 1) * 2);
+                    if (blockables[direction]) {
+                        for (int step = steps - 1; step >= 1; step--) {
+                            int pathRank = rank - Integer.signum(rankDirection) * step;
+                            int pathFile = file - Integer.signum(fileDirection) * step;
+                            buffer[size++] = ~(pathRank * fileSize + pathFile);
+                        }
+                    }
+                    buffer[size++] = rank * fileSize + file;
+                }
+                buffer[countIndex] = size - countIndex - 1;
+            }
+            cells[origin] = Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * Expands the directionType of a MoveVector into its distinct directions.
+     * 1 and -1 keep one direction, -1 flipping the rank, 2 adds the rotations of a rank or file direction
+     * and 4 adds the mirror images of a diagonal or leaping direction.
+     * @param moveVector MoveVector to expand
+     * @return int[][] of {rankDirection, fileDirection}
+     */
+    static int[][] expandDirections(MoveVector moveVector) {
+        int rankDirection = moveVector.getRankDirection();
+        int fileDirection = moveVector.getFileDirection();
+        int[][] directions;
+        switch (moveVector.getDirectionType()) {
+            case 1:
+                directions = new int[][]{{rankDirection, fileDirection}};
+                break;
+            case -1:
+                directions = new int[][]{{-rankDirection, fileDirection}};
+                break;
+            case 2: // MoveVectors with one direction set to 0 such as Rook.
+                directions = new int[][]{{rankDirection, fileDirection}, {-rankDirection, -fileDirection},
+                        {fileDirection, rankDirection}, {-fileDirection, -rankDirection}};
+                break;
+            case 4: // MoveVectors with both directions set to non-zero.
+                directions = new int[][]{{rankDirection, fileDirection}, {rankDirection, -fileDirection},
+                        {-rankDirection, fileDirection}, {-rankDirection, -fileDirection}};
+                break;
+            default:
+                directions = new int[0][];
+        }
+        List<int[]> distinctDirections = new ArrayList<>();
+        for (int[] direction : directions) {
+            boolean isDuplicate = direction[0] == 0 && direction[1] == 0;
+            for (int[] distinctDirection : distinctDirections) {
+                isDuplicate |= Arrays.equals(direction, distinctDirection);
+            }
+            if (!isDuplicate) distinctDirections.add(direction);
+        }
+        return distinctDirections.toArray(new int[0][]);
+    }
+
+    /**
+     * Checks if a direction stays on a rank, a file or a diagonal, so the ChessCells it passes over are defined.
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @return true if the direction is on a line
+     */
+    static boolean isOnALine(int rankDirection, int fileDirection) {
+        return rankDirection == 0 || fileDirection == 0 || Math.abs(rankDirection) == Math.abs(fileDirection);
+    }
+
+    /**
+     * Computes how many steps of a direction lead from one ChessCell to another.
+     * @param rankDifference int rank difference between the two ChessCells
+     * @param fileDifference int file difference between the two ChessCells
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @return int number of steps, 0 if the difference is not a positive multiple of the direction
+     */
+    static int getSteps(int rankDifference, int fileDifference, int rankDirection, int fileDirection) {
+        int steps;
+        if (rankDirection != 0) {
+            if (rankDifference % rankDirection != 0) return 0;
+            steps = rankDifference / rankDirection;
+        } else if (rankDifference != 0 || fileDirection == 0) {
+            return 0;
+        } else {
+            if (fileDifference % fileDirection != 0) return 0;
+            steps = fileDifference / fileDirection;
+        }
+        return steps >= 1 && fileDifference == fileDirection * steps ? steps : 0;
+    }
+
+    /**
+     * Getter for the number of expanded directions.
+     * @return int number of directions
+     */
+    int getDirectionCount() {
+        return vectorIndices.length;
+    }
+
+    /**
+     * Getter for the MoveVector an expanded direction comes from.
+     * @param direction int index of the expanded direction
+     * @return int index into the sorted MoveVector[] the table was built from
+     */
+    int getVectorIndex(int direction) {
+        return vectorIndices[direction];
+    }
+
+    /**
+     * Getter for the rank direction of an expanded direction.
+     * @param direction int index of the expanded direction
+     * @return int rank direction
+     */
+    int getRankDirection(int direction) {
+        return rankDirections[direction];
+    }
+
+    /**
+     * Getter for the file direction of an expanded direction.
+     * @param direction int index of the expanded direction
+     * @return int file direction
+     */
+    int getFileDirection(int direction) {
+        return fileDirections[direction];
+    }
+
+    /**
+     * Checks if an expanded direction stops at the first occupied ChessCell.
+     * @param direction int index of the expanded direction
+     * @return true if the ChessPiece cannot jump over other ChessPieces in this direction
+     */
+    boolean isBlockable(int direction) {
+        return blockables[direction];
+    }
+
+    /**
+     * Getter for the flat entries of one origin ChessCell.
+     * @param origin int index of the origin ChessCell
+     * @return int[] of a count followed by that many entries, for every direction in order
+     */
+    int[] getCells(int origin) {
+        return cells[origin];
+    }
+}
@@ -0,0 +1,354 @@
+package chess.model.chessBoard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A SlidingAttacks class that holds magic bitboard attack tables for ChessPieces sliding along ranks, files and
+ * diagonals of a ChessBoard with at most 64 ChessCells.
+ * The reachable ChessCells of a slider are found with one multiplication and one table lookup on the occupancy.
+ */
+class SlidingAttacks {
+    private static final int MAX_INDEX_BITS = 12;
+    private static final int EXTRA_INDEX_BITS = 2;
+    private static final int MAX_ATTEMPTS = 1 << 16;
+    private static final long MAGIC_SEED = 728L;
+    private static final Map<Integer, SlidingAttacks> TABLES = new ConcurrentHashMap<>();
+    private static final SlidingAttacks UNSUPPORTED = new SlidingAttacks();
+    // Magic numbers the search below finds for the traditional 8x8 ChessBoard, kept so it starts instantly.
+    private static final long[] ORTHOGONAL_MAGICS_8X8 = {
+            0x5080021040088020L, 0x0240100420004000L, 0x0100084011002002L, 0x8080100080080004L,
+            0x0080080004008002L, 0x1880020041040080L, 0x0C00011002008408L, 0x060000C1A1168402L,
+            0x000180024000803AL, 0x0000802000804000L, 0x6021002000110042L, 0x0102801000280281L,
+            0x8058800800800400L, 0x0080808002000400L, 0x8202808009000200L, 0x101300008200C500L,
+            0x61800C4000200044L, 0x0000444008201000L, 0x88A0004010004802L, 0x0001010008201000L,
+            0x2120808004000800L, 0x0026080120104004L, 0x0C00950100020004L, 0x0044220001008044L,
+            0x2180004140002002L, 0x0000810100400020L, 0x0400200100410014L, 0x0002000A00102240L,
+            0x0008000404004020L, 0x0000040080020080L, 0x0142020400081001L, 0x0041000300008342L,
+            0x0080004000402000L, 0x044000C081802008L, 0x0000200288801000L, 0x0108008008801000L,
+            0x1480080082800400L, 0x520D0004010002E8L, 0x0404082A0C001001L, 0x8000010042000084L,
+            0x0340802040008004L, 0x00B0005420004000L, 0x0831001020010040L, 0x4060080010008080L,
+            0x0008020004004040L, 0x0004008002008004L, 0x4012000184420008L, 0x2018004081020004L,
+            0x0C40003048800480L, 0x120C802042030200L, 0x1C08100080200880L, 0x000110010A210100L,
+            0x0284080100500500L, 0x2008020080040080L, 0x0010584390060C00L, 0x0000088041040A00L,
+            0x2000800820110041L, 0x28C0400010802101L, 0x100409C020030011L, 0x0050201000080501L,
+            0x1201000490280023L, 0x8301000822140005L, 0x2018100081080244L, 0x211A008020410C12L
+    };
+    private static final long[] DIAGONAL_MAGICS_8X8 = {
+            0x0602600654010220L, 0x00201820C0808400L, 0x0010028A10400004L, 0x000C404084000004L,
+            0x0004242009319580L, 0x0002010C22080200L, 0x00C5041002088000L, 0x0060440098035000L,
+            0x9800100490208620L, 0x1004503003090520L, 0x02011C0800810000L, 0x1000580941000810L,
+            0x0004041028800000L, 0x2441010160300200L, 0x0200010C020A4000L, 0x0018090046102400L,
+            0x00D0064010013101L, 0x0184002008108102L, 0x000200102C0010A0L, 0x8008002082810040L,
+            0x2201010820082280L, 0x1051001201010120L, 0x2400A11A01900800L, 0x4120400080C82840L,
+            0x45100D048A081008L, 0x8630062004488A00L, 0x4004280204080020L, 0x1042040008010820L,
+            0x0B01010008104008L, 0x1210010212824300L, 0x0048018040425808L, 0x000100C101042290L,
+            0x2022064042A10800L, 0x400901200048080AL, 0x8041080100020401L, 0x0404404800328201L,
+            0x00400302002100C8L, 0x4004042584241000L, 0x40080D0042012800L, 0x2004040060804120L,
+            0x000808040C401000L, 0x400500D820006444L, 0x2040084410000208L, 0x0241812018080100L,
+            0x0000040894000200L, 0x9011104510400200L, 0x0050061485001420L, 0x2001080891800302L,
+            0x0D21080822090180L, 0x4018250430040803L, 0x0210020100A88000L, 0x1000100960882142L,
+            0x1401014030444210L, 0xD088204470088001L, 0x484010010A008000L, 0x0008300D06006108L,
+            0x0142804310100200L, 0x8020208048029000L, 0x4000000084008840L, 0xA180004108840404L,
+            0x0002004204208201L, 0x00C024200810A120L, 0x009C444808880288L, 0x05D0124081220202L
+    };
+
+    private final int rankSize;
+    private final int fileSize;
+    private final long[][] rayMasks;
+    private final long[] orthogonalMasks;
+    private final long[] orthogonalMagics;
+    private final int[] orthogonalShifts;
+    private final long[][] orthogonalAttacks;
+    private final long[] diagonalMasks;
+    private final long[] diagonalMagics;
+    private final int[] diagonalShifts;
+    private final long[][] diagonalAttacks;
+
+    /**
+     * Returns the shared attack tables for a ChessBoard size, building them on first use.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     * @return SlidingAttacks for the size, or null if the size does not fit in magic bitboards
+     */
+    static SlidingAttacks get(int rankSize, int fileSize) {
+        if (!BitBoard.supports(rankSize, fileSize)) {
+            return null;
+        }
+        SlidingAttacks slidingAttacks = TABLES.computeIfAbsent((rankSize << 8) | fileSize, key -> {
+            SlidingAttacks tables = new SlidingAttacks(rankSize, fileSize);
+            return tables.orthogonalAttacks == null ? UNSUPPORTED : tables;
+        });
+        return slidingAttacks == UNSUPPORTED ? null : slidingAttacks;
+    }
+
+    /**
+     * Constructor for the placeholder of sizes that do not get tables.
+     */
+    private SlidingAttacks() {
+        rankSize = 0;
+        fileSize = 0;
+        rayMasks = null;
+        orthogonalMasks = null;
+        orthogonalMagics = null;
+        orthogonalShifts = null;
+        orthogonalAttacks = null;
+        diagonalMasks = null;
+        diagonalMagics = null;
+        diagonalShifts = null;
+        diagonalAttacks = null;
+    }
+
+    /**
+     * Builds the ray masks and searches the magic numbers for every ChessCell.
+     * @param rankSize int number of ranks
+     * @param fileSize int number of files
+     */
+    private SlidingAttacks(int rankSize, int fileSize) {
+        this.rankSize = rankSize;
+        this.fileSize = fileSize;
+        int squares = rankSize * fileSize;
+        rayMasks = new long[squares][9];
+        for (int square = 0; square < squares; square++) {
+            for (int rankDirection = -1; rankDirection <= 1; rankDirection++) {
+                for (int fileDirection = -1; fileDirection <= 1; fileDirection++) {
+                    if (rankDirection != 0 || fileDirection != 0) {
+                        rayMasks[square][directionIndex(rankDirection, fileDirection)] =
+                                slide(square, rankDirection, fileDirection, 0L);
+                    }
+                }
+            }
+        }
+
+        long[] random = {MAGIC_SEED};
+        orthogonalMasks = new long[squares];
+        orthogonalMagics = new long[squares];
+        orthogonalShifts = new int[squares];
+        diagonalMasks = new long[squares];
+        diagonalMagics = new long[squares];
+        diagonalShifts = new int[squares];
+        long[][] orthogonal = new long[squares][];
+        long[][] diagonal = new long[squares][];
+        boolean isTraditional = rankSize == 8 && fileSize == 8;
+        for (int square = 0; square < squares; square++) {
+            orthogonal[square] = findMagic(square, false, isTraditional ? ORTHOGONAL_MAGICS_8X8[square] : 0L,
+                    random, orthogonalMasks, orthogonalMagics, orthogonalShifts);
+            diagonal[square] = findMagic(square, true, isTraditional ? DIAGONAL_MAGICS_8X8[square] : 0L,
+                    random, diagonalMasks, diagonalMagics, diagonalShifts);
+            if (orthogonal[square] == null || diagonal[square] == null) {
+                orthogonal = null;
+                diagonal = null;
+                break;
+            }
+        }
+        orthogonalAttacks = orthogonal;
+        diagonalAttacks = diagonal;
+    }
+
+    /**
+     * Returns the ChessCells a rank and file slider reaches, including the first occupied ChessCell of each ray.
+     * @param square int index of the ChessCell of the slider
+     * @param occupied long occupancy of the ChessBoard
+     * @return long mask of the reachable ChessCells
+     */
+    long orthogonalAttacks(int square, long occupied) {
+        long index = ((occupied & orthogonalMasks[square]) * orthogonalMagics[square]) >>> orthogonalShifts[square];
+        return orthogonalAttacks[square][(int) index];
+    }
+
+    /**
+     * Returns the ChessCells a diagonal slider reaches, including the first occupied ChessCell of each ray.
+     * @param square int index of the ChessCell of the slider
+     * @param occupied long occupancy of the ChessBoard
+     * @return long mask of the reachable ChessCells
+     */
+    long diagonalAttacks(int square, long occupied) {
+        long index = ((occupied & diagonalMasks[square]) * diagonalMagics[square]) >>> diagonalShifts[square];
+        return diagonalAttacks[square][(int) index];
+    }
+
+    /**
+     * Returns the ChessCells reached in a single direction, including the first occupied ChessCell.
+     * @param square int index of the ChessCell of the slider
+     * @param rankDirection int rank direction, -1, 0 or 1
+     * @param fileDirection int file direction, -1, 0 or 1
+     * @param occupied long occupancy of the ChessBoard
+     * @return long mask of the reachable ChessCells
+     */
+    long attacks(int square, int rankDirection, int fileDirection, long occupied) {
+        long attacks = (rankDirection == 0 || fileDirection == 0)
+                ? orthogonalAttacks(square, occupied) : diagonalAttacks(square, occupied);
+        return attacks & rayMasks[square][directionIndex(rankDirection, fileDirection)];
+    }
+
+    /**
+     * Checks whether a direction can use the tables: one step per ChessCell on a rank, a file or a diagonal.
+     * @param rankDirection int rank direction of a MoveVector
+     * @param fileDirection int file direction of a MoveVector
+     * @return true if the direction is a unit sliding direction
+     */
+    static boolean isSlidingDirection(int rankDirection, int fileDirection) {
+        return Math.abs(rankDirection) <= 1 && Math.abs(fileDirection) <= 1 && (rankDirection != 0 || fileDirection != 0);
+    }
+
+    /**
+     * Getter for the longest ray on this ChessBoard size, so shorter MoveVector distances can be told apart.
+     * @return int number of steps of the longest ray
+     */
+    int getLongestRay() {
+        return Math.max(rankSize, fileSize) - 1;
+    }
+
+    /**
+     * Walks a ray one ChessCell at a time, stopping after the first occupied ChessCell.
+     * @param square int index of the starting ChessCell
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @param occupied long occupancy of the ChessBoard
+     * @return long mask of the reached ChessCells
+     */
+    long slide(int square, int rankDirection, int fileDirection, long occupied) {
+        long attacks = 0L;
+        int rank = square / fileSize + rankDirection;
+        int file = square % fileSize + fileDirection;
+        while (rank >= 0 && rank < rankSize && file >= 0 && file < fileSize) {
+            long bit = 1L << (rank * fileSize + file);
+            attacks |= bit;
+            if ((occupied & bit) != 0) {
+                break;
+            }
+            rank += rankDirection;
+            file += fileDirection;
+        }
+        return attacks;
+    }
+
+    /**
+     * Computes the sliding attacks of every direction of one kind by walking the rays.
+     * @param square int index of the ChessCell of the slider
+     * @param isDiagonal true for diagonal directions, false for rank and file directions
+     * @param occupied long occupancy of the ChessBoard
+     * @return long mask of the reached ChessCells
+     */
+    long slide(int square, boolean isDiagonal, long occupied) {
+        if (isDiagonal) {
+            return slide(square, 1, 1, occupied) | slide(square, 1, -1, occupied)
+                    | slide(square, -1, 1, occupied) | slide(square, -1, -1, occupied);
+        }
+        return slide(square, 1, 0, occupied) | slide(square, -1, 0, occupied)
+                | slide(square, 0, 1, occupied) | slide(square, 0, -1, occupied);
+    }
+
+    /**
+     * Searches a magic number that maps every relevant occupancy of a ChessCell to a distinct attack set.
+     * @param square int index of the ChessCell
+     * @param isDiagonal true for diagonal directions, false for rank and file directions
+     * @param knownMagic long magic number to try before searching, 0 if there is none
+     * @param random long[] holding the state of the generator that draws candidate magic numbers
+     * @param masks long[] where the relevant occupancy mask is stored
+     * @param magics long[] where the magic number is stored
+     * @param shifts int[] where the shift is stored
+     * @return long[] attack table indexed by the magic index, or null if no magic number was found
+     */
+    private long[] findMagic(int square, boolean isDiagonal, long knownMagic, long[] random,
+                             long[] masks, long[] magics, int[] shifts) {
+        long mask = relevantMask(square, isDiagonal);
+        int bits = Long.bitCount(mask);
+        if (bits > MAX_INDEX_BITS) {
+            return null;
+        }
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slide(square, isDiagonal, subset);
+            subset = (subset - mask) & mask;
+        }
+
+        // Some narrow ChessBoards have no magic number for the smallest table, so a few bigger tables are tried too.
+        for (int indexBits = bits; indexBits <= bits + EXTRA_INDEX_BITS; indexBits++) {
+            int shift = 64 - indexBits;
+            long[] table = new long[1 << indexBits];
+            int[] usedInAttempt = new int[1 << indexBits];
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                long magic = attempt == 1 && knownMagic != 0
+                        ? knownMagic : nextRandom(random) & nextRandom(random) & nextRandom(random);
+                boolean collision = false;
+                for (int i = 0; i < size && !collision; i++) {
+                    int index = (int) ((occupancies[i] * magic) >>> shift);
+                    if (usedInAttempt[index] != attempt) {
+                        usedInAttempt[index] = attempt;
+                        table[index] = attacks[i];
+                    } else if (table[index] != attacks[i]) {
+                        collision = true;
+                    }
+                }
+                if (!collision) {
+                    masks[square] = mask;
+                    magics[square] = magic;
+                    shifts[square] = shift;
+                    return table;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Draws the next number of a xorshift generator, which is much cheaper than java.util.Random
+     * for the millions of candidates a magic search may need.
+     * @param state long[] holding the generator state, updated in place
+     * @return long pseudo random number
+     */
+    private static long nextRandom(long[] state) {
+        long x = (state[0] += 0x9E3779B97F4A7C15L);
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Creates the mask of the ChessCells whose occupancy changes a slider's attacks, leaving out the last ChessCell
+     * of each ray because a slider reaches it whether it is occupied or not.
+     * @param square int index of the ChessCell
+     * @param isDiagonal true for diagonal directions, false for rank and file directions
+     * @return long relevant occupancy mask
+     */
+    private long relevantMask(int square, boolean isDiagonal) {
+        long mask = 0L;
+        int[][] directions = isDiagonal
+                ? new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}
+                : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int[] direction : directions) {
+            long ray = slide(square, direction[0], direction[1], 0L);
+            int rank = square / fileSize;
+            int file = square % fileSize;
+            while (true) {
+                int nextRank = rank + direction[0];
+                int nextFile = file + direction[1];
+                if (nextRank < 0 || nextRank >= rankSize || nextFile < 0 || nextFile >= fileSize) {
+                    break;
+                }
+                rank = nextRank;
+                file = nextFile;
+            }
+            if (ray != 0) {
+                ray &= ~(1L << (rank * fileSize + file));
+            }
+            mask |= ray;
+        }
+        return mask;
+    }
+
+    /**
+     * Converts a unit direction to an index into the ray masks.
+     * @param rankDirection int rank direction, -1, 0 or 1
+     * @param fileDirection int file direction, -1, 0 or 1
+     * @return int index from 0 to 8
+     */
+    private static int directionIndex(int rankDirection, int fileDirection) {
+        return (rankDirection + 1) * 3 + fileDirection + 1;
+    }
+}
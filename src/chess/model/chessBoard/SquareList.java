@@ -0,0 +1,138 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+
+/**
+ * A SquareList class that holds a set of ChessCell indices of a ChessBoard in no particular order.
+ * Adding, removing and looking up an index take constant time, and going through the indices only visits the ones
+ * in the list, however large the ChessBoard is.
+ * The position of every index in the list is kept in an array over all ChessCells, or in a SquareMap for sparse
+ * ChessBoards.
+ */
+class SquareList {
+    private final int[] positions;
+    private final SquareMap<Integer> sparsePositions;
+    private int[] squares;
+    private int size;
+
+    /**
+     * A SquareList constructor for a ChessBoard of the given number of ChessCells.
+     * @param squareCount int number of ChessCells on the ChessBoard
+     */
+    SquareList(int squareCount) {
+        positions = new int[squareCount];
+        Arrays.fill(positions, -1);
+        sparsePositions = null;
+        squares = new int[Math.min(squareCount, 16)];
+    }
+
+    /**
+     * A SquareList constructor for a sparse ChessBoard, whose memory follows the number of indices in the list.
+     */
+    SquareList() {
+        positions = null;
+        sparsePositions = new SquareMap<>();
+        squares = new int[16];
+    }
+
+    /**
+     * Adds a ChessCell index, unless it is already in the list.
+     * @param square int index of the ChessCell
+     */
+    void add(int square) {
+        if (getPosition(square) >= 0) {
+            return;
+        }
+        if (size == squares.length) {
+            squares = Arrays.copyOf(squares, size * 2 + 1);
+        }
+        setPosition(square, size);
+        squares[size++] = square;
+    }
+
+    /**
+     * Removes a ChessCell index by moving the last index into its place.
+     * @param square int index of the ChessCell
+     */
+    void remove(int square) {
+        int position = getPosition(square);
+        if (position < 0) {
+            return;
+        }
+        int lastSquare = squares[--size];
+        squares[position] = lastSquare;
+        setPosition(lastSquare, position);
+        setPosition(square, -1);
+    }
+
+    /**
+     * Removes every ChessCell index, only visiting the ones in the list.
+     */
+    void clear() {
+        for (int position = 0; position < size; position++) {
+            setPosition(squares[position], -1);
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks if a ChessCell index is in the list.
+     * @param square int index of the ChessCell
+     * @return true if the index is in the list
+     */
+    boolean contains(int square) {
+        return getPosition(square) >= 0;
+    }
+
+    /**
+     * Getter for the number of ChessCell indices in the list.
+     * @return int size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Getter for a ChessCell index by its position in the list.
+     * Positions change when indices are removed.
+     * @param position int position between 0 and size - 1
+     * @return int index of the ChessCell
+     */
+    int get(int position) {
+        return squares[position];
+    }
+
+    /**
+     * Copies the ChessCell indices, so the list can change while the copy is gone through.
+     * @return int[] of ChessCell indices
+     */
+    int[] toArray() {
+        return Arrays.copyOf(squares, size);
+    }
+
+    /**
+     * Getter for the position of a ChessCell index in the list.
+     * @param square int index of the ChessCell
+     * @return int position, -1 if the index is not in the list
+     */
+    private int getPosition(int square) {
+        if (positions != null) {
+            return positions[square];
+        }
+        Integer position = sparsePositions.get(square);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Setter for the position of a ChessCell index in the list.
+     * @param square int index of the ChessCell
+     * @param position int position, -1 to remove the index
+     */
+    private void setPosition(int square, int position) {
+        if (positions != null) {
+            positions[square] = position;
+        } else {
+            sparsePositions.put(square, position < 0 ? null : position);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+
+/**
+ * A SquareMap class that maps ChessCell indices to values in an open addressing hash table of primitive int keys,
+ * so a sparse ChessBoard only pays for the ChessCells it uses.
+ * Keys are found by linear probing and removals shift the following keys back, so there are no tombstones.
+ * @param <V> type of the values
+ */
+class SquareMap<V> {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * A SquareMap constructor for an empty map.
+     */
+    SquareMap() {
+        keys = new int[16];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[16];
+    }
+
+    /**
+     * Getter for the value of a ChessCell index.
+     * @param square int index of the ChessCell, not negative
+     * @return value of the index, null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(int square) {
+        int slot = find(square);
+        return keys[slot] == EMPTY ? null : (V) values[slot];
+    }
+
+    /**
+     * Sets the value of a ChessCell index. A null value removes the index.
+     * @param square int index of the ChessCell, not negative
+     * @param value value of the index
+     */
+    void put(int square, V value) {
+        if (value == null) {
+            remove(square);
+            return;
+        }
+        int slot = find(square);
+        if (keys[slot] == EMPTY) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = find(square);
+            }
+            keys[slot] = square;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes a ChessCell index and its value.
+     * @param square int index of the ChessCell, not negative
+     */
+    void remove(int square) {
+        int slot = find(square);
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+        size--;
+        // Shifts back the keys of the cluster that would no longer be found past the emptied slot.
+        int mask = keys.length - 1;
+        int emptySlot = slot;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - emptySlot) & mask)) {
+                keys[emptySlot] = keys[next];
+                values[emptySlot] = values[next];
+                emptySlot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[emptySlot] = EMPTY;
+        values[emptySlot] = null;
+    }
+
+    /**
+     * Getter for the number of ChessCell indices with a value.
+     * @return int size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of a key, or the empty slot it would take.
+     * @param square int key
+     * @return int slot
+     */
+    private int find(int square) {
+        int mask = keys.length - 1;
+        int slot = hash(square) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != square) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the table and inserts every key again.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                int newSlot = find(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a key, since neighboring ChessCells have consecutive indices.
+     * @param square int key
+     * @return int hash
+     */
+    private static int hash(int square) {
+        int hash = square * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
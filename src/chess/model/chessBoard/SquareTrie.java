@@ -0,0 +1,79 @@
+package chess.model.chessBoard;
+
+/**
+ * A SquareTrie class that maps ChessCell indices to values in an immutable trie of 32 way nodes.
+ * Setting a value copies only the nodes on the way to its index and shares every other node with the SquareTrie it
+ * was set on, so each position of a game can keep its own SquareTrie for a few small arrays per change.
+ * @param <V> type of the values
+ */
+class SquareTrie<V> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private final int shift;
+    private final Object[] root;
+
+    /**
+     * A SquareTrie constructor.
+     * @param shift int bits the index is shifted by for the root node
+     * @param root Object[] root node, not changed afterwards
+     */
+    private SquareTrie(int shift, Object[] root) {
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * Creates an empty SquareTrie deep enough for a number of ChessCells.
+     * @param squareCount long number of ChessCell indices, positive
+     * @param <V> type of the values
+     * @return SquareTrie without values
+     */
+    static <V> SquareTrie<V> empty(long squareCount) {
+        final int bits = Math.max(1, 64 - Long.numberOfLeadingZeros(squareCount - 1));
+        return new SquareTrie<>((bits - 1) / BITS * BITS, new Object[WIDTH]);
+    }
+
+    /**
+     * Getter for the value of a ChessCell index.
+     * @param square int index of the ChessCell, not negative and below the number of ChessCells
+     * @return value of the index, null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(int square) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(square >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (V) node[square & MASK];
+    }
+
+    /**
+     * Creates a SquareTrie with the value of a ChessCell index set. This SquareTrie stays as it is.
+     * @param square int index of the ChessCell, not negative and below the number of ChessCells
+     * @param value value of the index, null to remove it
+     * @return SquareTrie with the value set
+     */
+    SquareTrie<V> with(int square, V value) {
+        return new SquareTrie<>(shift, with(root, shift, square, value));
+    }
+
+    /**
+     * Copies a node with the value of a ChessCell index set below it.
+     * @param node Object[] node, null if there is none yet
+     * @param level int bits the index is shifted by for this node
+     * @param square int index of the ChessCell
+     * @param value value of the index
+     * @return Object[] copied node
+     */
+    private static Object[] with(Object[] node, int level, int square, Object value) {
+        final Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        final int index = (square >>> level) & MASK;
+        copy[index] = level == 0 ? value : with((Object[]) copy[index], level - BITS, square, value);
+        return copy;
+    }
+}
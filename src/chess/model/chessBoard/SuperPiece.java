@@ -0,0 +1,88 @@
+package chess.model.chessBoard;
+
+import java.util.Arrays;
+
+/**
+ * A SuperPiece class that collects the capturing directions no ChessPiece in between can block, of every kind of
+ * ChessPiece of one color seen on a ChessBoard.
+ * Looking outward from a ChessCell along these directions, and along the rank, file and diagonal lines up to the
+ * first ChessPiece, finds every ChessPiece that could capture on the ChessCell without visiting the others.
+ * Directions are stored as seen from the attacking ChessPiece, so the search walks them backwards.
+ */
+class SuperPiece {
+    private int[] rankDirections = new int[0];
+    private int[] fileDirections = new int[0];
+    private int[] distances = new int[0];
+
+    /**
+     * Adds the unblockable capturing directions of a MoveProgram, keeping the longest distance of each direction.
+     * @param moveProgram MoveProgram of a ChessPiece
+     */
+    void add(MoveProgram moveProgram) {
+        final int[] program = moveProgram.getProgram();
+        for (int index = 0; index < program.length; index += MoveProgram.STRIDE) {
+            int flags = program[index + MoveProgram.FLAGS];
+            if ((flags & MoveProgram.CAN_CAPTURE) == 0 || (flags & MoveProgram.BLOCKABLE) != 0) {
+                continue;
+            }
+            add(program[index + MoveProgram.RANK_DIRECTION], program[index + MoveProgram.FILE_DIRECTION],
+                    program[index + MoveProgram.DISTANCE]);
+        }
+    }
+
+    /**
+     * Adds one unblockable capturing direction.
+     * @param rankDirection int rank direction
+     * @param fileDirection int file direction
+     * @param distance int number of times the direction can be repeated
+     */
+    private void add(int rankDirection, int fileDirection, int distance) {
+        for (int jump = 0; jump < distances.length; jump++) {
+            if (rankDirections[jump] == rankDirection && fileDirections[jump] == fileDirection) {
+                distances[jump] = Math.max(distances[jump], distance);
+                return;
+            }
+        }
+        rankDirections = Arrays.copyOf(rankDirections, rankDirections.length + 1);
+        fileDirections = Arrays.copyOf(fileDirections, fileDirections.length + 1);
+        distances = Arrays.copyOf(distances, distances.length + 1);
+        rankDirections[rankDirections.length - 1] = rankDirection;
+        fileDirections[fileDirections.length - 1] = fileDirection;
+        distances[distances.length - 1] = distance;
+    }
+
+    /**
+     * Getter for the number of unblockable directions.
+     * @return int number of directions
+     */
+    int getJumpCount() {
+        return distances.length;
+    }
+
+    /**
+     * Getter for the rank direction of an unblockable direction.
+     * @param jump int index of the direction
+     * @return int rank direction
+     */
+    int getRankDirection(int jump) {
+        return rankDirections[jump];
+    }
+
+    /**
+     * Getter for the file direction of an unblockable direction.
+     * @param jump int index of the direction
+     * @return int file direction
+     */
+    int getFileDirection(int jump) {
+        return fileDirections[jump];
+    }
+
+    /**
+     * Getter for the longest distance of an unblockable direction.
+     * @param jump int index of the direction
+     * @return int number of times the direction can be repeated
+     */
+    int getDistance(int jump) {
+        return distances[jump];
+    }
+}
@@ -0,0 +1,49 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+
+/**
+ * A ZobristKeys class that gives the random 64-bit numbers a Zobrist key of a position is the exclusive or of.
+ * The numbers are not kept in tables but computed by mixing their inputs with the SplitMix64 finalizer, which makes
+ * them as good as random for hashing while working for ChessBoards of any size and ChessPieces in any state.
+ */
+final class ZobristKeys {
+    private static final long SQUARE_SEED = 0x9E3779B97F4A7C15L;
+    private static final long SIDE_SEED = 0xD1B54A32D192ED03L;
+
+    /**
+     * ZobristKeys only has static members.
+     */
+    private ZobristKeys() {
+    }
+
+    /**
+     * Getter for the number of a ChessPiece in a given state standing on a ChessCell.
+     * @param square int index of the ChessCell
+     * @param chessPieceState long number describing the kind, color and state of the ChessPiece
+     * @return long Zobrist number
+     */
+    static long getChessPieceKey(int square, long chessPieceState) {
+        return mix(mix(SQUARE_SEED * (square + 1)) ^ chessPieceState);
+    }
+
+    /**
+     * Getter for the number of the color of the current turn.
+     * @param chessPieceColor ChessPieceColor of the current turn, null if there is none
+     * @return long Zobrist number, 0 for no current turn
+     */
+    static long getSideKey(ChessPiece.ChessPieceColor chessPieceColor) {
+        return chessPieceColor == null ? 0 : mix(SIDE_SEED + chessPieceColor.ordinal());
+    }
+
+    /**
+     * Mixes the bits of a number so that every input bit affects every output bit.
+     * @param value long number to mix
+     * @return long mixed number
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
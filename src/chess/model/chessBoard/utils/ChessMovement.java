@@ -1,31 +1,110 @@
 package chess.model.chessBoard.utils;
 
 import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.Knight;
+import chess.model.chessPiece.MoveVector;
+import chess.model.chessPiece.MovementChanging;
+import chess.model.chessPiece.Pawn;
+import chess.model.chessPiece.Tank;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
- * Class to be used to stack previous movements
+ * Class to be used to stack previous movements.
+ * It is created before the movement is made and keeps the state the movement changes: the ChessCell the ChessPiece
+ * lands on, whether it had its initial move, the hit points of a Tank it hits, the MoveVectors of a Kirby before it
+ * absorbs the ones it captures and whether the ChessBoard was in check, so the movement can be undone and redone
+ * exactly.
  */
 public class ChessMovement {
     final private int oldRank;
     final private int oldFile;
     final private int newRank;
     final private int newFile;
+    final private int landingRank;
+    final private int landingFile;
+    final private ChessPiece movedChessPiece;
     final private ChessPiece capturedChessPiece;
+    final private boolean isInitialMove;
+    final private boolean isCheck;
+    final private int hitPoint;
+    // MoveVectors of a Kirby before it absorbs the ones of the captured ChessPiece, null if it does not.
+    final private Set<MoveVector> moveVectorSet;
+    // MoveVectors of the captured ChessPiece a Kirby turns canCaptureOwnPiece on for.
+    final private List<MoveVector> ownPieceCaptureVectors;
 
     /**
-     * Constructor for ChessMovement
+     * Constructor for ChessMovement, to be called before the movement is made.
      * @param oldRank int rank before movement
      * @param oldFile int file before movement
      * @param newRank int rank after movement
-     * @param newFile int rank after movement
-     * @param capturedChessPiece
+     * @param newFile int file after movement
+     * @param movedChessPiece ChessPiece that moves
+     * @param capturedChessPiece ChessPiece on the destination, null if it is empty
+     * @param isCheck true if the ChessBoard is in check before the movement
      */
-    public ChessMovement(int oldRank, int oldFile, int newRank, int newFile, ChessPiece capturedChessPiece){
+    public ChessMovement(int oldRank, int oldFile, int newRank, int newFile,
+                         ChessPiece movedChessPiece, ChessPiece capturedChessPiece, boolean isCheck){
         this.oldRank = oldRank;
         this.oldFile = oldFile;
         this.newRank = newRank;
         this.newFile = newFile;
+        this.movedChessPiece = movedChessPiece;
         this.capturedChessPiece = capturedChessPiece;
+        this.isInitialMove = movedChessPiece.isInitialMove();
+        this.isCheck = isCheck;
+        this.hitPoint = capturedChessPiece instanceof Tank ? ((Tank) capturedChessPiece).getHitPoint() : 0;
+
+        if (capturedChessPiece != null && movedChessPiece instanceof MovementChanging){
+            moveVectorSet = new HashSet<>(movedChessPiece.getMoveVectorSet());
+            ownPieceCaptureVectors = new ArrayList<>();
+            for (MoveVector moveVector : capturedChessPiece.getMoveVectorSet()){
+                if (!moveVector.canCaptureOwnPiece()){
+                    ownPieceCaptureVectors.add(moveVector);
+                }
+            }
+        } else {
+            moveVectorSet = null;
+            ownPieceCaptureVectors = null;
+        }
+
+        //A ChessPiece hitting a Tank stops next to it, or stays where it was if it jumps.
+        if (isTankHit() && !(movedChessPiece instanceof Knight)){
+            this.landingRank = newRank - Integer.signum(newRank - oldRank);
+            this.landingFile = newFile - Integer.signum(newFile - oldFile);
+        } else if (isTankHit()){
+            this.landingRank = oldRank;
+            this.landingFile = oldFile;
+        } else {
+            this.landingRank = newRank;
+            this.landingFile = newFile;
+        }
+    }
+
+    /**
+     * Puts the moved and the captured ChessPiece back in the state they had before the movement: the initial move
+     * and move count of the moved ChessPiece, the MoveVectors of a Kirby and the flags of the ones it absorbed, and
+     * the hit points of a Tank. Where the ChessPieces stand is left to the ChessBoard.
+     */
+    public void restoreChessPieces(){
+        if (movedChessPiece.hasInitialMove()){
+            ((Pawn) movedChessPiece).decrementMoveCount();
+        }
+        movedChessPiece.setInitialMove(isInitialMove);
+        if (moveVectorSet != null){
+            //A copy, since a Kirby adds the MoveVectors it absorbs to the set it has. Setting it moves the version of
+            //the set on, so whatever was built from the absorbed MoveVectors is built again.
+            movedChessPiece.setMoveVectorSet(new HashSet<>(moveVectorSet));
+            for (MoveVector moveVector : ownPieceCaptureVectors){
+                moveVector.setCaptureOwnPiece(false);
+            }
+        }
+        if (isTankHit()){
+            ((Tank) capturedChessPiece).setHitPoint(hitPoint);
+        }
     }
 
     /**
@@ -61,11 +140,51 @@ public class ChessMovement {
     }
 
     /**
-     * Getter for a ChessPiece that was captured after this movement.
+     * Getter for the rank the moved ChessPiece ends up on, which is not newRank when it hits a Tank.
+     * @return int landingRank member variable
+     */
+    public int getLandingRank() {
+        return landingRank;
+    }
+
+    /**
+     * Getter for the file the moved ChessPiece ends up on, which is not newFile when it hits a Tank.
+     * @return int landingFile member variable
+     */
+    public int getLandingFile() {
+        return landingFile;
+    }
+
+    /**
+     * Getter for the ChessPiece that moved.
+     * @return ChessPiece that moved
+     */
+    public ChessPiece getMovedChessPiece() {
+        return movedChessPiece;
+    }
+
+    /**
+     * Getter for a ChessPiece that was captured after this movement, or the Tank that was hit.
      * null if no ChessPiece was captured.
      * @return ChessPiece that was captured
      */
     public ChessPiece getCapturedChessPiece() {
         return capturedChessPiece;
     }
+
+    /**
+     * Checks if the movement hits a Tank that endures it instead of capturing it.
+     * @return true if the captured ChessPiece is a Tank with more than one hit point left
+     */
+    public boolean isTankHit() {
+        return hitPoint > 1;
+    }
+
+    /**
+     * Getter for whether the ChessBoard was in check before the movement.
+     * @return boolean isCheck member variable
+     */
+    public boolean isCheck() {
+        return isCheck;
+    }
 }
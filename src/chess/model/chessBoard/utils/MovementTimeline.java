@@ -0,0 +1,170 @@
+package chess.model.chessBoard.utils;
+
+import java.util.Arrays;
+
+/**
+ * Class to be used to keep the movements of a game in the order they were made, instead of stacks of movements to
+ * undo and redo. The movements before the current ply can be undone and the ones from it on redone, until a new
+ * movement replaces them.
+ * A PositionCheckpoint is kept every checkpointInterval plies, so a position far away can be reached from the nearest
+ * checkpoint before it with a few movements instead of undoing or redoing every movement in between.
+ */
+public class MovementTimeline {
+    final private int checkpointInterval;
+    private ChessMovement[] chessMovements = new ChessMovement[16];
+    private int size;
+    private int ply;
+    // Checkpoints sorted by ply, so the nearest one is found by a binary search.
+    private int[] checkpointPlies = new int[4];
+    private PositionCheckpoint[] checkpoints = new PositionCheckpoint[4];
+    private int checkpointCount;
+
+    /**
+     * Constructor for MovementTimeline
+     * @param checkpointInterval int number of plies between PositionCheckpoints, positive
+     */
+    public MovementTimeline(int checkpointInterval){
+        if (checkpointInterval <= 0){
+            throw new IllegalArgumentException("Invalid checkpoint interval " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Getter for the number of movements made before the current position.
+     * @return int ply
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Getter for the number of movements of the game, including the ones that were undone.
+     * @return int number of movements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for a movement of the game.
+     * @param index int ply the movement was made at, below size
+     * @return ChessMovement made at the ply
+     */
+    public ChessMovement get(int index) {
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Movement " + index + " of " + size);
+        }
+        return chessMovements[index];
+    }
+
+    /**
+     * Adds a movement made at the current ply. The movements that were undone and the checkpoints after the current
+     * ply are dropped, since the game goes on another way.
+     * @param chessMovement ChessMovement that was made
+     */
+    public void add(ChessMovement chessMovement){
+        Arrays.fill(chessMovements, ply, size, null);
+        while (checkpointCount > 0 && checkpointPlies[checkpointCount - 1] > ply){
+            checkpoints[--checkpointCount] = null;
+        }
+        if (ply == chessMovements.length){
+            chessMovements = Arrays.copyOf(chessMovements, ply * 2);
+        }
+        chessMovements[ply++] = chessMovement;
+        size = ply;
+    }
+
+    /**
+     * Steps back over the most recent movement.
+     * @return ChessMovement to be undone, null if there is none
+     */
+    public ChessMovement undo(){
+        return ply == 0 ? null : chessMovements[--ply];
+    }
+
+    /**
+     * Steps forward over the next undone movement.
+     * @return ChessMovement to be redone, null if there is none
+     */
+    public ChessMovement redo(){
+        return ply == size ? null : chessMovements[ply++];
+    }
+
+    /**
+     * Setter for the current ply, after the position of a PositionCheckpoint was restored.
+     * @param ply int number of movements made before the current position, not above size
+     */
+    public void setPly(int ply) {
+        if (ply < 0 || ply > size){
+            throw new IndexOutOfBoundsException("Ply " + ply + " of " + size);
+        }
+        this.ply = ply;
+    }
+
+    /**
+     * Checks if a PositionCheckpoint should be taken of the current position.
+     * One is taken every checkpointInterval plies, and at the current ply when there is none at all.
+     * @return true if the current ply has no PositionCheckpoint yet and needs one
+     */
+    public boolean needsCheckpoint(){
+        if (checkpointCount > 0 && ply % checkpointInterval != 0){
+            return false;
+        }
+        return Arrays.binarySearch(checkpointPlies, 0, checkpointCount, ply) < 0;
+    }
+
+    /**
+     * Adds a PositionCheckpoint of a ply that has none.
+     * @param checkpoint PositionCheckpoint of the position at its ply
+     */
+    public void addCheckpoint(PositionCheckpoint checkpoint){
+        final int index = Arrays.binarySearch(checkpointPlies, 0, checkpointCount, checkpoint.getPly());
+        if (index >= 0){
+            checkpoints[index] = checkpoint;
+            return;
+        }
+        final int insertion = -index - 1;
+        if (checkpointCount == checkpoints.length){
+            checkpointPlies = Arrays.copyOf(checkpointPlies, checkpointCount * 2);
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        System.arraycopy(checkpointPlies, insertion, checkpointPlies, insertion + 1, checkpointCount - insertion);
+        System.arraycopy(checkpoints, insertion, checkpoints, insertion + 1, checkpointCount - insertion);
+        checkpointPlies[insertion] = checkpoint.getPly();
+        checkpoints[insertion] = checkpoint;
+        checkpointCount++;
+    }
+
+    /**
+     * Finds the PositionCheckpoint nearest before a ply.
+     * @param ply int ply to reach
+     * @return PositionCheckpoint with the largest ply not above the given one, null if there is none
+     */
+    public PositionCheckpoint getCheckpoint(int ply){
+        final int index = Arrays.binarySearch(checkpointPlies, 0, checkpointCount, ply);
+        if (index >= 0){
+            return checkpoints[index];
+        }
+        return -index - 2 < 0 ? null : checkpoints[-index - 2];
+    }
+
+    /**
+     * Drops every PositionCheckpoint, after the position was changed other than by a movement, since the movements
+     * made from a checkpoint would no longer lead to the positions of this game.
+     */
+    public void clearCheckpoints(){
+        Arrays.fill(checkpoints, 0, checkpointCount, null);
+        checkpointCount = 0;
+    }
+
+    /**
+     * Drops every movement and PositionCheckpoint.
+     */
+    public void clear(){
+        Arrays.fill(chessMovements, 0, size, null);
+        size = 0;
+        ply = 0;
+        clearCheckpoints();
+    }
+}
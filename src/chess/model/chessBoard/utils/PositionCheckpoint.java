@@ -0,0 +1,159 @@
+package chess.model.chessBoard.utils;
+
+import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.MoveVector;
+import chess.model.chessPiece.MovementChanging;
+import chess.model.chessPiece.Pawn;
+import chess.model.chessPiece.Tank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class to be used to jump back to a position of a game without undoing every movement after it.
+ * It keeps which ChessPiece stood on which ChessCell at one ply and the state the movements change: whether each
+ * ChessPiece had its initial move, the move count of a Pawn, the hit points of a Tank, the MoveVectors of a Kirby and
+ * which MoveVectors could capture an own ChessPiece. The ChessPieces are the ones the ChessMovements refer to, so the
+ * movements after the ply can be made again from it. The state of the ChessPieces captured before the ply is kept
+ * too, since undoing their capture puts them back as they were.
+ */
+public class PositionCheckpoint {
+    final private int ply;
+    final private ChessPiece.ChessPieceColor currentTurnsColor;
+    final private int[] squares;
+    // ChessPieces on the squares, followed by the captured ones.
+    final private ChessPiece[] chessPieces;
+    final private boolean[] isInitialMoves;
+    // Move count of a Pawn or hit points of a Tank, 0 for the other ChessPieces.
+    final private int[] counts;
+    // MoveVectors of a Kirby, null for the other ChessPieces.
+    final private List<Set<MoveVector>> moveVectorSets;
+    // MoveVectors of the ChessPieces that can capture an own ChessPiece, which a Kirby turns on.
+    final private MoveVector[] ownPieceCaptureVectors;
+
+    /**
+     * Constructor for PositionCheckpoint, taking the state of the ChessPieces as they are now.
+     * @param ply int number of movements made before the position
+     * @param currentTurnsColor ChessPieceColor of the current turn
+     * @param squares int[] sorted indices of the ChessCells with a ChessPiece, not changed afterwards
+     * @param chessPieces ChessPiece[] ChessPiece of each index
+     * @param capturedChessPieces List of the ChessPieces captured before the ply
+     */
+    public PositionCheckpoint(int ply, ChessPiece.ChessPieceColor currentTurnsColor, int[] squares,
+                              ChessPiece[] chessPieces, List<ChessPiece> capturedChessPieces){
+        if (squares.length != chessPieces.length){
+            throw new IllegalArgumentException(squares.length + " ChessCells for " + chessPieces.length + " ChessPieces");
+        }
+        this.ply = ply;
+        this.currentTurnsColor = currentTurnsColor;
+        this.squares = squares;
+        this.chessPieces = Arrays.copyOf(chessPieces, chessPieces.length + capturedChessPieces.size());
+        for (int index = 0; index < capturedChessPieces.size(); index++){
+            this.chessPieces[chessPieces.length + index] = capturedChessPieces.get(index);
+        }
+        this.isInitialMoves = new boolean[this.chessPieces.length];
+        this.counts = new int[this.chessPieces.length];
+        this.moveVectorSets = new ArrayList<>(Collections.nCopies(this.chessPieces.length, null));
+        final List<MoveVector> ownPieceCaptureVectors = new ArrayList<>();
+        for (int index = 0; index < this.chessPieces.length; index++){
+            final ChessPiece chessPiece = this.chessPieces[index];
+            isInitialMoves[index] = chessPiece.isInitialMove();
+            if (chessPiece instanceof Pawn){
+                counts[index] = ((Pawn) chessPiece).getMoveCount();
+            } else if (chessPiece instanceof Tank){
+                counts[index] = ((Tank) chessPiece).getHitPoint();
+            }
+            if (chessPiece instanceof MovementChanging){
+                moveVectorSets.set(index, new HashSet<>(chessPiece.getMoveVectorSet()));
+            }
+            for (MoveVector moveVector : chessPiece.getMoveVectorSet()){
+                if (moveVector.canCaptureOwnPiece()){
+                    ownPieceCaptureVectors.add(moveVector);
+                }
+            }
+        }
+        this.ownPieceCaptureVectors = ownPieceCaptureVectors.toArray(new MoveVector[0]);
+    }
+
+    /**
+     * Puts the ChessPieces of the checkpoint, captured or not, back in the state they had. Where they stand is left to
+     * the ChessBoard.
+     */
+    public void restoreChessPieces(){
+        for (int index = 0; index < chessPieces.length; index++){
+            final ChessPiece chessPiece = chessPieces[index];
+            chessPiece.setInitialMove(isInitialMoves[index]);
+            if (chessPiece instanceof Pawn){
+                ((Pawn) chessPiece).setMoveCount(counts[index]);
+            } else if (chessPiece instanceof Tank){
+                ((Tank) chessPiece).setHitPoint(counts[index]);
+            }
+            if (moveVectorSets.get(index) != null){
+                //A copy, since a Kirby adds the MoveVectors it absorbs to the set it has.
+                chessPiece.setMoveVectorSet(new HashSet<>(moveVectorSets.get(index)));
+            }
+            for (MoveVector moveVector : chessPiece.getMoveVectorSet()){
+                moveVector.setCaptureOwnPiece(false);
+            }
+        }
+        for (MoveVector moveVector : ownPieceCaptureVectors){
+            moveVector.setCaptureOwnPiece(true);
+        }
+    }
+
+    /**
+     * Getter for the ply of the position.
+     * @return int number of movements made before the position
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Getter for the color of the current turn.
+     * @return ChessPieceColor of the current turn
+     */
+    public ChessPiece.ChessPieceColor getCurrentTurnsColor() {
+        return currentTurnsColor;
+    }
+
+    /**
+     * Getter for the number of ChessPieces on the ChessBoard.
+     * @return int number of ChessPieces
+     */
+    public int getChessPieceCount() {
+        return squares.length;
+    }
+
+    /**
+     * Getter for the ChessCell of a ChessPiece.
+     * @param index int index of the ChessPiece, below getChessPieceCount
+     * @return int index of the ChessCell, in increasing order
+     */
+    public int getSquare(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Getter for a ChessPiece.
+     * @param index int index of the ChessPiece, below getChessPieceCount
+     * @return ChessPiece standing on getSquare(index)
+     */
+    public ChessPiece getChessPiece(int index) {
+        return chessPieces[index];
+    }
+
+    /**
+     * Returns the ChessPiece that stood on a ChessCell.
+     * @param square int index of the ChessCell
+     * @return ChessPiece of the ChessCell, null if it was empty
+     */
+    public ChessPiece getChessPieceOn(int square) {
+        final int index = Arrays.binarySearch(squares, square);
+        return index < 0 ? null : chessPieces[index];
+    }
+}
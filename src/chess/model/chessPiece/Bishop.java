@@ -27,4 +27,13 @@ public class Bishop extends ChessPiece {
 
         setMoveVectorSet(possibleMoves);
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.BISHOP
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.BISHOP;
+    }
 }
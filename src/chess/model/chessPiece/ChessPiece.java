@@ -1,5 +1,9 @@
 package chess.model.chessPiece;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -8,6 +12,7 @@ import java.util.Set;
 public abstract class ChessPiece {
     private ChessPieceColor chessPieceColor;
     private Set<MoveVector> moveVectorSet;
+    private int moveVectorSetVersion = 0;
     // TODO
     private boolean isSetOnChessBoard;
     private boolean isInitialMove = false;
@@ -45,6 +50,15 @@ public abstract class ChessPiece {
      */
     public void setMoveVectorSet(Set<MoveVector> moveVectorSet) {
         this.moveVectorSet = moveVectorSet;
+        moveVectorSetVersion++;
+    }
+
+    /**
+     * Getter for the number of times the MoveVector set was replaced, so cached data built from it can be refreshed.
+     * @return int version of the MoveVector set
+     */
+    public int getMoveVectorSetVersion() {
+        return moveVectorSetVersion;
     }
 
     /**
@@ -52,6 +66,158 @@ public abstract class ChessPiece {
      */
     abstract void initializeMoveVectorSet();
 
+    /**
+     * abstract function that tells which kind of ChessPiece this is.
+     * @return ChessPieceType of the ChessPiece
+     */
+    public abstract ChessPieceType getChessPieceType();
+
+    /**
+     * Creates a ChessPiece of the same kind and color in the same state, with copies of its MoveVectors, so it can be
+     * moved on another ChessBoard without changing this one.
+     * @return ChessPiece copy
+     */
+    public ChessPiece copy() {
+        ChessPiece chessPiece = createChessPiece(getChessPieceType(), chessPieceColor);
+        chessPiece.copyMoveVectorsFrom(this);
+        chessPiece.copyStateFrom(this);
+        return chessPiece;
+    }
+
+    /**
+     * Puts this ChessPiece in the state of another ChessPiece of the same kind and color, leaving its MoveVectors as
+     * they are: the initial move and the state only some kinds of ChessPiece have.
+     * @param chessPiece ChessPiece to take the state of
+     * @throws IllegalArgumentException if the ChessPiece is of another kind or color
+     */
+    public void copyStateFrom(ChessPiece chessPiece) {
+        if (chessPiece.getChessPieceType() != getChessPieceType() || chessPiece.chessPieceColor != chessPieceColor) {
+            throw new IllegalArgumentException("Cannot copy the state of a " + chessPiece.chessPieceColor + " "
+                    + chessPiece.getChessPieceType() + " into a " + chessPieceColor + " " + getChessPieceType());
+        }
+        isInitialMove = chessPiece.isInitialMove;
+        hasInitialMove = chessPiece.hasInitialMove;
+        copyState(chessPiece);
+    }
+
+    /**
+     * Replaces the MoveVectors of this ChessPiece with copies of the ones of another ChessPiece, for a Kirby that
+     * absorbed MoveVectors or a ChessPiece whose flags a Kirby turned on.
+     * @param chessPiece ChessPiece to take the MoveVectors of
+     */
+    public void copyMoveVectorsFrom(ChessPiece chessPiece) {
+        Set<MoveVector> moveVectors = new HashSet<>();
+        for (MoveVector moveVector : chessPiece.moveVectorSet) {
+            moveVectors.add(moveVector.copy());
+        }
+        setMoveVectorSet(moveVectors);
+    }
+
+    /**
+     * Copies the state only some kinds of ChessPiece have from a ChessPiece of the same kind.
+     * @param chessPiece ChessPiece to take the state of
+     */
+    void copyState(ChessPiece chessPiece) {
+    }
+
+    /**
+     * Writes the kind, color and state of this ChessPiece, including its MoveVectors, so it can be read back in
+     * another process.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(getChessPieceType().ordinal());
+        out.writeByte(chessPieceColor.ordinal());
+        out.writeBoolean(isInitialMove);
+        out.writeBoolean(hasInitialMove);
+        out.writeInt(moveVectorSet.size());
+        for (MoveVector moveVector : moveVectorSet) {
+            moveVector.write(out);
+        }
+        writeState(out);
+    }
+
+    /**
+     * Reads a ChessPiece written by write.
+     * @param in DataInput to read from
+     * @return ChessPiece read
+     * @throws IOException if reading fails or the kind or color is unknown
+     */
+    public static ChessPiece read(DataInput in) throws IOException {
+        int chessPieceType = in.readByte();
+        int chessPieceColor = in.readByte();
+        if (chessPieceType < 0 || chessPieceType >= ChessPieceType.values().length
+                || chessPieceColor < 0 || chessPieceColor >= ChessPieceColor.values().length) {
+            throw new IOException("Unknown ChessPiece " + chessPieceType + " of color " + chessPieceColor);
+        }
+        ChessPiece chessPiece = createChessPiece(ChessPieceType.values()[chessPieceType],
+                ChessPieceColor.values()[chessPieceColor]);
+        chessPiece.isInitialMove = in.readBoolean();
+        chessPiece.hasInitialMove = in.readBoolean();
+        int moveVectorCount = in.readInt();
+        Set<MoveVector> moveVectors = new HashSet<>();
+        for (int index = 0; index < moveVectorCount; index++) {
+            moveVectors.add(MoveVector.read(in));
+        }
+        chessPiece.setMoveVectorSet(moveVectors);
+        chessPiece.readState(in);
+        return chessPiece;
+    }
+
+    /**
+     * Writes the state only some kinds of ChessPiece have.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    void writeState(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Reads the state written by writeState.
+     * @param in DataInput to read from
+     * @throws IOException if reading fails
+     */
+    void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * Creates a new ChessPiece of a kind.
+     * @param chessPieceType ChessPieceType of the ChessPiece
+     * @param chessPieceColor ChessPieceColor of the owner of the ChessPiece
+     * @return ChessPiece in its initial state
+     * @throws IllegalArgumentException if the ChessPieceType is not known
+     */
+    public static ChessPiece createChessPiece(ChessPieceType chessPieceType, ChessPieceColor chessPieceColor) {
+        switch (chessPieceType) {
+            case PAWN:
+                return new Pawn(chessPieceColor);
+            case ROOK:
+                return new Rook(chessPieceColor);
+            case KNIGHT:
+                return new Knight(chessPieceColor);
+            case BISHOP:
+                return new Bishop(chessPieceColor);
+            case QUEEN:
+                return new Queen(chessPieceColor);
+            case KING:
+                return new King(chessPieceColor);
+            case KIRBY:
+                return new Kirby(chessPieceColor);
+            case TANK:
+                return new Tank(chessPieceColor);
+            default:
+                throw new IllegalArgumentException("Unknown ChessPieceType " + chessPieceType);
+        }
+    }
+
+    /**
+     * enum to determine the kind of a ChessPiece without instanceof checks.
+     */
+    public enum ChessPieceType {
+        PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING, KIRBY, TANK
+    }
+
     /**
      * enum to determine the owner of a ChessPiece.
      */
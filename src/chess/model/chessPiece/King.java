@@ -31,4 +31,13 @@ public class King extends ChessPiece {
 
         setMoveVectorSet(possibleMoves);
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.KING
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.KING;
+    }
 }
@@ -48,4 +48,13 @@ public class Kirby extends ChessPiece implements MovementChanging {
         setMoveVectorSet(possibleMoves);
         setCaptureOwnPiece();
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.KIRBY
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.KIRBY;
+    }
 }
@@ -33,4 +33,13 @@ public class Knight extends ChessPiece {
 
         setMoveVectorSet(possibleMoves);
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.KNIGHT
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.KNIGHT;
+    }
 }
@@ -1,5 +1,9 @@
 package chess.model.chessPiece;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * A MoveVector class that specifies what type of moves a ChessPiece can make.
  */
@@ -141,7 +145,113 @@ public class MoveVector {
      * Setter for canCaptureOwnPiece
      * @return canCaptureOwnPiece boolean
      */
-    void setCaptureOwnPiece(boolean canCaptureOwnPiece) {
+    public void setCaptureOwnPiece(boolean canCaptureOwnPiece) {
         this.canCaptureOwnPiece = canCaptureOwnPiece;
     }
+
+    /**
+     * Creates a MoveVector with the same directions, distance and flags.
+     * @return MoveVector copy
+     */
+    public MoveVector copy() {
+        MoveVector moveVector = new MoveVector(rankDirection, fileDirection, distance);
+        moveVector.canCapture = canCapture;
+        moveVector.canBeEmpty = canBeEmpty;
+        moveVector.canJumpOver = canJumpOver;
+        moveVector.directionType = directionType;
+        moveVector.isInitialMove = isInitialMove;
+        moveVector.canCaptureOwnPiece = canCaptureOwnPiece;
+        return moveVector;
+    }
+
+    /**
+     * Writes the directions, distance and flags of this MoveVector.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(rankDirection);
+        out.writeInt(fileDirection);
+        out.writeInt(distance);
+        out.writeInt(directionType);
+        out.writeByte(getFlags());
+    }
+
+    /**
+     * Reads a MoveVector written by write.
+     * @param in DataInput to read from
+     * @return MoveVector read
+     * @throws IOException if reading fails or the MoveVector is not valid
+     */
+    public static MoveVector read(DataInput in) throws IOException {
+        final int rankDirection = in.readInt();
+        final int fileDirection = in.readInt();
+        final int distance = in.readInt();
+        final int directionType = in.readInt();
+        final int flags = in.readByte();
+        try {
+            return create(rankDirection, fileDirection, distance, directionType, flags);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid MoveVector, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Getter for the flags of this MoveVector packed into an int: 1 for canCapture, 2 for canBeEmpty, 4 for
+     * canJumpOver, 8 for isInitialMove and 16 for canCaptureOwnPiece.
+     * @return int packed flags
+     */
+    public int getFlags() {
+        return (canCapture ? 1 : 0) | (canBeEmpty ? 2 : 0) | (canJumpOver ? 4 : 0) | (isInitialMove ? 8 : 0)
+                | (canCaptureOwnPiece ? 16 : 0);
+    }
+
+    /**
+     * Creates a MoveVector from its directions, distance and flags packed as getFlags packs them, for MoveVectors
+     * read back from outside the ChessPiece that made them.
+     * @param rankDirection int rank directionType of where the ChessPiece can move to
+     * @param fileDirection int file directionType of where the ChessPiece can move to
+     * @param distance int how far the ChessPiece can move
+     * @param directionType int that specifies how many directions the ChessPiece can move with this MoveVector
+     * @param flags int packed flags
+     * @return MoveVector created
+     * @throws IllegalArgumentException if the values are not ones a MoveVector can have
+     */
+    public static MoveVector create(int rankDirection, int fileDirection, int distance, int directionType, int flags) {
+        checkValues(rankDirection, fileDirection, distance, directionType, flags);
+        MoveVector moveVector = new MoveVector(rankDirection, fileDirection, distance);
+        moveVector.directionType = directionType;
+        moveVector.canCapture = (flags & 1) != 0;
+        moveVector.canBeEmpty = (flags & 2) != 0;
+        moveVector.canJumpOver = (flags & 4) != 0;
+        moveVector.isInitialMove = (flags & 8) != 0;
+        moveVector.canCaptureOwnPiece = (flags & 16) != 0;
+        return moveVector;
+    }
+
+    /**
+     * Checks the directions, distance and flags of a MoveVector read back from outside the ChessPiece that made it:
+     * directionType is 1 or -1 for one direction or 2 or 4 for the ones MoveTable expands, the direction is not 0, 0, the
+     * distance is at least 1 and only the flags getFlags packs are set.
+     * @param rankDirection int rank directionType of where the ChessPiece can move to
+     * @param fileDirection int file directionType of where the ChessPiece can move to
+     * @param distance int how far the ChessPiece can move
+     * @param directionType int that specifies how many directions the ChessPiece can move with this MoveVector
+     * @param flags int packed flags
+     * @throws IllegalArgumentException with the reason if a value is not valid
+     */
+    public static void checkValues(int rankDirection, int fileDirection, int distance, int directionType, int flags) {
+        if (directionType != 1 && directionType != -1 && directionType != 2 && directionType != 4) {
+            throw new IllegalArgumentException("directionType " + directionType + " is not 1, -1, 2 or 4");
+        }
+        if (rankDirection == 0 && fileDirection == 0) {
+            throw new IllegalArgumentException("direction is 0, 0");
+        }
+        if (distance < 1) {
+            throw new IllegalArgumentException("distance " + distance + " is less than 1");
+        }
+        if (flags < 0 || flags > 31) {
+            throw new IllegalArgumentException("flags " + flags + " are not between 0 and 31");
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package chess.model.chessPiece;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -74,4 +77,50 @@ public class Pawn extends ChessPiece {
     public void decrementMoveCount() {
         moveCount--;
     }
+
+    /**
+     * Setter for moveCount, to go back to an earlier position of the game.
+     * @param moveCount int how many times this Pawn moved
+     */
+    public void setMoveCount(int moveCount) {
+        this.moveCount = moveCount;
+    }
+
+    /**
+     * Copies moveCount.
+     * @param chessPiece Pawn to take the moveCount of
+     */
+    @Override
+    void copyState(ChessPiece chessPiece) {
+        moveCount = ((Pawn) chessPiece).moveCount;
+    }
+
+    /**
+     * Writes moveCount.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    @Override
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(moveCount);
+    }
+
+    /**
+     * Reads moveCount.
+     * @param in DataInput to read from
+     * @throws IOException if reading fails
+     */
+    @Override
+    void readState(DataInput in) throws IOException {
+        moveCount = in.readInt();
+    }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.PAWN
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.PAWN;
+    }
 }
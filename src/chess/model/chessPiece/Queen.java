@@ -31,4 +31,13 @@ public class Queen extends ChessPiece {
 
         setMoveVectorSet(possibleMoves);
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.QUEEN
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.QUEEN;
+    }
 }
@@ -27,4 +27,13 @@ public class Rook extends ChessPiece {
 
         setMoveVectorSet(possibleMoves);
     }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.ROOK
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.ROOK;
+    }
 }
@@ -1,5 +1,8 @@
 package chess.model.chessPiece;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -7,6 +10,7 @@ import java.util.Set;
  * A King class that extends the ChessPiece class.
  */
 public class Tank extends ChessPiece {
+    private static final int MAX_HIT_POINT = 3;
     private int hitPoint;
 
     /**
@@ -15,7 +19,7 @@ public class Tank extends ChessPiece {
      */
     public Tank(ChessPieceColor chessPieceColor){
         super(chessPieceColor);
-        hitPoint = 3;
+        hitPoint = MAX_HIT_POINT;
     }
 
     /**
@@ -50,4 +54,53 @@ public class Tank extends ChessPiece {
     public void hit() {
         hitPoint--;
     }
+
+    /**
+     * Setter for hitPoint, to take back hits when a movement is undone.
+     * @param hitPoint int hitPoint
+     */
+    public void setHitPoint(int hitPoint) {
+        this.hitPoint = hitPoint;
+    }
+
+    /**
+     * Copies hitPoint.
+     * @param chessPiece Tank to take the hitPoint of
+     */
+    @Override
+    void copyState(ChessPiece chessPiece) {
+        hitPoint = ((Tank) chessPiece).hitPoint;
+    }
+
+    /**
+     * Writes hitPoint.
+     * @param out DataOutput to write to
+     * @throws IOException if writing fails
+     */
+    @Override
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(hitPoint);
+    }
+
+    /**
+     * Reads hitPoint.
+     * @param in DataInput to read from
+     * @throws IOException if reading fails or the Tank would have no hit points or more than it starts with
+     */
+    @Override
+    void readState(DataInput in) throws IOException {
+        hitPoint = in.readInt();
+        if (hitPoint < 1 || hitPoint > MAX_HIT_POINT) {
+            throw new IOException("Invalid Tank hit points " + hitPoint);
+        }
+    }
+
+    /**
+     * Getter for the kind of this ChessPiece.
+     * @return ChessPieceType.TANK
+     */
+    @Override
+    public ChessPieceType getChessPieceType() {
+        return ChessPieceType.TANK;
+    }
 }
@@ -0,0 +1,477 @@
+package chess.model.journal;
+
+import chess.model.chessBoard.ChessBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * A GameJournal class that records everything that changes the games of a ChessGameController in an append-only file,
+ * so the games that were in progress can be rebuilt after the process died.
+ * <p>
+ * Every change is a record of RECORD_SIZE bytes: the kind and game of the record as an int, two int arguments and a
+ * checksum of the three. Records are written into a memory-mapped chunk of the file, so appending one is a few stores
+ * to memory. A daemon thread forces the records to the disk once syncInterval records were appended and whenever a
+ * chunk is full, so the thread appending never waits for the disk; sync and close force them on the calling thread.
+ * The daemon thread looks every POLL_MILLIS instead of being woken up by append, since a woken thread takes the
+ * processor from the appending one on a single core, and it leaves out the page records are still appended to, since
+ * writing to a page while it is written out waits for the disk as well. That page is forced once it is full.
+ * When the process dies the operating system still writes the chunk out; when the machine goes down the records
+ * since the last force may be lost. Reading stops at the first record whose checksum does not match, which is where a
+ * write was cut off, and the rest of the file is cleared before records are appended again.
+ */
+public class GameJournal implements Closeable {
+    static final int RECORD_SIZE = 16;
+    static final int CHUNK_SIZE = RECORD_SIZE << 16;
+    private static final int PAGE_SIZE = 4096;
+    private static final long POLL_MILLIS = 50;
+    private static final int DEFAULT_SYNC_INTERVAL = 256;
+    private static final int MAX_GAME_ID = (1 << 24) - 1;
+    private static final int CHECKSUM_SEED = 0x6A6F726E;
+
+    private static final int NEW_GAME = 1;
+    private static final int MOVEMENT = 2;
+    private static final int UNDO = 3;
+    private static final int REDO = 4;
+    private static final int SEEK = 5;
+    private static final int END_GAME = 6;
+    private static final int POINTS = 7;
+
+    private Logger logger = Logger.getLogger(this.getClass().getName());
+    private final FileChannel fileChannel;
+    private MappedByteBuffer mappedBuffer;
+    private long chunkStart;
+    // Position in the chunk up to which the sync thread forced the records.
+    private int syncedPosition;
+    // Full chunks that were not forced to the disk yet.
+    private final List<MappedByteBuffer> unsyncedChunks = new ArrayList<>();
+    private int syncInterval = DEFAULT_SYNC_INTERVAL;
+    private int unsyncedCount;
+    private boolean syncRequested;
+    private boolean isClosed;
+    // Header and arguments of each record read when the GameJournal was opened, three ints per record.
+    private int[] records = new int[3 * 64];
+    private int recordCount;
+    private int nextGameId;
+    private int topPlayerPoints;
+    private int bottomPlayerPoints;
+
+    /**
+     * A GameJournal constructor that opens a journal file, creating it if it does not exist, and reads its records.
+     * New records are appended after the last complete record.
+     * @param path Path of the journal file
+     * @throws IOException if the file cannot be opened, read or mapped
+     */
+    public GameJournal(Path path) throws IOException {
+        fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            final long fileSize = fileChannel.size();
+            final long end = readRecords(fileSize);
+            clearTail(end, fileSize);
+            mapChunk(end);
+        } catch (IOException | RuntimeException e){
+            fileChannel.close();
+            throw e;
+        }
+        final Thread syncThread = new Thread(this::syncInBackground, "GameJournal-" + path.getFileName());
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Reads the complete records at the start of the file.
+     * @param fileSize long size of the file
+     * @return long offset after the last complete record
+     * @throws IOException if the file cannot be mapped
+     */
+    private long readRecords(long fileSize) throws IOException {
+        long offset = 0;
+        while (fileSize - offset >= RECORD_SIZE){
+            final long length = Math.min(CHUNK_SIZE, (fileSize - offset) / RECORD_SIZE * RECORD_SIZE);
+            final MappedByteBuffer chunk = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            for (int position = 0; position < length; position += RECORD_SIZE){
+                final int header = chunk.getInt(position);
+                final int firstArgument = chunk.getInt(position + 4);
+                final int secondArgument = chunk.getInt(position + 8);
+                final int kind = header >>> 24;
+                if (kind < NEW_GAME || kind > POINTS
+                        || chunk.getInt(position + 12) != checksum(header, firstArgument, secondArgument)){
+                    return offset + position;
+                }
+                addRecord(header, firstArgument, secondArgument);
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * Keeps a record that was read and follows the game ids and points it sets.
+     * @param header int kind and game of the record
+     * @param firstArgument int first argument
+     * @param secondArgument int second argument
+     */
+    private void addRecord(int header, int firstArgument, int secondArgument){
+        if (recordCount * 3 == records.length){
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        records[recordCount * 3] = header;
+        records[recordCount * 3 + 1] = firstArgument;
+        records[recordCount * 3 + 2] = secondArgument;
+        recordCount++;
+        if (header >>> 24 == NEW_GAME){
+            nextGameId = Math.max(nextGameId, (header & MAX_GAME_ID) + 1);
+        } else if (header >>> 24 == POINTS){
+            topPlayerPoints = firstArgument;
+            bottomPlayerPoints = secondArgument;
+        }
+    }
+
+    /**
+     * Clears the file after the last complete record, so the records appended from there on are not followed by
+     * complete records that were written after a cut off one, which would be read again the next time.
+     * @param end long offset after the last complete record
+     * @param fileSize long size of the file
+     * @throws IOException if the file cannot be written or forced
+     */
+    private void clearTail(long end, long fileSize) throws IOException {
+        if (end == fileSize){
+            return;
+        }
+        final ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, fileSize - end));
+        for (long offset = end; offset < fileSize; offset += zeros.capacity()){
+            zeros.clear().limit((int) Math.min(zeros.capacity(), fileSize - offset));
+            while (zeros.hasRemaining()){
+                fileChannel.write(zeros, offset + zeros.position());
+            }
+        }
+        fileChannel.force(false);
+    }
+
+    /**
+     * Computes the checksum of a record, which is never 0 for a record of zeros.
+     * @param header int kind and game of the record
+     * @param firstArgument int first argument
+     * @param secondArgument int second argument
+     * @return int checksum
+     */
+    private static int checksum(int header, int firstArgument, int secondArgument){
+        int hash = (header * 0x9E3779B1) ^ firstArgument;
+        hash = (hash * 0x85EBCA77) ^ secondArgument;
+        hash = (hash ^ (hash >>> 15)) * 0xC2B2AE3D;
+        return hash ^ (hash >>> 13) ^ CHECKSUM_SEED;
+    }
+
+    /**
+     * Maps the chunk of the file records are appended to, growing the file. The chunk starts at a page, so the pages
+     * of the file are the pages of the chunk.
+     * @param offset long offset in the file the next record is appended at
+     * @throws IOException if the chunk cannot be mapped
+     */
+    private void mapChunk(long offset) throws IOException {
+        chunkStart = offset - offset % PAGE_SIZE;
+        mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, chunkStart, CHUNK_SIZE);
+        mappedBuffer.position((int) (offset - chunkStart));
+        syncedPosition = 0;
+    }
+
+    /**
+     * Appends a record, asking the sync thread to force the records to the disk once syncInterval of them were
+     * appended or the chunk is full.
+     * @param kind int kind of the record
+     * @param gameId int game the record belongs to, 0 if it belongs to none
+     * @param firstArgument int first argument
+     * @param secondArgument int second argument
+     * @throws IOException if the next chunk cannot be mapped
+     */
+    private synchronized void append(int kind, int gameId, int firstArgument, int secondArgument) throws IOException {
+        if (mappedBuffer.remaining() < RECORD_SIZE){
+            unsyncedChunks.add(mappedBuffer);
+            mapChunk(chunkStart + mappedBuffer.position());
+            requestSync();
+        }
+        final int header = kind << 24 | gameId;
+        final int position = mappedBuffer.position();
+        mappedBuffer.putInt(position + 4, firstArgument);
+        mappedBuffer.putInt(position + 8, secondArgument);
+        mappedBuffer.putInt(position + 12, checksum(header, firstArgument, secondArgument));
+        mappedBuffer.putInt(position, header);
+        mappedBuffer.position(position + RECORD_SIZE);
+        if (++unsyncedCount >= syncInterval){
+            requestSync();
+        }
+    }
+
+    /**
+     * Asks the sync thread to force the records appended so far the next time it looks.
+     */
+    private void requestSync(){
+        unsyncedCount = 0;
+        syncRequested = true;
+    }
+
+    /**
+     * Forces the full chunks and the full pages of the chunk records are appended to whenever append asks for it,
+     * until the GameJournal is closed. They are forced outside the lock, so records can be appended in the meantime.
+     */
+    private void syncInBackground(){
+        while (true){
+            final MappedByteBuffer[] chunks;
+            final MappedByteBuffer chunk;
+            final int start;
+            final int end;
+            synchronized (this){
+                try {
+                    while (!syncRequested && !isClosed){
+                        wait(POLL_MILLIS);
+                    }
+                } catch (InterruptedException e){
+                    return;
+                }
+                if (isClosed){
+                    return;
+                }
+                syncRequested = false;
+                chunks = unsyncedChunks.toArray(new MappedByteBuffer[0]);
+                unsyncedChunks.clear();
+                chunk = mappedBuffer;
+                start = syncedPosition;
+                end = chunk.position() - chunk.position() % PAGE_SIZE;
+                syncedPosition = Math.max(start, end);
+            }
+            try {
+                for (MappedByteBuffer unsyncedChunk : chunks){
+                    unsyncedChunk.force();
+                }
+                if (end > start){
+                    chunk.force(start, end - start);
+                }
+            } catch (RuntimeException e){
+                logger.warning("GameJournal could not force records to the disk: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts a new game.
+     * @param mode int mode of the ChessBoard the game starts on, as given to the ChessBoard constructor
+     * @return int id of the game, for the records of its changes
+     * @throws IOException if the record cannot be appended
+     */
+    public synchronized int startGame(int mode) throws IOException {
+        if (nextGameId > MAX_GAME_ID){
+            throw new IOException("GameJournal has no game ids left");
+        }
+        final int gameId = nextGameId++;
+        append(NEW_GAME, gameId, mode, 0);
+        return gameId;
+    }
+
+    /**
+     * Appends a movement that moveChessPiece accepted.
+     * @param gameId int id of the game
+     * @param currentRank int rank the ChessPiece moved from
+     * @param currentFile int file the ChessPiece moved from
+     * @param newRank int rank the ChessPiece moved to
+     * @param newFile int file the ChessPiece moved to
+     * @throws IOException if the record cannot be appended
+     */
+    public void appendMovement(int gameId, int currentRank, int currentFile, int newRank, int newFile)
+            throws IOException {
+        append(MOVEMENT, checkGameId(gameId), pack(currentRank, currentFile), pack(newRank, newFile));
+    }
+
+    /**
+     * Appends a movement that was undone.
+     * @param gameId int id of the game
+     * @throws IOException if the record cannot be appended
+     */
+    public void appendUndo(int gameId) throws IOException {
+        append(UNDO, checkGameId(gameId), 0, 0);
+    }
+
+    /**
+     * Appends a movement that was redone.
+     * @param gameId int id of the game
+     * @throws IOException if the record cannot be appended
+     */
+    public void appendRedo(int gameId) throws IOException {
+        append(REDO, checkGameId(gameId), 0, 0);
+    }
+
+    /**
+     * Appends a jump to another ply of the game.
+     * @param gameId int id of the game
+     * @param ply int ply that was reached
+     * @throws IOException if the record cannot be appended
+     */
+    public void appendSeek(int gameId, int ply) throws IOException {
+        append(SEEK, checkGameId(gameId), ply, 0);
+    }
+
+    /**
+     * Ends a game, so it is no longer recovered.
+     * @param gameId int id of the game
+     * @throws IOException if the record cannot be appended
+     */
+    public void endGame(int gameId) throws IOException {
+        append(END_GAME, checkGameId(gameId), 0, 0);
+    }
+
+    /**
+     * Appends the points of the players.
+     * @param topPlayerPoints int total points of the top player
+     * @param bottomPlayerPoints int total points of the bottom player
+     * @throws IOException if the record cannot be appended
+     */
+    public synchronized void appendPoints(int topPlayerPoints, int bottomPlayerPoints) throws IOException {
+        append(POINTS, 0, topPlayerPoints, bottomPlayerPoints);
+        this.topPlayerPoints = topPlayerPoints;
+        this.bottomPlayerPoints = bottomPlayerPoints;
+    }
+
+    /**
+     * Checks that a game id can be written in a record.
+     * @param gameId int id of the game
+     * @return int the same id
+     */
+    private static int checkGameId(int gameId){
+        if (gameId < 0 || gameId > MAX_GAME_ID){
+            throw new IllegalArgumentException("Invalid game id " + gameId);
+        }
+        return gameId;
+    }
+
+    /**
+     * Packs the rank and file of a ChessCell into one argument.
+     * @param rank int rank of the ChessCell
+     * @param file int file of the ChessCell
+     * @return int rank in the high and file in the low 16 bits
+     */
+    private static int pack(int rank, int file){
+        if (rank < 0 || rank > 0xFFFF || file < 0 || file > 0xFFFF){
+            throw new IllegalArgumentException("Rank " + rank + " file " + file + " cannot be journaled");
+        }
+        return rank << 16 | file;
+    }
+
+    /**
+     * Rebuilds the games that were started and not ended in the records read when this GameJournal was opened, by
+     * replaying their movements on a new ChessBoard, whose movableCells are updated once after its last record.
+     * The records of ended games are skipped.
+     * @return Map of the ChessBoard of each game in progress by game id, in the order the games were started
+     * @throws IOException if a record cannot be made again on its ChessBoard
+     */
+    public synchronized Map<Integer, ChessBoard> recoverGames() throws IOException {
+        final Set<Integer> endedGameIds = new HashSet<>();
+        for (int index = 0; index < recordCount; index++){
+            if (records[index * 3] >>> 24 == END_GAME){
+                endedGameIds.add(records[index * 3] & MAX_GAME_ID);
+            }
+        }
+        final Map<Integer, ChessBoard> chessBoards = new LinkedHashMap<>();
+        for (int index = 0; index < recordCount; index++){
+            final int kind = records[index * 3] >>> 24;
+            final int gameId = records[index * 3] & MAX_GAME_ID;
+            final int firstArgument = records[index * 3 + 1];
+            final int secondArgument = records[index * 3 + 2];
+            if (kind == POINTS || endedGameIds.contains(gameId)){
+                continue;
+            }
+            if (kind == NEW_GAME){
+                chessBoards.put(gameId, new ChessBoard(firstArgument));
+                continue;
+            }
+            final ChessBoard chessBoard = chessBoards.get(gameId);
+            if (chessBoard == null){
+                throw new IOException("Record " + index + " belongs to game " + gameId + " that was not started");
+            }
+            final boolean isReplayed;
+            if (kind == MOVEMENT){
+                isReplayed = chessBoard.replayMovement(firstArgument >>> 16, firstArgument & 0xFFFF,
+                        secondArgument >>> 16, secondArgument & 0xFFFF);
+            } else if (kind == UNDO){
+                isReplayed = chessBoard.replaySeek(chessBoard.getPly() - 1);
+            } else if (kind == REDO){
+                isReplayed = chessBoard.replaySeek(chessBoard.getPly() + 1);
+            } else {
+                isReplayed = chessBoard.replaySeek(firstArgument);
+            }
+            if (!isReplayed){
+                throw new IOException("Record " + index + " of game " + gameId + " cannot be made again");
+            }
+        }
+        for (ChessBoard chessBoard : chessBoards.values()){
+            chessBoard.finishReplay();
+        }
+        return chessBoards;
+    }
+
+    /**
+     * Getter for the points of the top player in the last points record.
+     * @return int total points of the top player
+     */
+    public synchronized int getTopPlayerPoints() {
+        return topPlayerPoints;
+    }
+
+    /**
+     * Getter for the points of the bottom player in the last points record.
+     * @return int total points of the bottom player
+     */
+    public synchronized int getBottomPlayerPoints() {
+        return bottomPlayerPoints;
+    }
+
+    /**
+     * Sets how many records are appended between two forces to the disk.
+     * @param syncInterval int number of records, 1 to force every record
+     */
+    public synchronized void setSyncInterval(int syncInterval) {
+        if (syncInterval <= 0){
+            throw new IllegalArgumentException("Invalid sync interval " + syncInterval);
+        }
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Forces the records appended so far to the disk.
+     */
+    public synchronized void sync() {
+        for (MappedByteBuffer chunk : unsyncedChunks){
+            chunk.force();
+        }
+        unsyncedChunks.clear();
+        mappedBuffer.force();
+        unsyncedCount = 0;
+        syncRequested = false;
+    }
+
+    /**
+     * Forces the records to the disk, stops the sync thread and closes the file.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (fileChannel.isOpen()){
+            sync();
+            isClosed = true;
+            notifyAll();
+            fileChannel.close();
+        }
+    }
+}
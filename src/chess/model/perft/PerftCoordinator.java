@@ -0,0 +1,429 @@
+package chess.model.perft;
+
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * A PerftCoordinator class that splits perft of a ChessBoard into subtrees and has PerftWorkers count them over TCP.
+ * <p>
+ * The root movements are split by more movements until there are enough subtrees for every PerftWorker, and the
+ * subtrees that look much larger than the others are split once more. They are handed out largest first to whichever
+ * PerftWorker asks next, so a PerftWorker with large subtrees simply takes fewer of them. A subtree whose PerftWorker
+ * fails or does not answer within the read timeout is handed out again, and a PerftWorker that keeps failing is
+ * dropped.
+ * Every address gets one connection, so an address can be listed more than once to keep more requests in flight.
+ */
+public class PerftCoordinator {
+    static final int UNITS_PER_WORKER = 8;
+    static final int LARGE_UNIT_FACTOR = 4;
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 60000;
+    private static final long RETRY_DELAY_MILLIS = 100;
+    private static final long POLL_MILLIS = 50;
+
+    private Logger logger = Logger.getLogger(this.getClass().getName());
+    private final List<InetSocketAddress> workerAddresses;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private int readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+
+    /**
+     * A PerftCoordinator constructor.
+     * @param workerAddresses List of the addresses of the PerftWorkers, not empty
+     */
+    public PerftCoordinator(List<InetSocketAddress> workerAddresses) {
+        if (workerAddresses.isEmpty()) {
+            throw new IllegalArgumentException("A PerftCoordinator needs at least one PerftWorker");
+        }
+        this.workerAddresses = new ArrayList<>(workerAddresses);
+    }
+
+    /**
+     * Setter for how many times in a row a PerftWorker may fail before it is dropped, which is also how many times
+     * the same subtree may fail before the count is given up.
+     * @param maxAttempts int number of attempts, at least 1
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Setter for how long to wait for the count of one subtree before the PerftWorker counts as failed and the subtree
+     * is handed out again, a minute by default. Subtrees of deep counts may take longer than that.
+     * @param readTimeoutMillis int milliseconds, 0 to wait forever even for a PerftWorker that hangs
+     */
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        if (readTimeoutMillis < 0) {
+            throw new IllegalArgumentException("readTimeoutMillis must not be negative");
+        }
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Counts the positions reached by every sequence of movements of a given length, like ChessBoard.perft.
+     * The ChessBoard is left as it was.
+     * @param chessBoard ChessBoard to count from
+     * @param depth int number of movements, not negative
+     * @return long number of positions
+     * @throws IOException if no PerftWorker is left or a subtree failed too many times
+     */
+    public long perft(ChessBoard chessBoard, int depth) throws IOException {
+        if (depth <= 1) {
+            return chessBoard.perft(depth);
+        }
+        long nodes = 0;
+        for (long movementNodes : divide(chessBoard, depth).values()) {
+            nodes += movementNodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the positions of perft separately for every movement of the current turn, like ChessBoard.divide.
+     * The ChessBoard is left as it was.
+     * @param chessBoard ChessBoard to count from
+     * @param depth int number of movements, at least 1
+     * @return Map of the number of positions by packed movement, in the order generateMoves writes them
+     * @throws IOException if no PerftWorker is left or a subtree failed too many times
+     */
+    public Map<Integer, Long> divide(ChessBoard chessBoard, int depth) throws IOException {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1");
+        }
+        final long startTime = System.nanoTime();
+        final Map<Integer, Long> divided = new LinkedHashMap<>();
+        final byte[] rootPosition = encode(chessBoard);
+        final MoveBuffer moveBuffer = new MoveBuffer();
+        final int moveCount = chessBoard.generateMoves(moveBuffer);
+        List<PerftWorkUnit> units = new ArrayList<>();
+        for (int index = 0; index < moveCount; index++) {
+            final int move = moveBuffer.get(index);
+            divided.put(move, 0L);
+            units.add(createUnit(rootPosition, depth, move, move));
+        }
+        while (units.size() < workerAddresses.size() * UNITS_PER_WORKER && canSplit(units)) {
+            units = splitAll(units);
+        }
+        units = splitLarge(units);
+
+        final List<PerftWorkUnit> remoteUnits = new ArrayList<>();
+        for (PerftWorkUnit unit : units) {
+            if (unit.getDepth() == 0) {
+                divided.merge(unit.getRootMove(), 1L, Long::sum);
+            } else {
+                remoteUnits.add(unit);
+            }
+        }
+        remoteUnits.sort(Comparator.comparingDouble(PerftWorkUnit::getEstimate).reversed());
+        final PerftRun perftRun = new PerftRun(remoteUnits, divided);
+        perftRun.run();
+
+        logger.info("Distributed divide of depth " + depth + " in " + remoteUnits.size() + " work units took "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+        return divided;
+    }
+
+    /**
+     * Checks if any work unit has more than one movement left to count.
+     * @param units List of work units
+     * @return true if splitAll would split some of them
+     */
+    private static boolean canSplit(List<PerftWorkUnit> units) {
+        for (PerftWorkUnit unit : units) {
+            if (unit.getDepth() > 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits every work unit with more than one movement left by its next movement.
+     * @param units List of work units
+     * @return List of the split work units
+     * @throws IOException if a position cannot be read back
+     */
+    private static List<PerftWorkUnit> splitAll(List<PerftWorkUnit> units) throws IOException {
+        final List<PerftWorkUnit> splitUnits = new ArrayList<>();
+        for (PerftWorkUnit unit : units) {
+            if (unit.getDepth() > 1) {
+                splitUnits.addAll(split(unit));
+            } else {
+                splitUnits.add(unit);
+            }
+        }
+        return splitUnits;
+    }
+
+    /**
+     * Splits once more the work units that look LARGE_UNIT_FACTOR times larger than the average one, so no PerftWorker
+     * is left with a single subtree long after the others are done.
+     * @param units List of work units
+     * @return List of the work units with the large ones split
+     * @throws IOException if a position cannot be read back
+     */
+    private static List<PerftWorkUnit> splitLarge(List<PerftWorkUnit> units) throws IOException {
+        if (units.isEmpty()) {
+            return units;
+        }
+        double totalEstimate = 0;
+        for (PerftWorkUnit unit : units) {
+            totalEstimate += unit.getEstimate();
+        }
+        final double largeEstimate = LARGE_UNIT_FACTOR * totalEstimate / units.size();
+        final List<PerftWorkUnit> balancedUnits = new ArrayList<>();
+        for (PerftWorkUnit unit : units) {
+            if (unit.getDepth() > 1 && unit.getEstimate() > largeEstimate) {
+                balancedUnits.addAll(split(unit));
+            } else {
+                balancedUnits.add(unit);
+            }
+        }
+        return balancedUnits;
+    }
+
+    /**
+     * Splits a work unit by its next movement.
+     * @param unit PerftWorkUnit with at least one movement left
+     * @return List of a work unit for every movement
+     * @throws IOException if the position cannot be read back
+     */
+    private static List<PerftWorkUnit> split(PerftWorkUnit unit) throws IOException {
+        final ChessBoard chessBoard = decode(unit.getPosition());
+        final MoveBuffer moveBuffer = new MoveBuffer();
+        final int moveCount = chessBoard.generateMoves(moveBuffer);
+        final List<PerftWorkUnit> children = new ArrayList<>(moveCount);
+        for (int index = 0; index < moveCount; index++) {
+            children.add(createUnit(unit.getPosition(), unit.getDepth(), moveBuffer.get(index), unit.getRootMove()));
+        }
+        return children;
+    }
+
+    /**
+     * Creates the work unit of a movement from a position. Its estimate is the number of movements after it to the
+     * power of the movements left, a rough size of the subtree.
+     * @param position byte[] position before the movement
+     * @param depth int number of movements left including this one
+     * @param move int packed movement
+     * @param rootMove int packed root movement the subtree belongs to
+     * @return PerftWorkUnit of the position after the movement
+     * @throws IOException if the position cannot be read back
+     */
+    private static PerftWorkUnit createUnit(byte[] position, int depth, int move, int rootMove) throws IOException {
+        final ChessBoard chessBoard = decode(position);
+        if (!chessBoard.moveChessPiece(move)) {
+            throw new IllegalStateException("Generated movement " + move + " could not be made");
+        }
+        final int moveCount = depth > 1 ? chessBoard.generateMoves(new MoveBuffer()) : 1;
+        return new PerftWorkUnit(encode(chessBoard), depth - 1, rootMove, Math.pow(moveCount, depth - 1));
+    }
+
+    /**
+     * Writes the position of a ChessBoard to bytes.
+     * @param chessBoard ChessBoard to write
+     * @return byte[] position
+     * @throws IOException if writing fails
+     */
+    static byte[] encode(ChessBoard chessBoard) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        chessBoard.writePosition(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the position of a ChessBoard from bytes.
+     * @param position byte[] position written by encode
+     * @return ChessBoard of the position
+     * @throws IOException if the position cannot be read
+     */
+    static ChessBoard decode(byte[] position) throws IOException {
+        return ChessBoard.readPosition(new DataInputStream(new ByteArrayInputStream(position)));
+    }
+
+    /**
+     * A PerftRun class that hands out the work units of one divide to a thread per PerftWorker and adds up their
+     * counts.
+     */
+    private class PerftRun {
+        private final LinkedBlockingDeque<PerftWorkUnit> queue;
+        private final Map<Integer, Long> divided;
+        private int remainingUnits;
+        private int liveWorkers;
+        private String failure;
+
+        /**
+         * A PerftRun constructor.
+         * @param units List of the work units, largest first
+         * @param divided Map to add the counts to by root movement
+         */
+        PerftRun(List<PerftWorkUnit> units, Map<Integer, Long> divided) {
+            this.queue = new LinkedBlockingDeque<>(units);
+            this.divided = divided;
+            this.remainingUnits = units.size();
+        }
+
+        /**
+         * Runs every work unit on the PerftWorkers and waits for their counts.
+         * @throws IOException if no PerftWorker is left or a work unit failed too many times
+         */
+        void run() throws IOException {
+            if (remainingUnits == 0) {
+                return;
+            }
+            final List<Thread> threads = new ArrayList<>();
+            synchronized (this) {
+                liveWorkers = workerAddresses.size();
+            }
+            for (InetSocketAddress address : workerAddresses) {
+                final Thread thread = new Thread(() -> serve(address), "PerftCoordinator-" + address);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+            try {
+                synchronized (this) {
+                    while (!isDone()) {
+                        wait();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the PerftWorkers", e);
+            } finally {
+                synchronized (this) {
+                    if (failure == null && remainingUnits > 0) {
+                        failure = "stopped";
+                    }
+                }
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+            synchronized (this) {
+                if (remainingUnits > 0) {
+                    throw new IOException(failure != null ? failure
+                            : "Every PerftWorker failed with " + remainingUnits + " work units left");
+                }
+            }
+        }
+
+        /**
+         * Checks if the run is over, because every work unit is counted, one failed for good or no PerftWorker is
+         * left.
+         * @return true if the run is over
+         */
+        private synchronized boolean isDone() {
+            return remainingUnits == 0 || failure != null || liveWorkers == 0;
+        }
+
+        /**
+         * Adds the count of a work unit.
+         * @param unit PerftWorkUnit that was counted
+         * @param nodes long number of positions
+         */
+        private synchronized void complete(PerftWorkUnit unit, long nodes) {
+            divided.merge(unit.getRootMove(), nodes, Long::sum);
+            remainingUnits--;
+            notifyAll();
+        }
+
+        /**
+         * Hands a failed work unit out again first, or gives the run up if it failed too often.
+         * @param unit PerftWorkUnit that failed
+         */
+        private synchronized void retry(PerftWorkUnit unit) {
+            if (unit.fail() >= maxAttempts) {
+                failure = "A work unit of depth " + unit.getDepth() + " failed " + maxAttempts + " times";
+                notifyAll();
+            } else {
+                queue.offerFirst(unit);
+            }
+        }
+
+        /**
+         * Counts a PerftWorker out of the run.
+         */
+        private synchronized void workerStopped() {
+            liveWorkers--;
+            notifyAll();
+        }
+
+        /**
+         * Sends work units to one PerftWorker until the run is over, reconnecting after failures and giving up on it
+         * after maxAttempts failures in a row. Only a work unit that was sent counts a failed attempt, so an address
+         * nobody listens on does not use up the attempts of the work units.
+         * @param address InetSocketAddress of the PerftWorker
+         */
+        private void serve(InetSocketAddress address) {
+            Socket socket = null;
+            DataInputStream in = null;
+            DataOutputStream out = null;
+            int failures = 0;
+            try {
+                while (!isDone()) {
+                    PerftWorkUnit unit = null;
+                    try {
+                        if (socket == null) {
+                            socket = new Socket();
+                            socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                            socket.setSoTimeout(readTimeoutMillis);
+                            socket.setTcpNoDelay(true);
+                            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                        }
+                        unit = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                        if (unit == null) {
+                            continue;
+                        }
+                        out.writeInt(unit.getDepth());
+                        out.writeInt(unit.getPosition().length);
+                        out.write(unit.getPosition());
+                        out.flush();
+                        complete(unit, in.readLong());
+                        failures = 0;
+                    } catch (IOException e) {
+                        logger.info("PerftWorker " + address + " failed: " + e.getMessage());
+                        PerftWorker.closeQuietly(socket);
+                        socket = null;
+                        if (unit != null) {
+                            retry(unit);
+                        }
+                        if (++failures >= maxAttempts) {
+                            logger.info("Dropping PerftWorker " + address + " after " + failures + " failures");
+                            return;
+                        }
+                        Thread.sleep(RETRY_DELAY_MILLIS * failures);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                PerftWorker.closeQuietly(socket);
+                workerStopped();
+            }
+        }
+    }
+}
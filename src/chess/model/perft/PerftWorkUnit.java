@@ -0,0 +1,67 @@
+package chess.model.perft;
+
+/**
+ * A PerftWorkUnit class that holds one subtree of a distributed perft: a position written by
+ * ChessBoard.writePosition, the number of movements left to count from it and the root movement it belongs to.
+ */
+class PerftWorkUnit {
+    private final byte[] position;
+    private final int depth;
+    private final int rootMove;
+    private final double estimate;
+    private int attempts;
+
+    /**
+     * A PerftWorkUnit constructor.
+     * @param position byte[] position written by ChessBoard.writePosition
+     * @param depth int number of movements left to count
+     * @param rootMove int packed root movement the subtree belongs to
+     * @param estimate double rough size of the subtree, to hand out the largest ones first
+     */
+    PerftWorkUnit(byte[] position, int depth, int rootMove, double estimate) {
+        this.position = position;
+        this.depth = depth;
+        this.rootMove = rootMove;
+        this.estimate = estimate;
+    }
+
+    /**
+     * Getter for the position.
+     * @return byte[] position written by ChessBoard.writePosition, not to be modified
+     */
+    byte[] getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for the number of movements left to count.
+     * @return int depth
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Getter for the root movement the subtree belongs to.
+     * @return int packed movement
+     */
+    int getRootMove() {
+        return rootMove;
+    }
+
+    /**
+     * Getter for the rough size of the subtree.
+     * @return double estimate
+     */
+    double getEstimate() {
+        return estimate;
+    }
+
+    /**
+     * Counts a failed attempt at this PerftWorkUnit.
+     * @return int number of failed attempts so far
+     */
+    int fail() {
+        return ++attempts;
+    }
+}
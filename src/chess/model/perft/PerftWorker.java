@@ -0,0 +1,221 @@
+package chess.model.perft;
+
+import chess.model.chessBoard.ChessBoard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A PerftWorker class that counts perft subtrees for a PerftCoordinator over TCP, in this JVM or as its own process
+ * started with main.
+ * <p>
+ * A connection carries any number of requests, one after the other. A request is the number of movements to count
+ * as an int, the length of the position as an int and the position written by ChessBoard.writePosition. The reply is
+ * the number of positions as a long. Each connection is served by its own thread, and ChessBoard.perft splits deep
+ * counts across the cores of this JVM.
+ * <p>
+ * Requests are not authenticated, so a PerftWorker listens on the loopback address unless another address is given,
+ * and refuses requests deeper than maxDepth or on ChessBoards larger than maxSquareCount. A request that is refused
+ * or whose position cannot be read is logged as a warning and its connection is closed.
+ */
+public class PerftWorker implements Closeable {
+    static final int MAX_POSITION_LENGTH = 1 << 22;
+    private static final int DEFAULT_MAX_DEPTH = 8;
+    private static final long DEFAULT_MAX_SQUARE_COUNT = 64 * 64;
+    private static final Logger CHESS_LOGGER = Logger.getLogger("chess");
+
+    private Logger logger = Logger.getLogger(this.getClass().getName());
+    private final ServerSocket serverSocket;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private volatile int maxDepth = DEFAULT_MAX_DEPTH;
+    private volatile long maxSquareCount = DEFAULT_MAX_SQUARE_COUNT;
+
+    /**
+     * A PerftWorker constructor that listens on a port of the loopback address.
+     * @param port int port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public PerftWorker(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * A PerftWorker constructor that listens on a port of an address.
+     * @param bindAddress InetAddress to listen on, null for every address of the host
+     * @param port int port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public PerftWorker(InetAddress bindAddress, int port) throws IOException {
+        serverSocket = new ServerSocket(port, 0, bindAddress);
+    }
+
+    /**
+     * Setter for the largest number of movements a request may count.
+     * @param maxDepth int number of movements, not negative
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative");
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Setter for the largest number of ChessCells the ChessBoard of a request may have.
+     * @param maxSquareCount long number of ChessCells, at least 1
+     */
+    public void setMaxSquareCount(long maxSquareCount) {
+        if (maxSquareCount < 1) {
+            throw new IllegalArgumentException("maxSquareCount must be at least 1");
+        }
+        this.maxSquareCount = maxSquareCount;
+    }
+
+    /**
+     * Getter for the port this PerftWorker listens on.
+     * @return int port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections on a daemon thread.
+     */
+    public void start() {
+        Thread acceptThread = new Thread(this::acceptConnections, "PerftWorker-" + getPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Accepts connections until this PerftWorker is closed, serving each one on its own daemon thread.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                Thread connectionThread = new Thread(() -> serve(socket), "PerftWorker-" + socket.getRemoteSocketAddress());
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.info("PerftWorker could not accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of one connection until the PerftCoordinator closes it.
+     * @param socket Socket of the connection
+     */
+    private void serve(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (true) {
+                final int depth;
+                try {
+                    depth = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                int length = in.readInt();
+                if (depth < 0 || depth > maxDepth || length < 0 || length > MAX_POSITION_LENGTH) {
+                    logger.warning("PerftWorker refused a perft request of depth " + depth + " and length " + length);
+                    return;
+                }
+                byte[] position = new byte[length];
+                in.readFully(position);
+                ChessBoard chessBoard = readPosition(position);
+                if (chessBoard == null) {
+                    return;
+                }
+                out.writeLong(chessBoard.perft(depth));
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.info("PerftWorker connection failed: " + e.getMessage());
+        } finally {
+            sockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Reads the position of a request, logging why if it cannot be read.
+     * @param position byte[] position written by ChessBoard.writePosition
+     * @return ChessBoard of the position, null if it cannot be read or its ChessBoard is too large
+     */
+    private ChessBoard readPosition(byte[] position) {
+        try {
+            return ChessBoard.readPosition(new DataInputStream(new ByteArrayInputStream(position)), maxSquareCount);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("PerftWorker refused a position that cannot be read: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Closes a socket, ignoring failures.
+     * @param socket Socket to close, may be null
+     */
+    static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing is left to do with a socket that cannot be closed.
+        }
+    }
+
+    /**
+     * Runs a PerftWorker process. The first line written to standard output tells the port it listens on.
+     * Unless a logging configuration is given, only warnings are logged, since the ChessBoard of every request logs
+     * each ChessCell its ChessPieces may move to.
+     * @param args optional port, 0 or none for any free port, then optional address to listen on, the loopback address
+     *             if none
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("java.util.logging.config.file") == null) {
+            CHESS_LOGGER.setLevel(Level.WARNING);
+        }
+        PerftWorker perftWorker = new PerftWorker(
+                args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress(),
+                args.length > 0 ? Integer.parseInt(args[0]) : 0);
+        System.out.println("PerftWorker listening on port " + perftWorker.getPort());
+        System.out.flush();
+        perftWorker.acceptConnections();
+    }
+}
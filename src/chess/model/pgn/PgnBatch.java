@@ -0,0 +1,192 @@
+package chess.model.pgn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A PgnBatch class that holds the games a PgnReader read for one worker thread to validate.
+ * The SAN movements of all the games are kept in flat arrays that grow as needed, so a PgnBatch handed back after it
+ * was validated is filled again without allocating.
+ */
+final class PgnBatch {
+    private byte[] sanBytes = new byte[4096];
+    private int sanSize;
+    // Start of each movement in sanBytes, with the end of the last one after it.
+    private int[] moveStarts = new int[1024];
+    private long[] moveOffsets = new long[1024];
+    private int moveCount;
+    // First movement of each game, with the end of the last one after it.
+    private int[] firstMoves = new int[65];
+    private long[] gameNumbers = new long[64];
+    private long[] gameOffsets = new long[64];
+    private String[] fens = new String[64];
+    private int gameCount;
+
+    /**
+     * Empties the PgnBatch, keeping its arrays.
+     */
+    void clear() {
+        Arrays.fill(fens, 0, gameCount, null);
+        sanSize = 0;
+        moveCount = 0;
+        gameCount = 0;
+        moveStarts[0] = 0;
+        firstMoves[0] = 0;
+    }
+
+    /**
+     * Starts a game, whose movements are the ones added until the next game starts.
+     * @param gameNumber long number of the game in the file, from 1
+     * @param gameOffset long offset of the game in the file
+     */
+    void startGame(long gameNumber, long gameOffset) {
+        if (gameCount == gameNumbers.length) {
+            gameNumbers = Arrays.copyOf(gameNumbers, gameCount * 2);
+            gameOffsets = Arrays.copyOf(gameOffsets, gameCount * 2);
+            fens = Arrays.copyOf(fens, gameCount * 2);
+            firstMoves = Arrays.copyOf(firstMoves, gameCount * 2 + 1);
+        }
+        gameNumbers[gameCount] = gameNumber;
+        gameOffsets[gameCount] = gameOffset;
+        fens[gameCount] = null;
+        firstMoves[gameCount] = moveCount;
+        gameCount++;
+        firstMoves[gameCount] = moveCount;
+    }
+
+    /**
+     * Setter for the FEN tag of the game started last.
+     * @param fen String position the game starts from
+     */
+    void setFen(String fen) {
+        fens[gameCount - 1] = fen;
+    }
+
+    /**
+     * Adds a SAN movement to the game started last.
+     * @param bytes byte[] holding the movement
+     * @param start int index of the first byte
+     * @param length int number of bytes
+     * @param offset long offset of the movement in the file
+     */
+    void addMove(byte[] bytes, int start, int length, long offset) {
+        if (sanSize + length > sanBytes.length) {
+            sanBytes = Arrays.copyOf(sanBytes, Math.max(sanBytes.length * 2, sanSize + length));
+        }
+        if (moveCount + 1 == moveStarts.length) {
+            moveStarts = Arrays.copyOf(moveStarts, moveStarts.length * 2);
+            moveOffsets = Arrays.copyOf(moveOffsets, moveOffsets.length * 2);
+        }
+        System.arraycopy(bytes, start, sanBytes, sanSize, length);
+        moveOffsets[moveCount] = offset;
+        sanSize += length;
+        moveCount++;
+        moveStarts[moveCount] = sanSize;
+        firstMoves[gameCount] = moveCount;
+    }
+
+    /**
+     * Getter for the number of games.
+     * @return int number of games
+     */
+    int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Getter for the number of movements of all the games.
+     * @return int number of movements
+     */
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Getter for the number of a game in the file.
+     * @param game int index of the game in the PgnBatch
+     * @return long number of the game, from 1
+     */
+    long getGameNumber(int game) {
+        return gameNumbers[game];
+    }
+
+    /**
+     * Getter for the offset of a game in the file.
+     * @param game int index of the game in the PgnBatch
+     * @return long offset of its first tag or movement
+     */
+    long getGameOffset(int game) {
+        return gameOffsets[game];
+    }
+
+    /**
+     * Getter for the FEN tag of a game.
+     * @param game int index of the game in the PgnBatch
+     * @return String position the game starts from, null for the default position
+     */
+    String getFen(int game) {
+        return fens[game];
+    }
+
+    /**
+     * Getter for the first movement of a game.
+     * @param game int index of the game in the PgnBatch
+     * @return int index of the movement
+     */
+    int getFirstMove(int game) {
+        return firstMoves[game];
+    }
+
+    /**
+     * Getter for the index after the last movement of a game.
+     * @param game int index of the game in the PgnBatch
+     * @return int index after its last movement
+     */
+    int getEndMove(int game) {
+        return firstMoves[game + 1];
+    }
+
+    /**
+     * Getter for the bytes all the movements are kept in.
+     * @return byte[] of the movements, only to be read
+     */
+    byte[] getSanBytes() {
+        return sanBytes;
+    }
+
+    /**
+     * Getter for where a movement starts in getSanBytes.
+     * @param move int index of the movement
+     * @return int index of its first byte
+     */
+    int getMoveStart(int move) {
+        return moveStarts[move];
+    }
+
+    /**
+     * Getter for the length of a movement.
+     * @param move int index of the movement
+     * @return int number of bytes
+     */
+    int getMoveLength(int move) {
+        return moveStarts[move + 1] - moveStarts[move];
+    }
+
+    /**
+     * Getter for the offset of a movement in the file.
+     * @param move int index of the movement
+     * @return long offset of its first byte
+     */
+    long getMoveOffset(int move) {
+        return moveOffsets[move];
+    }
+
+    /**
+     * Returns a movement as text, for error reports.
+     * @param move int index of the movement
+     * @return String of the movement
+     */
+    String getSan(int move) {
+        return new String(sanBytes, moveStarts[move], getMoveLength(move), StandardCharsets.ISO_8859_1);
+    }
+}
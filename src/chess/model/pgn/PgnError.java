@@ -0,0 +1,80 @@
+package chess.model.pgn;
+
+/**
+ * A PgnError class that tells where and why a game of a PGN file could not be validated.
+ */
+public final class PgnError {
+    private final long gameNumber;
+    private final long offset;
+    private final String san;
+    private final Reason reason;
+    private final String detail;
+
+    /**
+     * A PgnError constructor.
+     * @param gameNumber long number of the game in the file, from 1
+     * @param offset long offset in the file of the movement, or of the game for an invalid FEN tag
+     * @param san String movement, null for an invalid FEN tag
+     * @param reason Reason the game could not be validated
+     * @param detail String description of what is wrong
+     */
+    PgnError(long gameNumber, long offset, String san, Reason reason, String detail) {
+        this.gameNumber = gameNumber;
+        this.offset = offset;
+        this.san = san;
+        this.reason = reason;
+        this.detail = detail;
+    }
+
+    /**
+     * Getter for the number of the game in the file.
+     * @return long number of the game, from 1
+     */
+    public long getGameNumber() {
+        return gameNumber;
+    }
+
+    /**
+     * Getter for the offset in the file of the movement, or of the game for an invalid FEN tag.
+     * @return long offset in bytes
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Getter for the movement that could not be made.
+     * @return String SAN movement, null for an invalid FEN tag
+     */
+    public String getSan() {
+        return san;
+    }
+
+    /**
+     * Getter for why the game could not be validated.
+     * @return Reason of the PgnError
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Getter for the description of what is wrong.
+     * @return String description
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return "Game " + gameNumber + " at offset " + offset + (san == null ? "" : " " + san) + ": " + detail;
+    }
+
+    /**
+     * enum to tell why a game could not be validated.
+     */
+    public enum Reason {
+        ILLEGAL, AMBIGUOUS, UNREADABLE, UNSUPPORTED, INVALID_FEN
+    }
+}
@@ -0,0 +1,315 @@
+package chess.model.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A PgnReader class that reads the games of a PGN file from a channel into PgnBatches, one buffer at a time, so a file
+ * of any size is read in the memory of one buffer and the PgnBatches being validated.
+ * <p>
+ * The bytes go through a state machine one at a time, so tags, comments and movements may be split across buffers.
+ * Only what validating needs is kept: the SAN movements with their offsets in the file and the FEN tag. Move numbers,
+ * comments, variations, NAGs and the other tags are skipped. A game ends with its result, or with the tags of the
+ * next game or the end of the file if the result is missing.
+ */
+final class PgnReader implements Closeable {
+    private static final int NORMAL = 0;
+    private static final int TOKEN = 1;
+    private static final int TAG = 2;
+    private static final int BRACE_COMMENT = 3;
+    private static final int LINE_COMMENT = 4;
+    private static final int VARIATION = 5;
+    private static final byte[] FEN_TAG = "FEN".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position;
+    private int limit;
+    private long bufferOffset;
+    private boolean isEndOfChannel;
+
+    private int state = NORMAL;
+    private boolean isLineStart = true;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private long tokenOffset;
+    private byte[] tag = new byte[256];
+    private int tagLength;
+    private boolean isInQuotes;
+    private boolean isEscaped;
+    private int variationDepth;
+    private boolean isInVariationComment;
+
+    private boolean isInGame;
+    private boolean hasMovements;
+    private long gameCount;
+
+    /**
+     * A PgnReader constructor.
+     * @param channel ReadableByteChannel to read the PGN from, closed with the PgnReader
+     * @param bufferSize int number of bytes read at a time
+     */
+    PgnReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        bytes = buffer.array();
+    }
+
+    /**
+     * Reads the next games into a PgnBatch, which is cleared first.
+     * @param batch PgnBatch to fill
+     * @param maxGames int number of games after which the PgnBatch is full
+     * @return true if the PgnBatch holds at least one game, false at the end of the file
+     * @throws IOException if reading fails
+     */
+    boolean read(PgnBatch batch, int maxGames) throws IOException {
+        batch.clear();
+        while (true) {
+            if (position == limit && !fill()) {
+                if (state == TOKEN) {
+                    finishToken(batch);
+                }
+                if (isInGame) {
+                    endGame();
+                }
+                state = NORMAL;
+                return batch.getGameCount() > 0;
+            }
+            final byte b = bytes[position];
+            switch (state) {
+                case TOKEN:
+                    if (isDelimiter(b)) {
+                        state = NORMAL;
+                        if (finishToken(batch) && batch.getGameCount() >= maxGames) {
+                            return true;
+                        }
+                        // The delimiter is looked at again as the start of what follows.
+                        continue;
+                    }
+                    if (tokenLength == token.length) {
+                        token = Arrays.copyOf(token, tokenLength * 2);
+                    }
+                    token[tokenLength++] = b;
+                    break;
+                case TAG:
+                    if (isEscaped) {
+                        isEscaped = false;
+                    } else if (isInQuotes && b == '\\') {
+                        isEscaped = true;
+                    } else if (b == '"') {
+                        isInQuotes = !isInQuotes;
+                    } else if (!isInQuotes && b == ']') {
+                        readTag(batch);
+                        state = NORMAL;
+                        break;
+                    }
+                    if (tagLength == tag.length) {
+                        tag = Arrays.copyOf(tag, tagLength * 2);
+                    }
+                    tag[tagLength++] = b;
+                    break;
+                case BRACE_COMMENT:
+                    if (b == '}') {
+                        state = NORMAL;
+                    }
+                    break;
+                case LINE_COMMENT:
+                    if (b == '\n') {
+                        state = NORMAL;
+                    }
+                    break;
+                case VARIATION:
+                    if (isInVariationComment) {
+                        isInVariationComment = b != '}';
+                    } else if (b == '{') {
+                        isInVariationComment = true;
+                    } else if (b == '(') {
+                        variationDepth++;
+                    } else if (b == ')' && --variationDepth == 0) {
+                        state = NORMAL;
+                    }
+                    break;
+                default:
+                    if (b == '[') {
+                        if (isInGame && hasMovements) {
+                            // The previous game had no result.
+                            endGame();
+                            if (batch.getGameCount() >= maxGames) {
+                                return true;
+                            }
+                        }
+                        if (!isInGame) {
+                            startGame(batch, bufferOffset + position);
+                        }
+                        state = TAG;
+                        tagLength = 0;
+                        isInQuotes = false;
+                        isEscaped = false;
+                    } else if (b == '{') {
+                        state = BRACE_COMMENT;
+                    } else if (b == ';' || (b == '%' && isLineStart)) {
+                        state = LINE_COMMENT;
+                    } else if (b == '(') {
+                        state = VARIATION;
+                        variationDepth = 1;
+                        isInVariationComment = false;
+                    } else if (!isDelimiter(b)) {
+                        state = TOKEN;
+                        tokenLength = 1;
+                        token[0] = b;
+                        tokenOffset = bufferOffset + position;
+                    }
+                    break;
+            }
+            isLineStart = b == '\n';
+            position++;
+        }
+    }
+
+    /**
+     * Reads the next bytes of the channel into the buffer.
+     * @return false if there are no more bytes
+     * @throws IOException if reading fails
+     */
+    private boolean fill() throws IOException {
+        if (isEndOfChannel) {
+            return false;
+        }
+        bufferOffset += limit;
+        buffer.clear();
+        int count;
+        do {
+            count = channel.read(buffer);
+        } while (count == 0);
+        position = 0;
+        limit = Math.max(count, 0);
+        isEndOfChannel = count < 0;
+        return count > 0;
+    }
+
+    /**
+     * Checks if a byte ends a movement or other token.
+     * @param b byte to check
+     * @return true for white space and the characters that start or end tags, comments and variations
+     */
+    private static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '[' || b == ']' || b == '{' || b == '}'
+                || b == '(' || b == ')' || b == ';';
+    }
+
+    /**
+     * Handles a token: a result ends the game, move numbers and NAGs are skipped and anything else is a movement.
+     * @param batch PgnBatch the game is read into
+     * @return true if the token ended a game
+     */
+    private boolean finishToken(PgnBatch batch) {
+        if (token[0] == '$') {
+            return false;
+        }
+        if (isResult()) {
+            if (!isInGame) {
+                startGame(batch, tokenOffset);
+            }
+            endGame();
+            return true;
+        }
+        // A move number may be written right before the movement, as in 1.e4.
+        int start = 0;
+        while (start < tokenLength && token[start] >= '0' && token[start] <= '9') {
+            start++;
+        }
+        if (start < tokenLength && token[start] == '.') {
+            while (start < tokenLength && token[start] == '.') {
+                start++;
+            }
+        } else {
+            start = 0;
+        }
+        if (start == tokenLength) {
+            return false;
+        }
+        if (!isInGame) {
+            startGame(batch, tokenOffset + start);
+        }
+        batch.addMove(token, start, tokenLength - start, tokenOffset + start);
+        hasMovements = true;
+        return false;
+    }
+
+    /**
+     * Checks if the token is a game result: 1-0, 0-1, 1/2-1/2 or *.
+     * @return true for a result
+     */
+    private boolean isResult() {
+        if (tokenLength == 1) {
+            return token[0] == '*';
+        }
+        if (tokenLength == 3) {
+            return token[1] == '-' && ((token[0] == '1' && token[2] == '0') || (token[0] == '0' && token[2] == '1'));
+        }
+        return tokenLength == 7 && token[0] == '1' && token[1] == '/' && token[2] == '2' && token[3] == '-'
+                && token[4] == '1' && token[5] == '/' && token[6] == '2';
+    }
+
+    /**
+     * Starts a game in a PgnBatch.
+     * @param batch PgnBatch the game is read into
+     * @param offset long offset of the game in the file
+     */
+    private void startGame(PgnBatch batch, long offset) {
+        batch.startGame(++gameCount, offset);
+        isInGame = true;
+        hasMovements = false;
+    }
+
+    /**
+     * Ends the game being read.
+     */
+    private void endGame() {
+        isInGame = false;
+        hasMovements = false;
+    }
+
+    /**
+     * Keeps the value of a FEN tag, the only tag validating needs.
+     * @param batch PgnBatch the game is read into
+     */
+    private void readTag(PgnBatch batch) {
+        int index = 0;
+        while (index < tagLength && (tag[index] == ' ' || tag[index] == '\t')) {
+            index++;
+        }
+        for (byte b : FEN_TAG) {
+            if (index == tagLength || tag[index++] != b) {
+                return;
+            }
+        }
+        while (index < tagLength && tag[index] != '"') {
+            if (tag[index++] != ' ') {
+                return;
+            }
+        }
+        final StringBuilder fen = new StringBuilder();
+        for (index++; index < tagLength && tag[index] != '"'; index++) {
+            if (tag[index] == '\\' && index + 1 < tagLength) {
+                index++;
+            }
+            fen.append((char) (tag[index] & 0xFF));
+        }
+        batch.setFen(fen.toString());
+    }
+
+    /**
+     * Closes the channel.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
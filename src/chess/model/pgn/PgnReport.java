@@ -0,0 +1,94 @@
+package chess.model.pgn;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A PgnReport class that holds what validating a PGN file found and how fast it went.
+ */
+public final class PgnReport {
+    private final long gameCount;
+    private final long moveCount;
+    private final long invalidGameCount;
+    private final List<PgnError> errors;
+    private final long nanoseconds;
+
+    /**
+     * A PgnReport constructor.
+     * @param gameCount long number of games read
+     * @param moveCount long number of movements made
+     * @param invalidGameCount long number of games with a PgnError
+     * @param errors List of the PgnErrors kept, in the order of their offsets
+     * @param nanoseconds long time validating took
+     */
+    PgnReport(long gameCount, long moveCount, long invalidGameCount, List<PgnError> errors, long nanoseconds) {
+        this.gameCount = gameCount;
+        this.moveCount = moveCount;
+        this.invalidGameCount = invalidGameCount;
+        this.errors = Collections.unmodifiableList(errors);
+        this.nanoseconds = nanoseconds;
+    }
+
+    /**
+     * Getter for the number of games read.
+     * @return long number of games
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Getter for the number of movements made, up to the first PgnError of each game.
+     * @return long number of movements
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Getter for the number of games with a PgnError. Validating a game stops at its first PgnError.
+     * @return long number of invalid games
+     */
+    public long getInvalidGameCount() {
+        return invalidGameCount;
+    }
+
+    /**
+     * Getter for the PgnErrors, at most the maximum PgnValidator was set to keep, with the lowest offsets.
+     * @return List of PgnErrors in the order of their offsets
+     */
+    public List<PgnError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Getter for how long validating took.
+     * @return long nanoseconds
+     */
+    public long getNanoseconds() {
+        return nanoseconds;
+    }
+
+    /**
+     * Getter for the number of games validated per second.
+     * @return double games per second
+     */
+    public double getGamesPerSecond() {
+        return gameCount * 1e9 / Math.max(nanoseconds, 1);
+    }
+
+    /**
+     * Getter for the number of movements made per second.
+     * @return double movements per second
+     */
+    public double getMovesPerSecond() {
+        return moveCount * 1e9 / Math.max(nanoseconds, 1);
+    }
+
+    @Override
+    public String toString() {
+        return gameCount + " games and " + moveCount + " movements in " + nanoseconds / 1_000_000 + " ms, "
+                + (long) getGamesPerSecond() + " games per second, " + (long) getMovesPerSecond()
+                + " movements per second, " + invalidGameCount + " invalid games";
+    }
+}
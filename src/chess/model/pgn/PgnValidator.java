@@ -0,0 +1,326 @@
+package chess.model.pgn;
+
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ExtendedFen;
+import chess.model.chessBoard.MoveBuffer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * A PgnValidator class that checks that every movement of the games of a PGN file can be made on a ChessBoard.
+ * <p>
+ * The calling thread reads the file with a PgnReader and hands the games to worker threads in PgnBatches, so reading
+ * and validating overlap and the workers share the validating. Each worker keeps its own ChessBoards and copies the
+ * default position or puts the position of a FEN tag on them for every game, instead of building a ChessBoard per
+ * game. A fixed number of PgnBatches go back and forth between the reader and the workers, so the reader waits when
+ * the workers fall behind and the memory used does not grow with the file.
+ * A game stops being validated at its first PgnError, which tells the offset of the movement in the file.
+ */
+public class PgnValidator {
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final int DEFAULT_MAX_ERRORS = 1000;
+    private static final int BATCHES_PER_WORKER = 2;
+
+    private Logger logger = Logger.getLogger(this.getClass().getName());
+    private final int workerCount;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int maxErrors = DEFAULT_MAX_ERRORS;
+
+    /**
+     * A PgnValidator constructor that validates on every core but the one reading.
+     */
+    public PgnValidator() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * A PgnValidator constructor.
+     * @param workerCount int number of worker threads, at least 1
+     */
+    public PgnValidator(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("A PgnValidator needs at least one worker");
+        }
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Setter for the number of games handed to a worker at a time.
+     * @param batchSize int number of games, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Setter for the number of bytes read from the file at a time.
+     * @param bufferSize int number of bytes, at least 1
+     */
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Setter for the number of PgnErrors kept in the PgnReport; the invalid games are counted either way.
+     * @param maxErrors int number of PgnErrors, not negative
+     */
+    public void setMaxErrors(int maxErrors) {
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("maxErrors must not be negative");
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Validates the games of a PGN file.
+     * @param path Path of the file
+     * @return PgnReport of the games
+     * @throws IOException if the file cannot be read or a worker failed
+     */
+    public PgnReport validate(Path path) throws IOException {
+        return validate(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Validates the games of a PGN read from a channel, which is closed afterwards.
+     * @param channel ReadableByteChannel to read from
+     * @return PgnReport of the games
+     * @throws IOException if the channel cannot be read or a worker failed
+     */
+    public PgnReport validate(ReadableByteChannel channel) throws IOException {
+        final long startTime = System.nanoTime();
+        final BlockingQueue<PgnBatch> freeBatches = new ArrayBlockingQueue<>(workerCount * BATCHES_PER_WORKER + 1);
+        final BlockingQueue<PgnBatch> readBatches = new ArrayBlockingQueue<>(workerCount * BATCHES_PER_WORKER + 1);
+        for (int index = 0; index < workerCount * BATCHES_PER_WORKER + 1; index++) {
+            freeBatches.add(new PgnBatch());
+        }
+        final PgnBatch lastBatch = new PgnBatch();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Worker[] workers = new Worker[workerCount];
+        final Thread[] threads = new Thread[workerCount];
+        for (int index = 0; index < workerCount; index++) {
+            workers[index] = new Worker(readBatches, freeBatches, lastBatch, failure);
+            threads[index] = new Thread(workers[index], "PgnValidator-" + index);
+            threads[index].setDaemon(true);
+            threads[index].start();
+        }
+
+        try (PgnReader pgnReader = new PgnReader(channel, bufferSize)) {
+            try {
+                while (failure.get() == null) {
+                    final PgnBatch batch = freeBatches.take();
+                    if (!pgnReader.read(batch, batchSize)) {
+                        break;
+                    }
+                    readBatches.put(batch);
+                }
+            } finally {
+                for (int index = 0; index < workerCount; index++) {
+                    readBatches.put(lastBatch);
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while validating games");
+        }
+        if (failure.get() != null) {
+            throw new IOException("Validating games failed", failure.get());
+        }
+
+        long gameCount = 0;
+        long moveCount = 0;
+        long invalidGameCount = 0;
+        final List<PgnError> errors = new ArrayList<>();
+        for (Worker worker : workers) {
+            gameCount += worker.gameCount;
+            moveCount += worker.moveCount;
+            invalidGameCount += worker.invalidGameCount;
+            errors.addAll(worker.errors);
+        }
+        errors.sort(Comparator.comparingLong(PgnError::getOffset));
+        final PgnReport pgnReport = new PgnReport(gameCount, moveCount, invalidGameCount,
+                new ArrayList<>(errors.subList(0, Math.min(errors.size(), maxErrors))), System.nanoTime() - startTime);
+        logger.info("Validated " + pgnReport);
+        return pgnReport;
+    }
+
+    /**
+     * A Worker class that validates the games of the PgnBatches it takes until it takes the last one.
+     * A worker keeps at most maxErrors PgnErrors, which is enough for the ones with the lowest offsets of all workers.
+     */
+    private class Worker implements Runnable {
+        private final BlockingQueue<PgnBatch> readBatches;
+        private final BlockingQueue<PgnBatch> freeBatches;
+        private final PgnBatch lastBatch;
+        private final AtomicReference<Throwable> failure;
+        private final MoveBuffer moveBuffer = new MoveBuffer();
+        private final ExtendedFen extendedFen = new ExtendedFen();
+        private final List<PgnError> errors = new ArrayList<>();
+        private ChessBoard defaultChessBoard;
+        private ChessBoard chessBoard;
+        private long gameCount;
+        private long moveCount;
+        private long invalidGameCount;
+
+        /**
+         * A Worker constructor.
+         * @param readBatches BlockingQueue of the PgnBatches to validate
+         * @param freeBatches BlockingQueue the validated PgnBatches are handed back to
+         * @param lastBatch PgnBatch that tells the Worker to stop
+         * @param failure AtomicReference the first exception of a worker is set on
+         */
+        Worker(BlockingQueue<PgnBatch> readBatches, BlockingQueue<PgnBatch> freeBatches, PgnBatch lastBatch,
+               AtomicReference<Throwable> failure) {
+            this.readBatches = readBatches;
+            this.freeBatches = freeBatches;
+            this.lastBatch = lastBatch;
+            this.failure = failure;
+        }
+
+        /**
+         * Takes PgnBatches until the last one. After a failure, PgnBatches are still taken and handed back so the
+         * reader is not left waiting.
+         */
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    final PgnBatch batch = readBatches.take();
+                    if (batch == lastBatch) {
+                        return;
+                    }
+                    if (failure.get() == null) {
+                        try {
+                            validate(batch);
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                    freeBatches.put(batch);
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * Validates the games of a PgnBatch.
+         * @param batch PgnBatch to validate
+         */
+        private void validate(PgnBatch batch) {
+            if (defaultChessBoard == null) {
+                defaultChessBoard = new ChessBoard(0);
+                chessBoard = new ChessBoard(1);
+            }
+            for (int game = 0; game < batch.getGameCount(); game++) {
+                gameCount++;
+                final ChessBoard gameChessBoard = setUpChessBoard(batch, game);
+                if (gameChessBoard == null) {
+                    continue;
+                }
+                for (int move = batch.getFirstMove(game); move < batch.getEndMove(game); move++) {
+                    final int resolvedMove = SanResolver.resolve(gameChessBoard, moveBuffer, batch.getSanBytes(),
+                            batch.getMoveStart(move), batch.getMoveLength(move));
+                    if (resolvedMove < 0) {
+                        addError(batch, game, move, resolvedMove);
+                        break;
+                    }
+                    if (!gameChessBoard.moveChessPiece(resolvedMove)) {
+                        addError(batch, game, move, SanResolver.ILLEGAL);
+                        break;
+                    }
+                    moveCount++;
+                }
+            }
+        }
+
+        /**
+         * Puts the position a game starts from on a ChessBoard.
+         * @param batch PgnBatch of the game
+         * @param game int index of the game in the PgnBatch
+         * @return ChessBoard of the position, null if the FEN tag is not valid
+         */
+        private ChessBoard setUpChessBoard(PgnBatch batch, int game) {
+            final String fen = batch.getFen(game);
+            if (fen == null) {
+                defaultChessBoard.copyInto(chessBoard);
+                return chessBoard;
+            }
+            try {
+                extendedFen.parse(fen);
+            } catch (IllegalArgumentException e) {
+                invalidGameCount++;
+                if (errors.size() < maxErrors) {
+                    errors.add(new PgnError(batch.getGameNumber(game), batch.getGameOffset(game), null,
+                            PgnError.Reason.INVALID_FEN, e.getMessage()));
+                }
+                return null;
+            }
+            if (extendedFen.getRankSize() == chessBoard.getRankSize()
+                    && extendedFen.getFileSize() == chessBoard.getFileSize()) {
+                extendedFen.loadInto(chessBoard);
+                return chessBoard;
+            }
+            return extendedFen.createChessBoard();
+        }
+
+        /**
+         * Counts a game as invalid and keeps a PgnError for the movement that could not be made.
+         * @param batch PgnBatch of the game
+         * @param game int index of the game in the PgnBatch
+         * @param move int index of the movement in the PgnBatch
+         * @param result int ILLEGAL, AMBIGUOUS, UNREADABLE or UNSUPPORTED
+         */
+        private void addError(PgnBatch batch, int game, int move, int result) {
+            invalidGameCount++;
+            if (errors.size() >= maxErrors) {
+                return;
+            }
+            final PgnError.Reason reason;
+            final String detail;
+            switch (result) {
+                case SanResolver.AMBIGUOUS:
+                    reason = PgnError.Reason.AMBIGUOUS;
+                    detail = "more than one ChessPiece can make the movement";
+                    break;
+                case SanResolver.UNREADABLE:
+                    reason = PgnError.Reason.UNREADABLE;
+                    detail = "not a SAN movement";
+                    break;
+                case SanResolver.UNSUPPORTED:
+                    reason = PgnError.Reason.UNSUPPORTED;
+                    detail = "castling and promotion are not part of this game";
+                    break;
+                default:
+                    reason = PgnError.Reason.ILLEGAL;
+                    detail = "no ChessPiece can make the movement";
+                    break;
+            }
+            errors.add(new PgnError(batch.getGameNumber(game), batch.getMoveOffset(move), batch.getSan(move), reason,
+                    detail));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package chess.model.pgn;
+
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.ChessPiece;
+
+/**
+ * A SanResolver class that finds the movement a SAN movement stands for among the movements ChessBoard.generateMoves
+ * gives for the current turn.
+ * <p>
+ * A SAN movement is an optional ChessPiece letter, K, Q, R, B, N, Y for a Kirby or T for a Tank, with a Pawn when it is
+ * left out, then an optional file and rank of the ChessPiece to tell it apart from others, an optional 'x' and the
+ * ChessCell moved to, as in Nbd7 or exd5. Files are letters from 'a' and ranks numbers from 1, so ChessBoards up to 26
+ * files wide can be written. Check and annotation marks at the end are ignored. This game has no castling and no
+ * promotion, so those movements are not supported.
+ */
+final class SanResolver {
+    static final int ILLEGAL = -1;
+    static final int AMBIGUOUS = -2;
+    static final int UNREADABLE = -3;
+    static final int UNSUPPORTED = -4;
+
+    private static final String CHESS_PIECE_LETTERS = "PRNBQKYT";
+    private static final ChessPiece.ChessPieceType[] CHESS_PIECE_TYPES = ChessPiece.ChessPieceType.values();
+
+    /**
+     * SanResolver only has static members.
+     */
+    private SanResolver() {
+    }
+
+    /**
+     * Finds the movement a SAN movement stands for.
+     * @param chessBoard ChessBoard in the position before the movement
+     * @param moveBuffer MoveBuffer the movements of the current turn are generated into
+     * @param san byte[] holding the movement
+     * @param start int index of its first byte
+     * @param length int number of bytes
+     * @return int packed movement, or ILLEGAL, AMBIGUOUS, UNREADABLE or UNSUPPORTED
+     */
+    static int resolve(ChessBoard chessBoard, MoveBuffer moveBuffer, byte[] san, int start, int length) {
+        int end = start + length;
+        while (end > start && (san[end - 1] == '+' || san[end - 1] == '#' || san[end - 1] == '!'
+                || san[end - 1] == '?')) {
+            end--;
+        }
+        if (end == start) {
+            return UNREADABLE;
+        }
+        if (san[start] == 'O' || san[start] == '0') {
+            return UNSUPPORTED;
+        }
+        for (int index = start; index < end; index++) {
+            if (san[index] == '=') {
+                return UNSUPPORTED;
+            }
+        }
+
+        // The ChessCell moved to is at the end.
+        int index = end;
+        int toRank = 0;
+        int rankMultiplier = 1;
+        while (index > start && isDigit(san[index - 1])) {
+            toRank += (san[--index] - '0') * rankMultiplier;
+            rankMultiplier *= 10;
+            if (rankMultiplier > 100_000) {
+                return UNREADABLE;
+            }
+        }
+        if (index == end || index == start || !isFile(san[index - 1])) {
+            return UNREADABLE;
+        }
+        final int toFile = san[--index] - 'a';
+        final int prefixEnd = index;
+
+        index = start;
+        ChessPiece.ChessPieceType chessPieceType = ChessPiece.ChessPieceType.PAWN;
+        final int letter = CHESS_PIECE_LETTERS.indexOf(san[index]);
+        if (letter >= 0) {
+            chessPieceType = CHESS_PIECE_TYPES[letter];
+            index++;
+        }
+        int fromFile = -1;
+        // An 'x' right before the ChessCell moved to marks a capture, even though it could be a file.
+        if (index < prefixEnd && isFile(san[index]) && !(san[index] == 'x' && index + 1 == prefixEnd)) {
+            fromFile = san[index++] - 'a';
+        }
+        int fromRank = -1;
+        if (index < prefixEnd && isDigit(san[index])) {
+            fromRank = 0;
+            while (index < prefixEnd && isDigit(san[index]) && fromRank < 100_000) {
+                fromRank = fromRank * 10 + san[index++] - '0';
+            }
+            fromRank--;
+        }
+        if (index < prefixEnd && san[index] == 'x') {
+            index++;
+        }
+        if (index != prefixEnd) {
+            return UNREADABLE;
+        }
+
+        final int rankSize = chessBoard.getRankSize();
+        final int fileSize = chessBoard.getFileSize();
+        if (toRank < 1 || toRank > rankSize || toFile >= fileSize) {
+            return ILLEGAL;
+        }
+        final int to = (toRank - 1) * fileSize + toFile;
+        final int moveCount = chessBoard.generateMoves(moveBuffer);
+        int found = ILLEGAL;
+        for (int moveIndex = 0; moveIndex < moveCount; moveIndex++) {
+            final int move = moveBuffer.get(moveIndex);
+            final int from = MoveBuffer.getFrom(move);
+            if (MoveBuffer.getTo(move) != to || (fromFile >= 0 && from % fileSize != fromFile)
+                    || (fromRank >= 0 && from / fileSize != fromRank)
+                    || chessBoard.getChessPiece(from / fileSize, from % fileSize).getChessPieceType() != chessPieceType) {
+                continue;
+            }
+            if (found != ILLEGAL) {
+                return AMBIGUOUS;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Checks if a byte is a decimal digit.
+     * @param b byte to check
+     * @return true for '0' to '9'
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Checks if a byte is a file letter.
+     * @param b byte to check
+     * @return true for 'a' to 'z'
+     */
+    private static boolean isFile(byte b) {
+        return b >= 'a' && b <= 'z';
+    }
+}
@@ -0,0 +1,199 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ChessCell;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class CheckMasksPerftTest {
+
+    @Test
+    public void defaultChessBoardPerftTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        assertEquals(20, perft(chessBoard, 1));
+        assertEquals(400, perft(chessBoard, 2));
+        assertEquals(8902, perft(chessBoard, 3));
+    }
+
+    @Test
+    public void defaultChessBoardAgainstFullRecomputeTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        chessBoard.setTracksMovableCellsDependencies(false);
+        assertEquals(8902, perft(chessBoard, 3));
+    }
+
+    @Test
+    public void pinsAndChecksAgainstFullRecomputeTest(){
+        assertEquals(perft(createPinnedChessBoard(false), 2), perft(createPinnedChessBoard(true), 2));
+    }
+
+    @Test
+    public void kirbyCapturingOwnChessPieceTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 4, false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 1, 3, false);
+        chessBoard.setChessPiece(new Bishop(ChessPiece.ChessPieceColor.WHITE), 1, 4, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.BLACK), 7, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 0);
+
+        // The Bishop is pinned, but the Kirby may take its place since the file stays blocked.
+        assertTrue(chessBoard.getChessCell(1, 4).getMovableCells().isEmpty());
+        assertTrue(chessBoard.getChessCell(1, 3).getMovableCells().contains(chessBoard.getChessCell(1, 4)));
+        assertTrue(chessBoard.moveChessPiece(1, 3, 1, 4));
+    }
+
+    @Test
+    public void tankCaptureEvadesCheckTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 1, 7, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 1, 1, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+
+        // Hitting the Tank counts as capturing it, although the Tank survives and the Rook bounces back.
+        assertTrue(chessBoard.isCheck());
+        assertEquals(1, chessBoard.getChessCell(1, 7).getMovableCells().size());
+        assertTrue(chessBoard.getChessCell(1, 7).getMovableCells().contains(chessBoard.getChessCell(1, 1)));
+        assertTrue(chessBoard.moveChessPiece(1, 7, 1, 1));
+        assertSame(chessBoard.getChessPiece(1, 2).getClass(), Rook.class);
+    }
+
+    @Test
+    public void checkMasksAgainstTryingMovementsTest(){
+        for (int mode = 0; mode < 4; mode++){
+            Random random = new Random(mode);
+            ChessBoard chessBoard = new ChessBoard(8, 8, mode == 3);
+            chessBoard.setTracksMovableCellsDependencies(mode == 0);
+            if (mode == 2){
+                chessBoard.setParallelChessPieceCount(0);
+            }
+            chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+            ChessBoardFixtures.setUpRandomPosition(random, 14, chessBoard);
+            MoveBuffer moveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 40; ply++){
+                TreeSet<Integer> movements = new TreeSet<>();
+                for (int move : ChessBoardFixtures.getGeneratedMoves(chessBoard, moveBuffer)){
+                    movements.add(MoveBuffer.getFrom(move) * 64 + MoveBuffer.getTo(move));
+                }
+                assertEquals(getMovementsByTryingThem(chessBoard, mode == 3), movements);
+                if (!ChessBoardFixtures.playRandomMove(chessBoard, random)){
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the legal movements of the current turn the way movableCells used to be filtered: every movement the
+     * ChessPieces can make is tried out on a copy, and kept if no King of the current turn can be captured after it.
+     * @return TreeSet of the movements as the index of the ChessCell moved from times 64 plus the one moved to
+     */
+    private TreeSet<Integer> getMovementsByTryingThem(ChessBoard chessBoard, boolean isSparse){
+        ChessPiece.ChessPieceColor color = chessBoard.getCurrentTurnsColor();
+        // The movableCells of the other color are not filtered, so handing the turn over and setting a ChessPiece
+        // again gives every movement.
+        ChessBoard unfilteredChessBoard = copy(chessBoard, isSparse);
+        unfilteredChessBoard.setTracksMovableCellsDependencies(false);
+        unfilteredChessBoard.setCurrentTurnsColor(color.changeColor());
+        int[] kingPosition = findKings(chessBoard, color).get(0);
+        ChessPiece king = unfilteredChessBoard.getChessPiece(kingPosition[0], kingPosition[1]);
+        unfilteredChessBoard.setChessPiece(null, kingPosition[0], kingPosition[1], false);
+        unfilteredChessBoard.setChessPiece(king, kingPosition[0], kingPosition[1]);
+        unfilteredChessBoard.setCurrentTurnsColor(color);
+
+        TreeSet<Integer> movements = new TreeSet<>();
+        for (int[] movement : getMovements(unfilteredChessBoard)){
+            ChessBoard triedChessBoard = copy(chessBoard, isSparse);
+            ChessPiece chessPiece = triedChessBoard.getChessPiece(movement[0], movement[1]);
+            triedChessBoard.setChessPiece(null, movement[0], movement[1], false);
+            triedChessBoard.setChessPiece(chessPiece, movement[2], movement[3], false);
+            boolean leadsToCheck = false;
+            for (int[] kingSquare : findKings(triedChessBoard, color)){
+                leadsToCheck |= triedChessBoard.isSquareAttacked(kingSquare[0], kingSquare[1], color.changeColor());
+            }
+            if (!leadsToCheck){
+                movements.add((movement[0] * 8 + movement[1]) * 64 + movement[2] * 8 + movement[3]);
+            }
+        }
+        return movements;
+    }
+
+    private ChessBoard copy(ChessBoard chessBoard, boolean isSparse){
+        ChessBoard copiedChessBoard = new ChessBoard(8, 8, isSparse);
+        chessBoard.copyInto(copiedChessBoard);
+        return copiedChessBoard;
+    }
+
+    private List<int[]> findKings(ChessBoard chessBoard, ChessPiece.ChessPieceColor color){
+        List<int[]> kings = new ArrayList<>();
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                ChessPiece chessPiece = chessBoard.getChessPiece(rank, file);
+                if (chessPiece instanceof King && chessPiece.getChessPieceColor() == color){
+                    kings.add(new int[]{rank, file});
+                }
+            }
+        }
+        return kings;
+    }
+
+    private ChessBoard createPinnedChessBoard(boolean tracksMovableCellsDependencies){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setTracksMovableCellsDependencies(tracksMovableCellsDependencies);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 4, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.WHITE), 1, 4, false);
+        chessBoard.setChessPiece(new Bishop(ChessPiece.ChessPieceColor.WHITE), 1, 3, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.WHITE), 2, 6, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.BLACK), 6, 4, false);
+        chessBoard.setChessPiece(new Bishop(ChessPiece.ChessPieceColor.BLACK), 3, 0, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.BLACK), 4, 7, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 5, 2, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 4);
+        return chessBoard;
+    }
+
+    private long perft(ChessBoard chessBoard, int depth){
+        if (depth == 0){
+            return 1;
+        }
+        long nodes = 0;
+        for (int[] movement : getMovements(chessBoard)){
+            assertTrue(chessBoard.moveChessPiece(movement[0], movement[1], movement[2], movement[3]));
+            nodes += perft(chessBoard, depth - 1);
+            assertTrue(chessBoard.undoMovement());
+        }
+        return nodes;
+    }
+
+    private List<int[]> getMovements(ChessBoard chessBoard){
+        Map<ChessCell, int[]> positions = new IdentityHashMap<>();
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                positions.put(chessBoard.getChessCell(rank, file), new int[]{rank, file});
+            }
+        }
+        List<int[]> movements = new ArrayList<>();
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                ChessCell chessCell = chessBoard.getChessCell(rank, file);
+                if (chessCell.getChessPiece() == null
+                        || chessCell.getChessPiece().getChessPieceColor() != chessBoard.getCurrentTurnsColor()){
+                    continue;
+                }
+                for (ChessCell movableCell : chessCell.getMovableCells()){
+                    int[] destination = positions.get(movableCell);
+                    movements.add(new int[]{rank, file, destination[0], destination[1]});
+                }
+            }
+        }
+        return movements;
+    }
+}
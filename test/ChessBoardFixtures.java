@@ -0,0 +1,108 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Random positions and random movements shared by the tests that play games on ChessBoards.
+ */
+class ChessBoardFixtures {
+    private static final List<Function<ChessPiece.ChessPieceColor, ChessPiece>> CHESS_PIECES = Arrays.asList(
+            Pawn::new, Knight::new, Bishop::new, Rook::new, Queen::new, Tank::new, Kirby::new);
+
+    private ChessBoardFixtures(){
+    }
+
+    /**
+     * Puts a King of each color and then random ChessPieces of random colors on random empty ChessCells, the same on
+     * every ChessBoard, updating the movableCells after the last one.
+     * @param random Random the position is drawn from
+     * @param chessPieceCount int number of ChessPieces besides the Kings
+     * @param chessBoards ChessBoards of the same size, empty
+     */
+    static void setUpRandomPosition(Random random, int chessPieceCount, ChessBoard... chessBoards){
+        ChessPiece.ChessPieceColor[] colors = ChessPiece.ChessPieceColor.values();
+        int fileSize = chessBoards[0].getFileSize();
+        for (ChessPiece.ChessPieceColor color : colors){
+            int square = getEmptySquare(chessBoards[0], random);
+            for (ChessBoard chessBoard : chessBoards){
+                chessBoard.setChessPiece(new King(color), square / fileSize, square % fileSize, false);
+            }
+        }
+        for (int count = 0; count < chessPieceCount; count++){
+            int square = getEmptySquare(chessBoards[0], random);
+            Function<ChessPiece.ChessPieceColor, ChessPiece> chessPiece =
+                    CHESS_PIECES.get(random.nextInt(CHESS_PIECES.size()));
+            ChessPiece.ChessPieceColor color = colors[random.nextInt(colors.length)];
+            boolean isLast = count == chessPieceCount - 1;
+            for (ChessBoard chessBoard : chessBoards){
+                chessBoard.setChessPiece(chessPiece.apply(color), square / fileSize, square % fileSize, isLast);
+            }
+        }
+    }
+
+    /**
+     * Draws an empty ChessCell.
+     * @return int index of the ChessCell
+     */
+    static int getEmptySquare(ChessBoard chessBoard, Random random){
+        int fileSize = chessBoard.getFileSize();
+        int square;
+        do {
+            square = random.nextInt(chessBoard.getRankSize() * fileSize);
+        } while (chessBoard.getChessPiece(square / fileSize, square % fileSize) != null);
+        return square;
+    }
+
+    /**
+     * Generates the movements of the current turn in sorted order, since the order they are generated in differs
+     * between ChessBoards.
+     * @return TreeSet of the packed movements
+     */
+    static TreeSet<Integer> getGeneratedMoves(ChessBoard chessBoard, MoveBuffer moveBuffer){
+        TreeSet<Integer> moves = new TreeSet<>();
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        for (int index = 0; index < moveCount; index++){
+            moves.add(moveBuffer.get(index));
+        }
+        return moves;
+    }
+
+    /**
+     * Draws a movement of the current turn.
+     * @return int packed movement, -1 if there is none
+     */
+    static int getRandomMove(ChessBoard chessBoard, Random random){
+        Integer[] moves = getGeneratedMoves(chessBoard, new MoveBuffer()).toArray(new Integer[0]);
+        return moves.length == 0 ? -1 : moves[random.nextInt(moves.length)];
+    }
+
+    /**
+     * Makes a random movement of the current turn.
+     * @return false if there was no movement to make
+     */
+    static boolean playRandomMove(ChessBoard chessBoard, Random random){
+        int move = getRandomMove(chessBoard, random);
+        if (move < 0){
+            return false;
+        }
+        assertTrue(chessBoard.moveChessPiece(move));
+        return true;
+    }
+
+    /**
+     * Makes random movements of the current turn until there are none left.
+     * @param count int number of movements at most
+     */
+    static void playRandomMoves(ChessBoard chessBoard, Random random, int count){
+        for (int index = 0; index < count && playRandomMove(chessBoard, random); index++){
+        }
+    }
+}
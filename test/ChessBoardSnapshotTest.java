@@ -0,0 +1,160 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ChessBoardSnapshot;
+import chess.model.chessBoard.ChessPieceSnapshot;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.ChessPiece;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ChessBoardSnapshotTest {
+
+    @Test
+    public void earlierSnapshotTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        ChessBoardSnapshot snapshot = chessBoard.snapshot();
+        assertEquals(32, snapshot.getChessPieceCount());
+        assertEquals(chessBoard.getZobristKey(), snapshot.getZobristKey());
+
+        //White pawn initial move
+        assertTrue(chessBoard.moveChessPiece(1, 4, 3, 4));
+        ChessBoardSnapshot movedSnapshot = chessBoard.snapshot();
+        assertEquals(ChessPiece.ChessPieceType.PAWN, snapshot.getChessPiece(1, 4).getChessPieceType());
+        assertNull(snapshot.getChessPiece(3, 4));
+        assertNull(movedSnapshot.getChessPiece(1, 4));
+        assertFalse(movedSnapshot.getChessPiece(3, 4).isInitialMove());
+        assertEquals(ChessPiece.ChessPieceColor.BLACK, movedSnapshot.getCurrentTurnsColor());
+        assertEquals(1, movedSnapshot.getMovementCount());
+        assertEquals(chessBoard.getZobristKey(), movedSnapshot.getZobristKey());
+        //A rook that still cannot move is shared
+        assertSame(snapshot.getChessPiece(0, 0), movedSnapshot.getChessPiece(0, 0));
+
+        assertTrue(chessBoard.undoMovement());
+        assertEquals(snapshot.getZobristKey(), chessBoard.snapshot().getZobristKey());
+        assertEquals(0, chessBoard.snapshot().getMovementCount());
+    }
+
+    @Test
+    public void sameAsChessBoardTest(){
+        for (int game = 0; game < 6; game++){
+            ChessBoard chessBoard = new ChessBoard(game % 2 == 0 ? 0 : 2);
+            chessBoard.setTracksMovableCellsDependencies(game % 3 == 0);
+            Random random = new Random(game);
+            MoveBuffer moveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 60 && chessBoard.generateMoves(moveBuffer) > 0; ply++){
+                if (random.nextInt(8) == 0){
+                    chessBoard.undoMovement();
+                } else {
+                    assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveBuffer.size()))));
+                }
+                assertSameAsChessBoard(chessBoard, chessBoard.snapshot());
+            }
+        }
+    }
+
+    @Test
+    public void perftDoesNotPublishTest(){
+        ChessBoard chessBoard = new ChessBoard(2);
+        ChessBoardSnapshot snapshot = chessBoard.snapshot();
+        chessBoard.perft(3);
+        chessBoard.divide(2);
+        assertSame(snapshot, chessBoard.snapshot());
+    }
+
+    @Test
+    public void concurrentReadersTest() throws InterruptedException{
+        ChessBoard chessBoard = new ChessBoard(2);
+        AtomicBoolean isPlaying = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int index = 0; index < 3; index++){
+            Thread reader = new Thread(() -> {
+                try {
+                    while (isPlaying.get()){
+                        assertConsistent(chessBoard.snapshot());
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        Random random = new Random(5);
+        MoveBuffer moveBuffer = new MoveBuffer();
+        for (int ply = 0; ply < 150 && chessBoard.generateMoves(moveBuffer) > 0; ply++){
+            if (random.nextInt(6) == 0){
+                chessBoard.undoMovement();
+            } else {
+                assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveBuffer.size()))));
+            }
+        }
+        isPlaying.set(false);
+        for (Thread reader : readers){
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+    //Every published position has both Kings, and only ChessPieces on the ChessCells it lists.
+    private void assertConsistent(ChessBoardSnapshot snapshot){
+        int kingCount = 0;
+        for (int square : snapshot.getChessPieceSquares()){
+            ChessPieceSnapshot chessPiece = snapshot.getChessPiece(square / snapshot.getFileSize(),
+                    square % snapshot.getFileSize());
+            assertNotNull(chessPiece);
+            if (chessPiece.getChessPieceType() == ChessPiece.ChessPieceType.KING){
+                kingCount++;
+            }
+        }
+        assertEquals(2, kingCount);
+    }
+
+    private void assertSameAsChessBoard(ChessBoard chessBoard, ChessBoardSnapshot snapshot){
+        assertEquals(chessBoard.getZobristKey(), snapshot.getZobristKey());
+        assertEquals(chessBoard.getCurrentTurnsColor(), snapshot.getCurrentTurnsColor());
+        assertEquals(chessBoard.isCheck(), snapshot.isCheck());
+        int chessPieceCount = 0;
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                ChessPiece chessPiece = chessBoard.getChessPiece(rank, file);
+                ChessPieceSnapshot chessPieceSnapshot = snapshot.getChessPiece(rank, file);
+                if (chessPiece == null){
+                    assertNull(chessPieceSnapshot);
+                    continue;
+                }
+                chessPieceCount++;
+                assertEquals(chessPiece.getChessPieceType(), chessPieceSnapshot.getChessPieceType());
+                assertEquals(chessPiece.getChessPieceColor(), chessPieceSnapshot.getChessPieceColor());
+                assertEquals(chessPiece.getMoveVectorSet().size(), chessPieceSnapshot.getMoveVectorCount());
+            }
+        }
+        assertEquals(chessPieceCount, snapshot.getChessPieceCount());
+
+        //The movable ChessCells of the current turn are the movements generateMoves writes
+        MoveBuffer moveBuffer = new MoveBuffer();
+        TreeSet<Integer> moves = new TreeSet<>();
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        for (int index = 0; index < moveCount; index++){
+            moves.add(MoveBuffer.getFrom(moveBuffer.get(index)) * 4096 + MoveBuffer.getTo(moveBuffer.get(index)));
+        }
+        TreeSet<Integer> snapshotMoves = new TreeSet<>();
+        for (int square : snapshot.getChessPieceSquares()){
+            ChessPieceSnapshot chessPieceSnapshot = snapshot.getChessPiece(square / 8, square % 8);
+            if (chessPieceSnapshot.getChessPieceColor() == snapshot.getCurrentTurnsColor()){
+                for (int movableSquare : chessPieceSnapshot.getMovableSquares()){
+                    snapshotMoves.add(square * 4096 + movableSquare);
+                }
+            }
+        }
+        assertEquals(moves, snapshotMoves);
+    }
+}
@@ -1,7 +1,11 @@
 import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
 import chess.model.chessPiece.*;
 import org.junit.Before;
 import org.junit.Test;
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 public class ChessPieceKirbyTest {
@@ -76,4 +80,29 @@ public class ChessPieceKirbyTest {
         //Make a bishop move (valid)
         assertTrue(chessBoard.moveChessPiece(5, 7, 3, 5));
     }
+
+    @Test
+    public void absorbedDirectionsOnceTest(){
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.BLACK), 3, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+
+        //The Kirby already moves one ChessCell along the lines of the Queen it absorbs
+        assertTrue(chessBoard.moveChessPiece(3, 3, 3, 4));
+        assertTrue(chessBoard.moveChessPiece(7, 7, 7, 6));
+
+        MoveBuffer moveBuffer = new MoveBuffer();
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        Set<Integer> moves = new HashSet<>();
+        int kirbyMoveCount = 0;
+        for (int index = 0; index < moveCount; index++){
+            assertTrue(moves.add(moveBuffer.get(index)));
+            if (MoveBuffer.getFrom(moveBuffer.get(index)) == 3 * 8 + 4){
+                kirbyMoveCount++;
+            }
+        }
+        assertEquals(kirbyMoveCount, chessBoard.getChessCell(3, 4).getMovableCells().size());
+    }
 }
@@ -45,4 +45,21 @@ public class ChessPieceTankTest {
         //Move black queen
         assertTrue(chessBoard.moveChessPiece(3, 5, 2, 5));
     }
+
+    @Test
+    public void knightHitTest(){
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.WHITE), 6, 5, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 4, 6, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 4);
+
+        //White knight hits black tank and stays where it was
+        assertTrue(chessBoard.moveChessPiece(6, 5, 4, 6));
+        assertSame(chessBoard.getChessPiece(6, 5).getClass(), Knight.class);
+        assertEquals(2, ((Tank) chessBoard.getChessPiece(4, 6)).getHitPoint());
+        //Black king cannot move to a cell the knight attacks
+        assertFalse(chessBoard.moveChessPiece(7, 4, 7, 3));
+        assertTrue(chessBoard.moveChessPiece(7, 4, 6, 4));
+    }
 }
@@ -0,0 +1,158 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ChessBoardSnapshot;
+import chess.model.chessBoard.ChessPieceSnapshot;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CopyIntoTest {
+
+    @Test
+    public void sameAsChessBoardTest(){
+        for (int mode = 0; mode < 3; mode++){
+            Random random = new Random(mode);
+            ChessBoard chessBoard = new ChessBoard(mode);
+            ChessBoard copiedChessBoard = new ChessBoard(8, 8);
+            copiedChessBoard.setVerifiesZobristKey(true);
+            for (int ply = 0; ply < 80 && ChessBoardFixtures.playRandomMove(chessBoard, random); ply++){
+                //The same ChessBoard is copied into again and again, and searched on in between
+                chessBoard.copyInto(copiedChessBoard);
+                assertSamePosition(chessBoard, copiedChessBoard);
+                assertFalse(copiedChessBoard.undoMovement());
+
+                ChessBoardFixtures.playRandomMoves(copiedChessBoard, new Random(ply), 4);
+                if (ply % 3 == 0){
+                    ChessBoard searchedChessBoard = new ChessBoard(mode);
+                    chessBoard.copyInto(searchedChessBoard);
+                    ChessBoardFixtures.playRandomMoves(searchedChessBoard, new Random(ply), 4);
+                    assertSamePosition(searchedChessBoard, copiedChessBoard);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void chessBoardUntouchedTest(){
+        ChessBoard chessBoard = createKingsOnlyChessBoard(false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 4, 4, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 5, 0, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 5, 6);
+        ChessBoardSnapshot snapshot = chessBoard.snapshot();
+        long perft = chessBoard.perft(3);
+
+        ChessBoard copiedChessBoard = new ChessBoard(8, 8);
+        chessBoard.copyInto(copiedChessBoard);
+        //The Kirby absorbs the MoveVectors of the Knight and the Tank is hit, only on the copy
+        assertTrue(copiedChessBoard.moveChessPiece(3, 3, 4, 4));
+        assertTrue(copiedChessBoard.moveChessPiece(7, 7, 7, 6));
+        assertTrue(copiedChessBoard.moveChessPiece(5, 0, 5, 6));
+        assertEquals(2, ((Tank) copiedChessBoard.getChessPiece(5, 6)).getHitPoint());
+        assertEquals(3, ((Tank) chessBoard.getChessPiece(5, 6)).getHitPoint());
+        assertNotSame(chessBoard.getChessPiece(5, 6), copiedChessBoard.getChessPiece(5, 6));
+        assertEquals(2, chessBoard.getChessPiece(3, 3).getMoveVectorSet().size());
+        assertTrue(chessBoard.getChessCell(3, 3).getMovableCells().contains(chessBoard.getChessCell(4, 4)));
+        assertFalse(chessBoard.getChessCell(3, 3).getMovableCells().contains(copiedChessBoard.getChessCell(4, 4)));
+
+        assertEquals(snapshot.getZobristKey(), chessBoard.getZobristKey());
+        assertSame(snapshot, chessBoard.snapshot());
+        assertEquals(perft, chessBoard.perft(3));
+
+        //Copying back over the changed ChessPieces gives the original state
+        chessBoard.copyInto(copiedChessBoard);
+        assertSamePosition(chessBoard, copiedChessBoard);
+        assertEquals(3, ((Tank) copiedChessBoard.getChessPiece(5, 6)).getHitPoint());
+        assertEquals(perft, copiedChessBoard.perft(3));
+    }
+
+    @Test
+    public void kirbyTest(){
+        ChessBoard chessBoard = createKingsOnlyChessBoard(false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.BLACK), 4, 4);
+        assertTrue(chessBoard.moveChessPiece(3, 3, 4, 4));
+
+        ChessBoard copiedChessBoard = createKingsOnlyChessBoard(false);
+        copiedChessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 4, 4);
+        chessBoard.copyInto(copiedChessBoard);
+        assertSamePosition(chessBoard, copiedChessBoard);
+        assertEquals(chessBoard.getChessPiece(4, 4).getMoveVectorSet().size(),
+                copiedChessBoard.getChessPiece(4, 4).getMoveVectorSet().size());
+        for (MoveVector moveVector : copiedChessBoard.getChessPiece(4, 4).getMoveVectorSet()){
+            assertFalse(chessBoard.getChessPiece(4, 4).getMoveVectorSet().contains(moveVector));
+        }
+    }
+
+    @Test
+    public void sparseTest(){
+        Random random = new Random(3);
+        ChessBoard chessBoard = createKingsOnlyChessBoard(true);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.WHITE), 2, 2, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 5, 5, false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.BLACK), 6, 2);
+        ChessBoard copiedChessBoard = new ChessBoard(8, 8, true);
+        for (int ply = 0; ply < 30 && ChessBoardFixtures.playRandomMove(chessBoard, random); ply++){
+            chessBoard.copyInto(copiedChessBoard);
+            assertSamePosition(chessBoard, copiedChessBoard);
+            ChessBoardFixtures.playRandomMove(copiedChessBoard, new Random(ply));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherSizeTest(){
+        new ChessBoard(0).copyInto(new ChessBoard(8, 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherStorageTest(){
+        new ChessBoard(8, 8, false).copyInto(new ChessBoard(8, 8, true));
+    }
+
+    private void assertSamePosition(ChessBoard expected, ChessBoard actual){
+        assertEquals(expected.getZobristKey(), actual.getZobristKey());
+        assertEquals(expected.getCurrentTurnsColor(), actual.getCurrentTurnsColor());
+        assertEquals(expected.isCheck(), actual.isCheck());
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertEquals(ChessBoardFixtures.getGeneratedMoves(expected, new MoveBuffer()),
+                ChessBoardFixtures.getGeneratedMoves(actual, new MoveBuffer()));
+
+        ChessBoardSnapshot expectedSnapshot = expected.snapshot();
+        ChessBoardSnapshot actualSnapshot = actual.snapshot();
+        assertEquals(expectedSnapshot.getZobristKey(), actualSnapshot.getZobristKey());
+        assertArrayEquals(expectedSnapshot.getChessPieceSquares(), actualSnapshot.getChessPieceSquares());
+        for (int square : expectedSnapshot.getChessPieceSquares()){
+            int rank = square / expected.getFileSize();
+            int file = square % expected.getFileSize();
+            ChessPieceSnapshot expectedChessPiece = expectedSnapshot.getChessPiece(rank, file);
+            ChessPieceSnapshot actualChessPiece = actualSnapshot.getChessPiece(rank, file);
+            assertEquals(expectedChessPiece.getChessPieceType(), actualChessPiece.getChessPieceType());
+            assertEquals(expectedChessPiece.getHitPoint(), actualChessPiece.getHitPoint());
+            assertEquals(expectedChessPiece.getMoveVectorCount(), actualChessPiece.getMoveVectorCount());
+            assertArrayEquals(sorted(expectedChessPiece.getMovableSquares()), sorted(actualChessPiece.getMovableSquares()));
+            assertEquals(expected.getChessCell(rank, file).getMovableCells().size(),
+                    actual.getChessCell(rank, file).getMovableCells().size());
+            if (expected.getChessPiece(rank, file) instanceof Pawn){
+                assertEquals(((Pawn) expected.getChessPiece(rank, file)).getMoveCount(),
+                        ((Pawn) actual.getChessPiece(rank, file)).getMoveCount());
+            }
+        }
+    }
+
+    private int[] sorted(int[] squares){
+        Arrays.sort(squares);
+        return squares;
+    }
+
+    private ChessBoard createKingsOnlyChessBoard(boolean isSparse){
+        ChessBoard chessBoard = new ChessBoard(8, 8, isSparse);
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+        return chessBoard;
+    }
+}
@@ -0,0 +1,229 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.MoveVector;
+import chess.model.perft.PerftCoordinator;
+import chess.model.perft.PerftWorker;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DistributedPerftTest {
+
+    @Test
+    public void positionRoundTripTest() throws IOException{
+        for (int game = 0; game < 4; game++){
+            ChessBoard chessBoard = new ChessBoard(game % 3);
+            Random random = new Random(game);
+            MoveBuffer moveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 30 && chessBoard.generateMoves(moveBuffer) > 0; ply++){
+                assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveBuffer.size()))));
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            chessBoard.writePosition(new DataOutputStream(bytes));
+            ChessBoard readChessBoard = ChessBoard.readPosition(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+            assertEquals(chessBoard.getZobristKey(), readChessBoard.getZobristKey());
+            assertEquals(chessBoard.getCurrentTurnsColor(), readChessBoard.getCurrentTurnsColor());
+            assertEquals(chessBoard.perft(2), readChessBoard.perft(2));
+        }
+    }
+
+    @Test
+    public void inProcessWorkersTest() throws IOException{
+        List<PerftWorker> perftWorkers = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int index = 0; index < 3; index++){
+                PerftWorker perftWorker = new PerftWorker(0);
+                perftWorker.start();
+                perftWorkers.add(perftWorker);
+                addresses.add(new InetSocketAddress("localhost", perftWorker.getPort()));
+            }
+            PerftCoordinator perftCoordinator = new PerftCoordinator(addresses);
+
+            ChessBoard chessBoard = new ChessBoard(0);
+            assertEquals(20, perftCoordinator.perft(chessBoard, 1));
+            //20 root movements are too few for 3 workers, so they are split by the next movement
+            assertEquals(8902, perftCoordinator.perft(chessBoard, 3));
+
+            ChessBoard customChessBoard = new ChessBoard(2);
+            assertEquals(customChessBoard.divide(3), perftCoordinator.divide(customChessBoard, 3));
+            assertEquals(customChessBoard.divide(1), perftCoordinator.divide(customChessBoard, 1));
+        } finally {
+            for (PerftWorker perftWorker : perftWorkers){
+                perftWorker.close();
+            }
+        }
+    }
+
+    @Test
+    public void workerProcessesTest() throws Exception{
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int index = 0; index < 2; index++){
+                Process process = startWorkerProcess();
+                processes.add(process);
+                addresses.add(new InetSocketAddress("localhost", readPort(process)));
+            }
+            //Nobody listens on this one, so it is dropped
+            addresses.add(new InetSocketAddress("localhost", getFreePort()));
+            PerftCoordinator perftCoordinator = new PerftCoordinator(addresses);
+
+            ChessBoard chessBoard = new ChessBoard(2);
+            Map<Integer, Long> divided = chessBoard.divide(4);
+            assertEquals(divided, perftCoordinator.divide(chessBoard, 4));
+
+            //The work units of a killed worker are handed out to the others
+            Thread killer = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                processes.get(0).destroyForcibly();
+            });
+            killer.start();
+            assertEquals(divided, perftCoordinator.divide(chessBoard, 4));
+            killer.join();
+            assertEquals(divided, perftCoordinator.divide(chessBoard, 4));
+        } finally {
+            for (Process process : processes){
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    public void invalidRequestsTest() throws IOException{
+        try (PerftWorker perftWorker = new PerftWorker(0)){
+            perftWorker.setMaxDepth(3);
+            perftWorker.setMaxSquareCount(100);
+            perftWorker.start();
+
+            //Too deep, too large a ChessBoard and a position cut short each close their connection
+            assertFalse(request(perftWorker.getPort(), 4, writePosition(new ChessBoard(0))));
+            assertFalse(request(perftWorker.getPort(), 1, writePosition(new ChessBoard(11, 10))));
+            assertFalse(request(perftWorker.getPort(), 1, Arrays.copyOf(writePosition(new ChessBoard(0)), 20)));
+
+            //The PerftWorker still answers valid requests
+            assertTrue(request(perftWorker.getPort(), 3, writePosition(new ChessBoard(0))));
+        }
+    }
+
+    @Test
+    public void invalidMoveVectorTest() throws IOException{
+        //directionType 3, a zero direction, distance -5 and flags 255 are each refused when read
+        int[][] invalidMoveVectors = {{1, 0, 1, 3, 3}, {0, 0, 1, 1, 3}, {1, 0, -5, 1, 3}, {1, 0, 1, 1, 255}};
+        for (int[] invalidMoveVector : invalidMoveVectors){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (int index = 0; index < 4; index++){
+                out.writeInt(invalidMoveVector[index]);
+            }
+            out.writeByte(invalidMoveVector[4]);
+            try {
+                MoveVector.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                fail(Arrays.toString(invalidMoveVector));
+            } catch (IOException e){
+                assertTrue(e.getMessage().startsWith("Invalid MoveVector"));
+            }
+        }
+    }
+
+    @Test
+    public void hungWorkerTest() throws IOException{
+        //The hung PerftWorker's connection is queued but never accepted, so its requests are never answered
+        try (ServerSocket hungServerSocket = new ServerSocket(0)){
+            PerftWorker perftWorker = new PerftWorker(0);
+            try {
+                perftWorker.start();
+                PerftCoordinator perftCoordinator = new PerftCoordinator(Arrays.asList(
+                        new InetSocketAddress("localhost", hungServerSocket.getLocalPort()),
+                        new InetSocketAddress("localhost", perftWorker.getPort())));
+                perftCoordinator.setReadTimeoutMillis(200);
+                assertEquals(8902, perftCoordinator.perft(new ChessBoard(0), 3));
+            } finally {
+                perftWorker.close();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeReadTimeoutTest(){
+        new PerftCoordinator(Arrays.asList(new InetSocketAddress("localhost", 0))).setReadTimeoutMillis(-1);
+    }
+
+    @Test(expected = IOException.class)
+    public void noWorkersTest() throws IOException{
+        PerftCoordinator perftCoordinator = new PerftCoordinator(Arrays.asList(
+                new InetSocketAddress("localhost", getFreePort()), new InetSocketAddress("localhost", getFreePort())));
+        perftCoordinator.perft(new ChessBoard(0), 3);
+    }
+
+    private byte[] writePosition(ChessBoard chessBoard) throws IOException{
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        chessBoard.writePosition(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Sends one perft request straight to a PerftWorker.
+     * @return true if it was answered, false if the PerftWorker closed the connection
+     */
+    private boolean request(int port, int depth, byte[] position) throws IOException{
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)){
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(depth);
+            out.writeInt(position.length);
+            out.write(position);
+            out.flush();
+            socket.shutdownOutput();
+            try {
+                new DataInputStream(socket.getInputStream()).readLong();
+                return true;
+            } catch (IOException e){
+                //Closed, or reset if the request was not read to its end
+                return false;
+            }
+        }
+    }
+
+    private Process startWorkerProcess() throws IOException{
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder processBuilder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                PerftWorker.class.getName(), "0");
+        processBuilder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        return processBuilder.start();
+    }
+
+    private int readPort(Process process) throws IOException{
+        String line = new BufferedReader(new InputStreamReader(process.getInputStream())).readLine();
+        assertNotNull(line);
+        return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    private int getFreePort() throws IOException{
+        try (ServerSocket serverSocket = new ServerSocket(0)){
+            return serverSocket.getLocalPort();
+        }
+    }
+}
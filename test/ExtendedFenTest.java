@@ -0,0 +1,145 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ExtendedFen;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ExtendedFenTest {
+
+    @Test
+    public void defaultChessBoardTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w", ExtendedFen.write(chessBoard));
+
+        ChessBoard readChessBoard = ExtendedFen.read(ExtendedFen.write(chessBoard));
+        assertEquals(chessBoard.getZobristKey(), readChessBoard.getZobristKey());
+        assertTrue(readChessBoard.getChessPiece(1, 4).isInitialMove());
+        //White pawn initial move on the read ChessBoard
+        assertTrue(readChessBoard.moveChessPiece(1, 4, 3, 4));
+    }
+
+    @Test
+    public void standardFenTest(){
+        ChessBoard chessBoard = ExtendedFen.read("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(ChessPiece.ChessPieceColor.BLACK, chessBoard.getCurrentTurnsColor());
+        assertFalse(chessBoard.getChessPiece(3, 4).isInitialMove());
+        assertNull(chessBoard.getChessPiece(1, 4));
+
+        ChessBoard movedChessBoard = new ChessBoard(0);
+        assertTrue(movedChessBoard.moveChessPiece(1, 4, 3, 4));
+        assertEquals(movedChessBoard.getZobristKey(), chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void customChessPiecesTest(){
+        ChessBoard chessBoard = ExtendedFen.read("k6K/8/8/3t[1]4/8/2P+5/P-7/Y{0,1,1,2,19;1,0,2147483647,2,19;1,1,1,4,19}7 w");
+        assertEquals(1, ((Tank) chessBoard.getChessPiece(4, 3)).getHitPoint());
+        assertTrue(chessBoard.getChessPiece(2, 2).isInitialMove());
+        assertFalse(chessBoard.getChessPiece(1, 0).isInitialMove());
+        assertEquals(3, chessBoard.getChessPiece(0, 0).getMoveVectorSet().size());
+        //The Kirby slides like the Rook it absorbed
+        assertTrue(chessBoard.moveChessPiece(0, 0, 0, 6));
+    }
+
+    @Test
+    public void checkTest(){
+        ChessBoard chessBoard = ExtendedFen.read("4k3/8/8/8/8/8/8/4RK2 b");
+        assertTrue(chessBoard.isCheck());
+        assertEquals(ChessBoard.GameStatus.CHECK, chessBoard.getGameStatus());
+
+        chessBoard = ExtendedFen.read("7k/5Q2/6K1/8/8/8/8/8 b");
+        assertTrue(chessBoard.isStalemate());
+    }
+
+    @Test
+    public void customSizeTest(){
+        ChessBoard chessBoard = ExtendedFen.read("k11/12/12/12/12/12/12/12/12/11K -");
+        assertEquals(10, chessBoard.getRankSize());
+        assertEquals(12, chessBoard.getFileSize());
+        assertNull(chessBoard.getCurrentTurnsColor());
+        assertEquals(ChessPiece.ChessPieceType.KING, chessBoard.getChessPiece(9, 0).getChessPieceType());
+        assertEquals("k11/12/12/12/12/12/12/12/12/11K -", ExtendedFen.write(chessBoard));
+    }
+
+    @Test
+    public void randomGamesTest(){
+        MoveBuffer moveBuffer = new MoveBuffer();
+        for (int game = 0; game < 20; game++){
+            ChessBoard chessBoard = new ChessBoard(2);
+            Random random = new Random(game);
+            for (int ply = 0; ply < 60; ply++){
+                int moveCount = chessBoard.generateMoves(moveBuffer);
+                if (moveCount == 0){
+                    break;
+                }
+                assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveCount))));
+
+                String fen = ExtendedFen.write(chessBoard);
+                ChessBoard readChessBoard = ExtendedFen.read(fen);
+                assertEquals(fen, ExtendedFen.write(readChessBoard));
+                assertEquals(chessBoard.getZobristKey(), readChessBoard.getZobristKey());
+                assertEquals(chessBoard.getGameStatus(), readChessBoard.getGameStatus());
+            }
+        }
+    }
+
+    @Test
+    public void loadIntoTest(){
+        ExtendedFen extendedFen = new ExtendedFen();
+        ChessBoard chessBoard = new ChessBoard(0);
+        assertTrue(chessBoard.moveChessPiece(1, 4, 3, 4));
+
+        extendedFen.parse("4k3/8/8/8/8/8/8/4K2R w");
+        extendedFen.loadInto(chessBoard);
+        assertEquals(3, extendedFen.getChessPieceCount());
+        assertFalse(chessBoard.undoMovement());
+        assertNull(chessBoard.getChessPiece(1, 4));
+        assertEquals(ExtendedFen.read("4k3/8/8/8/8/8/8/4K2R w").getZobristKey(), chessBoard.getZobristKey());
+        assertTrue(chessBoard.moveChessPiece(0, 7, 7, 7));
+        assertTrue(chessBoard.isCheck());
+
+        extendedFen.parse("4k3/8/8/8 w");
+        try {
+            extendedFen.loadInto(chessBoard);
+            fail();
+        } catch (IllegalArgumentException e){
+            assertEquals(4, extendedFen.getRankSize());
+        }
+    }
+
+    @Test
+    public void invalidFenTest(){
+        ExtendedFen extendedFen = new ExtendedFen();
+        String[] invalidFens = {"8/7 w", "8/Z7 w", "8/8 x", "T[0]7/8 w", "Y{1,2}7/8 w", "T[2 7/8 w", "/8 w"};
+        for (String invalidFen : invalidFens){
+            try {
+                extendedFen.parse(invalidFen);
+                fail(invalidFen);
+            } catch (IllegalArgumentException e){
+                assertTrue(e.getMessage().startsWith("Invalid extended FEN"));
+            }
+        }
+    }
+
+    @Test
+    public void invalidValuesTest(){
+        ExtendedFen extendedFen = new ExtendedFen();
+        String[] invalidFens = {"Y{0,0,2147483647,1,3}7/8 w", "Y{1,0,1,3,3}7/8 w", "Y{1,0,-5,1,3}7/8 w",
+                "Y{1,0,1,1,255}7/8 w", "Y{1,0,1,1,3;0,1,0,2,3}7/8 w", "T[99]7/8 w", "T[4]7/8 w"};
+        int[] indices = {2, 2, 2, 2, 12, 2, 2};
+        for (int index = 0; index < invalidFens.length; index++){
+            try {
+                extendedFen.parse(invalidFens[index]);
+                fail(invalidFens[index]);
+            } catch (IllegalArgumentException e){
+                assertTrue(e.getMessage(),
+                        e.getMessage().startsWith("Invalid extended FEN at index " + indices[index] + ","));
+            }
+        }
+        extendedFen.parse("T[3]7/Y{1,0,1,-1,31}7 w");
+    }
+}
@@ -0,0 +1,187 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.journal.GameJournal;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GameJournalTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void recoverTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        GameJournal gameJournal = new GameJournal(path);
+        int gameId = gameJournal.startGame(2);
+        ChessBoard chessBoard = new ChessBoard(2);
+        playRandomMovements(chessBoard, gameJournal, gameId, new Random(1), 40);
+        assertTrue(chessBoard.undoMovement());
+        gameJournal.appendUndo(gameId);
+        assertTrue(chessBoard.undoMovement());
+        gameJournal.appendUndo(gameId);
+        assertTrue(chessBoard.redoMovement());
+        gameJournal.appendRedo(gameId);
+        assertTrue(chessBoard.seek(7));
+        gameJournal.appendSeek(gameId, 7);
+        gameJournal.appendPoints(3, 1);
+        //Not closed, as if the process died
+        gameJournal.sync();
+
+        try (GameJournal recoveredGameJournal = new GameJournal(path)){
+            Map<Integer, ChessBoard> chessBoards = recoveredGameJournal.recoverGames();
+            assertEquals(1, chessBoards.size());
+            ChessBoard recoveredChessBoard = chessBoards.get(gameId);
+            assertEquals(chessBoard.getZobristKey(), recoveredChessBoard.getZobristKey());
+            assertEquals(chessBoard.getPly(), recoveredChessBoard.getPly());
+            assertEquals(chessBoard.getMovementCount(), recoveredChessBoard.getMovementCount());
+            assertEquals(3, recoveredGameJournal.getTopPlayerPoints());
+            assertEquals(1, recoveredGameJournal.getBottomPlayerPoints());
+        }
+        gameJournal.close();
+    }
+
+    @Test
+    public void interleavedGamesTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        ChessBoard[] chessBoards = new ChessBoard[3];
+        int[] gameIds = new int[3];
+        try (GameJournal gameJournal = new GameJournal(path)){
+            for (int index = 0; index < 3; index++){
+                chessBoards[index] = new ChessBoard(index);
+                gameIds[index] = gameJournal.startGame(index);
+            }
+            Random random = new Random(2);
+            for (int ply = 0; ply < 20; ply++){
+                for (int index = 0; index < 3; index++){
+                    playRandomMovements(chessBoards[index], gameJournal, gameIds[index], random, 1);
+                }
+            }
+            gameJournal.endGame(gameIds[1]);
+        }
+
+        try (GameJournal gameJournal = new GameJournal(path)){
+            Map<Integer, ChessBoard> recoveredChessBoards = gameJournal.recoverGames();
+            assertEquals(2, recoveredChessBoards.size());
+            assertFalse(recoveredChessBoards.containsKey(gameIds[1]));
+            assertEquals(chessBoards[0].getZobristKey(), recoveredChessBoards.get(gameIds[0]).getZobristKey());
+            assertEquals(chessBoards[2].getZobristKey(), recoveredChessBoards.get(gameIds[2]).getZobristKey());
+            //Game ids are not handed out again
+            assertTrue(gameJournal.startGame(0) > gameIds[2]);
+        }
+    }
+
+    @Test
+    public void tornRecordTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        ChessBoard chessBoard = new ChessBoard(0);
+        int gameId;
+        try (GameJournal gameJournal = new GameJournal(path)){
+            gameId = gameJournal.startGame(0);
+            playRandomMovements(chessBoard, gameJournal, gameId, new Random(3), 10);
+        }
+        long zobristKey = chessBoard.getZobristKey();
+        try (GameJournal gameJournal = new GameJournal(path)){
+            playRandomMovements(chessBoard, gameJournal, gameId, new Random(4), 1);
+        }
+        //Half of the last record was written
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")){
+            file.seek(11 * 16 + 8);
+            file.writeLong(0);
+        }
+
+        try (GameJournal gameJournal = new GameJournal(path)){
+            ChessBoard recoveredChessBoard = gameJournal.recoverGames().get(gameId);
+            assertEquals(zobristKey, recoveredChessBoard.getZobristKey());
+            playRandomMovements(recoveredChessBoard, gameJournal, gameId, new Random(5), 5);
+            zobristKey = recoveredChessBoard.getZobristKey();
+        }
+        try (GameJournal gameJournal = new GameJournal(path)){
+            assertEquals(zobristKey, gameJournal.recoverGames().get(gameId).getZobristKey());
+        }
+    }
+
+    @Test
+    public void holeTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        ChessBoard chessBoard = new ChessBoard(0);
+        int gameId;
+        try (GameJournal gameJournal = new GameJournal(path)){
+            gameId = gameJournal.startGame(0);
+            playRandomMovements(chessBoard, gameJournal, gameId, new Random(6), 5);
+        }
+        //The second movement never reached the disk, but the ones after it did
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")){
+            file.seek(2 * 16);
+            file.writeLong(0);
+            file.writeLong(0);
+        }
+
+        long zobristKey;
+        try (GameJournal gameJournal = new GameJournal(path)){
+            ChessBoard recoveredChessBoard = gameJournal.recoverGames().get(gameId);
+            assertEquals(1, recoveredChessBoard.getPly());
+            playRandomMovements(recoveredChessBoard, gameJournal, gameId, new Random(7), 1);
+            zobristKey = recoveredChessBoard.getZobristKey();
+        }
+        try (GameJournal gameJournal = new GameJournal(path)){
+            ChessBoard recoveredChessBoard = gameJournal.recoverGames().get(gameId);
+            assertEquals(2, recoveredChessBoard.getPly());
+            assertEquals(zobristKey, recoveredChessBoard.getZobristKey());
+        }
+    }
+
+    @Test
+    public void chunksTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        int gameId;
+        try (GameJournal gameJournal = new GameJournal(path)){
+            gameId = gameJournal.startGame(0);
+            gameJournal.setSyncInterval(4096);
+            for (int index = 0; index < 70000; index++){
+                gameJournal.appendPoints(index, -index);
+            }
+            gameJournal.appendMovement(gameId, 1, 4, 3, 4);
+        }
+        try (GameJournal gameJournal = new GameJournal(path)){
+            assertEquals(69999, gameJournal.getTopPlayerPoints());
+            assertEquals(-69999, gameJournal.getBottomPlayerPoints());
+            assertEquals(1, gameJournal.recoverGames().get(gameId).getPly());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidMovementTest() throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("chess.journal");
+        try (GameJournal gameJournal = new GameJournal(path)){
+            int gameId = gameJournal.startGame(0);
+            gameJournal.appendMovement(gameId, 1, 4, 5, 4);
+        }
+        try (GameJournal gameJournal = new GameJournal(path)){
+            gameJournal.recoverGames();
+        }
+    }
+
+    private void playRandomMovements(ChessBoard chessBoard, GameJournal gameJournal, int gameId, Random random,
+                                     int count) throws IOException{
+        for (int index = 0; index < count; index++){
+            int move = ChessBoardFixtures.getRandomMove(chessBoard, random);
+            if (move < 0){
+                break;
+            }
+            int fileSize = chessBoard.getFileSize();
+            int from = MoveBuffer.getFrom(move);
+            int to = MoveBuffer.getTo(move);
+            assertTrue(chessBoard.moveChessPiece(from / fileSize, from % fileSize, to / fileSize, to % fileSize));
+            gameJournal.appendMovement(gameId, from / fileSize, from % fileSize, to / fileSize, to % fileSize);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GameStatusTest {
+
+    @Test
+    public void foolsMateTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        assertEquals(ChessBoard.GameStatus.ONGOING, chessBoard.getGameStatus());
+        assertTrue(chessBoard.hasAnyLegalMove());
+
+        assertTrue(chessBoard.moveChessPiece(1, 5, 2, 5));
+        assertTrue(chessBoard.moveChessPiece(6, 4, 4, 4));
+        assertTrue(chessBoard.moveChessPiece(1, 6, 3, 6));
+        assertTrue(chessBoard.moveChessPiece(7, 3, 3, 7));
+        assertEquals(ChessBoard.GameStatus.CHECKMATE, chessBoard.getGameStatus());
+        assertTrue(chessBoard.isCheckmate());
+        assertFalse(chessBoard.isStalemate());
+        assertFalse(chessBoard.hasAnyLegalMove());
+        assertFalse(chessBoard.moveChessPiece(0, 4, 1, 5));
+
+        //Undoing the mate gives the game back
+        assertTrue(chessBoard.undoMovement());
+        assertFalse(chessBoard.isCheckmate());
+        assertTrue(chessBoard.hasAnyLegalMove());
+    }
+
+    @Test
+    public void stalemateTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.BLACK), 2, 1);
+        assertEquals(ChessBoard.GameStatus.STALEMATE, chessBoard.getGameStatus());
+        assertTrue(chessBoard.isStalemate());
+        assertFalse(chessBoard.hasAnyLegalMove());
+
+        //A Pawn that can still move ends the stalemate
+        chessBoard.setChessPiece(new Pawn(ChessPiece.ChessPieceColor.WHITE), 3, 4);
+        assertEquals(ChessBoard.GameStatus.ONGOING, chessBoard.getGameStatus());
+        assertTrue(chessBoard.hasAnyLegalMove());
+    }
+
+    @Test
+    public void sameAsMovableCellsTest(){
+        MoveBuffer moveBuffer = new MoveBuffer();
+        for (int game = 0; game < 20; game++){
+            Random random = new Random(game);
+            ChessBoard chessBoard = new ChessBoard(game % 2 == 0 ? 0 : 2);
+            chessBoard.setTracksMovableCellsDependencies(game % 4 < 2);
+            for (int ply = 0; ply < 80; ply++){
+                int moveCount = chessBoard.generateMoves(moveBuffer);
+                assertEquals(moveCount > 0, chessBoard.hasAnyLegalMove());
+                ChessBoard.GameStatus expected = moveCount > 0
+                        ? (chessBoard.isCheck() ? ChessBoard.GameStatus.CHECK : ChessBoard.GameStatus.ONGOING)
+                        : (chessBoard.isCheck() ? ChessBoard.GameStatus.CHECKMATE : ChessBoard.GameStatus.STALEMATE);
+                assertEquals(expected, chessBoard.getGameStatus());
+                if (moveCount == 0){
+                    break;
+                }
+                assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveCount))));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ChessCell;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class GenerateMovesTest {
+
+    @Test
+    public void defaultChessBoardPerftTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        MoveBuffer[] moveBuffers = {new MoveBuffer(), new MoveBuffer(), new MoveBuffer()};
+        assertEquals(20, chessBoard.generateMoves(moveBuffers[0]));
+        assertEquals(8902, perft(chessBoard, moveBuffers, 3));
+    }
+
+    @Test
+    public void sameAsMovableCellsTest(){
+        for (int game = 0; game < 10; game++){
+            for (boolean tracksMovableCellsDependencies : new boolean[]{true, false}){
+                ChessBoard chessBoard = new ChessBoard(game % 2 == 0 ? 0 : 2);
+                chessBoard.setTracksMovableCellsDependencies(tracksMovableCellsDependencies);
+                playRandomGame(chessBoard, new Random(game));
+            }
+        }
+    }
+
+    @Test
+    public void tankHitTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 1, 7, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 1, 3, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 0);
+
+        MoveBuffer moveBuffer = new MoveBuffer(1);
+        chessBoard.generateMoves(moveBuffer);
+        int tankHit = -1;
+        for (int index = 0; index < moveBuffer.size(); index++){
+            int move = moveBuffer.get(index);
+            if (MoveBuffer.getFrom(move) == 15 && MoveBuffer.getTo(move) == 11){
+                tankHit = move;
+            }
+            assertEquals(MoveBuffer.getTo(move) == 11, MoveBuffer.isCapture(move));
+        }
+        assertTrue(MoveBuffer.isTankHit(tankHit));
+        assertFalse(MoveBuffer.isInitialMove(tankHit));
+
+        //The Rook bounces off the Tank
+        assertTrue(chessBoard.moveChessPiece(tankHit));
+        assertSame(chessBoard.getChessPiece(1, 4).getClass(), Rook.class);
+        assertEquals(2, ((Tank) chessBoard.getChessPiece(1, 3)).getHitPoint());
+    }
+
+    private void playRandomGame(ChessBoard chessBoard, Random random){
+        MoveBuffer moveBuffer = new MoveBuffer();
+        for (int ply = 0; ply < 60; ply++){
+            assertEquals(getMovableCells(chessBoard), getGeneratedMoves(chessBoard, moveBuffer));
+            if (moveBuffer.size() == 0){
+                break;
+            }
+            if (random.nextInt(10) == 0){
+                chessBoard.undoMovement();
+            } else {
+                ChessBoardFixtures.playRandomMove(chessBoard, random);
+            }
+        }
+    }
+
+    private TreeSet<String> getGeneratedMoves(ChessBoard chessBoard, MoveBuffer moveBuffer){
+        TreeSet<String> moves = new TreeSet<>();
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        for (int index = 0; index < moveCount; index++){
+            int move = moveBuffer.get(index);
+            int from = MoveBuffer.getFrom(move);
+            int to = MoveBuffer.getTo(move);
+            ChessPiece chessPiece = chessBoard.getChessPiece(from / chessBoard.getFileSize(), from % chessBoard.getFileSize());
+            assertEquals(chessPiece.isInitialMove(), MoveBuffer.isInitialMove(move));
+            assertEquals(chessBoard.getChessPiece(to / chessBoard.getFileSize(), to % chessBoard.getFileSize()) != null,
+                    MoveBuffer.isCapture(move));
+            moves.add(from + "-" + to);
+        }
+        return moves;
+    }
+
+    private TreeSet<String> getMovableCells(ChessBoard chessBoard){
+        TreeSet<String> moves = new TreeSet<>();
+        for (int from = 0; from < chessBoard.getRankSize() * chessBoard.getFileSize(); from++){
+            ChessCell chessCell = chessBoard.getChessCell(from / chessBoard.getFileSize(), from % chessBoard.getFileSize());
+            if (chessCell.getChessPiece() == null
+                    || chessCell.getChessPiece().getChessPieceColor() != chessBoard.getCurrentTurnsColor()){
+                continue;
+            }
+            for (int to = 0; to < chessBoard.getRankSize() * chessBoard.getFileSize(); to++){
+                if (chessCell.getMovableCells().contains(
+                        chessBoard.getChessCell(to / chessBoard.getFileSize(), to % chessBoard.getFileSize()))){
+                    moves.add(from + "-" + to);
+                }
+            }
+        }
+        return moves;
+    }
+
+    private long perft(ChessBoard chessBoard, MoveBuffer[] moveBuffers, int depth){
+        if (depth == 0){
+            return 1;
+        }
+        MoveBuffer moveBuffer = moveBuffers[depth - 1];
+        long nodes = 0;
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        for (int index = 0; index < moveCount; index++){
+            assertTrue(chessBoard.moveChessPiece(moveBuffer.get(index)));
+            nodes += perft(chessBoard, moveBuffers, depth - 1);
+            assertTrue(chessBoard.undoMovement());
+        }
+        return nodes;
+    }
+}
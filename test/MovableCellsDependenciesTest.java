@@ -0,0 +1,103 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ChessCell;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class MovableCellsDependenciesTest {
+
+    @Test
+    public void defaultChessBoardGamesTest(){
+        for (int game = 0; game < 20; game++){
+            playRandomGame(new ChessBoard(0), new ChessBoard(0), new Random(game));
+        }
+    }
+
+    @Test
+    public void customChessBoardGamesTest(){
+        for (int game = 0; game < 20; game++){
+            playRandomGame(new ChessBoard(2), new ChessBoard(2), new Random(100 + game));
+        }
+    }
+
+    @Test
+    public void pinnedChessPieceTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 4, false);
+        chessBoard.setChessPiece(new Bishop(ChessPiece.ChessPieceColor.WHITE), 1, 4, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.BLACK), 7, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 0);
+        assertTrue(chessBoard.getChessCell(1, 4).getMovableCells().isEmpty());
+
+        // Moving the Rook away from the file unpins the Bishop although the Bishop never looked at the Rook.
+        assertFalse(chessBoard.moveChessPiece(1, 4, 2, 5));
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.BLACK);
+        assertTrue(chessBoard.moveChessPiece(7, 4, 7, 3));
+        assertTrue(chessBoard.moveChessPiece(1, 4, 2, 5));
+    }
+
+    private void playRandomGame(ChessBoard trackedChessBoard, ChessBoard chessBoard, Random random){
+        chessBoard.setTracksMovableCellsDependencies(false);
+        assertTrue(trackedChessBoard.tracksMovableCellsDependencies());
+        assertFalse(chessBoard.tracksMovableCellsDependencies());
+        for (int ply = 0; ply < 60; ply++){
+            int action = random.nextInt(10);
+            if (action < 8){
+                int move = ChessBoardFixtures.getRandomMove(chessBoard, random);
+                if (move < 0){
+                    break;
+                }
+                assertEquals(chessBoard.moveChessPiece(move), trackedChessBoard.moveChessPiece(move));
+            } else if (action < 9){
+                assertEquals(chessBoard.undoMovement(), trackedChessBoard.undoMovement());
+            } else {
+                assertEquals(chessBoard.redoMovement(), trackedChessBoard.redoMovement());
+            }
+            assertEquals(describe(chessBoard), describe(trackedChessBoard));
+        }
+    }
+
+    private String describe(ChessBoard chessBoard){
+        Map<ChessCell, int[]> positions = getPositions(chessBoard);
+        StringBuilder description = new StringBuilder();
+        description.append(chessBoard.getCurrentTurnsColor()).append(chessBoard.isCheck())
+                .append(chessBoard.isCheckmate()).append(chessBoard.isStalemate()).append('\n');
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                ChessCell chessCell = chessBoard.getChessCell(rank, file);
+                if (chessCell.getChessPiece() != null){
+                    description.append(rank).append(',').append(file).append(' ')
+                            .append(chessCell.getChessPiece().getClass().getSimpleName())
+                            .append(new TreeSet<>(toStrings(chessCell, positions))).append('\n');
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private Map<ChessCell, int[]> getPositions(ChessBoard chessBoard){
+        Map<ChessCell, int[]> positions = new IdentityHashMap<>();
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                positions.put(chessBoard.getChessCell(rank, file), new int[]{rank, file});
+            }
+        }
+        return positions;
+    }
+
+    private List<String> toStrings(ChessCell chessCell, Map<ChessCell, int[]> positions){
+        List<String> strings = new ArrayList<>();
+        for (ChessCell movableCell : chessCell.getMovableCells()){
+            strings.add(positions.get(movableCell)[0] + "," + positions.get(movableCell)[1]);
+        }
+        return strings;
+    }
+}
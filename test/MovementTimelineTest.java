@@ -0,0 +1,212 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessBoard.utils.MovementTimeline;
+import chess.model.chessBoard.utils.PositionCheckpoint;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MovementTimelineTest {
+
+    @Test
+    public void seekTest(){
+        for (int mode = 0; mode < 3; mode += 2){
+            Random random = new Random(mode);
+            ChessBoard chessBoard = new ChessBoard(mode);
+            chessBoard.setVerifiesZobristKey(true);
+            List<String> positions = new ArrayList<>();
+            positions.add(describe(chessBoard));
+            for (int ply = 0; ply < 70 && ChessBoardFixtures.playRandomMove(chessBoard, random); ply++){
+                positions.add(describe(chessBoard));
+            }
+            int movementCount = positions.size() - 1;
+            assertEquals(movementCount, chessBoard.getMovementCount());
+
+            for (int index = 0; index < 40; index++){
+                int ply = random.nextInt(positions.size());
+                assertTrue(chessBoard.seek(ply));
+                assertEquals(ply, chessBoard.getPly());
+                assertEquals(positions.get(ply), describe(chessBoard));
+                assertEquals(ply, chessBoard.snapshot().getMovementCount());
+                if (index % 5 == 0 && chessBoard.undoMovement()){
+                    assertEquals(positions.get(ply - 1), describe(chessBoard));
+                    assertTrue(chessBoard.redoMovement());
+                    assertEquals(positions.get(ply), describe(chessBoard));
+                }
+            }
+            assertFalse(chessBoard.seek(-1));
+            assertFalse(chessBoard.seek(movementCount + 1));
+            assertEquals(movementCount, chessBoard.getMovementCount());
+
+            //A new movement replaces the movements after the current ply
+            assertTrue(chessBoard.seek(20));
+            assertTrue(ChessBoardFixtures.playRandomMove(chessBoard, random));
+            assertEquals(21, chessBoard.getMovementCount());
+            assertFalse(chessBoard.redoMovement());
+            String position = describe(chessBoard);
+            assertTrue(chessBoard.seek(3));
+            assertEquals(positions.get(3), describe(chessBoard));
+            assertTrue(chessBoard.seek(21));
+            assertEquals(position, describe(chessBoard));
+        }
+    }
+
+    @Test
+    public void replayTest(){
+        for (int mode = 0; mode < 3; mode += 2){
+            Random random = new Random(mode + 10);
+            ChessBoard chessBoard = new ChessBoard(mode);
+            ChessBoard replayedChessBoard = new ChessBoard(mode);
+            replayedChessBoard.setVerifiesZobristKey(true);
+            for (int ply = 0; ply < 60; ply++){
+                int move = ChessBoardFixtures.getRandomMove(chessBoard, random);
+                if (move < 0){
+                    break;
+                }
+                //A movement of a ChessPiece that can move, to a ChessCell it was not generated for, is not replayed either
+                Set<Integer> movements = new HashSet<>();
+                for (int generatedMove : ChessBoardFixtures.getGeneratedMoves(chessBoard, new MoveBuffer())){
+                    movements.add(MoveBuffer.getFrom(generatedMove) * 64 + MoveBuffer.getTo(generatedMove));
+                }
+                int from = MoveBuffer.getFrom(ChessBoardFixtures.getRandomMove(chessBoard, random));
+                for (int to = 0; to < 64; to++){
+                    if (!movements.contains(from * 64 + to)){
+                        assertFalse(replayedChessBoard.replayMovement(from / 8, from % 8, to / 8, to % 8));
+                    }
+                }
+                from = MoveBuffer.getFrom(move);
+                int to = MoveBuffer.getTo(move);
+                assertTrue(chessBoard.moveChessPiece(move));
+                assertTrue(replayedChessBoard.replayMovement(from / 8, from % 8, to / 8, to % 8));
+                if (ply % 7 == 6){
+                    assertTrue(chessBoard.undoMovement());
+                    assertTrue(replayedChessBoard.replaySeek(replayedChessBoard.getPly() - 1));
+                }
+            }
+            assertTrue(chessBoard.seek(5));
+            assertTrue(replayedChessBoard.replaySeek(5));
+            replayedChessBoard.finishReplay();
+            assertEquals(describe(chessBoard), describe(replayedChessBoard));
+            assertTrue(chessBoard.seek(chessBoard.getMovementCount()));
+            assertTrue(replayedChessBoard.seek(replayedChessBoard.getMovementCount()));
+            assertEquals(describe(chessBoard), describe(replayedChessBoard));
+        }
+    }
+
+    @Test
+    public void kirbyAndTankTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setVerifiesZobristKey(true);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7, false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 4, 4, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 5, 0, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 5, 6);
+        List<String> positions = new ArrayList<>();
+        positions.add(describe(chessBoard));
+        //The Kirby absorbs the Knight, the Rook hits the Tank twice and the Kirby moves with the Knight's MoveVectors
+        int[][] movements = {{3, 3, 4, 4}, {7, 7, 7, 6}, {5, 0, 5, 6}, {7, 6, 7, 7}, {5, 5, 5, 0}, {7, 7, 7, 6},
+                {5, 0, 5, 6}, {7, 6, 7, 7}, {4, 4, 6, 5}};
+        for (int[] movement : movements){
+            assertTrue(chessBoard.moveChessPiece(movement[0], movement[1], movement[2], movement[3]));
+            positions.add(describe(chessBoard));
+        }
+        assertEquals(1, ((Tank) chessBoard.getChessPiece(5, 6)).getHitPoint());
+
+        for (int ply : new int[]{0, 9, 2, 7, 1, 8, 0}){
+            assertTrue(chessBoard.seek(ply));
+            assertEquals(positions.get(ply), describe(chessBoard));
+        }
+        assertEquals(3, ((Tank) chessBoard.getChessPiece(5, 6)).getHitPoint());
+        assertEquals(2, chessBoard.getChessPiece(3, 3).getMoveVectorSet().size());
+    }
+
+    @Test
+    public void setChessPieceTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        Random random = new Random(5);
+        for (int ply = 0; ply < 40; ply++){
+            assertTrue(ChessBoardFixtures.playRandomMove(chessBoard, random));
+        }
+        //The movements are still undone from the changed position when the checkpoints no longer fit it
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.WHITE), 3, 0);
+        ChessBoard otherChessBoard = new ChessBoard(0);
+        random = new Random(5);
+        for (int ply = 0; ply < 40; ply++){
+            assertTrue(ChessBoardFixtures.playRandomMove(otherChessBoard, random));
+        }
+        otherChessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.WHITE), 3, 0);
+        for (int ply = 0; ply < 37; ply++){
+            assertTrue(otherChessBoard.undoMovement());
+        }
+        assertTrue(chessBoard.seek(3));
+        assertEquals(describe(otherChessBoard), describe(chessBoard));
+    }
+
+    @Test
+    public void checkpointTest(){
+        MovementTimeline movementTimeline = new MovementTimeline(4);
+        assertTrue(movementTimeline.needsCheckpoint());
+        movementTimeline.addCheckpoint(createCheckpoint(0));
+        assertFalse(movementTimeline.needsCheckpoint());
+        for (int ply = 1; ply <= 10; ply++){
+            movementTimeline.add(null);
+            assertEquals(ply % 4 == 0, movementTimeline.needsCheckpoint());
+            if (movementTimeline.needsCheckpoint()){
+                movementTimeline.addCheckpoint(createCheckpoint(ply));
+            }
+        }
+        assertEquals(0, movementTimeline.getCheckpoint(3).getPly());
+        assertEquals(4, movementTimeline.getCheckpoint(4).getPly());
+        assertEquals(8, movementTimeline.getCheckpoint(10).getPly());
+
+        //Going back and making another movement drops the checkpoints after it
+        movementTimeline.setPly(5);
+        movementTimeline.add(null);
+        assertEquals(6, movementTimeline.size());
+        assertNull(movementTimeline.redo());
+        assertEquals(4, movementTimeline.getCheckpoint(10).getPly());
+
+        movementTimeline.clearCheckpoints();
+        assertNull(movementTimeline.getCheckpoint(6));
+        assertTrue(movementTimeline.needsCheckpoint());
+    }
+
+    private PositionCheckpoint createCheckpoint(int ply){
+        return new PositionCheckpoint(ply, ChessPiece.ChessPieceColor.WHITE, new int[0], new ChessPiece[0],
+                new ArrayList<>());
+    }
+
+    private String describe(ChessBoard chessBoard){
+        StringBuilder description = new StringBuilder();
+        description.append(chessBoard.getZobristKey()).append(' ').append(chessBoard.getCurrentTurnsColor())
+                .append(' ').append(chessBoard.isCheck()).append(' ').append(chessBoard.getGameStatus());
+        for (int rank = 0; rank < chessBoard.getRankSize(); rank++){
+            for (int file = 0; file < chessBoard.getFileSize(); file++){
+                ChessPiece chessPiece = chessBoard.getChessPiece(rank, file);
+                if (chessPiece == null){
+                    continue;
+                }
+                description.append(' ').append(rank).append(file).append(chessPiece.getChessPieceType())
+                        .append(chessPiece.isInitialMove()).append(chessPiece.getMoveVectorSet().size());
+                if (chessPiece instanceof Pawn){
+                    description.append(((Pawn) chessPiece).getMoveCount());
+                }
+                if (chessPiece instanceof Tank){
+                    description.append(((Tank) chessPiece).getHitPoint());
+                }
+                description.append(chessBoard.getChessCell(rank, file).getMovableCells().size());
+            }
+        }
+        return description.append(' ').append(ChessBoardFixtures.getGeneratedMoves(chessBoard, new MoveBuffer()))
+                .toString();
+    }
+}
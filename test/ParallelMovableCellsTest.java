@@ -0,0 +1,54 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class ParallelMovableCellsTest {
+
+    @Test
+    public void sameAsSequentialTest(){
+        int moveCount = 0;
+        for (int game = 0; game < 4; game++){
+            Random random = new Random(game);
+            // Sparse ChessBoards never track dependencies, so they always set all the movableCells.
+            boolean isSparse = game % 2 == 1;
+            ChessBoard sequentialChessBoard = createChessBoard(Integer.MAX_VALUE, isSparse);
+            ChessBoard parallelChessBoard = createChessBoard(0, isSparse);
+            ChessBoardFixtures.setUpRandomPosition(random, 300, sequentialChessBoard, parallelChessBoard);
+            MoveBuffer sequentialMoveBuffer = new MoveBuffer();
+            MoveBuffer parallelMoveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 30; ply++){
+                TreeSet<Integer> sequentialMoves =
+                        ChessBoardFixtures.getGeneratedMoves(sequentialChessBoard, sequentialMoveBuffer);
+                assertEquals(sequentialMoves,
+                        ChessBoardFixtures.getGeneratedMoves(parallelChessBoard, parallelMoveBuffer));
+                assertEquals(sequentialChessBoard.isCheck(), parallelChessBoard.isCheck());
+                if (sequentialMoves.isEmpty()){
+                    break;
+                }
+                if (random.nextInt(10) == 0){
+                    assertEquals(sequentialChessBoard.undoMovement(), parallelChessBoard.undoMovement());
+                } else {
+                    int move = ChessBoardFixtures.getRandomMove(sequentialChessBoard, random);
+                    assertTrue(sequentialChessBoard.moveChessPiece(move));
+                    assertTrue(parallelChessBoard.moveChessPiece(move));
+                    moveCount++;
+                }
+            }
+        }
+        assertTrue(moveCount > 50);
+    }
+
+    private ChessBoard createChessBoard(int parallelChessPieceCount, boolean isSparse){
+        ChessBoard chessBoard = new ChessBoard(32, 32, isSparse);
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        chessBoard.setTracksMovableCellsDependencies(false);
+        chessBoard.setParallelChessPieceCount(parallelChessPieceCount);
+        return chessBoard;
+    }
+}
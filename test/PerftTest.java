@@ -0,0 +1,102 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class PerftTest {
+
+    //No en passant and no castling, so depth 5 would be 4865351 instead of 4865609
+    private static final long[] DEFAULT_NODES = {1, 20, 400, 8902, 197281};
+    private static final long[] CUSTOM_NODES = {1, 27, 729, 20682, 585723};
+
+    @Test
+    public void defaultChessBoardPerftTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        for (int depth = 0; depth < DEFAULT_NODES.length; depth++){
+            assertEquals(DEFAULT_NODES[depth], chessBoard.perft(depth));
+        }
+    }
+
+    @Test
+    public void customChessBoardPerftTest(){
+        ChessBoard chessBoard = new ChessBoard(2);
+        for (int depth = 0; depth < CUSTOM_NODES.length; depth++){
+            assertEquals(CUSTOM_NODES[depth], chessBoard.perft(depth));
+        }
+    }
+
+    @Test
+    public void emptyChessBoardPerftTest(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        assertEquals(0, chessBoard.perft(1));
+
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+        assertEquals(3, chessBoard.perft(1));
+        assertEquals(9, chessBoard.perft(2));
+    }
+
+    @Test
+    public void divideTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        for (int depth = 1; depth <= 3; depth++){
+            Map<Integer, Long> divided = chessBoard.divide(depth);
+            assertEquals(20, divided.size());
+            long nodes = 0;
+            for (long movementNodes : divided.values()){
+                nodes += movementNodes;
+            }
+            assertEquals(DEFAULT_NODES[depth], nodes);
+        }
+        //Each pawn push and knight move leaves black the same 20 movements
+        for (long movementNodes : chessBoard.divide(2).values()){
+            assertEquals(20, movementNodes);
+        }
+    }
+
+    @Test
+    public void leavesChessBoardUnchangedTest(){
+        for (int game = 0; game < 4; game++){
+            ChessBoard chessBoard = new ChessBoard(2);
+            chessBoard.setVerifiesZobristKey(true);
+            chessBoard.setTracksMovableCellsDependencies(game % 2 == 0);
+            Random random = new Random(game);
+            MoveBuffer moveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 24 && chessBoard.generateMoves(moveBuffer) > 0; ply++){
+                assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveBuffer.size()))));
+            }
+            long zobristKey = chessBoard.getZobristKey();
+            TreeSet<Integer> moves = getMoves(chessBoard);
+            long nodes = chessBoard.perft(2);
+
+            //Tank hits and Kirby captures in the search are taken back
+            assertEquals(nodes, chessBoard.perft(2));
+            assertEquals(zobristKey, chessBoard.getZobristKey());
+            assertEquals(moves, getMoves(chessBoard));
+
+            //The root split on copies counts the same movements
+            long dividedNodes = 0;
+            for (long movementNodes : chessBoard.divide(3).values()){
+                dividedNodes += movementNodes;
+            }
+            assertEquals(dividedNodes, chessBoard.perft(3));
+            assertEquals(zobristKey, chessBoard.getZobristKey());
+        }
+    }
+
+    private TreeSet<Integer> getMoves(ChessBoard chessBoard){
+        MoveBuffer moveBuffer = new MoveBuffer();
+        TreeSet<Integer> moves = new TreeSet<>();
+        int moveCount = chessBoard.generateMoves(moveBuffer);
+        for (int index = 0; index < moveCount; index++){
+            moves.add(moveBuffer.get(index));
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,125 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.ChessPiece;
+import chess.model.pgn.PgnError;
+import chess.model.pgn.PgnReport;
+import chess.model.pgn.PgnValidator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PgnValidatorTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void errorsTest() throws IOException{
+        String pgn = "[Event \"Legal\"]\n"
+                + "1. e4 e5 2. Nf3 Nc6 3. Bc4 Nf6 4. Ng5 d5 5. exd5 Nxd5 6. Nxf7 Kxf7 7. Qf3+ Ke6 1-0\n\n"
+                + "[Event \"Illegal\"]\n"
+                + "1. e4 e5 2. Ke3 Nc6 *\n\n"
+                + "[Event \"Ambiguous\"]\n"
+                + "[FEN \"4k3/8/8/8/8/4K3/8/R6R w - - 0 1\"]\n"
+                + "1. Rd1 *\n\n"
+                + "[Event \"Castling\"]\n"
+                + "1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O 0-1\n\n"
+                + "[Event \"Invalid FEN\"]\n"
+                + "[FEN \"4k3/8/7 w\"]\n"
+                + "1. Kd1 *\n";
+        Path path = write(pgn);
+
+        PgnReport pgnReport = new PgnValidator(2).validate(path);
+        assertEquals(5, pgnReport.getGameCount());
+        assertEquals(4, pgnReport.getInvalidGameCount());
+        assertEquals(14 + 2 + 6, pgnReport.getMoveCount());
+        assertEquals(4, pgnReport.getErrors().size());
+
+        PgnError error = pgnReport.getErrors().get(0);
+        assertEquals(2, error.getGameNumber());
+        assertEquals("Ke3", error.getSan());
+        assertEquals(pgn.indexOf("Ke3"), error.getOffset());
+        assertEquals(PgnError.Reason.ILLEGAL, error.getReason());
+
+        error = pgnReport.getErrors().get(1);
+        assertEquals(3, error.getGameNumber());
+        assertEquals(pgn.indexOf("Rd1"), error.getOffset());
+        assertEquals(PgnError.Reason.AMBIGUOUS, error.getReason());
+
+        error = pgnReport.getErrors().get(2);
+        assertEquals(pgn.indexOf("O-O"), error.getOffset());
+        assertEquals(PgnError.Reason.UNSUPPORTED, error.getReason());
+
+        error = pgnReport.getErrors().get(3);
+        assertEquals(5, error.getGameNumber());
+        assertEquals(pgn.indexOf("[Event \"Invalid FEN"), error.getOffset());
+        assertEquals(PgnError.Reason.INVALID_FEN, error.getReason());
+        assertNull(error.getSan());
+
+        PgnValidator pgnValidator = new PgnValidator(1);
+        pgnValidator.setMaxErrors(1);
+        pgnReport = pgnValidator.validate(path);
+        assertEquals(4, pgnReport.getInvalidGameCount());
+        assertEquals(1, pgnReport.getErrors().size());
+        assertEquals("Ke3", pgnReport.getErrors().get(0).getSan());
+    }
+
+    @Test
+    public void randomGamesTest() throws IOException{
+        StringBuilder pgn = new StringBuilder();
+        Random random = new Random(1);
+        MoveBuffer moveBuffer = new MoveBuffer();
+        long moveCount = 0;
+        for (int game = 0; game < 40; game++){
+            ChessBoard chessBoard = new ChessBoard(0);
+            pgn.append("[Event \"Game ").append(game).append("\"]\n\n");
+            for (int ply = 0; ply < 40; ply++){
+                int count = chessBoard.generateMoves(moveBuffer);
+                if (count == 0){
+                    break;
+                }
+                int move = moveBuffer.get(random.nextInt(count));
+                int from = MoveBuffer.getFrom(move);
+                int to = MoveBuffer.getTo(move);
+                if (ply % 2 == 0){
+                    pgn.append(ply / 2 + 1).append(". ");
+                }
+                //Written with the file and rank of the ChessPiece, which is never ambiguous
+                ChessPiece.ChessPieceType chessPieceType = chessBoard.getChessPiece(from / 8, from % 8).getChessPieceType();
+                if (chessPieceType != ChessPiece.ChessPieceType.PAWN){
+                    pgn.append("PRNBQKYT".charAt(chessPieceType.ordinal()));
+                }
+                pgn.append((char) ('a' + from % 8)).append(from / 8 + 1).append(MoveBuffer.isCapture(move) ? "x" : "")
+                        .append((char) ('a' + to % 8)).append(to / 8 + 1).append(' ');
+                assertTrue(chessBoard.moveChessPiece(move));
+                moveCount++;
+            }
+            pgn.append("*\n\n");
+        }
+        Path path = write(pgn.toString());
+
+        for (int workerCount = 1; workerCount <= 3; workerCount++){
+            PgnValidator pgnValidator = new PgnValidator(workerCount);
+            pgnValidator.setBatchSize(3);
+            pgnValidator.setBufferSize(100);
+            PgnReport pgnReport = pgnValidator.validate(path);
+            assertEquals(40, pgnReport.getGameCount());
+            assertEquals(moveCount, pgnReport.getMoveCount());
+            assertEquals(0, pgnReport.getInvalidGameCount());
+            assertTrue(pgnReport.getMovesPerSecond() > 0);
+        }
+    }
+
+    private Path write(String pgn) throws IOException{
+        Path path = temporaryFolder.getRoot().toPath().resolve("games.pgn");
+        Files.write(path, pgn.getBytes(StandardCharsets.ISO_8859_1));
+        return path;
+    }
+}
@@ -0,0 +1,70 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class SparseChessBoardTest {
+
+    @Test
+    public void sameAsDenseTest(){
+        int moveCount = 0;
+        for (int game = 0; game < 20; game++){
+            Random random = new Random(game);
+            ChessBoard denseChessBoard = new ChessBoard(16, 16, false);
+            ChessBoard sparseChessBoard = new ChessBoard(16, 16, true);
+            denseChessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+            sparseChessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+            ChessBoardFixtures.setUpRandomPosition(random, 24, denseChessBoard, sparseChessBoard);
+            MoveBuffer denseMoveBuffer = new MoveBuffer();
+            MoveBuffer sparseMoveBuffer = new MoveBuffer();
+            for (int ply = 0; ply < 60; ply++){
+                TreeSet<Integer> denseMoves = ChessBoardFixtures.getGeneratedMoves(denseChessBoard, denseMoveBuffer);
+                assertEquals(denseMoves, ChessBoardFixtures.getGeneratedMoves(sparseChessBoard, sparseMoveBuffer));
+                assertEquals(denseChessBoard.isCheck(), sparseChessBoard.isCheck());
+                if (denseMoves.isEmpty()){
+                    break;
+                }
+                if (random.nextInt(10) == 0){
+                    assertEquals(denseChessBoard.undoMovement(), sparseChessBoard.undoMovement());
+                } else {
+                    int move = ChessBoardFixtures.getRandomMove(denseChessBoard, random);
+                    assertTrue(denseChessBoard.moveChessPiece(move));
+                    assertTrue(sparseChessBoard.moveChessPiece(move));
+                    moveCount++;
+                }
+            }
+        }
+        assertTrue(moveCount > 200);
+    }
+
+    @Test
+    public void largeChessBoardTest(){
+        ChessBoard chessBoard = new ChessBoard(4096, 4096);
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        assertFalse(chessBoard.tracksMovableCellsDependencies());
+        chessBoard.setTracksMovableCellsDependencies(true);
+        assertFalse(chessBoard.tracksMovableCellsDependencies());
+
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 2000, 2000, false);
+        chessBoard.setChessPiece(new Pawn(ChessPiece.ChessPieceColor.BLACK), 2000, 3000, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 4095, 4095);
+        assertNull(chessBoard.getChessPiece(1234, 1234));
+
+        //The Rook slides over every empty ChessCell of its file and stops at the Pawn on its rank
+        assertEquals(4095 + 2000 + 1000, chessBoard.getChessCell(2000, 2000).getMovableCells().size());
+        assertTrue(chessBoard.canMove(chessBoard.getChessCell(2000, 2000)));
+        assertTrue(chessBoard.moveChessPiece(2000, 2000, 2000, 3000));
+        assertFalse(chessBoard.moveChessPiece(4095, 4095, 4093, 4095));
+        assertTrue(chessBoard.moveChessPiece(4095, 4095, 4094, 4095));
+        assertSame(Rook.class, chessBoard.getChessPiece(2000, 3000).getClass());
+        assertTrue(chessBoard.undoMovement());
+        assertTrue(chessBoard.undoMovement());
+        assertSame(Pawn.class, chessBoard.getChessPiece(2000, 3000).getClass());
+    }
+}
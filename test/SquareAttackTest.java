@@ -0,0 +1,84 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessPiece.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SquareAttackTest {
+    static ChessBoard chessBoard;
+
+    @Before
+    public void setUp(){
+        chessBoard = new ChessBoard(1);
+    }
+
+    @Test
+    public void blockedLineTest(){
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 0, 7, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 4);
+
+        assertTrue(chessBoard.isSquareAttacked(0, 3, ChessPiece.ChessPieceColor.WHITE));
+        assertTrue(chessBoard.isSquareAttacked(5, 7, ChessPiece.ChessPieceColor.WHITE));
+        assertFalse(chessBoard.isSquareAttacked(0, 3, ChessPiece.ChessPieceColor.BLACK));
+
+        //The Bishop blocks the rank but is attacked itself
+        chessBoard.setChessPiece(new Bishop(ChessPiece.ChessPieceColor.BLACK), 0, 5);
+        assertFalse(chessBoard.isSquareAttacked(0, 3, ChessPiece.ChessPieceColor.WHITE));
+        assertTrue(chessBoard.isSquareAttacked(0, 5, ChessPiece.ChessPieceColor.WHITE));
+        assertTrue(chessBoard.isSquareAttacked(3, 2, ChessPiece.ChessPieceColor.BLACK));
+    }
+
+    @Test
+    public void knightAndPawnTest(){
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Pawn(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 4, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+
+        //A Pawn only captures diagonally forward
+        assertTrue(chessBoard.isSquareAttacked(4, 2, ChessPiece.ChessPieceColor.WHITE));
+        assertTrue(chessBoard.isSquareAttacked(4, 4, ChessPiece.ChessPieceColor.WHITE));
+        assertFalse(chessBoard.isSquareAttacked(4, 3, ChessPiece.ChessPieceColor.WHITE));
+        assertFalse(chessBoard.isSquareAttacked(2, 2, ChessPiece.ChessPieceColor.WHITE));
+
+        //A Knight jumps over the Pawn
+        assertTrue(chessBoard.isSquareAttacked(2, 3, ChessPiece.ChessPieceColor.BLACK));
+        assertTrue(chessBoard.isSquareAttacked(6, 5, ChessPiece.ChessPieceColor.BLACK));
+        assertFalse(chessBoard.isSquareAttacked(2, 4, ChessPiece.ChessPieceColor.BLACK));
+    }
+
+    @Test
+    public void kirbyAbsorbedMovesTest(){
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 2, 2, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 3, 3, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+        assertFalse(chessBoard.isSquareAttacked(5, 4, ChessPiece.ChessPieceColor.WHITE));
+
+        //After absorbing the Knight, the Kirby attacks like one
+        assertTrue(chessBoard.moveChessPiece(2, 2, 3, 3));
+        assertTrue(chessBoard.isSquareAttacked(5, 4, ChessPiece.ChessPieceColor.WHITE));
+        assertTrue(chessBoard.isSquareAttacked(4, 4, ChessPiece.ChessPieceColor.WHITE));
+    }
+
+    @Test
+    public void checkFromKingSquareTest(){
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 4, false);
+        chessBoard.setChessPiece(new Queen(ChessPiece.ChessPieceColor.BLACK), 4, 0);
+        assertTrue(chessBoard.isSquareAttacked(0, 4, ChessPiece.ChessPieceColor.BLACK));
+        assertTrue(chessBoard.isCheck());
+
+        //Moving the King along the Queen's diagonal is not allowed
+        assertFalse(chessBoard.moveChessPiece(0, 4, 1, 3));
+        assertTrue(chessBoard.moveChessPiece(0, 4, 0, 5));
+        assertFalse(chessBoard.isSquareAttacked(0, 5, ChessPiece.ChessPieceColor.BLACK));
+    }
+
+    @Test
+    public void outOfBoundsTest(){
+        assertFalse(chessBoard.isSquareAttacked(8, 0, ChessPiece.ChessPieceColor.WHITE));
+        assertFalse(chessBoard.isSquareAttacked(0, -1, ChessPiece.ChessPieceColor.BLACK));
+    }
+}
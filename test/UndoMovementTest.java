@@ -0,0 +1,97 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessPiece.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UndoMovementTest {
+    static ChessBoard chessBoard;
+
+    @Before
+    public void setUp(){
+        chessBoard = new ChessBoard(1);
+        chessBoard.setVerifiesZobristKey(true);
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+    }
+
+    @Test
+    public void tankHitTest(){
+        Rook whiteRook = new Rook(ChessPiece.ChessPieceColor.WHITE);
+        Tank blackTank = new Tank(ChessPiece.ChessPieceColor.BLACK);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(whiteRook, 2, 1, false);
+        chessBoard.setChessPiece(blackTank, 2, 6, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+        long zobristKey = chessBoard.getZobristKey();
+        int hitPoint = blackTank.getHitPoint();
+
+        //White rook hits black tank and stops next to it
+        assertTrue(chessBoard.moveChessPiece(2, 1, 2, 6));
+        assertSame(whiteRook, chessBoard.getChessPiece(2, 5));
+        assertEquals(hitPoint - 1, blackTank.getHitPoint());
+        long hitZobristKey = chessBoard.getZobristKey();
+
+        //Undoing takes the hit back instead of an earlier movement
+        assertTrue(chessBoard.undoMovement());
+        assertSame(whiteRook, chessBoard.getChessPiece(2, 1));
+        assertNull(chessBoard.getChessPiece(2, 5));
+        assertEquals(hitPoint, blackTank.getHitPoint());
+        assertEquals(ChessPiece.ChessPieceColor.WHITE, chessBoard.getCurrentTurnsColor());
+        assertEquals(zobristKey, chessBoard.getZobristKey());
+        assertFalse(chessBoard.undoMovement());
+
+        assertTrue(chessBoard.redoMovement());
+        assertSame(whiteRook, chessBoard.getChessPiece(2, 5));
+        assertEquals(hitPoint - 1, blackTank.getHitPoint());
+        assertEquals(hitZobristKey, chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void kirbyCaptureTest(){
+        Kirby whiteAbsorber = new Kirby(ChessPiece.ChessPieceColor.WHITE);
+        Bishop blackBishop = new Bishop(ChessPiece.ChessPieceColor.BLACK);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(whiteAbsorber, 2, 7, false);
+        chessBoard.setChessPiece(blackBishop, 3, 7, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 0);
+        long zobristKey = chessBoard.getZobristKey();
+        int moveVectorCount = whiteAbsorber.getMoveVectorSet().size();
+
+        //White kirby captures black bishop and moves like a bishop from then on
+        assertTrue(chessBoard.moveChessPiece(2, 7, 3, 7));
+        assertTrue(whiteAbsorber.getMoveVectorSet().size() > moveVectorCount);
+        long captureZobristKey = chessBoard.getZobristKey();
+
+        assertTrue(chessBoard.undoMovement());
+        assertSame(blackBishop, chessBoard.getChessPiece(3, 7));
+        assertEquals(moveVectorCount, whiteAbsorber.getMoveVectorSet().size());
+        for (MoveVector moveVector : blackBishop.getMoveVectorSet()){
+            assertFalse(moveVector.canCaptureOwnPiece());
+        }
+        assertEquals(zobristKey, chessBoard.getZobristKey());
+        //The absorbed bishop move is gone again
+        assertFalse(chessBoard.moveChessPiece(2, 7, 0, 5));
+
+        assertTrue(chessBoard.moveChessPiece(2, 7, 3, 7));
+        assertEquals(captureZobristKey, chessBoard.getZobristKey());
+        assertTrue(chessBoard.undoMovement());
+        assertTrue(chessBoard.redoMovement());
+        assertEquals(captureZobristKey, chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void checkTest(){
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 1, 4, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+
+        //White rook checks black king
+        assertTrue(chessBoard.moveChessPiece(1, 4, 1, 7));
+        assertTrue(chessBoard.isCheck());
+        assertTrue(chessBoard.undoMovement());
+        assertFalse(chessBoard.isCheck());
+        assertTrue(chessBoard.redoMovement());
+        assertTrue(chessBoard.isCheck());
+    }
+}
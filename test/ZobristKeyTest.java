@@ -0,0 +1,124 @@
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.MoveBuffer;
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZobristKeyTest {
+
+    @Test
+    public void transpositionTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        ChessBoard otherChessBoard = new ChessBoard(0);
+        long initialKey = chessBoard.getZobristKey();
+        assertEquals(initialKey, otherChessBoard.getZobristKey());
+
+        //Knights moving out and back give the starting position again
+        assertTrue(chessBoard.moveChessPiece(0, 6, 2, 5));
+        assertNotEquals(initialKey, chessBoard.getZobristKey());
+        assertTrue(chessBoard.moveChessPiece(7, 6, 5, 5));
+        assertTrue(chessBoard.moveChessPiece(2, 5, 0, 6));
+        assertTrue(chessBoard.moveChessPiece(5, 5, 7, 6));
+        assertEquals(initialKey, chessBoard.getZobristKey());
+
+        //The same position reached in another order has the same key
+        assertTrue(chessBoard.moveChessPiece(1, 4, 3, 4));
+        assertTrue(chessBoard.moveChessPiece(6, 4, 4, 4));
+        assertTrue(chessBoard.moveChessPiece(0, 1, 2, 2));
+        assertTrue(otherChessBoard.moveChessPiece(0, 1, 2, 2));
+        assertTrue(otherChessBoard.moveChessPiece(6, 4, 4, 4));
+        assertTrue(otherChessBoard.moveChessPiece(1, 4, 3, 4));
+        assertEquals(chessBoard.getZobristKey(), otherChessBoard.getZobristKey());
+    }
+
+    @Test
+    public void sideToMoveTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        long whiteKey = chessBoard.getZobristKey();
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.BLACK);
+        assertNotEquals(whiteKey, chessBoard.getZobristKey());
+        chessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.WHITE);
+        assertEquals(whiteKey, chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void pawnInitialMoveTest(){
+        ChessBoard chessBoard = createKingsOnlyChessBoard();
+        chessBoard.setChessPiece(new Pawn(ChessPiece.ChessPieceColor.WHITE), 2, 3);
+        long initialMoveKey = chessBoard.getZobristKey();
+
+        Pawn pawn = new Pawn(ChessPiece.ChessPieceColor.WHITE);
+        pawn.setInitialMove(false);
+        chessBoard.setChessPiece(pawn, 2, 3);
+        assertNotEquals(initialMoveKey, chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void tankHitPointTest(){
+        ChessBoard chessBoard = createKingsOnlyChessBoard();
+        chessBoard.setChessPiece(new Rook(ChessPiece.ChessPieceColor.WHITE), 3, 0, false);
+        chessBoard.setChessPiece(new Tank(ChessPiece.ChessPieceColor.BLACK), 3, 5);
+        long fullHitPointKey = chessBoard.getZobristKey();
+
+        //The Rook bounces back next to the Tank; moving it back leaves only the hit point changed
+        assertTrue(chessBoard.moveChessPiece(3, 0, 3, 5));
+        assertTrue(chessBoard.moveChessPiece(7, 7, 7, 6));
+        assertTrue(chessBoard.moveChessPiece(3, 4, 3, 0));
+        assertTrue(chessBoard.moveChessPiece(7, 6, 7, 7));
+        assertEquals(2, ((Tank) chessBoard.getChessPiece(3, 5)).getHitPoint());
+        assertNotEquals(fullHitPointKey, chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void kirbyAbsorbedMoveVectorsTest(){
+        ChessBoard chessBoard = createKingsOnlyChessBoard();
+        chessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 3, 3, false);
+        chessBoard.setChessPiece(new Knight(ChessPiece.ChessPieceColor.BLACK), 4, 4);
+        ChessBoard plainChessBoard = createKingsOnlyChessBoard();
+        plainChessBoard.setChessPiece(new Kirby(ChessPiece.ChessPieceColor.WHITE), 4, 4);
+        plainChessBoard.setCurrentTurnsColor(ChessPiece.ChessPieceColor.BLACK);
+
+        //A Kirby that absorbed a Knight differs from one that did not
+        assertTrue(chessBoard.moveChessPiece(3, 3, 4, 4));
+        assertNotEquals(plainChessBoard.getZobristKey(), chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void verifiedRandomGamesTest(){
+        MoveBuffer moveBuffer = new MoveBuffer();
+        for (int game = 0; game < 20; game++){
+            Random random = new Random(game);
+            ChessBoard chessBoard = new ChessBoard(game % 2 == 0 ? 0 : 2);
+            chessBoard.setVerifiesZobristKey(true);
+            for (int ply = 0; ply < 80; ply++){
+                int moveCount = chessBoard.generateMoves(moveBuffer);
+                if (moveCount == 0){
+                    break;
+                }
+                int action = random.nextInt(10);
+                if (action == 0){
+                    long zobristKey = chessBoard.getZobristKey();
+                    if (chessBoard.undoMovement()){
+                        assertTrue(chessBoard.redoMovement());
+                    }
+                    assertEquals(zobristKey, chessBoard.getZobristKey());
+                } else if (action == 1){
+                    chessBoard.undoMovement();
+                } else {
+                    assertTrue(chessBoard.moveChessPiece(moveBuffer.get(random.nextInt(moveCount))));
+                }
+            }
+        }
+    }
+
+    private ChessBoard createKingsOnlyChessBoard(){
+        ChessBoard chessBoard = new ChessBoard(1);
+        chessBoard.setVerifiesZobristKey(true);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.WHITE), 0, 0, false);
+        chessBoard.setChessPiece(new King(ChessPiece.ChessPieceColor.BLACK), 7, 7);
+        return chessBoard;
+    }
+}
@@ -0,0 +1,214 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class BitBoardTest {
+
+    @Test
+    public void betweenMasksTest(){
+        int[][] sizes = {{8, 8}, {5, 7}, {3, 3}};
+        for (int[] size : sizes){
+            BitBoard bitBoard = new BitBoard(size[0], size[1]);
+            int squareCount = size[0] * size[1];
+            ChessPiece blocker = new Rook(ChessPiece.ChessPieceColor.WHITE);
+            for (int blockerSquare = 0; blockerSquare < squareCount; blockerSquare++){
+                bitBoard.setChessPiece(blockerSquare, null, blocker);
+                for (int from = 0; from < squareCount; from++){
+                    for (int to = 0; to < squareCount; to++){
+                        assertEquals(isBetween(blockerSquare, from, to, size[1]),
+                                bitBoard.obstacleExists(from, to, -1));
+                        //The blocker does not count once its ChessCell is emptied
+                        assertFalse(bitBoard.obstacleExists(from, to, blockerSquare));
+                    }
+                }
+                bitBoard.setChessPiece(blockerSquare, blocker, null);
+            }
+        }
+    }
+
+    @Test
+    public void occupancyTest(){
+        BitBoard bitBoard = new BitBoard(8, 8);
+        ChessPiece whiteRook = new Rook(ChessPiece.ChessPieceColor.WHITE);
+        ChessPiece blackKnight = new Knight(ChessPiece.ChessPieceColor.BLACK);
+        bitBoard.setChessPiece(0, null, whiteRook);
+        bitBoard.setChessPiece(63, null, blackKnight);
+        assertEquals(1L, bitBoard.getPieces(ChessPiece.ChessPieceColor.WHITE, ChessPiece.ChessPieceType.ROOK));
+        assertEquals(1L << 63, bitBoard.getPieces(ChessPiece.ChessPieceColor.BLACK, ChessPiece.ChessPieceType.KNIGHT));
+        assertEquals(1L | 1L << 63, bitBoard.getOccupied());
+
+        //White rook captures black knight
+        bitBoard.setChessPiece(0, whiteRook, null);
+        bitBoard.setChessPiece(63, blackKnight, whiteRook);
+        assertEquals(1L << 63, bitBoard.getPieces(ChessPiece.ChessPieceColor.WHITE, ChessPiece.ChessPieceType.ROOK));
+        assertEquals(0L, bitBoard.getPieces(ChessPiece.ChessPieceColor.BLACK, ChessPiece.ChessPieceType.KNIGHT));
+        assertEquals(1L << 63, bitBoard.getPieces(ChessPiece.ChessPieceColor.WHITE));
+        assertEquals(0L, bitBoard.getPieces(ChessPiece.ChessPieceColor.BLACK));
+        assertEquals(1L << 63, bitBoard.getOccupied());
+        assertTrue(BitBoard.supports(8, 8));
+        assertFalse(BitBoard.supports(9, 8));
+    }
+
+    @Test
+    public void checkScanTest(){
+        for (int game = 0; game < 10; game++){
+            ChessBoard chessBoard = new ChessBoard(game % 2 == 0 ? 0 : 2);
+            Random random = new Random(game);
+            for (int ply = 0; ply < 40; ply++){
+                List<int[]> movements = getMovements(chessBoard);
+                if (movements.isEmpty()){
+                    break;
+                }
+                int[] movement = movements.get(random.nextInt(movements.size()));
+                assertTrue(chessBoard.moveChessPiece(movement[0] / 8, movement[0] % 8, movement[1] / 8,
+                        movement[1] % 8));
+
+                //The same position on a 9x9 ChessBoard, which walks the ChessCells instead of using a BitBoard
+                ChessBoard largerChessBoard = copyPosition(chessBoard, 9, 9);
+                assertEquals(chessBoard.isCheck(), largerChessBoard.isCheck());
+                for (int square : getOccupiedSquares(chessBoard)){
+                    int rank = square / 8;
+                    int file = square % 8;
+                    assertEquals(getMovableSquares(chessBoard, rank, file),
+                            getMovableSquares(largerChessBoard, rank, file));
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks from one ChessCell to another along their common line, looking for a third one.
+     */
+    private boolean isBetween(int square, int from, int to, int fileSize){
+        int rankDifference = to / fileSize - from / fileSize;
+        int fileDifference = to % fileSize - from % fileSize;
+        if (from == to || (rankDifference != 0 && fileDifference != 0
+                && Math.abs(rankDifference) != Math.abs(fileDifference))){
+            return false;
+        }
+        int step = Integer.signum(rankDifference) * fileSize + Integer.signum(fileDifference);
+        for (int between = from + step; between != to; between += step){
+            if (between == square){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Movements of the current turn on an 8x8 ChessBoard, as pairs of ChessCell indices.
+     */
+    private List<int[]> getMovements(ChessBoard chessBoard){
+        Map<ChessCell, Integer> squares = getSquares(chessBoard);
+        List<int[]> movements = new ArrayList<>();
+        for (int square : getOccupiedSquares(chessBoard)){
+            ChessCell chessCell = chessBoard.getChessCell(square / 8, square % 8);
+            if (chessCell.getChessPiece().getChessPieceColor() != chessBoard.getCurrentTurnsColor()){
+                continue;
+            }
+            for (ChessCell movableCell : chessCell.getMovableCells()){
+                movements.add(new int[]{square, squares.get(movableCell)});
+            }
+        }
+        //The movableCells are kept in no particular order
+        movements.sort((first, second) -> first[0] != second[0] ? first[0] - second[0] : first[1] - second[1]);
+        return movements;
+    }
+
+    private List<Integer> getOccupiedSquares(ChessBoard chessBoard){
+        List<Integer> occupiedSquares = new ArrayList<>();
+        for (int square = 0; square < chessBoard.getRankSize() * chessBoard.getFileSize(); square++){
+            if (chessBoard.getChessPiece(square / chessBoard.getFileSize(), square % chessBoard.getFileSize()) != null){
+                occupiedSquares.add(square);
+            }
+        }
+        return occupiedSquares;
+    }
+
+    private Map<ChessCell, Integer> getSquares(ChessBoard chessBoard){
+        Map<ChessCell, Integer> squares = new IdentityHashMap<>();
+        for (int square = 0; square < chessBoard.getRankSize() * chessBoard.getFileSize(); square++){
+            squares.put(chessBoard.getChessCell(square / chessBoard.getFileSize(), square % chessBoard.getFileSize()),
+                    square);
+        }
+        return squares;
+    }
+
+    private ChessBoard copyPosition(ChessBoard chessBoard, int rankSize, int fileSize){
+        ChessBoard copiedChessBoard = new ChessBoard(rankSize, fileSize);
+        copiedChessBoard.setCurrentTurnsColor(chessBoard.getCurrentTurnsColor());
+        List<Integer> occupiedSquares = getOccupiedSquares(chessBoard);
+        for (int square : occupiedSquares){
+            copiedChessBoard.setChessPiece(copy(chessBoard.getChessPiece(square / 8, square % 8)), square / 8,
+                    square % 8, false);
+        }
+        //Setting the last ChessPiece again updates the movableCells once
+        int lastSquare = occupiedSquares.get(occupiedSquares.size() - 1);
+        copiedChessBoard.setChessPiece(copiedChessBoard.getChessPiece(lastSquare / 8, lastSquare % 8), lastSquare / 8,
+                lastSquare % 8);
+        return copiedChessBoard;
+    }
+
+    private ChessPiece copy(ChessPiece chessPiece){
+        ChessPiece.ChessPieceColor color = chessPiece.getChessPieceColor();
+        ChessPiece copiedChessPiece;
+        switch (chessPiece.getChessPieceType()){
+            case PAWN:
+                copiedChessPiece = new Pawn(color);
+                break;
+            case ROOK:
+                copiedChessPiece = new Rook(color);
+                break;
+            case KNIGHT:
+                copiedChessPiece = new Knight(color);
+                break;
+            case BISHOP:
+                copiedChessPiece = new Bishop(color);
+                break;
+            case QUEEN:
+                copiedChessPiece = new Queen(color);
+                break;
+            case KING:
+                copiedChessPiece = new King(color);
+                break;
+            case KIRBY:
+                copiedChessPiece = new Kirby(color);
+                break;
+            default:
+                copiedChessPiece = new Tank(color);
+                while (((Tank) copiedChessPiece).getHitPoint() > ((Tank) chessPiece).getHitPoint()){
+                    ((Tank) copiedChessPiece).hit();
+                }
+        }
+        copiedChessPiece.setMoveVectorSet(new HashSet<>(chessPiece.getMoveVectorSet()));
+        copiedChessPiece.setInitialMove(chessPiece.isInitialMove());
+        copiedChessPiece.setHasInitialMove(chessPiece.hasInitialMove());
+        return copiedChessPiece;
+    }
+
+    /**
+     * Movable ChessCells of a ChessPiece as 8x8 indices, leaving out the ones outside the 8x8 corner.
+     */
+    private TreeSet<Integer> getMovableSquares(ChessBoard chessBoard, int rank, int file){
+        Map<ChessCell, Integer> squares = getSquares(chessBoard);
+        TreeSet<Integer> movableSquares = new TreeSet<>();
+        for (ChessCell chessCell : chessBoard.getChessCell(rank, file).getMovableCells()){
+            int square = squares.get(chessCell);
+            if (square / chessBoard.getFileSize() < 8 && square % chessBoard.getFileSize() < 8){
+                movableSquares.add(square / chessBoard.getFileSize() * 8 + square % chessBoard.getFileSize());
+            }
+        }
+        return movableSquares;
+    }
+}
@@ -0,0 +1,43 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.Queen;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void leastRecentlyUsedTest(){
+        BoundedCache<String> boundedCache = new BoundedCache<>(2);
+        String first = boundedCache.get("first", String::new);
+        String second = boundedCache.get("second", String::new);
+        assertSame(first, boundedCache.get("first", String::new));
+
+        //The second value was used least recently, so it is the one dropped
+        boundedCache.get("third", String::new);
+        assertEquals(2, boundedCache.size());
+        assertSame(first, boundedCache.get("first", String::new));
+        String rebuiltSecond = boundedCache.get("second", String::new);
+        assertNotSame(second, rebuiltSecond);
+        assertEquals(second, rebuiltSecond);
+        assertEquals(2, boundedCache.size());
+    }
+
+    @Test
+    public void moveTablesTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        long perft = chessBoard.perft(3);
+        //Tables of many ChessBoard sizes push out the ones of the 8 x 8 ChessBoard, which are built again
+        for (int size = 3; size < 300; size++){
+            new ChessBoard(size, 2).setChessPiece(new Queen(ChessPiece.ChessPieceColor.WHITE), 0, 0);
+        }
+        assertEquals(perft, new ChessBoard(0).perft(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxSizeTest(){
+        new BoundedCache<String>(0);
+    }
+}
@@ -0,0 +1,65 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LineIndexTest {
+
+    @Test
+    public void firstOccupiedSquareTest(){
+        Random random = new Random(5);
+        for (int rankSize = 1; rankSize <= 16; rankSize += 3){
+            for (int fileSize = 1; fileSize <= 16; fileSize += 2){
+                checkAgainstWalk(rankSize, fileSize, false, random);
+                checkAgainstWalk(rankSize, fileSize, true, random);
+            }
+        }
+    }
+
+    @Test
+    public void multipleWordBitSetsTest(){
+        Random random = new Random(7);
+        checkAgainstWalk(70, 130, true, random);
+        checkAgainstWalk(129, 64, true, random);
+        checkAgainstWalk(130, 70, false, random);
+    }
+
+    private void checkAgainstWalk(int rankSize, int fileSize, boolean usesBitSets, Random random){
+        LineIndex lineIndex = new LineIndex(rankSize, fileSize, usesBitSets);
+        boolean[] occupied = new boolean[rankSize * fileSize];
+        for (int change = 0; change < occupied.length * 2; change++){
+            int changedSquare = random.nextInt(occupied.length);
+            occupied[changedSquare] = !occupied[changedSquare];
+            if (occupied[changedSquare]){
+                lineIndex.add(changedSquare);
+            } else {
+                lineIndex.remove(changedSquare);
+            }
+        }
+        for (int square = 0; square < occupied.length; square++){
+            int emptiedSquare = random.nextInt(occupied.length + 1) - 1;
+            for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+                for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                    if (rankDirection == 0 && fileDirection == 0){
+                        continue;
+                    }
+                    int expected = -1;
+                    int rank = square / fileSize + rankDirection;
+                    int file = square % fileSize + fileDirection;
+                    while (rank >= 0 && rank < rankSize && file >= 0 && file < fileSize){
+                        if (occupied[rank * fileSize + file] && rank * fileSize + file != emptiedSquare){
+                            expected = rank * fileSize + file;
+                            break;
+                        }
+                        rank += rankDirection;
+                        file += fileDirection;
+                    }
+                    assertEquals(expected, lineIndex.getFirstOccupiedSquare(square, rankDirection, fileDirection, emptiedSquare));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+import chess.model.chessPiece.Pawn;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MailboxTest {
+
+    @Test
+    public void firstOccupiedSquareTest(){
+        Random random = new Random(3);
+        for (int rankSize = 1; rankSize <= 16; rankSize++){
+            for (int fileSize = 1; fileSize <= 16; fileSize += 3){
+                checkAgainstBoundsCheckedWalk(rankSize, fileSize, random);
+            }
+        }
+    }
+
+    @Test
+    public void sentinelTest(){
+        Mailbox mailbox = new Mailbox(3, 5);
+        for (int rankDirection = -Mailbox.PADDING; rankDirection <= Mailbox.PADDING; rankDirection++){
+            for (int fileDirection = -Mailbox.PADDING; fileDirection <= Mailbox.PADDING; fileDirection++){
+                for (int square = 0; square < 15; square++){
+                    int rank = square / 5 + rankDirection;
+                    int file = square % 5 + fileDirection;
+                    boolean isOnBoard = rank >= 0 && rank < 3 && file >= 0 && file < 5;
+                    int mailboxIndex = mailbox.getMailboxIndex(square) + mailbox.getStep(rankDirection, fileDirection);
+                    assertEquals(isOnBoard ? rank * 5 + file : Mailbox.OFF_BOARD, mailbox.getSquare(mailboxIndex));
+                }
+            }
+        }
+    }
+
+    private void checkAgainstBoundsCheckedWalk(int rankSize, int fileSize, Random random){
+        Mailbox mailbox = new Mailbox(rankSize, fileSize);
+        boolean[] occupied = new boolean[rankSize * fileSize];
+        for (int square = 0; square < occupied.length; square++){
+            if (random.nextInt(4) == 0){
+                occupied[square] = true;
+                mailbox.setChessPiece(square, new Pawn(ChessPiece.ChessPieceColor.WHITE));
+            }
+        }
+        for (int square = 0; square < occupied.length; square++){
+            int emptiedSquare = random.nextInt(occupied.length + 1) - 1;
+            for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+                for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                    if (rankDirection == 0 && fileDirection == 0){
+                        continue;
+                    }
+                    int expected = -1;
+                    int rank = square / fileSize + rankDirection;
+                    int file = square % fileSize + fileDirection;
+                    while (rank >= 0 && rank < rankSize && file >= 0 && file < fileSize){
+                        if (occupied[rank * fileSize + file] && rank * fileSize + file != emptiedSquare){
+                            expected = rank * fileSize + file;
+                            break;
+                        }
+                        rank += rankDirection;
+                        file += fileDirection;
+                    }
+                    assertEquals(expected, mailbox.getFirstOccupiedSquare(square, rankDirection, fileDirection, emptiedSquare));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MovableCellSetTest {
+
+    @Test
+    public void bitSetTest(){
+        ChessCell[] chessCells = createChessCells(100);
+        checkSet(MovableCellSet.ofBitSet(new int[]{99, 0, 63, 64}, 100, square -> chessCells[square]), chessCells);
+    }
+
+    @Test
+    public void sortedSquaresTest(){
+        ChessCell[] chessCells = createChessCells(100);
+        checkSet(MovableCellSet.ofSortedSquares(new int[]{99, 0, 63, 64}, square -> chessCells[square]), chessCells);
+    }
+
+    @Test
+    public void duplicateSquaresTest(){
+        ChessCell[] chessCells = createChessCells(100);
+        int[] squares = {99, 0, 63, 0, 64, 99};
+        checkSet(MovableCellSet.ofBitSet(squares, 100, square -> chessCells[square]), chessCells);
+        checkSet(MovableCellSet.ofSortedSquares(squares, square -> chessCells[square]), chessCells);
+    }
+
+    @Test
+    public void emptyTest(){
+        ChessCell[] chessCells = createChessCells(64);
+        Set<ChessCell> movableCells = MovableCellSet.ofBitSet(new int[0], 64, square -> chessCells[square]);
+        assertTrue(movableCells.isEmpty());
+        assertFalse(movableCells.iterator().hasNext());
+        assertFalse(movableCells.contains(chessCells[0]));
+    }
+
+    private void checkSet(MovableCellSet movableCells, ChessCell[] chessCells){
+        assertEquals(4, movableCells.size());
+        Set<ChessCell> expected = new HashSet<>();
+        for (int square : new int[]{0, 63, 64, 99}){
+            expected.add(chessCells[square]);
+            assertTrue(movableCells.containsSquare(square));
+            assertTrue(movableCells.contains(chessCells[square]));
+        }
+        assertEquals(expected, movableCells);
+        assertEquals(expected, new HashSet<>(movableCells));
+        int iteratedCount = 0;
+        for (ChessCell chessCell : movableCells){
+            iteratedCount++;
+        }
+        assertEquals(4, iteratedCount);
+        assertFalse(movableCells.containsSquare(1));
+        assertFalse(movableCells.contains(chessCells[1]));
+
+        //ChessCells of another ChessBoard or of no ChessBoard are never contained
+        assertFalse(movableCells.contains(new ChessCell(null, 0)));
+        assertFalse(movableCells.contains(new ChessCell(null)));
+        assertFalse(movableCells.contains("a1"));
+    }
+
+    private ChessCell[] createChessCells(int squareCount){
+        ChessCell[] chessCells = new ChessCell[squareCount];
+        for (int square = 0; square < squareCount; square++){
+            chessCells[square] = new ChessCell(null, square);
+        }
+        return chessCells;
+    }
+}
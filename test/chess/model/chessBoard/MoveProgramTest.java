@@ -0,0 +1,76 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MoveProgramTest {
+
+    @Test
+    public void directionsMatchMoveTableTest(){
+        for (ChessPiece chessPiece : new ChessPiece[]{new Pawn(ChessPiece.ChessPieceColor.WHITE),
+                new Pawn(ChessPiece.ChessPieceColor.BLACK), new Knight(ChessPiece.ChessPieceColor.WHITE),
+                new Queen(ChessPiece.ChessPieceColor.BLACK), new Kirby(ChessPiece.ChessPieceColor.WHITE)}){
+            MoveVector[] moveVectors = getSortedMoveVectors(chessPiece);
+            MoveProgram moveProgram = MoveProgram.get(moveVectors);
+            MoveTable moveTable = MoveTable.get(moveVectors, 8, 8);
+            int[] program = moveProgram.getProgram();
+            assertEquals(moveTable.getDirectionCount(), moveProgram.getDirectionCount());
+            for (int direction = 0; direction < moveTable.getDirectionCount(); direction++){
+                int index = direction * MoveProgram.STRIDE;
+                MoveVector moveVector = moveVectors[moveTable.getVectorIndex(direction)];
+                assertEquals(moveTable.getRankDirection(direction), program[index + MoveProgram.RANK_DIRECTION]);
+                assertEquals(moveTable.getFileDirection(direction), program[index + MoveProgram.FILE_DIRECTION]);
+                assertEquals(moveVector.getDistance(), program[index + MoveProgram.DISTANCE]);
+                assertEquals(moveTable.isBlockable(direction),
+                        (program[index + MoveProgram.FLAGS] & MoveProgram.BLOCKABLE) != 0);
+                assertEquals(moveVector.canCapture(), (program[index + MoveProgram.FLAGS] & MoveProgram.CAN_CAPTURE) != 0);
+                assertEquals(moveVector.isInitialMove(),
+                        (program[index + MoveProgram.FLAGS] & MoveProgram.INITIAL_MOVE) != 0);
+            }
+        }
+    }
+
+    @Test
+    public void sharedPerKindAndColorTest(){
+        assertSame(MoveProgram.get(getSortedMoveVectors(new Pawn(ChessPiece.ChessPieceColor.WHITE))),
+                MoveProgram.get(getSortedMoveVectors(new Pawn(ChessPiece.ChessPieceColor.WHITE))));
+        assertNotSame(MoveProgram.get(getSortedMoveVectors(new Pawn(ChessPiece.ChessPieceColor.WHITE))),
+                MoveProgram.get(getSortedMoveVectors(new Pawn(ChessPiece.ChessPieceColor.BLACK))));
+    }
+
+    @Test
+    public void absorbedMoveVectorsTest(){
+        Knight knight = new Knight(ChessPiece.ChessPieceColor.WHITE);
+        MoveVector[] moveVectors = getSortedMoveVectors(knight);
+        MoveProgram moveProgram = MoveProgram.get(moveVectors);
+        assertTrue(moveProgram.matches(moveVectors));
+
+        //Absorbing the MoveVectors lets them capture own ChessPieces, also for the Knight
+        new Kirby(ChessPiece.ChessPieceColor.WHITE).updateMoveVectorSet(knight.getMoveVectorSet());
+        assertFalse(moveProgram.matches(moveVectors));
+        assertTrue(MoveProgram.get(moveVectors).matches(moveVectors));
+    }
+
+    @Test
+    public void droppedMoveProgramTest(){
+        MoveProgram moveProgram = MoveProgram.get(getSortedMoveVectors(new Queen(ChessPiece.ChessPieceColor.WHITE)));
+        //Enough other MoveVectors push the Queen's MoveProgram out, and it is compiled again the same
+        for (int distance = 1; distance <= 1100; distance++){
+            MoveProgram.get(new MoveVector[]{new MoveVector(1, 0, distance)});
+        }
+        MoveProgram compiledAgain = MoveProgram.get(getSortedMoveVectors(new Queen(ChessPiece.ChessPieceColor.WHITE)));
+        assertNotSame(moveProgram, compiledAgain);
+        assertArrayEquals(moveProgram.getProgram(), compiledAgain.getProgram());
+        assertEquals(moveProgram.getKey(), compiledAgain.getKey());
+    }
+
+    private MoveVector[] getSortedMoveVectors(ChessPiece chessPiece){
+        MoveVector[] moveVectors = chessPiece.getMoveVectorSet().toArray(new MoveVector[0]);
+        Arrays.sort(moveVectors, MoveTable.MOVE_VECTOR_ORDER);
+        return moveVectors;
+    }
+}
@@ -0,0 +1,134 @@
+package chess.model.chessBoard;
+
+import chess.model.chessPiece.ChessPiece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Microbenchmark comparing the magic bitboard lookup of SlidingAttacks with walking every ray square by square
+ * and re-walking it from the origin for each step, as processMoveVectorPerDirection and obstacleExists used to.
+ * Middlegame positions come from random games played from the default setup.
+ */
+public class SlidingAttacksBenchmark {
+    private static final int POSITIONS = 64;
+    private static final int PLIES = 20;
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS = 2000;
+
+    public static void main(String[] args){
+        SlidingAttacks slidingAttacks = SlidingAttacks.get(8, 8);
+        List<long[]> sliders = new ArrayList<>();
+        List<Long> occupancies = new ArrayList<>();
+        Random random = new Random(1);
+        for (int position = 0; position < POSITIONS; position++){
+            ChessBoard chessBoard = playRandomMiddlegame(random);
+            long occupied = 0L;
+            List<Integer> sliderSquares = new ArrayList<>();
+            for (int rank = 0; rank < 8; rank++){
+                for (int file = 0; file < 8; file++){
+                    ChessPiece chessPiece = chessBoard.getChessPiece(rank, file);
+                    if (chessPiece == null) continue;
+                    occupied |= 1L << (rank * 8 + file);
+                    ChessPiece.ChessPieceType type = chessPiece.getChessPieceType();
+                    if (type == ChessPiece.ChessPieceType.ROOK || type == ChessPiece.ChessPieceType.BISHOP
+                            || type == ChessPiece.ChessPieceType.QUEEN){
+                        sliderSquares.add(rank * 8 + file);
+                    }
+                }
+            }
+            long[] squares = new long[sliderSquares.size()];
+            for (int i = 0; i < squares.length; i++) squares[i] = sliderSquares.get(i);
+            sliders.add(squares);
+            occupancies.add(occupied);
+        }
+
+        for (int round = 0; round < ROUNDS; round++){
+            long sink = 0L;
+            long walkNanos = System.nanoTime();
+            for (int iteration = 0; iteration < ITERATIONS; iteration++){
+                for (int position = 0; position < POSITIONS; position++){
+                    long occupied = occupancies.get(position);
+                    for (long square : sliders.get(position)){
+                        sink += walkAllDirections((int) square, occupied);
+                    }
+                }
+            }
+            walkNanos = System.nanoTime() - walkNanos;
+
+            long tableNanos = System.nanoTime();
+            for (int iteration = 0; iteration < ITERATIONS; iteration++){
+                for (int position = 0; position < POSITIONS; position++){
+                    long occupied = occupancies.get(position);
+                    for (long square : sliders.get(position)){
+                        sink += slidingAttacks.orthogonalAttacks((int) square, occupied)
+                                | slidingAttacks.diagonalAttacks((int) square, occupied);
+                    }
+                }
+            }
+            tableNanos = System.nanoTime() - tableNanos;
+
+            long lookups = 0;
+            for (long[] squares : sliders) lookups += squares.length;
+            lookups *= ITERATIONS;
+            System.out.printf("round %d: ray walk %.1f ns/slider, magic lookup %.1f ns/slider, speedup %.1fx (%d)%n",
+                    round, (double) walkNanos / lookups, (double) tableNanos / lookups,
+                    (double) walkNanos / tableNanos, sink & 1);
+        }
+    }
+
+    private static ChessBoard playRandomMiddlegame(Random random){
+        ChessBoard chessBoard = new ChessBoard(0);
+        for (int ply = 0; ply < PLIES; ply++){
+            List<int[]> moves = new ArrayList<>();
+            for (int rank = 0; rank < 8; rank++){
+                for (int file = 0; file < 8; file++){
+                    ChessCell chessCell = chessBoard.getChessCell(rank, file);
+                    if (chessCell.getChessPiece() == null
+                            || chessCell.getChessPiece().getChessPieceColor() != chessBoard.getCurrentTurnsColor()) continue;
+                    for (int destinationRank = 0; destinationRank < 8; destinationRank++){
+                        for (int destinationFile = 0; destinationFile < 8; destinationFile++){
+                            if (chessCell.getMovableCells().contains(chessBoard.getChessCell(destinationRank, destinationFile))){
+                                moves.add(new int[]{rank, file, destinationRank, destinationFile});
+                            }
+                        }
+                    }
+                }
+            }
+            if (moves.isEmpty()) break;
+            int[] move = moves.get(random.nextInt(moves.size()));
+            chessBoard.moveChessPiece(move[0], move[1], move[2], move[3]);
+        }
+        return chessBoard;
+    }
+
+    private static long walkAllDirections(int square, long occupied){
+        long attacks = 0L;
+        for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+            for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                if (rankDirection == 0 && fileDirection == 0) continue;
+                for (int distance = 1; ; distance++){
+                    int rank = square / 8 + rankDirection * distance;
+                    int file = square % 8 + fileDirection * distance;
+                    if (rank < 0 || rank >= 8 || file < 0 || file >= 8) break;
+                    if (obstacleExists(square, rank, file, rankDirection, fileDirection, occupied)) break;
+                    attacks |= 1L << (rank * 8 + file);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean obstacleExists(int square, int destinationRank, int destinationFile,
+                                          int rankDirection, int fileDirection, long occupied){
+        int rank = square / 8 + rankDirection;
+        int file = square % 8 + fileDirection;
+        while (rank != destinationRank || file != destinationFile){
+            if ((occupied & (1L << (rank * 8 + file))) != 0) return true;
+            rank += rankDirection;
+            file += fileDirection;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SlidingAttacksTest {
+
+    @Test
+    public void traditionalChessBoardTest(){
+        checkAgainstRayWalk(8, 8);
+    }
+
+    @Test
+    public void smallCustomChessBoardTest(){
+        checkAgainstRayWalk(6, 7);
+        checkAgainstRayWalk(1, 5);
+    }
+
+    @Test
+    public void unsupportedChessBoardTest(){
+        assertNull(SlidingAttacks.get(9, 9));
+        assertNull(SlidingAttacks.get(4, 16));
+    }
+
+    private void checkAgainstRayWalk(int rankSize, int fileSize){
+        SlidingAttacks slidingAttacks = SlidingAttacks.get(rankSize, fileSize);
+        assertNotNull(slidingAttacks);
+        Random random = new Random(rankSize * 31 + fileSize);
+        long boardMask = rankSize * fileSize == 64 ? -1L : (1L << (rankSize * fileSize)) - 1;
+
+        for (int i = 0; i < 2000; i++){
+            long occupied = random.nextLong() & random.nextLong() & boardMask;
+            for (int square = 0; square < rankSize * fileSize; square++){
+                for (int rankDirection = -1; rankDirection <= 1; rankDirection++){
+                    for (int fileDirection = -1; fileDirection <= 1; fileDirection++){
+                        if (rankDirection == 0 && fileDirection == 0) continue;
+                        assertEquals(slidingAttacks.slide(square, rankDirection, fileDirection, occupied),
+                                slidingAttacks.attacks(square, rankDirection, fileDirection, occupied));
+                    }
+                }
+            }
+        }
+    }
+}
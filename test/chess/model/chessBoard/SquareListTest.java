@@ -0,0 +1,67 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class SquareListTest {
+
+    @Test
+    public void addAndRemoveTest(){
+        SquareList squareList = new SquareList(64);
+        squareList.add(3);
+        squareList.add(60);
+        squareList.add(3);
+        assertEquals(2, squareList.size());
+
+        squareList.remove(3);
+        assertFalse(squareList.contains(3));
+        assertTrue(squareList.contains(60));
+        assertArrayEquals(new int[]{60}, squareList.toArray());
+
+        squareList.remove(3);
+        assertEquals(1, squareList.size());
+    }
+
+    @Test
+    public void clearTest(){
+        for (SquareList squareList : new SquareList[]{new SquareList(64), new SquareList()}){
+            squareList.add(5);
+            squareList.add(40);
+            squareList.clear();
+            assertEquals(0, squareList.size());
+            assertFalse(squareList.contains(5));
+            assertFalse(squareList.contains(40));
+
+            squareList.add(40);
+            assertArrayEquals(new int[]{40}, squareList.toArray());
+        }
+    }
+
+    @Test
+    public void againstTreeSetTest(){
+        Random random = new Random(7);
+        SquareList squareList = new SquareList(256);
+        TreeSet<Integer> squares = new TreeSet<>();
+        for (int i = 0; i < 10000; i++){
+            int square = random.nextInt(256);
+            if (random.nextBoolean()){
+                squareList.add(square);
+                squares.add(square);
+            } else {
+                squareList.remove(square);
+                squares.remove(square);
+            }
+            assertEquals(squares.contains(square), squareList.contains(square));
+            assertEquals(squares.size(), squareList.size());
+        }
+        TreeSet<Integer> listed = new TreeSet<>();
+        for (int position = 0; position < squareList.size(); position++){
+            listed.add(squareList.get(position));
+        }
+        assertEquals(squares, listed);
+    }
+}
@@ -0,0 +1,43 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SquareMapTest {
+
+    @Test
+    public void sameAsHashMapTest(){
+        Random random = new Random(9);
+        SquareMap<Integer> squareMap = new SquareMap<>();
+        HashMap<Integer, Integer> hashMap = new HashMap<>();
+        for (int change = 0; change < 20000; change++){
+            int square = random.nextInt(1000) * 4096 + random.nextInt(4);
+            if (random.nextInt(3) == 0){
+                squareMap.remove(square);
+                hashMap.remove(square);
+            } else {
+                squareMap.put(square, change);
+                hashMap.put(square, change);
+            }
+            assertEquals(hashMap.size(), squareMap.size());
+        }
+        for (int square = 0; square < 1000 * 4096; square++){
+            assertEquals(hashMap.get(square), squareMap.get(square));
+        }
+    }
+
+    @Test
+    public void nullRemovesTest(){
+        SquareMap<String> squareMap = new SquareMap<>();
+        squareMap.put(42, "Rook");
+        squareMap.put(0, "King");
+        squareMap.put(42, null);
+        assertNull(squareMap.get(42));
+        assertEquals("King", squareMap.get(0));
+        assertEquals(1, squareMap.size());
+    }
+}
@@ -0,0 +1,54 @@
+package chess.model.chessBoard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SquareTrieTest {
+
+    @Test
+    public void sameAsHashMapTest(){
+        for (long squareCount : new long[]{1, 64, 1000, 4096L * 4096}){
+            Random random = new Random(squareCount);
+            SquareTrie<Integer> squareTrie = SquareTrie.empty(squareCount);
+            HashMap<Integer, Integer> hashMap = new HashMap<>();
+            for (int change = 0; change < 5000; change++){
+                int square = (int) (random.nextDouble() * squareCount);
+                Integer value = random.nextInt(3) == 0 ? null : change;
+                squareTrie = squareTrie.with(square, value);
+                hashMap.put(square, value);
+            }
+            for (int square : hashMap.keySet()){
+                assertEquals(hashMap.get(square), squareTrie.get(square));
+            }
+            assertEquals(hashMap.get((int) squareCount - 1), squareTrie.get((int) squareCount - 1));
+        }
+    }
+
+    @Test
+    public void earlierVersionsTest(){
+        Random random = new Random(3);
+        List<SquareTrie<Integer>> versions = new ArrayList<>();
+        List<HashMap<Integer, Integer>> contents = new ArrayList<>();
+        SquareTrie<Integer> squareTrie = SquareTrie.empty(4096);
+        HashMap<Integer, Integer> hashMap = new HashMap<>();
+        for (int change = 0; change < 300; change++){
+            int square = random.nextInt(4096);
+            squareTrie = squareTrie.with(square, change);
+            hashMap.put(square, change);
+            versions.add(squareTrie);
+            contents.add(new HashMap<>(hashMap));
+        }
+        //Setting a value never changes a SquareTrie that is already there
+        for (int version = 0; version < versions.size(); version++){
+            for (int square = 0; square < 4096; square++){
+                assertEquals(contents.get(version).get(square), versions.get(version).get(square));
+            }
+        }
+    }
+}
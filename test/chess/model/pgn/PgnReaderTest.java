@@ -0,0 +1,72 @@
+package chess.model.pgn;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class PgnReaderTest {
+    private static final String PGN = "[Event \"First ] game\"]\n"
+            + "[FEN \"4k3/8/8/8/8/8/8/4K2R w - - 0 1\"]\n"
+            + "\n"
+            + "1. Rh8+ {a comment (with a parenthesis)} Kd7 2.Rh7+ (2. Rh6 Ke7 {nested} (2... Kc7)) Ke6 $1 1/2-1/2\n"
+            + "\n"
+            + "% an escaped line 1. e4\n"
+            + "[Event \"No result\"]\n"
+            + "1. e4 ; a comment to the end of the line\n"
+            + "e5\n"
+            + "[Event \"Third\"]\n"
+            + "1. d4 d5 *\n";
+
+    @Test
+    public void readGamesTest() throws IOException{
+        for (int bufferSize : new int[]{1, 7, 64, 4096}){
+            PgnReader pgnReader = createPgnReader(bufferSize);
+            PgnBatch batch = new PgnBatch();
+            assertTrue(pgnReader.read(batch, 100));
+            assertEquals(3, batch.getGameCount());
+
+            assertEquals(1, batch.getGameNumber(0));
+            assertEquals(0, batch.getGameOffset(0));
+            assertEquals("4k3/8/8/8/8/8/8/4K2R w - - 0 1", batch.getFen(0));
+            assertEquals(4, batch.getEndMove(0) - batch.getFirstMove(0));
+            assertEquals("Rh8+", batch.getSan(0));
+            assertEquals(PGN.indexOf("Rh8+"), batch.getMoveOffset(0));
+            assertEquals("Rh7+", batch.getSan(2));
+            assertEquals(PGN.indexOf("Rh7+"), batch.getMoveOffset(2));
+            assertEquals("Ke6", batch.getSan(3));
+
+            assertNull(batch.getFen(1));
+            assertEquals(PGN.indexOf("[Event \"No result"), batch.getGameOffset(1));
+            assertEquals(2, batch.getEndMove(1) - batch.getFirstMove(1));
+            assertEquals("e4", batch.getSan(batch.getFirstMove(1)));
+            assertEquals("e5", batch.getSan(batch.getFirstMove(1) + 1));
+            assertEquals(3, batch.getGameNumber(2));
+
+            assertFalse(pgnReader.read(batch, 100));
+        }
+    }
+
+    @Test
+    public void fullBatchTest() throws IOException{
+        PgnReader pgnReader = createPgnReader(5);
+        PgnBatch batch = new PgnBatch();
+        for (int gameNumber = 1; gameNumber <= 3; gameNumber++){
+            assertTrue(pgnReader.read(batch, 1));
+            assertEquals(1, batch.getGameCount());
+            assertEquals(gameNumber, batch.getGameNumber(0));
+        }
+        assertEquals("d4", batch.getSan(0));
+        assertEquals(PGN.lastIndexOf("d4"), batch.getMoveOffset(0));
+        assertFalse(pgnReader.read(batch, 1));
+    }
+
+    private static PgnReader createPgnReader(int bufferSize){
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(PGN.getBytes(StandardCharsets.ISO_8859_1))),
+                bufferSize);
+    }
+}
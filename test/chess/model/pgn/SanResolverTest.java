@@ -0,0 +1,59 @@
+package chess.model.pgn;
+
+import chess.model.chessBoard.ChessBoard;
+import chess.model.chessBoard.ExtendedFen;
+import chess.model.chessBoard.MoveBuffer;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SanResolverTest {
+
+    @Test
+    public void resolveTest(){
+        ChessBoard chessBoard = new ChessBoard(0);
+        MoveBuffer moveBuffer = new MoveBuffer();
+        int move = resolve(chessBoard, moveBuffer, "e4");
+        assertEquals(12, MoveBuffer.getFrom(move));
+        assertEquals(28, MoveBuffer.getTo(move));
+        move = resolve(chessBoard, moveBuffer, "Nf3!?");
+        assertEquals(6, MoveBuffer.getFrom(move));
+        assertEquals(SanResolver.ILLEGAL, resolve(chessBoard, moveBuffer, "e5"));
+        assertEquals(SanResolver.ILLEGAL, resolve(chessBoard, moveBuffer, "Ke2"));
+        assertEquals(SanResolver.ILLEGAL, resolve(chessBoard, moveBuffer, "a9"));
+        assertEquals(SanResolver.UNSUPPORTED, resolve(chessBoard, moveBuffer, "O-O"));
+        assertEquals(SanResolver.UNSUPPORTED, resolve(chessBoard, moveBuffer, "e8=Q"));
+        assertEquals(SanResolver.UNREADABLE, resolve(chessBoard, moveBuffer, "Zz"));
+        assertEquals(SanResolver.UNREADABLE, resolve(chessBoard, moveBuffer, "Ne2e4x"));
+    }
+
+    @Test
+    public void disambiguationTest(){
+        ChessBoard chessBoard = ExtendedFen.read("4k3/R7/8/8/8/4K3/8/R6R w");
+        MoveBuffer moveBuffer = new MoveBuffer();
+        assertEquals(SanResolver.AMBIGUOUS, resolve(chessBoard, moveBuffer, "Rd1"));
+        assertEquals(0, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "Rad1")));
+        assertEquals(0, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "Ra1d1")));
+        assertEquals(SanResolver.AMBIGUOUS, resolve(chessBoard, moveBuffer, "Ra4"));
+        assertEquals(48, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "R7a4")));
+
+        chessBoard = ExtendedFen.read("4k3/8/8/3p4/8/2N1N3/8/4K3 w");
+        assertEquals(SanResolver.AMBIGUOUS, resolve(chessBoard, moveBuffer, "Nxd5"));
+        assertEquals(18, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "Ncxd5")));
+    }
+
+    @Test
+    public void customChessPiecesTest(){
+        ChessBoard chessBoard = new ChessBoard(2);
+        MoveBuffer moveBuffer = new MoveBuffer();
+        assertEquals(9, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "Yb3")));
+        assertEquals(14, MoveBuffer.getFrom(resolve(chessBoard, moveBuffer, "Tg3")));
+    }
+
+    private static int resolve(ChessBoard chessBoard, MoveBuffer moveBuffer, String san){
+        byte[] bytes = ("  " + san).getBytes(StandardCharsets.ISO_8859_1);
+        return SanResolver.resolve(chessBoard, moveBuffer, bytes, 2, san.length());
+    }
+}